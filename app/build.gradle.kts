@@ -27,6 +27,18 @@ android {
         versionName = "1.0.0"
 
         testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+
+        // Roomのスキーマ出力先（マイグレーションテストで使用）
+        javaCompileOptions {
+            annotationProcessorOptions {
+                arguments["room.schemaLocation"] = "$projectDir/schemas"
+            }
+        }
+    }
+
+    // マイグレーションテスト（MigrationTestHelper）がスキーマをassetsから読み込む
+    sourceSets {
+        getByName("androidTest").assets.srcDir("$projectDir/schemas")
     }
 
     buildTypes {
@@ -43,6 +55,11 @@ android {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+
+    // ローカル単体テスト：android.*（Log/SystemClock等）は既定値を返すスタブで動かす
+    testOptions {
+        unitTests.isReturnDefaultValues = true
+    }
 }
 
 // ============================================================
@@ -80,8 +97,13 @@ dependencies {
     // JUnit5
     testImplementation("org.junit.jupiter:junit-jupiter:5.11.4")
 
+    // 単体テスト用：ASMXの代替サーバ／XmlPullParser実装（端末ではOS組み込みを使用）
+    testImplementation("com.squareup.okhttp3:mockwebserver:4.12.0")
+    testImplementation("net.sf.kxml:kxml2:2.3.0")
+
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
+    androidTestImplementation("androidx.room:room-testing:2.6.1")
 }
 
 // ============================================================
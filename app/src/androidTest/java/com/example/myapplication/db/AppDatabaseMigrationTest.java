@@ -0,0 +1,178 @@
+package com.example.myapplication.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.room.testing.MigrationTestHelper;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+
+
+//================================================================================
+//　処理概要　:　AppDatabaseのマイグレーション（v9→最新）を実DBで検証する
+//　　　　　　　 v9のスキーマは出力されていないため、当時のDDLでDBを作成してから移行する
+//================================================================================
+@RunWith(AndroidJUnit4.class)
+public class AppDatabaseMigrationTest {
+
+    private static final String TEST_DB = "migration-test.sqlite";
+
+    // v9時点のテーブル定義（assets/databases/reset_schema.sql と同じ）
+    private static final String[] V9_DDL = {
+            "CREATE TABLE M_SYSTEM (RENBAN INTEGER NOT NULL, WEB_SVC_URL TEXT, " +
+                    "DEFAULT_CONTAINER_JYURYO INTEGER, DEFAULT_DUNNAGE_JYURYO INTEGER, " +
+                    "DATA_CONF_YMDHMS TEXT, DATA_RECV_YMDHMS TEXT, UPDATE_PROC_NAME TEXT, UPDATE_YMD TEXT, " +
+                    "RECV_SAGYOU_YMD TEXT, RECV_LAST_UPD_YMDHMS TEXT, PRIMARY KEY (RENBAN))",
+            "CREATE TABLE T_YOTEI (BOOKING_NO TEXT NOT NULL, SAGYOU_YOTEI_YMD TEXT, CONTAINER_COUNT INTEGER, " +
+                    "GOUKEI_BUNDLE INTEGER, GOUKEI_JYURYO INTEGER, KANRYO_CONTAINER INTEGER, " +
+                    "KANRYO_BUNDLE INTEGER, KANRYO_JYURYO INTEGER, LAST_UPD_YMDHMS TEXT, " +
+                    "INSERT_PROC_NAME TEXT, INSERT_YMD TEXT, UPDATE_PROC_NAME TEXT, UPDATE_YMD TEXT, " +
+                    "PRIMARY KEY (BOOKING_NO))",
+            "CREATE TABLE T_SYUKKA_CONTAINER (CONTAINER_ID INTEGER NOT NULL, SAGYOU_YOTEI_YMD TEXT, " +
+                    "CONTAINER_NO TEXT, CONTAINER_JYURYO INTEGER, DUNNAGE_JYURYO INTEGER, SEAL_NO TEXT, " +
+                    "DATA_SEND_YMDHMS TEXT, INSERT_PROC_NAME TEXT, INSERT_YMD TEXT, UPDATE_PROC_NAME TEXT, " +
+                    "UPDATE_YMD TEXT, PRIMARY KEY (CONTAINER_ID))",
+            "CREATE TABLE T_SYUKKA_MEISAI (HEAT_NO TEXT NOT NULL, SOKUBAN TEXT NOT NULL, " +
+                    "SYUKKA_SASHIZU_NO TEXT, BUNDLE_NO TEXT, JYURYO INTEGER, BOOKING_NO TEXT, " +
+                    "CONTAINER_ID INTEGER, INSERT_PROC_NAME TEXT, INSERT_YMD TEXT, UPDATE_PROC_NAME TEXT, " +
+                    "UPDATE_YMD TEXT, PRIMARY KEY (HEAT_NO, SOKUBAN))",
+            "CREATE TABLE W_SYUKKA_MEISAI (HEAT_NO TEXT NOT NULL, SOKUBAN TEXT NOT NULL, " +
+                    "INSERT_PROC_NAME TEXT, INSERT_YMD TEXT, PRIMARY KEY (HEAT_NO, SOKUBAN))",
+            "CREATE TABLE T_KAKUNIN_CONTAINER (CONTAINER_ID TEXT NOT NULL, CONTAINER_NO TEXT, " +
+                    "BUNDLE_CNT INTEGER, SAGYOU_YMD TEXT, CONTAINER_SYOUGO_KANRYO INTEGER, " +
+                    "DATA_SEND_YMDHMS TEXT, INSERT_PROC_NAME TEXT, INSERT_YMD TEXT, UPDATE_PROC_NAME TEXT, " +
+                    "UPDATE_YMD TEXT, PRIMARY KEY (CONTAINER_ID))",
+            "CREATE TABLE T_KAKUNIN_MEISAI (HEAT_NO TEXT NOT NULL, SOKUBAN TEXT NOT NULL, " +
+                    "SYUKKA_SASHIZU_NO TEXT, BUNDLE_NO TEXT, JYURYO INTEGER, CONTAINER_ID TEXT, " +
+                    "CONTAINER_SYOUGO_KAKUNIN INTEGER, INSERT_PROC_NAME TEXT, INSERT_YMD TEXT, " +
+                    "UPDATE_PROC_NAME TEXT, UPDATE_YMD TEXT, PRIMARY KEY (HEAT_NO, SOKUBAN))",
+            "CREATE TABLE W_KAKUNIN_MEISAI (HEAT_NO TEXT NOT NULL, SOKUBAN TEXT NOT NULL, " +
+                    "SYUKKA_SASHIZU_NO TEXT, BUNDLE_NO TEXT, JYURYO INTEGER, CONTAINER_ID TEXT, " +
+                    "CONTAINER_SYOUGO_KAKUNIN INTEGER, INSERT_PROC_NAME TEXT, INSERT_YMD TEXT, " +
+                    "UPDATE_PROC_NAME TEXT, UPDATE_YMD TEXT, PRIMARY KEY (HEAT_NO, SOKUBAN))",
+            "CREATE TABLE C_COMM_HISTORY (LOG_ID TEXT NOT NULL, START_YMDHMS TEXT, END_YMDHMS TEXT, " +
+                    "PROC_NAME TEXT, ARGUMENT TEXT, RETURN_VALUE TEXT, ERR_DESCRIPTION TEXT, " +
+                    "PRIMARY KEY (LOG_ID))"
+    };
+
+    @Rule
+    public MigrationTestHelper helper = new MigrationTestHelper(
+            InstrumentationRegistry.getInstrumentation(), AppDatabase.class);
+
+    private File dbFile;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        dbFile = context.getDatabasePath(TEST_DB);
+        deleteDbFiles();
+        dbFile.getParentFile().mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        deleteDbFiles();
+    }
+
+    @Test
+    public void migrate9To14MergesPaddedKeyCollisions() throws Exception {
+        try (SQLiteDatabase v9 = createV9()) {
+            // 出荷明細：紐づき済みの未正規化行と、未紐づきの正規化済み行が衝突
+            v9.execSQL("INSERT INTO T_SYUKKA_MEISAI (HEAT_NO, SOKUBAN, CONTAINER_ID) VALUES " +
+                    "('H1', '001', NULL), (' H1', '001', 7), " +
+                    "('H2', '002', 3), ('H2 ', '002', 9), " +
+                    "('H3 ', '003', NULL)");
+            // 照合明細：照合確認済みの未正規化行と、未確認の正規化済み行が衝突
+            v9.execSQL("INSERT INTO T_KAKUNIN_MEISAI (HEAT_NO, SOKUBAN, CONTAINER_ID, CONTAINER_SYOUGO_KAKUNIN) " +
+                    "VALUES ('K1', '001', NULL, 0), ('K1 ', '001', 'C1 ', 1)");
+            v9.execSQL("INSERT INTO W_KAKUNIN_MEISAI (HEAT_NO, SOKUBAN, CONTAINER_ID, CONTAINER_SYOUGO_KAKUNIN) " +
+                    "VALUES ('K2', '002', 'C2', 0), (' K2', '002', NULL, 1)");
+            // 照合コンテナ：照合完了・未送信の未正規化行と、送信済みの正規化済み行が衝突
+            v9.execSQL("INSERT INTO T_KAKUNIN_CONTAINER (CONTAINER_ID, CONTAINER_SYOUGO_KANRYO, DATA_SEND_YMDHMS) " +
+                    "VALUES ('C1', 1, '2026-10-01 10:00:00'), ('C1 ', 1, NULL), " +
+                    "('C2', 0, NULL), ('C2 ', 0, NULL)");
+        }
+
+        SupportSQLiteDatabase db = helper.runMigrationsAndValidate(TEST_DB, 14, true,
+                AppDatabase.MIGRATION_9_10, AppDatabase.MIGRATION_10_11, AppDatabase.MIGRATION_11_12,
+                AppDatabase.MIGRATION_12_13, AppDatabase.MIGRATION_13_14);
+
+        // 未紐づきの既存行は紐づきを引き継ぎ、紐づき済みの既存行はそのまま
+        assertEquals(3, count(db, "SELECT COUNT(*) FROM T_SYUKKA_MEISAI"));
+        assertEquals(7, count(db, "SELECT CONTAINER_ID FROM T_SYUKKA_MEISAI WHERE HEAT_NO = 'H1'"));
+        assertEquals(3, count(db, "SELECT CONTAINER_ID FROM T_SYUKKA_MEISAI WHERE HEAT_NO = 'H2'"));
+        assertEquals(1, count(db, "SELECT COUNT(*) FROM T_SYUKKA_MEISAI WHERE HEAT_NO = 'H3'"));
+
+        // 照合確認済み・コンテナIDを引き継ぐ（コンテナIDも前後空白除去）
+        assertEquals(1, count(db, "SELECT COUNT(*) FROM T_KAKUNIN_MEISAI " +
+                "WHERE HEAT_NO = 'K1' AND CONTAINER_ID = 'C1' AND CONTAINER_SYOUGO_KAKUNIN = 1"));
+        assertEquals(1, count(db, "SELECT COUNT(*) FROM W_KAKUNIN_MEISAI " +
+                "WHERE HEAT_NO = 'K2' AND CONTAINER_ID = 'C2' AND CONTAINER_SYOUGO_KAKUNIN = 1"));
+        assertEquals(1, count(db, "SELECT COUNT(*) FROM T_KAKUNIN_MEISAI"));
+        assertEquals(1, count(db, "SELECT COUNT(*) FROM W_KAKUNIN_MEISAI"));
+
+        // 未送信の照合完了は未送信として残る（再送対象）
+        assertEquals(2, count(db, "SELECT COUNT(*) FROM T_KAKUNIN_CONTAINER"));
+        try (Cursor c = db.query("SELECT CONTAINER_SYOUGO_KANRYO, DATA_SEND_YMDHMS " +
+                "FROM T_KAKUNIN_CONTAINER WHERE CONTAINER_ID = 'C1'")) {
+            assertTrue(c.moveToFirst());
+            assertEquals(1, c.getInt(0));
+            assertTrue(c.isNull(1));
+        }
+        assertEquals(0, count(db, "SELECT CONTAINER_SYOUGO_KANRYO FROM T_KAKUNIN_CONTAINER " +
+                "WHERE CONTAINER_ID = 'C2'"));
+
+        // 未正規化のキーは残らない
+        assertEquals(0, count(db, "SELECT COUNT(*) FROM T_SYUKKA_MEISAI " +
+                "WHERE HEAT_NO <> TRIM(HEAT_NO) OR SOKUBAN <> TRIM(SOKUBAN)"));
+    }
+
+    //============================================================
+    //　機　能　:　v9のテーブル定義で検証用DBを作成する
+    //　引　数　:　なし
+    //　戻り値　:　[SQLiteDatabase] ..... 作成したDB（呼び出し元でclose）
+    //============================================================
+    private SQLiteDatabase createV9() {
+        SQLiteDatabase db = SQLiteDatabase.openOrCreateDatabase(dbFile, null);
+        for (String ddl : V9_DDL) {
+            db.execSQL(ddl);
+        }
+        db.setVersion(9);
+        return db;
+    }
+
+    //============================================================
+    //　機　能　:　1行1列の数値結果を取得する
+    //　引　数　:　db ..... DB
+    //　　　　　:　sql ..... SQL
+    //　戻り値　:　[int] ..... 先頭行の値
+    //============================================================
+    private static int count(SupportSQLiteDatabase db, String sql) {
+        try (Cursor c = db.query(sql)) {
+            assertTrue(c.moveToFirst());
+            return c.getInt(0);
+        }
+    }
+
+    //============================================================
+    //　機　能　:　検証用DBファイル（ジャーナル含む）を削除する
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void deleteDbFiles() {
+        SQLiteDatabase.deleteDatabase(dbFile);
+    }
+}
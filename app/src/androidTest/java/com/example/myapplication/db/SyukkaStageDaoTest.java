@@ -0,0 +1,150 @@
+package com.example.myapplication.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import android.content.Context;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.myapplication.db.dao.SyukkaMeisaiDao;
+import com.example.myapplication.db.dao.SyukkaStageDao;
+import com.example.myapplication.db.dao.YoteiDao;
+import com.example.myapplication.db.entity.SyukkaMeisaiEntity;
+import com.example.myapplication.db.entity.SyukkaMeisaiStageEntity;
+import com.example.myapplication.db.entity.YoteiStageEntity;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+
+//================================================================================
+//　処理概要　:　出荷データの差分反映（先行受信テーブル経由のSQL）を実DBで検証する
+//　　　　　　　 受信時・先行受信データの反映時とも、DataSyncはこの順で実行する
+//================================================================================
+@RunWith(AndroidJUnit4.class)
+public class SyukkaStageDaoTest {
+
+    private AppDatabase db;
+    private SyukkaStageDao stageDao;
+    private SyukkaMeisaiDao meisaiDao;
+    private YoteiDao yoteiDao;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        db = Room.inMemoryDatabaseBuilder(context, AppDatabase.class)
+                .allowMainThreadQueries()
+                .build();
+        stageDao = db.syukkaStageDao();
+        meisaiDao = db.syukkaMeisaiDao();
+        yoteiDao = db.yoteiDao();
+    }
+
+    @After
+    public void tearDown() {
+        db.close();
+    }
+
+    @Test
+    public void receiveWritesOnlyChangedRows() {
+        // 初回受信：全行が新規
+        stage(new YoteiStageEntity[]{yotei("BK1", 2), yotei("BK2", 1)},
+                meisai("H1", "001", 1000, "BK1"),
+                meisai("H2", "002", 1100, "BK1"),
+                meisai("H3", "003", 1200, "BK2"));
+        assertEquals(0, apply());
+        assertNotNull(meisaiDao.findOne("H3", "003"));
+        assertNotNull(yoteiDao.findByBookingNo("BK2"));
+
+        // 端末側でコンテナへ紐づけ済み
+        db.getOpenHelper().getWritableDatabase().execSQL(
+                "UPDATE T_SYUKKA_MEISAI SET CONTAINER_ID = 5 WHERE HEAT_NO = 'H1' AND SOKUBAN = '001'");
+
+        // 同じ内容の再受信では既存行を書き込まない
+        stage(new YoteiStageEntity[]{yotei("BK1", 2), yotei("BK2", 1)},
+                meisai("H1", "001", 1000, "BK1"),
+                meisai("H2", "002", 1100, "BK1"),
+                meisai("H3", "003", 1200, "BK2"));
+        assertEquals(0, apply());
+
+        // 1行の重量変更と1行の追加のみ書き込む（紐づけは引き継ぐ）、無くなった予定は削除
+        stage(new YoteiStageEntity[]{yotei("BK1", 3)},
+                meisai("H1", "001", 1050, "BK1"),
+                meisai("H2", "002", 1100, "BK1"),
+                meisai("H4", "004", 1300, "BK1"));
+        assertEquals(1, apply());
+
+        SyukkaMeisaiEntity changed = meisaiDao.findOne("H1", "001");
+        assertEquals(Integer.valueOf(1050), changed.jyuryo);
+        assertEquals(Integer.valueOf(5), changed.containerId);
+        assertNull(meisaiDao.findOne("H4", "004").containerId);
+        assertEquals(Integer.valueOf(3), yoteiDao.findByBookingNo("BK1").containerCount);
+        assertNull(yoteiDao.findByBookingNo("BK2"));
+
+        // 受信データに無い明細は削除しない
+        assertNotNull(meisaiDao.findOne("H3", "003"));
+    }
+
+    //============================================================
+    //　機　能　:　先行受信テーブルを受信内容で置き換える
+    //　引　数　:　yotei ..... 受信した予定
+    //　　　　　:　meisai ..... 受信した明細
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void stage(YoteiStageEntity[] yotei, SyukkaMeisaiStageEntity... meisai) {
+        stageDao.deleteYoteiAll();
+        stageDao.deleteMeisaiAll();
+        stageDao.insertYoteiAll(Arrays.asList(yotei));
+        stageDao.insertMeisaiAll(Arrays.asList(meisai));
+    }
+
+    //============================================================
+    //　機　能　:　先行受信テーブルを業務テーブルへ差分反映する（DataSyncと同じ順序）
+    //　引　数　:　なし
+    //　戻り値　:　[int] ..... 更新した既存明細の件数
+    //============================================================
+    private int apply() {
+        int[] updated = new int[1];
+        db.runInTransaction(() -> {
+            stageDao.deleteYoteiNotStaged();
+            stageDao.applyYotei();
+            updated[0] = stageDao.applyMeisaiUpdate();
+            stageDao.applyMeisaiInsert();
+        });
+        return updated[0];
+    }
+
+    //============================================================
+    //　機　能　:　先行受信予定1件を生成する
+    //============================================================
+    private static YoteiStageEntity yotei(String bookingNo, int containerCount) {
+        YoteiStageEntity entity = new YoteiStageEntity();
+        entity.bookingNo = bookingNo;
+        entity.sagyouYoteiYmd = "2026-10-19 00:00:00";
+        entity.containerCount = containerCount;
+        return entity;
+    }
+
+    //============================================================
+    //　機　能　:　先行受信明細1件を生成する
+    //============================================================
+    private static SyukkaMeisaiStageEntity meisai(String heatNo, String sokuban, int jyuryo,
+                                                  String bookingNo) {
+        SyukkaMeisaiStageEntity entity = new SyukkaMeisaiStageEntity();
+        entity.heatNo = heatNo;
+        entity.sokuban = sokuban;
+        entity.syukkaSashizuNo = "S1";
+        entity.bundleNo = "B" + sokuban;
+        entity.jyuryo = jyuryo;
+        entity.bookingNo = bookingNo;
+        return entity;
+    }
+}
@@ -11,6 +11,10 @@ CREATE TABLE M_SYSTEM (
     DATA_RECV_YMDHMS TEXT,
     UPDATE_PROC_NAME TEXT,
     UPDATE_YMD TEXT,
+    RECV_SAGYOU_YMD TEXT,
+    RECV_LAST_UPD_YMDHMS TEXT,
+    STAGE_SAGYOU_YMD TEXT,
+    STAGE_LAST_UPD_YMDHMS TEXT,
     PRIMARY KEY (RENBAN)
 );
 
@@ -75,6 +79,8 @@ CREATE TABLE T_SYUKKA_MEISAI (
     UPDATE_YMD TEXT,
     PRIMARY KEY (HEAT_NO, SOKUBAN)
 );
+CREATE INDEX index_T_SYUKKA_MEISAI_BOOKING_NO ON T_SYUKKA_MEISAI (BOOKING_NO);
+CREATE INDEX index_T_SYUKKA_MEISAI_CONTAINER_ID ON T_SYUKKA_MEISAI (CONTAINER_ID);
 
 DROP TABLE IF EXISTS W_SYUKKA_MEISAI;
 CREATE TABLE W_SYUKKA_MEISAI (
@@ -115,6 +121,7 @@ CREATE TABLE T_KAKUNIN_MEISAI (
     UPDATE_YMD TEXT,
     PRIMARY KEY (HEAT_NO, SOKUBAN)
 );
+CREATE INDEX index_T_KAKUNIN_MEISAI_CONTAINER_ID ON T_KAKUNIN_MEISAI (CONTAINER_ID);
 
 DROP TABLE IF EXISTS W_KAKUNIN_MEISAI;
 CREATE TABLE W_KAKUNIN_MEISAI (
@@ -141,10 +148,95 @@ CREATE TABLE C_COMM_HISTORY (
     ARGUMENT TEXT,
     RETURN_VALUE TEXT,
     ERR_DESCRIPTION TEXT,
+    DURATION_MS INTEGER,
+    DNS_MS INTEGER,
+    CONNECT_MS INTEGER,
+    TLS_MS INTEGER,
+    TTFB_MS INTEGER,
+    TRANSFER_MS INTEGER,
+    REQUEST_BYTES INTEGER,
+    RESPONSE_BYTES INTEGER,
+    PARSE_MS INTEGER,
+    DB_APPLY_MS INTEGER,
+    RETRY_COUNT INTEGER,
     PRIMARY KEY (LOG_ID)
 );
 
-PRAGMA user_version = 8;
+DROP TABLE IF EXISTS T_SEND_QUEUE;
+CREATE TABLE T_SEND_QUEUE (
+    JOB_TYPE TEXT NOT NULL,
+    TARGET_ID TEXT NOT NULL,
+    RETRY_COUNT INTEGER,
+    NEXT_RUN_YMDHMS TEXT,
+    LAST_ERROR TEXT,
+    INSERT_PROC_NAME TEXT,
+    INSERT_YMD TEXT,
+    UPDATE_PROC_NAME TEXT,
+    UPDATE_YMD TEXT,
+    PRIMARY KEY (JOB_TYPE, TARGET_ID)
+);
+
+DROP TABLE IF EXISTS S_YOTEI;
+CREATE TABLE S_YOTEI (
+    BOOKING_NO TEXT NOT NULL,
+    SAGYOU_YOTEI_YMD TEXT,
+    CONTAINER_COUNT INTEGER,
+    GOUKEI_BUNDLE INTEGER,
+    GOUKEI_JYURYO INTEGER,
+    KANRYO_CONTAINER INTEGER,
+    KANRYO_BUNDLE INTEGER,
+    KANRYO_JYURYO INTEGER,
+    LAST_UPD_YMDHMS TEXT,
+    INSERT_PROC_NAME TEXT,
+    INSERT_YMD TEXT,
+    UPDATE_PROC_NAME TEXT,
+    UPDATE_YMD TEXT,
+    PRIMARY KEY (BOOKING_NO)
+);
+
+DROP TABLE IF EXISTS S_SYUKKA_MEISAI;
+CREATE TABLE S_SYUKKA_MEISAI (
+    HEAT_NO TEXT NOT NULL,
+    SOKUBAN TEXT NOT NULL,
+    SYUKKA_SASHIZU_NO TEXT,
+    BUNDLE_NO TEXT,
+    JYURYO INTEGER,
+    BOOKING_NO TEXT,
+    PRIMARY KEY (HEAT_NO, SOKUBAN)
+);
+
+DROP TABLE IF EXISTS S_KAKUNIN_CONTAINER;
+CREATE TABLE S_KAKUNIN_CONTAINER (
+    CONTAINER_ID TEXT NOT NULL,
+    CONTAINER_NO TEXT,
+    BUNDLE_CNT INTEGER,
+    SAGYOU_YMD TEXT,
+    CONTAINER_SYOUGO_KANRYO INTEGER,
+    DATA_SEND_YMDHMS TEXT,
+    INSERT_PROC_NAME TEXT,
+    INSERT_YMD TEXT,
+    UPDATE_PROC_NAME TEXT,
+    UPDATE_YMD TEXT,
+    PRIMARY KEY (CONTAINER_ID)
+);
+
+DROP TABLE IF EXISTS S_KAKUNIN_MEISAI;
+CREATE TABLE S_KAKUNIN_MEISAI (
+    HEAT_NO TEXT NOT NULL,
+    SOKUBAN TEXT NOT NULL,
+    SYUKKA_SASHIZU_NO TEXT,
+    BUNDLE_NO TEXT,
+    JYURYO INTEGER,
+    CONTAINER_ID TEXT,
+    CONTAINER_SYOUGO_KAKUNIN INTEGER,
+    INSERT_PROC_NAME TEXT,
+    INSERT_YMD TEXT,
+    UPDATE_PROC_NAME TEXT,
+    UPDATE_YMD TEXT,
+    PRIMARY KEY (HEAT_NO, SOKUBAN)
+);
+
+PRAGMA user_version = 14;
 
 COMMIT;
 PRAGMA foreign_keys = ON;
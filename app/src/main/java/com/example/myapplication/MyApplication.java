@@ -1,7 +1,11 @@
 package com.example.myapplication;
 
 import android.app.Application;
+import android.content.ComponentCallbacks2;
 
+import com.example.myapplication.connector.OutboundSendQueue;
+import com.example.myapplication.connector.SendImageProcessor;
+import com.example.myapplication.connector.SyncPrefetchJobService;
 import com.example.myapplication.log.FileLogger;
 
 
@@ -9,6 +13,7 @@ import com.example.myapplication.log.FileLogger;
 //　処理概要　:　アプリ全体の初期化と例外ログ設定を行うクラス
 //　関　　数　:　MyApplication ..... アプリケーションクラス
 //　　　　　　:　onCreate ..... アプリ起動時の初期化処理
+//　　　　　　:　onTrimMemory ..... メモリ逼迫時の解放処理
 //============================================================
 
 public class MyApplication extends Application {
@@ -28,15 +33,39 @@ public class MyApplication extends Application {
         FileLogger.info(this, "Application#onCreate", "app start");
 
         // 未捕捉例外ハンドラを設定（全スレッド共通）
-        Thread.setDefaultUncaughtExceptionHandler((thread, throwable) ->
-
-                // 例外発生時にログファイルへ出力
-                FileLogger.error(
-                        this,
-                        "UncaughtException",
-                        "thread=" + thread.getName(),
-                        throwable
-                )
-        );
+        Thread.setDefaultUncaughtExceptionHandler((thread, throwable) -> {
+
+            // 例外発生時にログファイルへ出力
+            FileLogger.error(
+                    this,
+                    "UncaughtException",
+                    "thread=" + thread.getName(),
+                    throwable
+            );
+
+            // ログは書き込みスレッドで出力されるため、プロセス終了前に出力完了を待つ
+            FileLogger.flush(this, 2000L);
+        });
+
+        // 送信待ち（前回起動時の未送信分を含む）のバックグラウンド送信を開始
+        OutboundSendQueue.getInstance(this).start();
+
+        // 充電中・未使用時の出荷データ先行受信を登録（登録済みなら何もしない）
+        SyncPrefetchJobService.schedule(this);
+    }
+
+    //========================================
+    //　機　能　:　メモリ逼迫時に再利用Bitmapを解放する
+    //　引　数　:　level ..... 逼迫レベル
+    //　戻り値　:　[void] ..... なし
+    //========================================
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+
+        // バックグラウンド移行・実行中の逼迫いずれでも画像変換用のBitmapを手放す
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            SendImageProcessor.clearPool();
+        }
     }
-}
\ No newline at end of file
+}
@@ -18,6 +18,7 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.myapplication.R;
@@ -1168,12 +1169,11 @@ public class BundleSelectActivity extends BaseActivity {
     //　処理概要　:　束一覧表示用アダプター
     //　　　　　　:　行表示と削除ボタン（tvDelete）クリックを扱う
     //============================================================
-    private static class BundleRowAdapter extends RecyclerView.Adapter<BundleRowAdapter.ViewHolder> {
+    private static class BundleRowAdapter extends ListAdapter<BundleSelectRow, BundleRowAdapter.ViewHolder> {
         interface DeleteHandler {
             void delete(int row);
         }
 
-        private final List<BundleSelectRow> rows = new ArrayList<>();
         private final DeleteHandler deleteHandler;
 
         //============================================================
@@ -1182,19 +1182,20 @@ public class BundleSelectActivity extends BaseActivity {
         //　戻り値　:　[BundleRowAdapter] ..... なし
         //============================================================
         BundleRowAdapter(DeleteHandler deleteHandler) {
+            super(BundleSelectRow.DIFF_CALLBACK);
             this.deleteHandler = deleteHandler;
         }
 
         //============================================================
         //　機　能　:　一覧データを更新して再描画する
+        //　　　　　　 差分はバックグラウンドで計算し、変更のあった行だけ再描画する
         //　引　数　:　newRows ..... 行データ
         //　戻り値　:　[void] ..... なし
         //============================================================
-        void submitList(List<BundleSelectRow> newRows) {
-            // 表示データを差し替えて再描画
-            rows.clear();
-            if (newRows != null) rows.addAll(newRows);
-            notifyDataSetChanged();
+        @Override
+        public void submitList(List<BundleSelectRow> newRows) {
+            // 呼び出し元のリストは以後も更新されるため、差分計算用に複製して渡す
+            super.submitList(newRows != null ? new ArrayList<>(newRows) : null);
         }
 
         //============================================================
@@ -1220,7 +1221,7 @@ public class BundleSelectActivity extends BaseActivity {
         @Override
         public void onBindViewHolder(ViewHolder holder, int position) {
             // 行データを取得して各ラベルへ反映
-            BundleSelectRow row = rows.get(position);
+            BundleSelectRow row = getItem(position);
             holder.tvPNo.setText(row.pNo);
             holder.tvBNo.setText(row.bNo);
             holder.tvIndex.setText(row.index);
@@ -1241,16 +1242,6 @@ public class BundleSelectActivity extends BaseActivity {
             });
         }
 
-        //============================================================
-        //　機　能　:　一覧の表示件数を取得する
-        //　引　数　:　なし
-        //　戻り値　:　[int] ..... 行数
-        //============================================================
-        @Override
-        public int getItemCount() {
-            return rows.size();
-        }
-
         static class ViewHolder extends RecyclerView.ViewHolder {
             final TextView tvPNo;
             final TextView tvBNo;
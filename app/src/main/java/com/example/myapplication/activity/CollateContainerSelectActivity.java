@@ -10,6 +10,7 @@ import android.widget.EditText;
 import android.widget.TextView;
 
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.myapplication.R;
@@ -395,22 +396,28 @@ public class CollateContainerSelectActivity extends BaseActivity {
     //============================================================
     //　処理概要　:　コンテナ一覧を表示するためのアダプター
     //============================================================
-    private static class CollateContainerAdapter extends RecyclerView.Adapter<CollateContainerAdapter.ViewHolder> {
+    private static class CollateContainerAdapter extends ListAdapter<CollateContainerSelectRow, CollateContainerAdapter.ViewHolder> {
+
+        //============================================================
+        //　機　能　:　アダプターの初期化処理
+        //　引　数　:　なし
+        //　戻り値　:　[CollateContainerAdapter] ..... なし
+        //============================================================
+        CollateContainerAdapter() {
+            super(CollateContainerSelectRow.DIFF_CALLBACK);
+        }
 
-        private final List<CollateContainerSelectRow> rows = new ArrayList<>();
 
         //============================================================
         //　機　能　:　一覧データを更新して再描画する
+        //　　　　　　 差分はバックグラウンドで計算し、変更のあった行だけ再描画する
         //　引　数　:　newRows ..... 行データ
         //　戻り値　:　[void] ..... なし
         //============================================================
-        void submitList(List<CollateContainerSelectRow> newRows) {
-            // データ入れ替え
-            rows.clear();
-            if (newRows != null) rows.addAll(newRows);
-
-            // 一括更新（簡易実装）
-            notifyDataSetChanged();
+        @Override
+        public void submitList(List<CollateContainerSelectRow> newRows) {
+            // 呼び出し元のリストは以後も更新されるため、差分計算用に複製して渡す
+            super.submitList(newRows != null ? new ArrayList<>(newRows) : null);
         }
 
         //============================================================
@@ -436,7 +443,7 @@ public class CollateContainerSelectActivity extends BaseActivity {
         @Override
         public void onBindViewHolder(ViewHolder holder, int position) {
             // 表示データ取得
-            CollateContainerSelectRow row = rows.get(position);
+            CollateContainerSelectRow row = getItem(position);
 
             // 各列へセット
             holder.tvIndex.setText(row.index);
@@ -445,16 +452,6 @@ public class CollateContainerSelectActivity extends BaseActivity {
             holder.tvSagyouYmd.setText(row.sagyouYmd);
         }
 
-        //============================================================
-        //　機　能　:　一覧の表示件数を取得する
-        //　引　数　:　なし
-        //　戻り値　:　[int] ..... 行数
-        //============================================================
-        @Override
-        public int getItemCount() {
-            return rows.size();
-        }
-
         //============================================================
         //　処理概要　:　一覧1行分の表示部品を保持するViewHolder
         //============================================================
@@ -0,0 +1,235 @@
+package com.example.myapplication.activity;
+
+import android.os.Build;
+import android.os.Bundle;
+import android.widget.TextView;
+
+import com.example.myapplication.R;
+import com.example.myapplication.db.AppDatabase;
+import com.example.myapplication.db.dao.CommHistoryDao;
+import com.example.myapplication.time.DateTimeFormatUtil;
+import com.google.android.material.button.MaterialButton;
+
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+//==================================================================================
+//　処理概要　:　通信計測集計画面（Activity）
+//　　　　　　　 通信履歴（C_COMM_HISTORY）の計測値を処理名・同期工程毎に集計して表示する
+//　関　　数　:　onCreate ................. 画面生成時の初期化（部品取得/初期表示）
+//　　　　　　:　onDestroy ................ スレッド停止/生存フラグOFF
+//　　　　　　:　setupBottomButtons ...... 下部ボタン設定
+//　　　　　　:　onFunctionYellow ........ 終了
+//　　　　　　:　onFunctionBlue .......... 集計期間の切替
+//　　　　　　:　loadSummary ............. 集計の読み込み（バックグラウンド）
+//　　　　　　:　buildSummaryText ........ 集計結果の表示文字列生成
+//　　　　　　:　formatMillis ............ ミリ秒値の表示整形
+//　　　　　　:　formatBytes ............. バイト数の表示整形
+//==================================================================================
+
+public class CommSummaryActivity extends BaseActivity {
+
+    private static final int[] PERIOD_DAYS = {1, 7, 30}; // 集計期間（日）の切替順
+
+    private TextView tvPeriod;   // 集計期間表示
+    private TextView tvSummary;  // 集計結果表示
+
+    private ExecutorService executor;  // DB読み込み用スレッド
+    private volatile boolean isAlive;  // 画面生存フラグ
+    private int periodIndex = 0;       // 集計期間の選択位置
+
+    //============================================================
+    //　機　能　:　画面生成時の初期化処理
+    //　引　数　:　savedInstanceState ..... 画面再生成時の保存状態
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+
+        // レイアウト設定
+        setContentView(R.layout.activity_comm_summary);
+
+        // 下部ボタン設定
+        setupBottomButtons();
+
+        // 画面部品の紐づけ
+        tvPeriod = findViewById(R.id.tvPeriod);
+        tvSummary = findViewById(R.id.tvSummary);
+
+        // DB読み込みスレッドを準備して初期表示
+        isAlive = true;
+        executor = Executors.newSingleThreadExecutor();
+        loadSummary();
+    }
+
+    //============================================================
+    //　機　能　:　画面終了時の処理
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    @Override
+    protected void onDestroy() {
+        // 非同期の戻りでUI更新しないようにする
+        isAlive = false;
+
+        if (executor != null) executor.shutdownNow();
+        super.onDestroy();
+    }
+
+    //============================================================
+    //　機　能　:　下部ボタンの表示内容を設定する
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void setupBottomButtons() {
+        MaterialButton yellow = findViewById(R.id.btnBottomYellow);
+        MaterialButton blue = findViewById(R.id.btnBottomBlue);
+        MaterialButton red = findViewById(R.id.btnBottomRed);
+        MaterialButton green = findViewById(R.id.btnBottomGreen);
+
+        if (yellow != null) {
+            yellow.setText("終了");
+        }
+        if (blue != null) {
+            blue.setText("期間");
+        }
+        if (red != null) {
+            red.setText("");
+        }
+        if (green != null) {
+            green.setText("");
+        }
+
+        refreshBottomButtonsEnabled();
+    }
+
+    //============================================================
+    //　機　能　:　黄ボタン押下時の処理を行う
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    @Override
+    protected void onFunctionYellow() {
+        // 終了
+        finish();
+    }
+
+    //============================================================
+    //　機　能　:　青ボタン押下時の処理を行う（集計期間を切り替えて再集計）
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    @Override
+    protected void onFunctionBlue() {
+        periodIndex = (periodIndex + 1) % PERIOD_DAYS.length;
+        loadSummary();
+    }
+
+    //============================================================
+    //　機　能　:　選択中の集計期間で通信履歴を集計して表示する
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void loadSummary() {
+        int days = PERIOD_DAYS[periodIndex];
+        if (tvPeriod != null) {
+            tvPeriod.setText(String.format(Locale.JAPAN, "端末：%s　期間：直近%d日", Build.MODEL, days));
+        }
+
+        // DBアクセスはバックグラウンドで行う
+        executor.execute(() -> {
+            Calendar cal = Calendar.getInstance();
+            cal.add(Calendar.DAY_OF_MONTH, -days);
+            String since = DateTimeFormatUtil.formatDbYmdHms(cal.getTime());
+
+            List<CommHistoryDao.ProcSummary> rows =
+                    AppDatabase.getInstance(this).commHistoryDao().summarizeSince(since);
+            String text = buildSummaryText(rows);
+
+            // UI反映はメインスレッドで行う
+            runOnUiThread(() -> {
+                if (!isAlive || isFinishing() || isDestroyed()) return;
+                if (tvSummary != null) {
+                    tvSummary.setText(text);
+                }
+            });
+        });
+    }
+
+    //============================================================
+    //　機　能　:　集計結果を表示用の文字列に整形する
+    //　引　数　:　rows ..... 処理名毎の集計結果
+    //　戻り値　:　[String] ..... 表示文字列
+    //============================================================
+    private String buildSummaryText(List<CommHistoryDao.ProcSummary> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return "計測データがありません";
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (CommHistoryDao.ProcSummary row : rows) {
+            sb.append("■ ").append(row.procName)
+                    .append(String.format(Locale.JAPAN, "（%d件 / エラー%d件 / 再試行%d回）",
+                            row.callCount, row.errorCount,
+                            row.retryCount == null ? 0 : row.retryCount))
+                    .append('\n');
+            sb.append("　所要 平均").append(formatMillis(row.avgDurationMs))
+                    .append(" 最大").append(formatMillis(
+                            row.maxDurationMs == null ? null : row.maxDurationMs.doubleValue()))
+                    .append('\n');
+
+            // 通信呼び出しの内訳（同期工程は通信項目がNULL）
+            if (row.avgTtfbMs != null) {
+                sb.append("　DNS").append(formatMillis(row.avgDnsMs))
+                        .append(" 接続").append(formatMillis(row.avgConnectMs))
+                        .append(" TLS").append(formatMillis(row.avgTlsMs))
+                        .append('\n');
+                sb.append("　応答待ち").append(formatMillis(row.avgTtfbMs))
+                        .append(" 受信").append(formatMillis(row.avgTransferMs))
+                        .append(" 解析").append(formatMillis(row.avgParseMs))
+                        .append('\n');
+                sb.append("　送信").append(formatBytes(row.avgRequestBytes))
+                        .append(" 受信").append(formatBytes(row.avgResponseBytes))
+                        .append('\n');
+            }
+            if (row.avgDbApplyMs != null) {
+                sb.append("　DB反映").append(formatMillis(row.avgDbApplyMs)).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    //============================================================
+    //　機　能　:　ミリ秒値を表示用に整形する
+    //　引　数　:　millis ..... ミリ秒（nullは未計測）
+    //　戻り値　:　[String] ..... 表示文字列
+    //============================================================
+    private static String formatMillis(Double millis) {
+        if (millis == null) {
+            return "-";
+        }
+        return String.format(Locale.JAPAN, "%,.0fms", millis);
+    }
+
+    //============================================================
+    //　機　能　:　バイト数を表示用に整形する
+    //　引　数　:　bytes ..... バイト数（nullは未計測）
+    //　戻り値　:　[String] ..... 表示文字列
+    //============================================================
+    private static String formatBytes(Double bytes) {
+        if (bytes == null) {
+            return "-";
+        }
+        if (bytes >= 1024 * 1024) {
+            return String.format(Locale.JAPAN, "%.1fMB", bytes / (1024 * 1024));
+        }
+        if (bytes >= 1024) {
+            return String.format(Locale.JAPAN, "%.1fKB", bytes / 1024);
+        }
+        return String.format(Locale.JAPAN, "%.0fB", bytes);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.myapplication.activity;
 
 import android.content.Context;
+import android.content.Intent;
 import android.graphics.Color;
 import android.net.ConnectivityManager;
 import android.net.Network;
@@ -19,7 +20,7 @@ import com.google.android.material.button.MaterialButton;
 //　　　　　　:　bindViews ............... 画面部品のバインド
 //　　　　　　:　setupActionButtons ...... 画面内ボタン（疎通テスト）イベント設定
 //　　　　　　:　onFunctionYellow ........ 終了
-//　　　　　　:　onFunctionBlue .......... 何もしない（最小画面）
+//　　　　　　:　onFunctionBlue .......... 通信計測集計画面へ遷移
 //　　　　　　:　testConnection .......... 疎通テスト（インターネット到達性の確認）
 //　　　　　　:　updateInternetStatus .... インターネット接続状態表示更新
 //　　　　　　:　updateNetworkStatus ..... 回線状態表示更新（モバイル/Wi-Fi/アクティブ回線）
@@ -88,12 +89,12 @@ public class CommTestActivity extends BaseActivity {
         MaterialButton red = findViewById(R.id.btnBottomRed);
         MaterialButton green = findViewById(R.id.btnBottomGreen);
 
-        // 文言設定（最小画面：終了のみ）
+        // 文言設定（終了／通信計測の集計）
         if (yellow != null) {
             yellow.setText("終了");
         }
         if (blue != null) {
-            blue.setText("");
+            blue.setText("集計");
         }
         if (red != null) {
             red.setText("");
@@ -150,7 +151,8 @@ public class CommTestActivity extends BaseActivity {
     //============================================================
     @Override
     protected void onFunctionBlue() {
-        // 最小画面では保存処理なし
+        // 通信計測集計画面へ
+        startActivity(new Intent(this, CommSummaryActivity.class));
     }
 
     //============================================================
@@ -30,7 +30,9 @@ import androidx.core.content.ContextCompat;
 
 import com.example.myapplication.R;
 import com.example.myapplication.connector.DataSync;
+import com.example.myapplication.connector.OutboundSendQueue;
 import com.example.myapplication.db.AppDatabase;
+import com.example.myapplication.db.SyukkaMeisaiCache;
 import com.example.myapplication.db.dao.SyukkaMeisaiWorkDao;
 import com.example.myapplication.db.entity.SystemEntity;
 import com.example.myapplication.db.entity.SyukkaContainerEntity;
@@ -76,9 +78,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 //　　　　　　:　needsSealPhotoConfirm .......... シール写真未撮影確認要否
 //　　　　　　:　hasImage ....................... 画像有無判定
 //　　　　　　:　procRegister ................... DB登録＋画像保存＋送信
-//　　　　　　:　showCompleteFlow ............... 完了/エラーフロー表示
 //　　　　　　:　showCompleteInfoAndFinish ...... 完了メッセージ後終了
-//　　　　　　:　buildSendFailedMessage ......... 送信失敗メッセージ生成
 //　　　　　　:　registerDb ..................... DB登録（Transaction）
 //　　　　　　:　buildContainerNo ............... コンテナNo生成（チェックデジット付）
 //　　　　　　:　resolveContainerSize ........... コンテナサイズ取得
@@ -1069,34 +1069,23 @@ public class ContainerInputActivity extends BaseActivity {
         // ローディング表示
         showLoadingShort();
 
-        // DB登録/画像保存/送信はバックグラウンドで実行
+        // DB登録/画像保存/送信待ち登録はバックグラウンドで実行
         io.execute(() -> {
             try {
-                // 1) DB登録（コンテナID採番含む）
+                // 1) DB登録（コンテナID採番・送信待ち登録含む）
                 int containerId = registerDb();
 
                 // 2) 画像ファイル保存（撮影済みの場合のみ）
                 saveImageFile(containerId, DataSync.ImageType.CONTAINER, containerPhotoUri);
                 saveImageFile(containerId, DataSync.ImageType.SEAL, sealPhotoUri);
 
-                // 3) 送信処理（出荷のみ送信）
-                DataSync sync = new DataSync(getApplicationContext());
-                boolean sent = sync.sendSyukkaOnly();
-                String errorMessage = sync.getLastErrorMessage();
+                // 3) 送信を要求（送信はバックグラウンドで行い、失敗時は再試行）
+                OutboundSendQueue.getInstance(getApplicationContext()).requestDrain();
 
-                // 4) UIへ結果反映
+                // 4) UIへ結果反映（登録完了：完了メッセージ→終了）
                 runOnUiThread(() -> {
                     hideLoadingShort();
-
-                    if (!sent) {
-                        // 送信失敗：詳細メッセージを組み立てて表示
-                        String msg = buildSendFailedMessage(errorMessage);
-                        showCompleteFlow(msg);
-                        return;
-                    }
-
-                    // 送信成功：完了メッセージ→終了
-                    showCompleteFlow(null);
+                    showCompleteInfoAndFinish();
                 });
             } catch (Exception ex) {
                 // 想定外例外は共通エラー処理へ
@@ -1105,33 +1094,6 @@ public class ContainerInputActivity extends BaseActivity {
         });
     }
 
-    /**
-     * 完了フロー表示（送信失敗時はエラーダイアログ→OK後に完了表示へ誘導）。
-     */
-    private void showCompleteFlow(@Nullable String sendErrorMessage) {
-        if (TextUtils.isEmpty(sendErrorMessage)) {
-            // エラーなし：完了表示して終了
-            showCompleteInfoAndFinish();
-            return;
-        }
-
-        // エラーあり：ブザー/バイブ→エラー表示
-        HandyUtil.playErrorBuzzer(this);
-        HandyUtil.playVibrater(this);
-
-        new AlertDialog.Builder(this)
-                .setTitle("エラー")
-                .setMessage(sendErrorMessage)
-                .setCancelable(false)
-                .setPositiveButton("OK", (d1, w1) -> {
-                    d1.dismiss();
-
-                    // ダイアログを閉じた後、完了表示へ（UIスレッドで実行）
-                    getWindow().getDecorView().post(this::showCompleteInfoAndFinish);
-                })
-                .show();
-    }
-
     /**
      * 完了メッセージ表示→OKで画面終了。
      */
@@ -1151,25 +1113,6 @@ public class ContainerInputActivity extends BaseActivity {
                 .show();
     }
 
-    /**
-     * 送信失敗時の表示メッセージを整形する。
-     * detailが空/同一文の場合はベース文のみ返す。
-     */
-    private String buildSendFailedMessage(@Nullable String detail) {
-        final String base = "出荷データの更新に失敗しました";
-
-        if (TextUtils.isEmpty(detail)) {
-            return base;
-        }
-
-        String trimmed = detail.trim();
-        if (base.equals(trimmed)) {
-            return base;
-        }
-
-        return base + "\n" + trimmed;
-    }
-
     //============================================================
     //　機　能　:　DBへ登録する
     //　引　数　:　なし
@@ -1216,8 +1159,14 @@ public class ContainerInputActivity extends BaseActivity {
 
             // 6) 作業中明細をクリア（登録済みとして扱う）
             db.syukkaMeisaiWorkDao().deleteAll();
+
+            // 7) 送信待ちへ登録（登録と同時に確定させ、送信漏れを防ぐ）
+            OutboundSendQueue.getInstance(getApplicationContext()).enqueueSyukka(containerId);
         });
 
+        // コンテナIDを付与したため、束選択用の明細キャッシュを破棄
+        SyukkaMeisaiCache.invalidate();
+
         return newId.get();
     }
 
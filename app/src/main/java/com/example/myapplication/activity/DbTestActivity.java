@@ -476,6 +476,11 @@ public class DbTestActivity extends BaseActivity {
         //　戻り値　:　[void] ..... なし
         //============================================================
         void setTable(List<String> cols, List<List<String>> data) {
+            // 差分更新の判定用に変更前の状態を保持
+            boolean sameColumns = currentColumns.equals(cols);
+            List<Integer> oldWidths = new ArrayList<>(colWidthsPx);
+            List<List<String>> oldRows = new ArrayList<>(currentRows);
+
             // 既存データをクリアして差し替え
             currentColumns.clear();
             currentRows.clear();
@@ -485,8 +490,25 @@ public class DbTestActivity extends BaseActivity {
             // 列幅を再計算
             autoAdjustColumnWidths();
 
-            // 一括更新（DiffUtil未使用・デバッグ用途）
-            notifyDataSetChanged();
+            // 列構成・列幅が変わった場合は全行のセル数・幅が変わるため一括更新
+            if (!sameColumns || !oldWidths.equals(colWidthsPx)) {
+                notifyDataSetChanged();
+                return;
+            }
+
+            // 同じテーブルの再読込は行位置単位で比較し、変わった行だけ再描画
+            // （行番号を表示しているため、行の移動は扱わず位置で比較する）
+            int common = Math.min(oldRows.size(), currentRows.size());
+            for (int i = 0; i < common; i++) {
+                if (!oldRows.get(i).equals(currentRows.get(i))) {
+                    notifyItemChanged(i);
+                }
+            }
+            if (currentRows.size() > common) {
+                notifyItemRangeInserted(common, currentRows.size() - common);
+            } else if (oldRows.size() > common) {
+                notifyItemRangeRemoved(common, oldRows.size() - common);
+            }
         }
 
         /**
@@ -22,13 +22,12 @@ import com.example.myapplication.BuildConfig;
 import com.example.myapplication.R;
 import com.example.myapplication.connector.DataSync;
 import com.example.myapplication.db.AppDatabase;
+import com.example.myapplication.db.dao.YoteiDao;
 import com.example.myapplication.db.entity.SystemEntity;
-import com.example.myapplication.db.entity.YoteiEntity;
 import com.example.myapplication.settings.HandyUtil;
 import com.google.android.material.button.MaterialButton;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
@@ -64,7 +63,6 @@ import java.util.concurrent.atomic.AtomicBoolean;
 //　　　　　　:　runDataSync                   ..... データ送受信実処理
 //　　　　　　:　showSyncErrorAndWait          ..... 同期エラー表示/OK待ち
 //　　　　　　:　refreshInformation            ..... DB集計/画面表示更新
-//　　　　　　:　intOrZero                     ..... null→0変換
 //　　　　　　:　formatNumber                  ..... 数値表示整形
 //　　　　　　:　formatRemaining               ..... 残数表示整形
 //　　　　　　:　readStringMap                 ..... IntentからMap取得
@@ -764,38 +762,27 @@ public class MenuActivity extends BaseActivity {
 
             // --- 未送信データの有無を確認 ---
             // 出荷側の未送信があれば優先して表示
-            boolean hasUnsentSyukka = !db.syukkaContainerDao().findUnsent().isEmpty();
+            boolean hasUnsentSyukka = db.syukkaContainerDao().existsUnsent();
 
             // 出荷側に未送信が無い場合のみ、確認（照合）側の未送信を確認
             boolean hasUnsentKakunin = false;
             if (!hasUnsentSyukka) {
-                hasUnsentKakunin = !db.kakuninContainerDao().findUnsentCompleted().isEmpty();
+                hasUnsentKakunin = db.kakuninContainerDao().existsUnsentCompleted();
             }
 
             // --- 作業中データの有無（Workテーブル） ---
-            boolean hasWork = !db.syukkaMeisaiWorkDao().findAll().isEmpty();
+            boolean hasWork = db.syukkaMeisaiWorkDao().existsAny();
 
-            // --- 予定テーブルを集計（計画/完了/合計） ---
-            List<YoteiEntity> yoteiRows = db.yoteiDao().findAll();
+            // --- 予定テーブルを集計（計画/完了/合計：SQLで集計） ---
+            YoteiDao.YoteiSummary summary = db.yoteiDao().getSummary();
 
-            long kanryoContainer = 0;
-            long kanryoBundole = 0;
-            long kanryoJyuryo = 0;
+            long kanryoContainer = summary.kanryoContainer;
+            long kanryoBundole = summary.kanryoBundle;
+            long kanryoJyuryo = summary.kanryoJyuryo;
 
-            long containerCount = 0;
-            long goukeiBundole = 0;
-            long goukeiJyuryo = 0;
-
-            // 行単位で足し上げ
-            for (YoteiEntity row : yoteiRows) {
-                kanryoContainer += intOrZero(row.kanryoContainer);
-                kanryoBundole += intOrZero(row.kanryoBundole);
-                kanryoJyuryo += intOrZero(row.kanryoJyuryo);
-
-                containerCount += intOrZero(row.containerCount);
-                goukeiBundole += intOrZero(row.goukeiBundole);
-                goukeiJyuryo += intOrZero(row.goukeiJyuryo);
-            }
+            long containerCount = summary.containerCount;
+            long goukeiBundole = summary.goukeiBundle;
+            long goukeiJyuryo = summary.goukeiJyuryo;
 
             // --- 重量はkgで保持されている想定のためt表示に変換 ---
             long kanryoJyuryoTon = kanryoJyuryo / 1000;
@@ -865,16 +852,6 @@ public class MenuActivity extends BaseActivity {
         });
     }
 
-    //============================================================
-    //　機　能　:　Null→0の処理
-    //　引　数　:　value ..... 設定値
-    //　戻り値　:　[long] ..... なし
-    //============================================================
-    private long intOrZero(Integer value) {
-        // DB列がNULLの場合を0として扱う
-        return value == null ? 0 : value;
-    }
-
     //============================================================
     //　機　能　:　数値文字列を整形する
     //　引　数　:　value ..... 設定値
@@ -35,10 +35,13 @@ import androidx.core.content.ContextCompat;
 import androidx.core.content.FileProvider;
 
 import com.example.myapplication.R;
+import com.example.myapplication.connector.SendImageProcessor;
 import com.example.myapplication.settings.AppSettings;
 import com.google.common.util.concurrent.ListenableFuture;
 
 import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 //======================================================================================
@@ -46,7 +49,7 @@ import java.util.concurrent.TimeUnit;
 //　　　　　　:　CameraXでプレビュー・撮影を行い、撮影後に確認/保存/破棄を行う。
 //　　　　　　:　権限未許可の場合はカメラ権限を要求し、許可後にカメラを開始する。
 //　関　　数　:　onCreate ............... 画面生成/初期化(権限確認/イベント設定/カメラ開始)
-//　　　　　　:　onDestroy .............. リソース解放(シャッター音)
+//　　　　　　:　onDestroy .............. リソース解放(シャッター音/画像変換スレッド)
 //　　　　　　:　onResume ............... 設定変更検知/カメラ再起動
 //　　　　　　:　startCamera ............ CameraX初期化/プレビュー開始/撮影設定反映（Interop使用）
 //　　　　　　:　restartCamera .......... カメラ再起動
@@ -56,6 +59,7 @@ import java.util.concurrent.TimeUnit;
 //　　　　　　:　mapAeMode .............. 設定値→AEモード変換
 //　　　　　　:　mapAwbMode ............. 設定値→AWBモード変換
 //　　　　　　:　takePhoto .............. 撮影処理(一時ファイル作成/保存/プレビュー表示)
+//　　　　　　:　prepareUploadImage ..... 撮影画像を送信用画像へ変換(縮小/回転補正/圧縮)
 //　　　　　　:　onPreviewTouched ....... タッチAF(フォーカス/測光)
 //　　　　　　:　showFocusIndicator ..... フォーカス位置インジケータ表示
 //　　　　　　:　playShutterSound ....... シャッター音再生
@@ -117,6 +121,8 @@ public class PhotographingActivity extends BaseActivity {
     private int lastFlashMode;           // 最終フラッシュ設定
     private int lastLightMode;           // 最終露出補正設定
     private MediaActionSound shutterSound; // シャッター音
+    private ExecutorService imageWorker;  // 画像変換スレッド
+    private boolean imagePreparing;       // 画像変換中フラグ
 
     // カメラの実行時パーミッション（android.permission.CAMERA）をリクエストするためのLauncher。
     // Activity Result API を使用して、非同期で許可結果を受け取る。
@@ -189,6 +195,9 @@ public class PhotographingActivity extends BaseActivity {
         shutterSound = new MediaActionSound();
         shutterSound.load(MediaActionSound.SHUTTER_CLICK);
 
+        // 撮影画像の変換用スレッド
+        imageWorker = Executors.newSingleThreadExecutor();
+
         // 初期はレビュー非表示
         showCaptureReview(false);
 
@@ -202,7 +211,7 @@ public class PhotographingActivity extends BaseActivity {
     }
 
     //============================================================
-    //　機　能　:　リソース解放(シャッター音)
+    //　機　能　:　リソース解放(シャッター音/画像変換スレッド)
     //　引　数　:　なし
     //　戻り値　:　[void] ..... なし
     //============================================================
@@ -213,6 +222,10 @@ public class PhotographingActivity extends BaseActivity {
             shutterSound.release();
             shutterSound = null;
         }
+        if (imageWorker != null) {
+            imageWorker.shutdown();
+            imageWorker = null;
+        }
     }
 
     //============================================================
@@ -476,6 +489,9 @@ public class PhotographingActivity extends BaseActivity {
 
                         // レビュー表示に切替
                         showCaptureReview(true);
+
+                        // 送信用画像への変換をバックグラウンドで開始
+                        prepareUploadImage(file);
                     }
 
                     //============================================================
@@ -492,6 +508,57 @@ public class PhotographingActivity extends BaseActivity {
         );
     }
 
+    //============================================================
+    //　機　能　:　撮影画像を送信用画像へ変換する（縮小/回転補正/圧縮）
+    //　　　　　　 送信時に画像変換を行わないよう、撮影直後に上書きしておく
+    //　引　数　:　file ..... 撮影画像ファイル
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void prepareUploadImage(File file) {
+        if (imageWorker == null) {
+            return;
+        }
+
+        // 変換完了まで保存不可
+        imagePreparing = true;
+        if (btnSave != null) {
+            btnSave.setEnabled(false);
+        }
+
+        imageWorker.execute(() -> {
+            boolean prepared = SendImageProcessor.prepareUploadImage(file, file);
+            // 撮影は1枚ずつのため再利用Bitmapを保持し続けない
+            SendImageProcessor.clearPool();
+
+            runOnUiThread(() -> {
+                // 変換中に破棄/再撮影された場合は結果を反映しない
+                if (file != pendingPhotoFile) {
+                    if (file.exists() && !file.delete()) {
+                        Log.w(TAG, "discarded photo delete failed: " + file.getAbsolutePath());
+                    }
+                    return;
+                }
+
+                imagePreparing = false;
+                if (btnSave != null) {
+                    btnSave.setEnabled(true);
+                }
+
+                // 変換失敗時は元画像のまま（送信時に変換される）
+                if (!prepared) {
+                    Log.w(TAG, "photo prepare failed: " + file.getAbsolutePath());
+                    return;
+                }
+
+                // 回転補正後の画像で再表示（同一URIのため一度クリア）
+                if (capturedPreview != null && pendingPhotoUri != null) {
+                    capturedPreview.setImageDrawable(null);
+                    capturedPreview.setImageURI(pendingPhotoUri);
+                }
+            });
+        });
+    }
+
     //============================================================
     //　機　能　:　タッチAF(フォーカス/測光)
     //　引　数　:　v ..... ビュー
@@ -575,6 +642,12 @@ public class PhotographingActivity extends BaseActivity {
             return;
         }
 
+        // 送信用画像へ変換中は保存しない
+        if (imagePreparing) {
+            setStatus("PREPARING");
+            return;
+        }
+
         // 呼び出し元へURIを返却
         Intent result = new Intent();
         result.putExtra(EXTRA_RESULT_URI, pendingPhotoUri.toString());
@@ -598,6 +671,10 @@ public class PhotographingActivity extends BaseActivity {
         // 状態をクリア
         pendingPhotoFile = null;
         pendingPhotoUri = null;
+        imagePreparing = false;
+        if (btnSave != null) {
+            btnSave.setEnabled(true);
+        }
 
         // 画像表示をクリア
         if (capturedPreview != null) {
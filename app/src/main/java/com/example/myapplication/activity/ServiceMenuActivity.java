@@ -11,9 +11,11 @@ import android.widget.TextView;
 import androidx.appcompat.app.AlertDialog;
 
 import com.example.myapplication.R;
+import com.example.myapplication.connector.MaintenanceUploader;
 import com.example.myapplication.connector.SvcHandyRepository;
 import com.example.myapplication.connector.SvcHandyWrapper;
 import com.example.myapplication.db.AppDatabase;
+import com.example.myapplication.db.SyukkaMeisaiCache;
 import com.example.myapplication.db.dao.KakuninContainerDao;
 import com.example.myapplication.db.dao.KakuninMeisaiDao;
 import com.example.myapplication.db.dao.KakuninMeisaiWorkDao;
@@ -23,13 +25,12 @@ import com.example.myapplication.db.dao.SyukkaMeisaiDao;
 import com.example.myapplication.db.dao.SyukkaMeisaiWorkDao;
 import com.example.myapplication.db.dao.YoteiDao;
 import com.example.myapplication.db.entity.SystemEntity;
+import com.example.myapplication.grid.VanningCollationController;
 import com.example.myapplication.log.FileLogger;
 import com.example.myapplication.time.DateTimeFormatUtil;
 import com.google.android.material.button.MaterialButton;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
@@ -54,7 +55,6 @@ import java.util.concurrent.atomic.AtomicBoolean;
 //　　　　　　:　clearData                ..... 端末内データの削除
 //　　　　　　:　sendMaintenanceData      ..... DB/ログの保守送信(アップロード)
 //　　　　　　:　resolveNetworkMessage    ..... 例外から通信エラーメッセージ生成
-//　　　　　　:　readFileBytes            ..... ファイル読み込み(byte配列)
 //　　　　　　:　confirmExit              ..... 終了確認
 //　　　　　　:　requestPasswordIfNeeded  ..... PW確認後に処理実行
 //　　　　　　:　showPasswordDialog       ..... PW入力ダイアログ表示
@@ -306,6 +306,9 @@ public class ServiceMenuActivity extends BaseActivity {
                             kakuninMeisaiWorkDao.deleteAll();
                             kakuninMeisaiDao.deleteAll();
                             kakuninContainerDao.deleteAll();
+                            db.sendQueueDao().deleteAll();
+                            db.syukkaStageDao().deleteYoteiAll();
+                            db.syukkaStageDao().deleteMeisaiAll();
 
                             // 同期情報を更新（履歴/監査用）
                             systemDao.updateDataSync(
@@ -315,8 +318,30 @@ public class ServiceMenuActivity extends BaseActivity {
                                     "ServiceMenu#clearData",
                                     DateTimeFormatUtil.nowDbYmdHms()
                             );
+
+                            // 差分受信の判定基準もクリア（次回同期で必ず全件受信させる）
+                            systemDao.updateRecvMark(
+                                    SYSTEM_RENBAN,
+                                    null,
+                                    null,
+                                    "ServiceMenu#clearData",
+                                    DateTimeFormatUtil.nowDbYmdHms()
+                            );
+                            systemDao.updateStageMark(
+                                    SYSTEM_RENBAN,
+                                    null,
+                                    null,
+                                    "ServiceMenu#clearData",
+                                    DateTimeFormatUtil.nowDbYmdHms()
+                            );
                         });
 
+                        // 明細を削除したため、束選択用の明細キャッシュを破棄
+                        SyukkaMeisaiCache.invalidate();
+
+                        // 照合途中のジャーナルも破棄（削除済みの明細を復元しない）
+                        new File(getFilesDir(), VanningCollationController.JOURNAL_FILE_NAME).delete();
+
                         // 完了表示はUIスレッドで
                         runOnUiThread(() -> showInfoMsg("削除しました", MsgDispMode.MsgBox));
                     });
@@ -346,19 +371,17 @@ public class ServiceMenuActivity extends BaseActivity {
                     return;
                 }
 
-                // DBファイルを読み込み＆アップロード
-                byte[] dbBytes = readFileBytes(dbFile);
-                if (!svc.uploadBinaryFile(dbFile.getName(), dbBytes)) {
+                // DBの複製を圧縮して分割アップロード（途中で失敗した場合は次回続きから送信）
+                MaintenanceUploader uploader = new MaintenanceUploader(this, svc);
+                if (!uploader.uploadDatabase()) {
                     FileLogger.error(this, "ServiceMenuActivity-LinkLabel_Click", "DBファイルのアップロードに失敗しました。", null);
                     runOnUiThread(() -> showErrorMsg("DBファイルのアップロードに失敗しました。", MsgDispMode.MsgBox));
                     return;
                 }
 
-                // ログファイルが存在する場合のみアップロード
-                File logFile = new File(getFilesDir(), "ErrorLog.txt");
-                if (logFile.exists()) {
-                    byte[] logBytes = readFileBytes(logFile);
-                    if (!svc.uploadBinaryFile(logFile.getName(), logBytes)) {
+                // ログは現在分を切り替えてgzip圧縮し、保持している世代をアップロード（送信済みは削除）
+                for (File logFile : FileLogger.rotateForUpload(this, 5000L)) {
+                    if (!uploader.uploadFile(logFile)) {
                         FileLogger.error(this, "ServiceMenuActivity-LinkLabel_Click", "ログファイルのアップロードに失敗しました。", null);
                         runOnUiThread(() -> showErrorMsg("ログファイルのアップロードに失敗しました。", MsgDispMode.MsgBox));
                         return;
@@ -423,28 +446,6 @@ public class ServiceMenuActivity extends BaseActivity {
         return ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage();
     }
 
-    //============================================================
-    //　機　能　:　ファイル読み込み(byte配列)
-    //　引　数　:　file ..... 対象ファイル
-    //　戻り値　:　[byte[]] ..... 読み込んだバイト配列
-    //============================================================
-    private byte[] readFileBytes(File file) throws IOException {
-        // サイズ分を一括で読み込む（途中で読めない場合は例外）
-        try (FileInputStream fis = new FileInputStream(file)) {
-            byte[] buffer = new byte[(int) file.length()];
-            int offset = 0;
-            int read;
-            while (offset < buffer.length
-                    && (read = fis.read(buffer, offset, buffer.length - offset)) != -1) {
-                offset += read;
-            }
-            if (offset != buffer.length) {
-                throw new IOException("ファイルの読み込みに失敗しました。");
-            }
-            return buffer;
-        }
-    }
-
     //============================================================
     //　機　能　:　終了確認を行う
     //　引　数　:　なし
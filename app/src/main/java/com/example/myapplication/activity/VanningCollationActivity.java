@@ -4,6 +4,7 @@ import android.content.Intent;
 import android.graphics.Rect;
 import android.os.Bundle;
 import android.text.TextUtils;
+import android.util.Log;
 import android.view.KeyEvent;
 import android.view.View;
 import android.widget.EditText;
@@ -12,10 +13,11 @@ import android.widget.TextView;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AlertDialog;
 import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.myapplication.R;
-import com.example.myapplication.connector.DataSync;
+import com.example.myapplication.connector.OutboundSendQueue;
 import com.example.myapplication.db.AppDatabase;
 import com.example.myapplication.grid.VanningCollationController;
 import com.example.myapplication.grid.VanningCollationRow;
@@ -24,11 +26,14 @@ import com.example.myapplication.scanner.OnScanListener;
 import com.example.myapplication.settings.HandyUtil;
 import com.google.android.material.button.MaterialButton;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 //================================================================================
 //　処理概要　:　積載束照合画面のActivity
@@ -45,17 +50,18 @@ import java.util.concurrent.Executors;
 //　　　　　　:　updateUiForContainers      ..... 照合対象有無に応じたUI制御
 //　　　　　　:　handleGenpinInput          ..... 現品番号入力処理(抽出/チェック/照合更新)
 //　　　　　　:　updateReadCount            ..... 読取(照合済)件数の表示更新
+//　　　　　　:　scheduleFlush              ..... 照合のWork反映を予約(一定時間後にまとめて反映)
+//　　　　　　:　flushCollation             ..... ジャーナル同期書き込み＋未反映の照合をWorkへ反映
 //　　　　　　:　onFunctionBlue             ..... (青)確定ボタン処理
 //　　　　　　:　onFunctionRed              ..... (赤)処理なし
 //　　　　　　:　onFunctionGreen            ..... (緑)処理なし
 //　　　　　　:　onFunctionYellow           ..... (黄)終了ボタン処理
 //　　　　　　:　procRegister               ..... 確定処理(完了チェック/DB更新/送信)
-//　　　　　　:　showRegisterCompleteFlow   ..... 送信結果に応じた完了フロー表示
 //　　　　　　:　showRegisterCompleteInfoAndFinish ..... 確定完了表示＆終了
 //　　　　　　:　checkSyougouKanryo         ..... 未照合件数のチェック
 //　　　　　　:　registerDb                 ..... DBトランザクション更新
 //　　　　　　:　onResume                   ..... スキャナ開始/プロファイル反映
-//　　　　　　:　onPause                    ..... スキャナ停止
+//　　　　　　:　onPause                    ..... スキャナ停止/未反映の照合を反映
 //　　　　　　:　onDestroy                  ..... リソース解放
 //　　　　　　:　dispatchKeyEvent           ..... キーイベント(スキャナ)委譲
 //　　　　　　:　safeStr                    ..... null安全文字列
@@ -70,6 +76,9 @@ public class VanningCollationActivity extends BaseActivity {
     public static final String EXTRA_BUNDLE_CNT = "extra_bundle_cnt";     // 束数受け渡しキー
     public static final String EXTRA_SAGYOU_YMD = "extra_sagyou_ymd";     // 作業日時受け渡しキー
 
+    private static final String TAG = "VanningCollation"; // ログタグ
+    private static final long FLUSH_DELAY_MS = 3000L;     // 照合からWork反映までの待ち時間
+
     private EditText etContainerNo;     // コンテナNo
     private EditText etBundleCount;     // 積載束数
     private EditText etSagyouYmd;       // 作業日時
@@ -81,7 +90,8 @@ public class VanningCollationActivity extends BaseActivity {
     private MaterialButton btnGreen;    // 下部緑ボタン
     private MaterialButton btnYellow;   // 下部黄ボタン
 
-    private ExecutorService io;                   // I/O処理スレッド
+    private ScheduledExecutorService io;          // I/O処理スレッド（照合のWork反映予約も同じスレッド）
+    private ScheduledFuture<?> flushTask;         // 予約中のWork反映（I/Oスレッドのみで参照）
     private VanningCollationController controller; // 画面制御ロジック
     private VanningCollationAdapter adapter;      // 一覧アダプター
 
@@ -103,7 +113,7 @@ public class VanningCollationActivity extends BaseActivity {
         setContentView(R.layout.activity_vanning_collation);
 
         // DB/IO用の単一スレッドを生成
-        io = Executors.newSingleThreadExecutor();
+        io = Executors.newSingleThreadScheduledExecutor();
 
         // 画面部品の取得
         bindViews();
@@ -279,7 +289,8 @@ public class VanningCollationActivity extends BaseActivity {
                 AppDatabase db = AppDatabase.getInstance(getApplicationContext());
 
                 // 照合制御クラスを生成し、対象コンテナの明細をロード
-                controller = new VanningCollationController(db.kakuninMeisaiDao(), db.kakuninMeisaiWorkDao());
+                controller = new VanningCollationController(db.kakuninMeisaiWorkDao(),
+                        new File(getFilesDir(), VanningCollationController.JOURNAL_FILE_NAME));
                 controller.load(containerId);
 
                 // UI更新はメインスレッドで実行
@@ -386,13 +397,16 @@ public class VanningCollationActivity extends BaseActivity {
                     return;
                 }
 
-                // 照合状態を更新
-                controller.updateSyougo(heatNo, sokuban);
+                // 照合状態を更新（該当行の表示行のみ差し替わる。Work反映は予約してまとめて行う）
+                if (controller.updateSyougo(heatNo, sokuban) >= 0) {
+                    scheduleFlush();
+                }
+                List<VanningCollationRow> rows = new ArrayList<>(controller.getDisplayRows());
 
-                // UIを更新
+                // UIを更新（差分計算により変更行のみ再描画）
                 runOnUiThread(() -> {
                     hideLoadingShort();
-                    adapter.submitList(controller.getDisplayRows());
+                    adapter.submitList(rows);
                     updateReadCount();
                     if (etGenpinNo != null) {
                         // 次の入力に備えてクリア
@@ -421,6 +435,34 @@ public class VanningCollationActivity extends BaseActivity {
         }
     }
 
+    //============================================================
+    //　機　能　:　照合のWork反映を予約する（予約済みなら何もしない）
+    //　　　　　　 I/Oスレッドから呼び出すこと
+    //　引　数　:　なし
+    //　戻り値　:　[void]
+    //============================================================
+    private void scheduleFlush() {
+        if (flushTask != null && !flushTask.isDone()) return;
+        flushTask = io.schedule(this::flushCollation, FLUSH_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    //============================================================
+    //　機　能　:　照合ジャーナルを同期書き込みし、未反映の照合をWorkへ反映する
+    //　　　　　　 失敗しても照合はジャーナルに残り、次回反映・確定時に再実行する
+    //　　　　　　 電源断で失われうる照合は、最後の反映からFLUSH_DELAY_MS以内のものに限られる
+    //　引　数　:　なし
+    //　戻り値　:　[void]
+    //============================================================
+    private void flushCollation() {
+        try {
+            if (controller == null) return;
+            controller.syncJournal();
+            controller.flushPending();
+        } catch (Exception ex) {
+            Log.w(TAG, "flushCollation failed", ex);
+        }
+    }
+
     //============================================================
     //　機　能　:　(青)確定ボタン処理
     //　引　数　:　なし
@@ -468,7 +510,17 @@ public class VanningCollationActivity extends BaseActivity {
         showQuestion("確定処理が行われていません。現在の内容は破棄されます。画面を終了してもよろしいですか？",
                 yes -> {
                     if (yes) {
-                        finish();
+                        // 照合途中の内容を破棄（次回は照合前の状態から開始）
+                        // 照合と同じスレッドで、実行中・待ち中の照合が終わってから破棄し、その後に終了する
+                        VanningCollationController target = controller;
+                        if (target != null && io != null && !io.isShutdown()) {
+                            io.execute(() -> {
+                                target.discardJournal();
+                                runOnUiThread(this::finish);
+                            });
+                        } else {
+                            finish();
+                        }
                     } else if (etGenpinNo != null) {
                         etGenpinNo.requestFocus();
                     }
@@ -494,20 +546,15 @@ public class VanningCollationActivity extends BaseActivity {
                     return;
                 }
 
-                // DBへ確定内容を反映
+                // DBへ確定内容を反映（送信待ち登録含む）
                 registerDb();
 
-                // 送信処理（照合のみ送信）
-                DataSync sync = new DataSync(getApplicationContext());
-                boolean sent = sync.sendSyougoOnly();
+                // 送信を要求（送信はバックグラウンドで行い、失敗時は再試行）
+                OutboundSendQueue.getInstance(getApplicationContext()).requestDrain();
 
                 runOnUiThread(() -> {
                     hideLoadingShort();
-                    if (!sent) {
-                        showRegisterCompleteFlow("照合データの更新に失敗しました");
-                        return;
-                    }
-                    showRegisterCompleteFlow(null);
+                    showRegisterCompleteInfoAndFinish();
                 });
             } catch (Exception ex) {
                 runOnUiThread(() -> {
@@ -518,32 +565,6 @@ public class VanningCollationActivity extends BaseActivity {
         });
     }
 
-    //============================================================
-    //　機　能　:　送信結果に応じた完了フロー表示
-    //　引　数　:　sendErrorMessage ..... 送信エラーメッセージ(null/空なら成功扱い)
-    //　戻り値　:　[void]
-    //============================================================
-    private void showRegisterCompleteFlow(@Nullable String sendErrorMessage) {
-        // 送信成功の場合は完了表示へ
-        if (TextUtils.isEmpty(sendErrorMessage)) {
-            showRegisterCompleteInfoAndFinish();
-            return;
-        }
-
-        // 送信失敗の場合はエラー表示後、完了表示へ遷移
-        HandyUtil.playErrorBuzzer(this);
-        HandyUtil.playVibrater(this);
-        new AlertDialog.Builder(this)
-                .setTitle("エラー")
-                .setMessage(sendErrorMessage)
-                .setCancelable(false)
-                .setPositiveButton("OK", (d1, w1) -> {
-                    d1.dismiss();
-                    getWindow().getDecorView().post(this::showRegisterCompleteInfoAndFinish);
-                })
-                .show();
-    }
-
     //============================================================
     //　機　能　:　確定完了表示＆終了
     //　引　数　:　なし
@@ -591,7 +612,17 @@ public class VanningCollationActivity extends BaseActivity {
     //============================================================
     private void registerDb() {
         AppDatabase db = AppDatabase.getInstance(getApplicationContext());
-        db.runInTransaction(() -> controller.markContainerCollated(db.kakuninContainerDao()));
+        db.runInTransaction(() -> {
+            // 未反映の照合とコンテナ照合完了を1回のコミットで反映
+            controller.flushPending();
+            controller.markContainerCollated(db.kakuninContainerDao());
+
+            // 送信待ちへ登録（確定と同時に確定させ、送信漏れを防ぐ）
+            OutboundSendQueue.getInstance(getApplicationContext()).enqueueSyougo(containerId);
+        });
+
+        // 確定済みのためジャーナルは不要
+        controller.discardJournal();
     }
 
     //============================================================
@@ -619,6 +650,11 @@ public class VanningCollationActivity extends BaseActivity {
     @Override
     protected void onPause() {
         if (scanner != null) scanner.onPause();
+
+        // 画面を離れる前に未反映の照合をWorkへ反映
+        if (controller != null && io != null && !io.isShutdown()) {
+            io.execute(this::flushCollation);
+        }
         super.onPause();
     }
 
@@ -636,6 +672,9 @@ public class VanningCollationActivity extends BaseActivity {
         // スレッド解放
         if (io != null) io.shutdownNow();
 
+        // ジャーナルを閉じる（未確定の照合は次回同じコンテナを開いた時に復元）
+        if (controller != null) controller.closeJournal();
+
         super.onDestroy();
     }
 
@@ -678,21 +717,27 @@ public class VanningCollationActivity extends BaseActivity {
     //　引　数　:　なし
     //　戻り値　:　[なし]
     //============================================================
-    private static class VanningCollationAdapter extends RecyclerView.Adapter<VanningCollationAdapter.ViewHolder> {
-        private final List<VanningCollationRow> rows = new ArrayList<>();
+    private static class VanningCollationAdapter extends ListAdapter<VanningCollationRow, VanningCollationAdapter.ViewHolder> {
 
         //============================================================
-        //　機　能　:　表示行リストの更新
-        //　引　数　:　newRows ..... 表示する行リスト
-        //　戻り値　:　[void]
+        //　機　能　:　アダプターの初期化処理
+        //　引　数　:　なし
+        //　戻り値　:　[VanningCollationAdapter] ..... なし
         //============================================================
-        void submitList(List<VanningCollationRow> newRows) {
-            // 既存行をクリアして差し替え
-            rows.clear();
-            if (newRows != null) rows.addAll(newRows);
+        VanningCollationAdapter() {
+            super(VanningCollationRow.DIFF_CALLBACK);
+        }
 
-            // 全件更新
-            notifyDataSetChanged();
+        //============================================================
+        //　機　能　:　一覧データを更新して再描画する
+        //　　　　　　 差分はバックグラウンドで計算し、変更のあった行だけ再描画する
+        //　引　数　:　newRows ..... 行データ
+        //　戻り値　:　[void] ..... なし
+        //============================================================
+        @Override
+        public void submitList(List<VanningCollationRow> newRows) {
+            // 呼び出し元のリストは以後も更新されるため、差分計算用に複製して渡す
+            super.submitList(newRows != null ? new ArrayList<>(newRows) : null);
         }
 
         //============================================================
@@ -716,7 +761,7 @@ public class VanningCollationActivity extends BaseActivity {
         //============================================================
         @Override
         public void onBindViewHolder(ViewHolder holder, int position) {
-            VanningCollationRow row = rows.get(position);
+            VanningCollationRow row = getItem(position);
 
             // 各項目を表示へ反映
             holder.tvPNo.setText(row.pNo);
@@ -726,16 +771,6 @@ public class VanningCollationActivity extends BaseActivity {
             holder.tvConfirmed.setText(row.confirmed);
         }
 
-        //============================================================
-        //　機　能　:　行数取得
-        //　引　数　:　なし
-        //　戻り値　:　[int] ..... 行数
-        //============================================================
-        @Override
-        public int getItemCount() {
-            return rows.size();
-        }
-
         static class ViewHolder extends RecyclerView.ViewHolder {
             final TextView tvPNo;
             final TextView tvBNo;
@@ -0,0 +1,253 @@
+package com.example.myapplication.connector;
+
+import android.os.SystemClock;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+
+//========================================================================================
+//　処理概要　:　1回の業務呼び出し（リトライ・再送を含む）の通信計測値を集計するクラス
+//　　　　　　　 SvcHandyWrapperが呼び出し毎に開始し（スレッド単位）、
+//　　　　　　　 OkHttpのEventListener・SoapAsmxClient・RetryPolicyが計測値を加算する
+//　関　　数　:　begin .................................... 計測開始（現在スレッドへ設定）
+//　　　　　　:　current .................................. 現在スレッドの計測値取得
+//　　　　　　:　end ...................................... 計測終了（現在スレッドから解除）
+//　　　　　　:　recordAttempt ............................ 試行回数の記録
+//　　　　　　:　markResponseRead ......................... レスポンス受信完了の記録（文字列受信）
+//　　　　　　:　markParsed ............................... 解析完了の記録（解析時間の加算）
+//　　　　　　:　addParseMillis ........................... 解析時間の加算（ストリーム解析）
+//　　　　　　:　getRetryCount ............................ 再試行回数取得
+//========================================================================================
+public final class CallMetrics {
+
+    // HTTP呼び出し毎の計測リスナー生成（リクエストに計測値が付いていない場合は計測しない）
+    static final EventListener.Factory LISTENER_FACTORY = call -> {
+        CallMetrics metrics = call.request().tag(CallMetrics.class);
+        return metrics != null ? new Listener(metrics) : EventListener.NONE;
+    };
+
+    // 現在スレッドで計測中の値
+    private static final ThreadLocal<CallMetrics> CURRENT = new ThreadLocal<>();
+
+    // 計測値（ミリ秒／バイト。リトライ・再送分は合算）
+    public long dnsMs;         // 名前解決
+    public long connectMs;     // TCP接続（TLSを除く）
+    public long tlsMs;         // TLSハンドシェイク
+    public long ttfbMs;        // 送信完了→レスポンスヘッダ受信開始
+    public long transferMs;    // レスポンスヘッダ受信完了→本文受信完了
+    public long requestBytes;  // 送信バイト数（圧縮後・ヘッダ除く）
+    public long responseBytes; // 受信バイト数（圧縮状態・ヘッダ除く）
+    public long parseMs;       // レスポンス解析
+    public int attempts;       // 試行回数
+
+    private long responseReadAt; // 文字列受信完了時刻（解析時間算出用、0なら未受信）
+
+    //============================================================
+    //　機　能　:　計測を開始し、現在スレッドへ設定する
+    //　引　数　:　なし
+    //　戻り値　:　[CallMetrics] ..... 計測値
+    //============================================================
+    public static CallMetrics begin() {
+        CallMetrics metrics = new CallMetrics();
+        CURRENT.set(metrics);
+        return metrics;
+    }
+
+    //============================================================
+    //　機　能　:　現在スレッドで計測中の値を取得する
+    //　引　数　:　なし
+    //　戻り値　:　[CallMetrics] ..... 計測値（計測していない場合はnull）
+    //============================================================
+    public static CallMetrics current() {
+        return CURRENT.get();
+    }
+
+    //============================================================
+    //　機　能　:　計測を終了し、現在スレッドから解除する
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    //============================================================
+    //　機　能　:　試行回数を記録する（RetryPolicyから呼び出す）
+    //　引　数　:　attempt ..... 試行回数（1以上）
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    synchronized void recordAttempt(int attempt) {
+        attempts = attempt;
+    }
+
+    //============================================================
+    //　機　能　:　レスポンス本文を文字列で受信し終えた時刻を記録する
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    synchronized void markResponseRead() {
+        responseReadAt = SystemClock.elapsedRealtime();
+    }
+
+    //============================================================
+    //　機　能　:　解析完了を記録する（文字列受信から現在までを解析時間として加算）
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    synchronized void markParsed() {
+        if (responseReadAt > 0L) {
+            parseMs += SystemClock.elapsedRealtime() - responseReadAt;
+            responseReadAt = 0L;
+        }
+    }
+
+    //============================================================
+    //　機　能　:　解析時間を加算する（ストリーム解析：受信と解析が重なるため読取時間全体）
+    //　引　数　:　millis ..... 解析時間（ミリ秒）
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    synchronized void addParseMillis(long millis) {
+        parseMs += millis;
+    }
+
+    //============================================================
+    //　機　能　:　再試行回数を取得する
+    //　引　数　:　なし
+    //　戻り値　:　[int] ..... 再試行回数（試行回数-1）
+    //============================================================
+    public synchronized int getRetryCount() {
+        return Math.max(0, attempts - 1);
+    }
+
+    //============================================================
+    //　処理概要　:　HTTP呼び出し1回分の区間時間を計測し、計測値へ加算するリスナー
+    //　　　　　　　 OkHttpは呼び出し毎にインスタンスを生成するため区間の開始時刻は個別に持つ
+    //============================================================
+    private static final class Listener extends EventListener {
+        private final CallMetrics metrics;
+
+        private long dnsStart;
+        private long connectStart;
+        private long secureConnectStart;
+        private long requestSentAt;
+        private long responseHeadersEndAt;
+
+        Listener(CallMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        private static long now() {
+            return SystemClock.elapsedRealtime();
+        }
+
+        @Override
+        public void dnsStart(Call call, String domainName) {
+            dnsStart = now();
+        }
+
+        @Override
+        public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+            long elapsed = now() - dnsStart;
+            synchronized (metrics) {
+                metrics.dnsMs += elapsed;
+            }
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            connectStart = now();
+            secureConnectStart = 0L;
+        }
+
+        @Override
+        public void secureConnectStart(Call call) {
+            secureConnectStart = now();
+            long elapsed = secureConnectStart - connectStart;
+            synchronized (metrics) {
+                metrics.connectMs += elapsed;
+            }
+        }
+
+        @Override
+        public void secureConnectEnd(Call call, Handshake handshake) {
+            long elapsed = now() - secureConnectStart;
+            synchronized (metrics) {
+                metrics.tlsMs += elapsed;
+            }
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy,
+                               Protocol protocol) {
+            // TLSなし（http）の場合のみここで接続時間を加算する
+            if (secureConnectStart == 0L) {
+                long elapsed = now() - connectStart;
+                synchronized (metrics) {
+                    metrics.connectMs += elapsed;
+                }
+            }
+        }
+
+        @Override
+        public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy,
+                                  Protocol protocol, IOException ioe) {
+            long elapsed = now() - (secureConnectStart != 0L ? secureConnectStart : connectStart);
+            synchronized (metrics) {
+                if (secureConnectStart != 0L) {
+                    metrics.tlsMs += elapsed;
+                } else {
+                    metrics.connectMs += elapsed;
+                }
+            }
+        }
+
+        @Override
+        public void requestHeadersEnd(Call call, Request request) {
+            requestSentAt = now();
+        }
+
+        @Override
+        public void requestBodyEnd(Call call, long byteCount) {
+            requestSentAt = now();
+            synchronized (metrics) {
+                metrics.requestBytes += byteCount;
+            }
+        }
+
+        @Override
+        public void responseHeadersStart(Call call) {
+            if (requestSentAt == 0L) {
+                return;
+            }
+            long elapsed = now() - requestSentAt;
+            synchronized (metrics) {
+                metrics.ttfbMs += elapsed;
+            }
+        }
+
+        @Override
+        public void responseHeadersEnd(Call call, Response response) {
+            responseHeadersEndAt = now();
+        }
+
+        @Override
+        public void responseBodyEnd(Call call, long byteCount) {
+            long elapsed = responseHeadersEndAt == 0L ? 0L : now() - responseHeadersEndAt;
+            synchronized (metrics) {
+                metrics.transferMs += elapsed;
+                metrics.responseBytes += byteCount;
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.myapplication.connector;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+//========================================================================================
+//　処理概要　:　接続先毎の通信遮断（サーキットブレーカー）を管理するクラス
+//　　　　　　　 通信障害が連続した接続先は一定時間呼び出さずに即失敗させ、
+//　　　　　　　 一定時間経過後は1回だけ試行して回復を確認する
+//　関　　数　:　forEndpoint .............................. 接続先毎のインスタンス取得
+//　　　　　　:　checkAllowed ............................. 呼び出し可否の確認（遮断中は例外）
+//　　　　　　:　recordSuccess ............................ 成功の記録（遮断解除）
+//　　　　　　:　recordFailure ............................ 通信障害の記録（連続回数で遮断）
+//　　　　　　:　recordAbort .............................. 応答を得ずに中断した呼び出しの記録
+//========================================================================================
+public final class CircuitBreaker {
+
+    private static final int FAILURE_THRESHOLD = 3;       // 遮断するまでの連続失敗回数
+    private static final long OPEN_MILLIS = 30 * 1000L;   // 遮断時間
+
+    // 接続先URL → ブレーカー
+    private static final ConcurrentHashMap<String, CircuitBreaker> BREAKERS = new ConcurrentHashMap<>();
+
+    //============================================================
+    //　機　能　:　遮断中の呼び出しを表す例外（リトライ対象外）
+    //============================================================
+    public static class OpenException extends IOException {
+        public OpenException(String message) {
+            super(message);
+        }
+    }
+
+    private int consecutiveFailures = 0; // 連続失敗回数
+    private long openUntil = 0L;         // 遮断終了時刻（0なら遮断なし）
+    private boolean trialRunning = false; // 遮断後の試行中フラグ
+
+    //============================================================
+    //　機　能　:　CircuitBreakerを初期化する
+    //　引　数　:　なし
+    //　戻り値　:　[CircuitBreaker] ..... なし
+    //============================================================
+    CircuitBreaker() {
+        // forEndpoint経由で生成する
+    }
+
+    //============================================================
+    //　機　能　:　接続先毎のCircuitBreakerを取得する（同一URLは同じインスタンス）
+    //　引　数　:　endpointUrl ..... 接続先URL
+    //　戻り値　:　[CircuitBreaker] ..... ブレーカー
+    //============================================================
+    public static CircuitBreaker forEndpoint(String endpointUrl) {
+        return BREAKERS.computeIfAbsent(String.valueOf(endpointUrl), key -> new CircuitBreaker());
+    }
+
+    //============================================================
+    //　機　能　:　呼び出し可否を確認する
+    //　　　　　　 遮断中は例外、遮断時間経過後は1呼び出しのみ試行を許可する
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    public synchronized void checkAllowed() throws OpenException {
+        if (openUntil == 0L) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (now < openUntil || trialRunning) {
+            throw new OpenException("通信障害が続いているため通信を中断しました");
+        }
+
+        // 遮断時間経過：試行を1回だけ許可
+        trialRunning = true;
+    }
+
+    //============================================================
+    //　機　能　:　呼び出し成功を記録する（遮断を解除）
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        openUntil = 0L;
+        trialRunning = false;
+    }
+
+    //============================================================
+    //　機　能　:　通信障害を記録する（連続回数が閾値に達したら遮断）
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+
+        // 試行中の失敗、または閾値到達で遮断（再度遮断時間を設定）
+        if (trialRunning || consecutiveFailures >= FAILURE_THRESHOLD) {
+            openUntil = System.currentTimeMillis() + OPEN_MILLIS;
+        }
+        trialRunning = false;
+    }
+
+    //============================================================
+    //　機　能　:　応答を得ずに中断した呼び出しを記録する（割り込み・端末側の例外）
+    //　　　　　　 接続先の状態は分からないため、連続失敗回数・遮断状態は変えず、
+    //　　　　　　 遮断後の試行中であれば次の呼び出しで再度試行できるようにする
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    public synchronized void recordAbort() {
+        trialRunning = false;
+    }
+}
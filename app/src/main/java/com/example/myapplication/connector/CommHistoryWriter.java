@@ -0,0 +1,207 @@
+package com.example.myapplication.connector;
+
+import android.util.Log;
+
+import com.example.myapplication.db.dao.CommHistoryDao;
+import com.example.myapplication.db.entity.CommHistoryEntity;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+//==================================================================================
+//　処理概要　:　通信履歴（C_COMM_HISTORY）をバックグラウンドでまとめて書き込むクラス
+//　　　　　　　 呼び出し側はメモリ上のリングバッファへ積むだけで終了し（DBアクセスなし）、
+//　　　　　　　 書き込みスレッドが一定間隔でまとめて1トランザクションで保存する
+//　関　　数　:　forDao ......................... DAO毎のインスタンス取得（共有）
+//　　　　　　:　enqueue ........................ 履歴の書き込み予約
+//　　　　　　:　requestFlush ................... 書き込みの要求（重複要求はまとめる）
+//　　　　　　:　flush .......................... 書き込み予約分の一括保存
+//　　　　　　:　assignLogId .................... ログID採番（yyyyMMdd + 6桁連番）
+//　　　　　　:　seedSequence ................... 当日連番の初期値取得（日付毎に1回）
+//==================================================================================
+public final class CommHistoryWriter {
+    private static final String TAG = "CommHistoryWriter"; // ログタグ
+
+    private static final int BUFFER_CAPACITY = 2048;   // リングバッファ容量（超過分は古い順に破棄）
+    private static final int FLUSH_BATCH_SIZE = 200;   // 1トランザクションの最大件数
+    private static final long FLUSH_DELAY_MILLIS = 1000L; // 書き込み予約から保存までの待ち時間
+    private static final int SEQUENCE_DIGITS = 6;      // ログID連番の桁数（1日999,999件まで）
+    private static final int MAX_SEEDED_DAYS = 3;      // 連番を保持する日付数（日付跨ぎ対応）
+
+    // DAO → 書き込みクラス
+    private static final ConcurrentHashMap<CommHistoryDao, CommHistoryWriter> WRITERS =
+            new ConcurrentHashMap<>();
+
+    // 書き込み予約（登録時刻とエンティティ）
+    private static final class Pending {
+        final long startMillis;           // 開始日時（ログIDの日付部）
+        final CommHistoryEntity entity;   // 保存内容（LOG_IDは保存時に採番）
+
+        Pending(long startMillis, CommHistoryEntity entity) {
+            this.startMillis = startMillis;
+            this.entity = entity;
+        }
+    }
+
+    private final CommHistoryDao commHistoryDao; // 通信履歴DAO
+
+    // 書き込みは1スレッドで順に実行する（採番とDB保存の順序を揃える）
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor();
+
+    // 書き込みの要求済みフラグ（実行前の重複要求をまとめる）
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+
+    private final ArrayDeque<Pending> buffer = new ArrayDeque<>(); // リングバッファ（排他はbuffer自身）
+    private long droppedCount = 0L;                                // 容量超過で破棄した件数
+
+    // 日付（yyyyMMdd）→ 当日の最終連番（workerスレッドでのみ更新）
+    private final Map<String, AtomicLong> sequences = new HashMap<>();
+
+    // ログID用日付（workerスレッドでのみ使用）
+    private final SimpleDateFormat logIdDateFormat = new SimpleDateFormat("yyyyMMdd", Locale.JAPAN);
+
+    //============================================================
+    //　機　能　:　CommHistoryWriterを初期化する
+    //　引　数　:　commHistoryDao ..... 通信履歴DAO
+    //　戻り値　:　[CommHistoryWriter] ..... なし
+    //============================================================
+    private CommHistoryWriter(CommHistoryDao commHistoryDao) {
+        this.commHistoryDao = commHistoryDao;
+    }
+
+    //============================================================
+    //　機　能　:　DAO毎のCommHistoryWriterを取得する（同一DAOは同じインスタンス）
+    //　引　数　:　commHistoryDao ..... 通信履歴DAO
+    //　戻り値　:　[CommHistoryWriter] ..... 書き込みクラス
+    //============================================================
+    public static CommHistoryWriter forDao(CommHistoryDao commHistoryDao) {
+        return WRITERS.computeIfAbsent(commHistoryDao, CommHistoryWriter::new);
+    }
+
+    //============================================================
+    //　機　能　:　履歴の書き込みを予約する（DBアクセスなし・即時復帰）
+    //　　　　　　 バッファが満杯の場合は最も古い予約を破棄する
+    //　引　数　:　startDate ..... 開始日時（ログIDの日付部）
+    //　　　　　:　entity ..... 保存内容（LOG_IDは未設定で良い）
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    public void enqueue(Date startDate, CommHistoryEntity entity) {
+        long startMillis = startDate == null ? System.currentTimeMillis() : startDate.getTime();
+
+        synchronized (buffer) {
+            if (buffer.size() >= BUFFER_CAPACITY) {
+                buffer.pollFirst();
+                droppedCount++;
+            }
+            buffer.addLast(new Pending(startMillis, entity));
+        }
+        requestFlush();
+    }
+
+    //============================================================
+    //　機　能　:　書き込みを要求する（実行前の重複要求は1回にまとめる）
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            worker.schedule(this::flush, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    //============================================================
+    //　機　能　:　書き込み予約分を一括で保存する（workerスレッド）
+    //　　　　　　 保存に失敗したバッチは破棄する（履歴のために業務処理を止めない）
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void flush() {
+        // 取り出し後に積まれた分は次回の要求で保存する
+        flushRequested.set(false);
+
+        while (true) {
+            List<Pending> batch = new ArrayList<>();
+            long dropped;
+            synchronized (buffer) {
+                while (batch.size() < FLUSH_BATCH_SIZE && !buffer.isEmpty()) {
+                    batch.add(buffer.pollFirst());
+                }
+                dropped = droppedCount;
+                droppedCount = 0L;
+            }
+            if (dropped > 0) {
+                Log.w(TAG, "history buffer overflow; dropped=" + dropped);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            try {
+                List<CommHistoryEntity> entities = new ArrayList<>(batch.size());
+                for (Pending pending : batch) {
+                    pending.entity.logId = assignLogId(pending.startMillis);
+                    entities.add(pending.entity);
+                }
+                commHistoryDao.upsertAll(entities);
+            } catch (Exception ex) {
+                Log.e(TAG, "history flush failed; count=" + batch.size(), ex);
+
+                // 採番状態が不明になるため、次回はDBから連番を取り直す
+                sequences.clear();
+            }
+        }
+    }
+
+    //============================================================
+    //　機　能　:　ログIDを採番する（yyyyMMdd + 6桁連番）
+    //　引　数　:　startMillis ..... 開始日時（エポックミリ秒）
+    //　戻り値　:　[String] ..... ログID
+    //============================================================
+    private String assignLogId(long startMillis) {
+        String ymdPrefix = logIdDateFormat.format(new Date(startMillis));
+
+        AtomicLong sequence = sequences.get(ymdPrefix);
+        if (sequence == null) {
+            // 日付が変わった：古い日付の連番は破棄し、当日分をDBから1回だけ取得
+            if (sequences.size() >= MAX_SEEDED_DAYS) {
+                sequences.clear();
+            }
+            sequence = new AtomicLong(seedSequence(ymdPrefix));
+            sequences.put(ymdPrefix, sequence);
+        }
+
+        return ymdPrefix + String.format(Locale.JAPAN, "%0" + SEQUENCE_DIGITS + "d",
+                sequence.incrementAndGet());
+    }
+
+    //============================================================
+    //　機　能　:　指定日付の最終連番をDBから取得する（採番の初期値）
+    //　　　　　　 旧形式（3桁連番）のIDも数値として引き継ぐ
+    //　引　数　:　ymdPrefix ..... 日付接頭辞（yyyyMMdd）
+    //　戻り値　:　[long] ..... 最終連番（該当なしは0）
+    //============================================================
+    private long seedSequence(String ymdPrefix) {
+        String maxLogId = commHistoryDao.findMaxLogIdByDatePrefix(ymdPrefix);
+        if (maxLogId == null || maxLogId.length() <= ymdPrefix.length()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(maxLogId.substring(ymdPrefix.length()));
+        } catch (NumberFormatException ignored) {
+            return 0L;
+        }
+    }
+}
@@ -1,27 +1,31 @@
 package com.example.myapplication.connector;
 
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-import android.graphics.Matrix;
-import android.media.ExifInterface;
 import android.os.Environment;
+import android.os.SystemClock;
 import android.util.Log;
 
 import com.example.myapplication.db.AppDatabase;
+import com.example.myapplication.db.SyukkaMeisaiCache;
 import com.example.myapplication.db.dao.CommHistoryDao;
 import com.example.myapplication.db.dao.KakuninContainerDao;
 import com.example.myapplication.db.dao.KakuninMeisaiDao;
+import com.example.myapplication.db.dao.KakuninStageDao;
 import com.example.myapplication.db.dao.SystemDao;
 import com.example.myapplication.db.dao.SyukkaContainerDao;
 import com.example.myapplication.db.dao.SyukkaMeisaiDao;
+import com.example.myapplication.db.dao.SyukkaStageDao;
 import com.example.myapplication.db.dao.YoteiDao;
 import com.example.myapplication.db.entity.KakuninContainerEntity;
+import com.example.myapplication.db.entity.KakuninContainerStageEntity;
 import com.example.myapplication.db.entity.KakuninMeisaiEntity;
+import com.example.myapplication.db.entity.KakuninMeisaiStageEntity;
 import com.example.myapplication.db.entity.SystemEntity;
 import com.example.myapplication.db.entity.SyukkaContainerEntity;
 import com.example.myapplication.db.entity.SyukkaMeisaiEntity;
+import com.example.myapplication.db.entity.SyukkaMeisaiStageEntity;
 import com.example.myapplication.db.entity.YoteiEntity;
+import com.example.myapplication.db.entity.YoteiStageEntity;
 import com.example.myapplication.model.BunningData;
 import com.example.myapplication.model.CollateData;
 import com.example.myapplication.model.CollateDtl;
@@ -34,72 +38,160 @@ import com.example.myapplication.model.SyukkaMeisai;
 import com.example.myapplication.time.DateTimeFormatUtil;
 import com.example.myapplication.time.XsdDateTime;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 
 //==================================================================================
 //　処理概要　:　送受信同期の全体制御（SOAP通信・DB反映・画像処理）を行うクラス
 //　関　　数　:　sendSyukkaOnly ................. 出荷データのみ送信
 //　　　　　　:　sendSyougoOnly ................. 照合データのみ送信
-//　　　　　　:　runSync ........................ 送受信を含む同期処理
+//　　　　　　:　sendSyukkaContainers ........... 指定コンテナの出荷データ送信
+//　　　　　　:　sendSyougoContainers ........... 指定コンテナの照合データ送信
+//　　　　　　:　runSync ........................ 送受信を含む同期処理（出荷系・照合系を並行）
+//　　　　　　:　getLastPhaseTimings ............ 同期処理の工程毎所要時間取得
+//　　　　　　:　savePhaseHistory ............... 同期処理の工程毎所要時間を通信履歴へ保存
+//　　　　　　:　reportSyncError ................ 同期処理中のエラー記録・通知
 //　　　　　　:　getLastErrorMessage ............ 最終エラーメッセージ取得
 //　　　　　　:　sagyouYotei .................... 作業予定日の取得
 //　　　　　　:　historyDel ..................... 通信履歴の削除
-//　　　　　　:　dataSousinAll .................. 未送信出荷データの一括送信
-//　　　　　　:　dataSousinOnce ................. 出荷データ（コンテナ単位）の送信
+//　　　　　　:　dataSousinAll .................. 未送信出荷データの一括送信（準備と通信を並行）
+//　　　　　　:　prepareSyukkaData .............. 出荷データ（コンテナ単位）の送信準備
+//　　　　　　:　sendPrepared ................... 準備済み出荷データ（コンテナ単位）の送信
+//　　　　　　:　shutdownAndAwait ............... スレッドプールの終了と完了待ち（割り込まない）
+//　　　　　　:　getLastSendResults ............. 直近の出荷データ送信結果取得
+//　　　　　　:　setSendConcurrency ............. 出荷データ送信の同時通信数設定
 //　　　　　　:　dataSousinSyougo ............... 未送信照合データの一括送信
 //　　　　　　:　dataSousinSyougoOnce ........... 照合データ（コンテナ単位）の送信
 //　　　　　　:　dataUpdate ..................... データ確認日時の更新
-//　　　　　　:　receiveSyukkaData .............. 出荷データの受信・DB反映
-//　　　　　　:　receiveSyougoData .............. 照合データの受信・DB反映
+//　　　　　　:　receiveSyukkaData .............. 出荷データの受信・DB反映（差分受信）
+//　　　　　　:　decideSyukkaReceive ............ 出荷データの受信方法（省略／先行受信反映／受信）判定
+//　　　　　　:　isSameRecvMark ................. 前回受信時の作業日・更新日時との一致判定
+//　　　　　　:　isSameStageMark ................ 先行受信時の作業日・更新日時との一致判定
+//　　　　　　:　markSyukkaReceived ............. 出荷データ受信日時・差分判定基準の更新
+//　　　　　　:　prefetchSyukkaData ............. 出荷データの先行受信（待機中に実行）
+//　　　　　　:　applyStagedSyukkaData .......... 先行受信データのDB反映
+//　　　　　　:　discardStagedSyukkaData ........ 先行受信データの破棄
+//　　　　　　:　stageSyukkaData ................ 受信した出荷データの先行受信テーブルへの格納
+//　　　　　　:　applySyukkaStage ............... 先行受信テーブルから業務テーブルへの差分反映
+//　　　　　　:　toYoteiStage ................... 受信ヘッダの先行受信テーブル形式への変換
+//　　　　　　:　toMeisaiStage .................. 受信明細の先行受信テーブル形式への変換
+//　　　　　　:　receiveSyougoData .............. 照合データの受信・DB反映（受信中テーブル経由の入れ替え）
+//　　　　　　:　insertInBatches ................ 行の分割登録
 //　　　　　　:　getPicture ..................... 画像ファイル取得（送信用）
-//　　　　　　:　downscaleJpegIfNeeded .......... 画像の縮小・回転補正・圧縮
-//　　　　　　:　readExifRotation ............... Exifから回転角度取得
-//　　　　　　:　rotateBitmapIfNeeded ........... 必要に応じてBitmap回転
-//　　　　　　:　compressBitmap ................. JPEG圧縮（容量制限対応）
 //　　　　　　:　deletePicture .................. 画像ファイル削除
+//　　　　　　:　deleteSendImage ................ 送信用画像ファイル削除
 //　　　　　　:　getImageFile ................... 画像ファイルパス生成
+//　　　　　　:　getSendImageFile ............... 送信用画像ファイルパス生成
 //　　　　　　:　resolveImageDir ................ 画像保存ディレクトリ解決
 //　　　　　　:　formatDbDate ................... DB用日時文字列へ整形
 //　　　　　　:　parseDbDate .................... DB用日時文字列の解析
 //　　　　　　:　parseDbDateOrMin ............... 日時解析（失敗時は最小値）
 //　　　　　　:　intOrZero ...................... null安全なint変換
+//　　　　　　:　meisaiKey ...................... 明細キー（鋼番＋束番）生成
+//　　　　　　:　normalizeDbKey ................. DB登録用キー正規化（前後空白除去）
 //　　　　　　:　normalizeSendKey ............... 送信キー用の正規化（空白/制御文字除去）
 //　　　　　　:　buildSendFailedMessage ......... 送信失敗メッセージ組み立て
 //　　　　　　:　safeMessage .................... 例外メッセージ安全取得
 //　　　　　　:　reportError .................... エラー通知（ログ/コールバック）
+//　　　　　　:　reportErrorLocked .............. エラー通知（排他取得済み）
 //==================================================================================
 public class DataSync {
     private static final String TAG = "DataSync"; // ログタグ
     private static final int SYSTEM_RENBAN = 1;    // システム連番
+    private static final int SEND_PREPARE_THREADS = 2;     // 送信準備（データ組み立て等）のスレッド数
+    private static final int DEFAULT_SEND_CONCURRENCY = 2; // 出荷データ送信の同時通信数（既定）
+    private static final int SYNC_CHAIN_THREADS = 2;       // 同期処理の並行実行数（出荷系／照合系）
+    private static final int STAGE_BATCH_SIZE = 500;       // 受信中テーブルへの1回の登録件数
+    private static final long POOL_TERMINATION_WAIT_SEC = 5L; // スレッドプール終了待ちの確認間隔（秒）
+
+    // 同期処理の工程名（工程毎の所要時間のキー）
+    public static final String PHASE_SAGYOU_YOTEI = "sagyouYotei";
+    public static final String PHASE_SYUKKA_SEND = "dataSousinAll";
+    public static final String PHASE_SYUKKA_RECEIVE = "receiveSyukkaData";
+    public static final String PHASE_DATA_UPDATE = "dataUpdate";
+    public static final String PHASE_SYOUGO_SEND = "dataSousinSyougo";
+    public static final String PHASE_SYOUGO_RECEIVE = "receiveSyougoData";
+
+    // 送信処理の排他用（送信待ちの送信と同期処理の送信で同じコンテナを二重送信しない）
+    private static final Object SYUKKA_SEND_LOCK = new Object(); // 出荷データ送信の排他用
+    private static final Object SYOUGO_SEND_LOCK = new Object(); // 照合データ送信の排他用
 
     public interface ErrorHandler {
         void onError(String message);
     }
 
+    //============================================================
+    //　処理概要　:　出荷データ送信結果（コンテナ単位）
+    //============================================================
+    public static final class SendResult {
+        public final Integer containerId;  // コンテナID
+        public final String containerNo;   // コンテナNo.
+        public final boolean success;      // 送信成否
+        public final String message;       // 失敗理由（成功時はnull）
+
+        //============================================================
+        //　機　能　:　SendResultを初期化する
+        //　引　数　:　containerId ..... コンテナID
+        //　　　　　:　containerNo ..... コンテナNo.
+        //　　　　　:　success ..... 送信成否
+        //　　　　　:　message ..... 失敗理由
+        //　戻り値　:　[SendResult] ..... なし
+        //============================================================
+        SendResult(Integer containerId, String containerNo, boolean success, String message) {
+            this.containerId = containerId;
+            this.containerNo = containerNo;
+            this.success = success;
+            this.message = message;
+        }
+    }
+
     private final AppDatabase db;                        // DBインスタンス
     private final SvcHandyWrapper svcWrapper;            // Webサービスラッパー
     private final CommHistoryDao commHistoryDao;         // 通信履歴DAO
     private final SyukkaContainerDao syukkaContainerDao; // 出荷コンテナDAO
     private final SyukkaMeisaiDao syukkaMeisaiDao;       // 出荷明細DAO
+    private final SyukkaStageDao syukkaStageDao;         // 先行受信DAO
     private final YoteiDao yoteiDao;                     // 予定DAO
     private final KakuninContainerDao kakuninContainerDao; // 確認コンテナDAO
     private final KakuninMeisaiDao kakuninMeisaiDao;     // 確認明細DAO
+    private final KakuninStageDao kakuninStageDao;       // 照合データ受信中DAO
     private final SystemDao systemDao;                   // システムDAO
     private final File imageDir;                         // 画像格納ディレクトリ
+    private final File sendImageDir;                     // 送信用画像（縮小後）の一時ディレクトリ
 
     private final ErrorHandler errorHandler; // エラーハンドラ
 
-    private String lastErrorMessage; // 最終エラーメッセージ
+    private volatile String lastErrorMessage;   // 最終エラーメッセージ
+    private volatile String syukkaErrorMessage; // 出荷データ送信の最終エラーメッセージ
+    private volatile String syougoErrorMessage; // 照合データ送信の最終エラーメッセージ
+    private volatile boolean syncHasError;      // 同期処理中のエラー有無
+    private final Object errorLock = new Object(); // エラー通知の排他用
+    private Map<String, Long> lastPhaseTimings = Collections.emptyMap(); // 直近の同期処理の工程毎所要時間
+    private final Map<String, Long> phaseDbApplyMs = new ConcurrentHashMap<>(); // 工程名 → DB反映時間（ミリ秒）
+    private volatile List<SendResult> lastSendResults = Collections.emptyList(); // 直近の出荷データ送信結果（読み取り専用）
+    private int sendConcurrency = DEFAULT_SEND_CONCURRENCY;       // 出荷データ送信の同時通信数
 
     //============================================================
     //　機　能　:　DB用日時フォーマット（yyyy-MM-dd HH:mm:ss）を生成する
@@ -129,6 +221,13 @@ public class DataSync {
         }
     }
 
+    // 出荷データの受信方法（decideSyukkaReceiveの判定結果）
+    enum SyukkaReceiveMode {
+        SKIP,           // 前回受信時から更新なし（受信しない）
+        APPLY_STAGED,   // 先行受信データを通信せずに反映
+        RECEIVE         // サーバから受信して反映
+    }
+
     //============================================================
     //　機　能　:　DataSyncを初期化する（DBはデフォルト、コールバックなし）
     //　引　数　:　context ..... コンテキスト情報
@@ -162,9 +261,11 @@ public class DataSync {
         this.commHistoryDao = db.commHistoryDao();
         this.syukkaContainerDao = db.syukkaContainerDao();
         this.syukkaMeisaiDao = db.syukkaMeisaiDao();
+        this.syukkaStageDao = db.syukkaStageDao();
         this.yoteiDao = db.yoteiDao();
         this.kakuninContainerDao = db.kakuninContainerDao();
         this.kakuninMeisaiDao = db.kakuninMeisaiDao();
+        this.kakuninStageDao = db.kakuninStageDao();
         this.systemDao = db.systemDao();
 
         // 通信ラッパー（未指定の場合はデフォルト生成）
@@ -180,6 +281,7 @@ public class DataSync {
 
         // 画像保存先ディレクトリ
         this.imageDir = resolveImageDir(context);
+        this.sendImageDir = context.getCacheDir();
 
         // エラー通知用コールバック
         this.errorHandler = errorHandler;
@@ -198,7 +300,8 @@ public class DataSync {
         Date sagyouYmd = sagyouYotei();
 
         // 未送信の出荷データをコンテナ単位で送信
-        boolean sent = dataSousinAll(sagyouYmd);
+        boolean sent = dataSousinAll(sagyouYmd, null);
+        lastErrorMessage = syukkaErrorMessage;
         return sent;
     }
 
@@ -217,72 +320,153 @@ public class DataSync {
     //　戻り値　:　[boolean] ..... 送信成否
     //============================================================
     public boolean sendSyougoOnly() {
-        return dataSousinSyougo();
+        boolean sent = dataSousinSyougo(null);
+        lastErrorMessage = syougoErrorMessage;
+        return sent;
+    }
+
+    //============================================================
+    //　機　能　:　指定コンテナの出荷データを送信する（送信待ちからの送信用）
+    //　引　数　:　containerIds ..... 送信対象のコンテナID
+    //　戻り値　:　[boolean] ..... 全件送信できればtrue
+    //============================================================
+    public boolean sendSyukkaContainers(Collection<Integer> containerIds) throws Exception {
+        // 前回エラーを初期化
+        lastErrorMessage = null;
+
+        // 作業予定日を取得（DB優先、無ければ通信で取得）
+        Date sagyouYmd = sagyouYotei();
+
+        // 指定コンテナのうち未送信のものを送信
+        boolean sent = dataSousinAll(sagyouYmd, new HashSet<>(containerIds));
+        lastErrorMessage = syukkaErrorMessage;
+        return sent;
+    }
+
+    //============================================================
+    //　機　能　:　指定コンテナの照合データを送信する（送信待ちからの送信用）
+    //　引　数　:　containerIds ..... 送信対象のコンテナID
+    //　戻り値　:　[boolean] ..... 全件送信できればtrue
+    //============================================================
+    public boolean sendSyougoContainers(Collection<String> containerIds) {
+        boolean sent = dataSousinSyougo(new HashSet<>(containerIds));
+        lastErrorMessage = syougoErrorMessage;
+        return sent;
     }
 
     //============================================================
     //　機　能　:　同期処理を実行する（送信→受信→DB反映）
+    //　　　　　　 出荷系と照合系は依存関係が無いため並行し、工程毎の所要時間を記録する
     //　引　数　:　なし
     //　戻り値　:　[boolean] ..... 同期処理にエラーがなければtrue
     //============================================================
     public boolean runSync() {
+        syncHasError = false;
+
         // 通信履歴を一定期間より前の分だけ削除
         historyDel();
 
-        boolean hasError = false;
-        Date sagyouYmd = null;
+        AtomicReference<Date> sagyouYmd = new AtomicReference<>();
+        AtomicReference<Date> serverUpd = new AtomicReference<>(); // 受信時に取得したサーバ更新日時
+        Map<String, String> phaseErrors = new ConcurrentHashMap<>(); // 工程名 → エラー内容
+        phaseDbApplyMs.clear();
+
+        // 出荷系（予定→送信→受信→確認日時）と照合系（送信→受信）は別テーブルのため並行実行する
+        SyncPhaseGraph graph = new SyncPhaseGraph()
+                // 作業予定日の取得（取れない場合は以降の出荷系処理をスキップ）
+                .add(PHASE_SAGYOU_YOTEI, () -> sagyouYmd.set(sagyouYotei()))
+                // 出荷データ送信（失敗しても受信は行う）
+                .add(PHASE_SYUKKA_SEND, () -> {
+                    if (!dataSousinAll(sagyouYmd.get(), null)) {
+                        reportSyncError(buildSendFailedMessage("出荷データの更新に失敗しました",
+                                syukkaErrorMessage));
+                    }
+                }, PHASE_SAGYOU_YOTEI)
+                // 出荷データ受信
+                .add(PHASE_SYUKKA_RECEIVE, () -> serverUpd.set(receiveSyukkaData(sagyouYmd.get())),
+                        PHASE_SYUKKA_SEND)
+                // データ確認日時の更新（受信時のサーバ更新日時を使い、再取得しない）
+                .add(PHASE_DATA_UPDATE, () -> dataUpdate(serverUpd.get()), PHASE_SYUKKA_RECEIVE)
+                // 照合データ送信（作業予定日に依存しない。失敗しても受信は行う）
+                .add(PHASE_SYOUGO_SEND, () -> {
+                    if (!dataSousinSyougo(null)) {
+                        reportSyncError(buildSendFailedMessage("照合データの更新に失敗しました",
+                                syougoErrorMessage));
+                    }
+                })
+                // 照合データ受信
+                .add(PHASE_SYOUGO_RECEIVE, this::receiveSyougoData, PHASE_SYOUGO_SEND);
 
-        // 作業予定日の取得（ここで取れない場合は以降の出荷系処理をスキップ）
+        ExecutorService pool = Executors.newFixedThreadPool(SYNC_CHAIN_THREADS);
+        boolean success;
         try {
-            sagyouYmd = sagyouYotei();
-        } catch (Exception ex) {
-            hasError = true;
-            reportError(ex);
-            reportError("作業予定が登録されていません");
-        }
-
-        // 出荷データ送信（作業予定日が取れた場合のみ）
-        if (sagyouYmd != null) {
-            try {
-                boolean syukkaSent = dataSousinAll(sagyouYmd);
-                if (!syukkaSent) {
-                    hasError = true;
-                    reportError(buildSendFailedMessage("出荷データの更新に失敗しました", lastErrorMessage));
+            success = graph.run(pool, (phase, ex) -> {
+                phaseErrors.put(phase, safeMessage(ex));
+                reportSyncError(ex);
+                if (PHASE_SAGYOU_YOTEI.equals(phase)) {
+                    reportSyncError("作業予定が登録されていません");
                 }
-            } catch (Exception ex) {
-                hasError = true;
-                reportError(ex);
-            }
+            });
+        } finally {
+            pool.shutdown();
+            lastPhaseTimings = graph.getTimings();
+            savePhaseHistory(graph.getStartTimes(), lastPhaseTimings, phaseErrors);
         }
 
-        // 照合データ送信（作業予定日に依存しない）
-        boolean syougoSent = dataSousinSyougo();
-        if (!syougoSent) {
-            hasError = true;
-            reportError(buildSendFailedMessage("照合データの更新に失敗しました", lastErrorMessage));
-        }
+        // どこかでエラーがあればfalse
+        return success && !syncHasError;
+    }
 
-        // 出荷データ受信＆更新（作業予定日が取れた場合のみ）
-        if (sagyouYmd != null) {
+    //============================================================
+    //　機　能　:　直近の同期処理の工程毎所要時間を取得する
+    //　引　数　:　なし
+    //　戻り値　:　[Map<String, Long>] ..... 工程名 → 所要時間（ミリ秒）
+    //============================================================
+    public Map<String, Long> getLastPhaseTimings() {
+        return lastPhaseTimings;
+    }
+
+    //============================================================
+    //　機　能　:　同期処理の工程毎所要時間（DB反映時間を含む）を通信履歴へ保存する
+    //　　　　　　 履歴の保存に失敗しても同期処理の結果には影響させない
+    //　引　数　:　startTimes ..... 工程名 → 開始日時（エポックミリ秒）
+    //　　　　　:　timings ..... 工程名 → 所要時間（ミリ秒）
+    //　　　　　:　phaseErrors ..... 工程名 → エラー内容
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void savePhaseHistory(Map<String, Long> startTimes, Map<String, Long> timings,
+                                  Map<String, String> phaseErrors) {
+        for (Map.Entry<String, Long> entry : timings.entrySet()) {
+            String phase = entry.getKey();
+            Long start = startTimes.get(phase);
             try {
-                receiveSyukkaData(sagyouYmd);
-                dataUpdate(sagyouYmd);
+                svcWrapper.recordPhase(phase,
+                        new Date(start != null ? start : System.currentTimeMillis()),
+                        entry.getValue(), phaseDbApplyMs.get(phase), phaseErrors.get(phase));
             } catch (Exception ex) {
-                hasError = true;
-                reportError(ex);
+                Log.w(TAG, "savePhaseHistory failed: " + phase, ex);
             }
         }
+    }
 
-        // 照合データ受信
-        try {
-            receiveSyougoData();
-        } catch (Exception ex) {
-            hasError = true;
-            reportError(ex);
-        }
+    //============================================================
+    //　機　能　:　同期処理中のエラーを記録して通知する（例外）
+    //　引　数　:　ex ..... 例外情報
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void reportSyncError(Exception ex) {
+        syncHasError = true;
+        reportError(ex);
+    }
 
-        // どこかでエラーがあればfalse
-        return !hasError;
+    //============================================================
+    //　機　能　:　同期処理中のエラーを記録して通知する（メッセージ）
+    //　引　数　:　msg ..... メッセージ
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void reportSyncError(String msg) {
+        syncHasError = true;
+        reportError(msg);
     }
 
     //============================================================
@@ -310,6 +494,18 @@ public class DataSync {
     //　戻り値　:　[void] ..... なし
     //============================================================
     private void reportError(String msg) {
+        // 出荷系・照合系の並行実行時もエラー表示は1件ずつ行う
+        synchronized (errorLock) {
+            reportErrorLocked(msg);
+        }
+    }
+
+    //============================================================
+    //　機　能　:　エラーメッセージを通知する（errorLock取得済み）
+    //　引　数　:　msg ..... メッセージ
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void reportErrorLocked(String msg) {
         // 空メッセージは通知しない
         if (errorHandler != null && msg != null && !msg.trim().isEmpty()) {
             errorHandler.onError(msg);
@@ -355,105 +551,223 @@ public class DataSync {
 
     //============================================================
     //　機　能　:　未送信の出荷データを全件送信する（コンテナ単位）
+    //　　　　　　 画像の縮小・送信データ組み立てを準備用スレッドで先行させ、
+    //　　　　　　 前のコンテナの通信中に次のコンテナの準備を進める
+    //　　　　　　 失敗したコンテナがあっても残りは送信し、結果はコンテナ単位で保持する
     //　引　数　:　sagyouYmd ..... 日時
-    //　戻り値　:　[boolean] ..... 送信成否
-    //============================================================
-    private boolean dataSousinAll(Date sagyouYmd) {
-        // 前回エラーを初期化
-        lastErrorMessage = null;
+    //　　　　　:　targetIds ..... 送信対象のコンテナID（nullは未送信全件）
+    //　戻り値　:　[boolean] ..... 全件送信できればtrue
+    //============================================================
+    private boolean dataSousinAll(Date sagyouYmd, Set<Integer> targetIds) {
+        // 登録直後の送信と同期処理の送信が重ならないよう排他する
+        synchronized (SYUKKA_SEND_LOCK) {
+            // 前回エラーを初期化
+            syukkaErrorMessage = null;
+            lastSendResults = Collections.emptyList();
+
+            // 未送信コンテナを取得
+            List<SyukkaContainerEntity> containers = syukkaContainerDao.findUnsent();
+
+            // 対象指定がある場合は該当コンテナのみ送信
+            if (targetIds != null) {
+                List<SyukkaContainerEntity> targets = new ArrayList<>();
+                for (SyukkaContainerEntity container : containers) {
+                    if (targetIds.contains(container.containerId)) {
+                        targets.add(container);
+                    }
+                }
+                containers = targets;
+            }
+            if (containers.isEmpty()) {
+                return true;
+            }
 
-        // 未送信コンテナを取得
-        List<SyukkaContainerEntity> containers = syukkaContainerDao.findUnsent();
+            int concurrency = sendConcurrency;
+            ExecutorService preparePool = Executors.newFixedThreadPool(SEND_PREPARE_THREADS);
+            ExecutorService sendPool = Executors.newFixedThreadPool(concurrency);
 
-        // 1件でも送信に失敗したらfalseで中断
-        for (SyukkaContainerEntity container : containers) {
-            if (!dataSousinOnce(container, sagyouYmd)) {
+            // 準備済み（送信待ち）のコンテナ数を制限し、送信用画像が溜まり過ぎないようにする
+            Semaphore inFlight = new Semaphore(concurrency + SEND_PREPARE_THREADS);
+
+            List<Future<BunningData>> preparing = new ArrayList<>(containers.size());
+            List<Future<SendResult>> futures = new ArrayList<>(containers.size());
+            List<SendResult> results = new ArrayList<>(containers.size());
+            boolean completed = false;
+            try {
+                for (SyukkaContainerEntity container : containers) {
+                    inFlight.acquire();
+
+                    // 準備（画像縮小・明細詰め替え）→ 送信（通信・送信済み更新）の順に流す
+                    Future<BunningData> prepared = preparePool.submit(
+                            () -> prepareSyukkaData(container, sagyouYmd));
+                    preparing.add(prepared);
+                    futures.add(sendPool.submit(() -> {
+                        try {
+                            return sendPrepared(container, prepared);
+                        } finally {
+                            inFlight.release();
+                        }
+                    }));
+                }
+
+                // 送信順に結果を回収
+                for (Future<SendResult> future : futures) {
+                    results.add(future.get());
+                }
+                completed = true;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                syukkaErrorMessage = safeMessage(ex);
+                return false;
+            } catch (ExecutionException ex) {
+                // sendPrepared内で例外は結果へ変換しているため通常は発生しない
+                Log.e(TAG, "DataSousinAll failed", ex);
+                syukkaErrorMessage = safeMessage(ex);
                 return false;
+            } finally {
+                if (!completed) {
+                    // 中断時は未着手の送信を取り消す（通信中の送信は送信済み更新まで割り込まない）
+                    for (Future<SendResult> future : futures) {
+                        future.cancel(false);
+                    }
+                    // 準備は送信前のため割り込んでよい（取り消すと送信側の待ちも解ける）
+                    for (Future<BunningData> prepared : preparing) {
+                        prepared.cancel(true);
+                    }
+                }
+                shutdownAndAwait(sendPool);
+                shutdownAndAwait(preparePool);
+
+                // 画像変換の再利用Bitmapは一括送信の間だけ保持する
+                SendImageProcessor.clearPool();
+
+                // 回収済みの結果を公開（呼び出し元スレッド以外からも参照される）
+                lastSendResults = Collections.unmodifiableList(results);
             }
+
+            // 失敗したコンテナをまとめて通知用メッセージにする
+            StringBuilder failed = new StringBuilder();
+            for (SendResult result : results) {
+                if (result.success) {
+                    continue;
+                }
+                if (failed.length() > 0) {
+                    failed.append("\n");
+                }
+                failed.append(formatContainerNo(result.containerNo));
+                if (!isBlank(result.message)) {
+                    failed.append(" : ").append(result.message.trim());
+                }
+            }
+            if (failed.length() > 0) {
+                syukkaErrorMessage = failed.toString();
+                return false;
+            }
+            return true;
         }
-        return true;
     }
 
     //============================================================
-    //　機　能　:　出荷データを1コンテナ分送信する
+    //　機　能　:　出荷データ1コンテナ分の送信データを準備する
+    //　　　　　　 （送信用画像の作成、紐づく明細の詰め替え）
     //　引　数　:　container ..... コンテナ情報
     //　　　　　:　sagyouYmd ..... 日時
-    //　戻り値　:　[boolean] ..... 送信成否
-    //============================================================
-    private boolean dataSousinOnce(SyukkaContainerEntity container, Date sagyouYmd) {
-        try {
-            // containerIdは送信や画像取得のキーとして必須
-            if (container.containerId == null) {
-                Log.w(TAG, "Container ID is null; skip send. containerNo="
-                        + formatContainerNo(container.containerNo));
-                return false;
-            }
+    //　戻り値　:　[BunningData] ..... 送信データ（送信対象外の場合は例外）
+    //============================================================
+    private BunningData prepareSyukkaData(SyukkaContainerEntity container, Date sagyouYmd) {
+        // containerIdは送信や画像取得のキーとして必須
+        if (container.containerId == null) {
+            Log.w(TAG, "Container ID is null; skip send. containerNo="
+                    + formatContainerNo(container.containerNo));
+            throw new IllegalStateException("コンテナIDがありません");
+        }
 
-            // 送信用データを組み立て
-            BunningData data = new BunningData();
-            data.syukkaYmd = sagyouYmd;
-            data.containerNo = normalizeSendKey(container.containerNo);
-            data.containerJyuryo = intOrZero(container.containerJyuryo);
-            data.dunnageJyuryo = intOrZero(container.dunnageJyuryo);
-            data.sealNo = normalizeSendKey(container.sealNo);
-
-            // 画像を読み込み（必要なら縮小・回転補正・圧縮）
-            data.containerPhoto = getPicture(container.containerId, ImageType.CONTAINER);
-            data.sealPhoto = getPicture(container.containerId, ImageType.SEAL);
-
-            // コンテナ紐づきの明細を取得
-            List<SyukkaMeisaiEntity> detailRows =
-                    syukkaMeisaiDao.findByContainerId(container.containerId);
-
-            // bookingNoは明細で欠ける可能性があるため、コンテナ側の値をフォールバックに使う
-            String fallbackBookingNo = normalizeSendKey(container.bookingNo);
-            int missingBookingCount = 0;
-            String missingBookingSample = "";
-
-            // 明細を送信用の束（bundle）へ詰め替え
-            for (SyukkaMeisaiEntity row : detailRows) {
-                SyukkaMeisai detail = new SyukkaMeisai();
-                detail.heatNo = normalizeSendKey(row.heatNo);
-                detail.sokuban = normalizeSendKey(row.sokuban);
-
-                // bookingNoは明細→無ければコンテナのbookingNo→それでも無ければエラー扱い
-                String bookingNo = normalizeSendKey(row.bookingNo);
-                if (bookingNo.isEmpty()) {
-                    bookingNo = fallbackBookingNo;
-                }
-                if (bookingNo.isEmpty()) {
-                    // 送信必須項目の欠落としてカウントし、ログ用にサンプルも保持
-                    missingBookingCount++;
-                    if (missingBookingSample.isEmpty()) {
-                        missingBookingSample = detail.heatNo + "/" + detail.sokuban;
-                    }
+        // 送信用データを組み立て
+        BunningData data = new BunningData();
+        data.syukkaYmd = sagyouYmd;
+        data.containerNo = normalizeSendKey(container.containerNo);
+        data.containerJyuryo = intOrZero(container.containerJyuryo);
+        data.dunnageJyuryo = intOrZero(container.dunnageJyuryo);
+        data.sealNo = normalizeSendKey(container.sealNo);
+
+        // 送信用画像ファイルを準備（必要なら縮小・回転補正・圧縮したファイルを作成）
+        // ※画像本体は送信時にファイルからストリーミングで読み込む
+        data.containerPhoto = getPicture(container.containerId, ImageType.CONTAINER);
+        data.sealPhoto = getPicture(container.containerId, ImageType.SEAL);
+
+        // コンテナ紐づきの明細を取得
+        List<SyukkaMeisaiEntity> detailRows =
+                syukkaMeisaiDao.findByContainerId(container.containerId);
+
+        // bookingNoは明細で欠ける可能性があるため、コンテナ側の値をフォールバックに使う
+        String fallbackBookingNo = normalizeSendKey(container.bookingNo);
+        int missingBookingCount = 0;
+        String missingBookingSample = "";
+
+        // 明細を送信用の束（bundle）へ詰め替え
+        for (SyukkaMeisaiEntity row : detailRows) {
+            SyukkaMeisai detail = new SyukkaMeisai();
+            detail.heatNo = normalizeSendKey(row.heatNo);
+            detail.sokuban = normalizeSendKey(row.sokuban);
+
+            // bookingNoは明細→無ければコンテナのbookingNo→それでも無ければエラー扱い
+            String bookingNo = normalizeSendKey(row.bookingNo);
+            if (bookingNo.isEmpty()) {
+                bookingNo = fallbackBookingNo;
+            }
+            if (bookingNo.isEmpty()) {
+                // 送信必須項目の欠落としてカウントし、ログ用にサンプルも保持
+                missingBookingCount++;
+                if (missingBookingSample.isEmpty()) {
+                    missingBookingSample = detail.heatNo + "/" + detail.sokuban;
                 }
+            }
 
-                detail.bookingNo = normalizeSendKey(bookingNo);
-                detail.bundleNo = normalizeSendKey(row.bundleNo);
-                detail.syukkaSashizuNo = normalizeSendKey(row.syukkaSashizuNo);
-                detail.jyuryo = intOrZero(row.jyuryo);
+            detail.bookingNo = normalizeSendKey(bookingNo);
+            detail.bundleNo = normalizeSendKey(row.bundleNo);
+            detail.syukkaSashizuNo = normalizeSendKey(row.syukkaSashizuNo);
+            detail.jyuryo = intOrZero(row.jyuryo);
 
-                // 送信データへ追加
-                data.bundles.add(detail);
-            }
+            // 送信データへ追加
+            data.bundles.add(detail);
+        }
 
-            // 明細が無ければ送信しない（仕様上成立しない）
-            if (data.bundles.isEmpty()) {
-                Log.w(TAG, "No bundle details; skip SendSyukkaData. containerId="
-                        + container.containerId + " containerNo="
-                        + formatContainerNo(container.containerNo));
-                return false;
-            }
+        // 明細が無ければ送信しない（仕様上成立しない）
+        if (data.bundles.isEmpty()) {
+            Log.w(TAG, "No bundle details; skip SendSyukkaData. containerId="
+                    + container.containerId + " containerNo="
+                    + formatContainerNo(container.containerNo));
+            throw new IllegalStateException("束明細がありません");
+        }
 
-            // bookingNo欠落があれば送信しない（送信先で整合性が取れない可能性）
-            if (missingBookingCount > 0) {
-                Log.w(TAG, "BookingNo missing in bundle details; skip SendSyukkaData. containerId="
-                        + container.containerId + " containerNo="
-                        + formatContainerNo(container.containerNo)
-                        + " missingCount=" + missingBookingCount
-                        + " sampleHeatSokuban=" + missingBookingSample);
-                return false;
+        // bookingNo欠落があれば送信しない（送信先で整合性が取れない可能性）
+        if (missingBookingCount > 0) {
+            Log.w(TAG, "BookingNo missing in bundle details; skip SendSyukkaData. containerId="
+                    + container.containerId + " containerNo="
+                    + formatContainerNo(container.containerNo)
+                    + " missingCount=" + missingBookingCount
+                    + " sampleHeatSokuban=" + missingBookingSample);
+            throw new IllegalStateException("予約No.が無い束明細があります");
+        }
+
+        return data;
+    }
+
+    //============================================================
+    //　機　能　:　準備済みの出荷データ1コンテナ分を送信する
+    //　引　数　:　container ..... コンテナ情報
+    //　　　　　:　prepared ..... 準備処理（送信データ）
+    //　戻り値　:　[SendResult] ..... 送信結果
+    //============================================================
+    private SendResult sendPrepared(SyukkaContainerEntity container, Future<BunningData> prepared) {
+        try {
+            // 準備処理の完了を待つ（準備での失敗はここで例外になる）
+            BunningData data;
+            try {
+                data = prepared.get();
+            } catch (ExecutionException ex) {
+                Throwable cause = ex.getCause();
+                throw cause instanceof Exception ? (Exception) cause : ex;
             }
 
             // サービスへ送信
@@ -466,24 +780,73 @@ public class DataSync {
                 deletePicture(container.containerId, ImageType.CONTAINER);
                 deletePicture(container.containerId, ImageType.SEAL);
 
-                return true;
+                return new SendResult(container.containerId, container.containerNo, true, null);
             }
 
             // サービス戻り値がfalseの場合は失敗扱い
             Log.w(TAG, "SendSyukkaDataResult=false. containerId=" + container.containerId
                     + " containerNo=" + formatContainerNo(container.containerNo)
                     + " bundleCount=" + data.bundles.size());
-            lastErrorMessage = "出荷データの更新に失敗しました";
-            return false;
+            return new SendResult(container.containerId, container.containerNo, false,
+                    "出荷データの更新に失敗しました");
 
         } catch (Exception ex) {
-            // 例外はログ出力して失敗扱い
-            Log.e(TAG, "DataSousinOnce failed", ex);
-            lastErrorMessage = safeMessage(ex);
-            return false;
+            // 例外はログ出力して失敗扱い（他のコンテナの送信は継続）
+            Log.e(TAG, "DataSousinOnce failed. containerId=" + container.containerId, ex);
+            return new SendResult(container.containerId, container.containerNo, false, safeMessage(ex));
+
+        } finally {
+            // 縮小時に作成した送信用画像は成否に関係なく削除
+            if (container.containerId != null) {
+                deleteSendImage(container.containerId, ImageType.CONTAINER);
+                deleteSendImage(container.containerId, ImageType.SEAL);
+            }
+        }
+    }
+
+    //============================================================
+    //　機　能　:　スレッドプールを終了し、実行中のタスクの完了を待つ
+    //　　　　　　 送信は通信後に送信済み更新を行うため割り込まない（shutdownNowは使わない）
+    //　　　　　　 待機中に割り込まれても完了まで待ち、割り込み状態は戻してから返る
+    //　引　数　:　pool ..... スレッドプール
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private static void shutdownAndAwait(ExecutorService pool) {
+        pool.shutdown();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                // 通信は接続・読み込みタイムアウトで打ち切られるため、いずれ終了する
+                if (pool.awaitTermination(POOL_TERMINATION_WAIT_SEC, TimeUnit.SECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
         }
     }
 
+    //============================================================
+    //　機　能　:　直近の出荷データ送信結果（コンテナ単位）を取得する
+    //　引　数　:　なし
+    //　戻り値　:　[List<SendResult>] ..... 送信結果一覧
+    //============================================================
+    public List<SendResult> getLastSendResults() {
+        return lastSendResults;
+    }
+
+    //============================================================
+    //　機　能　:　出荷データ送信の同時通信数を設定する
+    //　引　数　:　concurrency ..... 同時通信数（1以上）
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    public void setSendConcurrency(int concurrency) {
+        this.sendConcurrency = Math.max(1, concurrency);
+    }
+
     //============================================================
     //　機　能　:　空文字判定を行う
     //　引　数　:　value ..... 設定値
@@ -571,23 +934,37 @@ public class DataSync {
 
     //============================================================
     //　機　能　:　未送信の照合データを全件送信する（完了分のみ）
-    //　引　数　:　なし
+    //　引　数　:　targetIds ..... 送信対象のコンテナID（nullは未送信全件）
     //　戻り値　:　[boolean] ..... 送信成否
     //============================================================
-    private boolean dataSousinSyougo() {
-        // 前回エラーを初期化
-        lastErrorMessage = null;
-
-        // 未送信かつ照合完了のコンテナを取得
-        List<KakuninContainerEntity> containers = kakuninContainerDao.findUnsentCompleted();
+    private boolean dataSousinSyougo(Set<String> targetIds) {
+        // 登録直後の送信と同期処理の送信が重ならないよう排他する
+        synchronized (SYOUGO_SEND_LOCK) {
+            // 前回エラーを初期化
+            syougoErrorMessage = null;
+
+            // 未送信かつ照合完了のコンテナを取得
+            List<KakuninContainerEntity> containers = kakuninContainerDao.findUnsentCompleted();
+
+            // 対象指定がある場合は該当コンテナのみ送信
+            if (targetIds != null) {
+                List<KakuninContainerEntity> targets = new ArrayList<>();
+                for (KakuninContainerEntity container : containers) {
+                    if (targetIds.contains(container.containerId)) {
+                        targets.add(container);
+                    }
+                }
+                containers = targets;
+            }
 
-        // 1件でも送信に失敗したらfalseで中断
-        for (KakuninContainerEntity container : containers) {
-            if (!dataSousinSyougoOnce(container)) {
-                return false;
+            // 1件でも送信に失敗したらfalseで中断
+            for (KakuninContainerEntity container : containers) {
+                if (!dataSousinSyougoOnce(container)) {
+                    return false;
+                }
             }
+            return true;
         }
-        return true;
     }
 
     //============================================================
@@ -625,50 +1002,39 @@ public class DataSync {
 
             // サービス戻り値がfalseの場合は失敗扱い
             Log.w(TAG, "SendSyougoDataResult=false");
-            lastErrorMessage = "照合データの更新に失敗しました";
+            syougoErrorMessage = "照合データの更新に失敗しました";
             return false;
 
         } catch (Exception ex) {
             // 例外はログ出力して失敗扱い
             Log.e(TAG, "DataSousinSyougoOnce failed", ex);
-            lastErrorMessage = safeMessage(ex);
+            syougoErrorMessage = safeMessage(ex);
             return false;
         }
     }
 
     //============================================================
     //　機　能　:　データ確認日時を更新する（更新要否を判定して反映）
-    //　引　数　:　sagyouYmd ..... 日時
+    //　引　数　:　serverUpd ..... 受信時に取得したサーバ側更新日時（取得できなかった場合はnull）
     //　戻り値　:　[void] ..... なし
     //============================================================
-    private void dataUpdate(Date sagyouYmd) {
+    private void dataUpdate(Date serverUpd) {
         // 最終更新日時が未設定の予定を抽出（対象が無い場合は何もしない）
         List<YoteiEntity> candidates = yoteiDao.findWithNullLastUpd();
         if (candidates.isEmpty()) {
             return;
         }
 
-        // ※呼び出し側の想定で副作用がある可能性があるため呼んでいる（失敗しても継続）
-        try {
-            svcWrapper.getSagyouYmd();
-        } catch (Exception ex) {
-            Log.e(TAG, "GetSagyouYmd failed", ex);
-        }
-
         // ローカル側の最終更新日時
         Date lastUpd = parseDbDateOrMin(candidates.get(0).lastUpdYmdhms);
 
-        // サーバ側の更新日時を取得
-        Date getUpdate;
-        try {
-            getUpdate = svcWrapper.getUpdateYmdHms(sagyouYmd);
-        } catch (Exception ex) {
-            Log.e(TAG, "GetUpdateYmdHms failed", ex);
+        // サーバ側の更新日時が不明な場合は、確認できていないため更新しない
+        if (serverUpd == null) {
             return;
         }
 
         // サーバ更新がローカルより新しい場合は、ここでは更新しない（受信を優先したい意図）
-        if (getUpdate != null && lastUpd != null && getUpdate.after(lastUpd)) {
+        if (lastUpd != null && serverUpd.after(lastUpd)) {
             return;
         }
 
@@ -687,15 +1053,44 @@ public class DataSync {
 
     //============================================================
     //　機　能　:　出荷データを受信してDBへ反映する（トランザクション）
+    //　　　　　　 サーバ側の更新日時が前回受信時から変わっていなければ受信を省略し、
+    //　　　　　　 受信した場合も変更のあった行のみ書き込む
+    //　　　　　　 待機中に同じ更新日時のデータを先行受信済みであれば、通信せずにそれを反映する
     //　引　数　:　sagyouYmd ..... 日時
-    //　戻り値　:　[void] ..... なし
+    //　戻り値　:　[Date] ..... 受信前に取得したサーバ側更新日時（取得できなかった場合はnull）
     //============================================================
-    private void receiveSyukkaData(Date sagyouYmd) throws Exception {
-        // ※呼び出し側の想定で副作用がある可能性があるため呼んでいる（失敗しても継続）
+    private Date receiveSyukkaData(Date sagyouYmd) throws Exception {
+        // サーバ側の更新日時を取得（取得できない場合は差分判定せず受信する）
+        Date serverUpd = null;
         try {
-            svcWrapper.getSagyouYmd();
+            serverUpd = svcWrapper.getUpdateYmdHms(sagyouYmd);
         } catch (Exception ex) {
-            Log.e(TAG, "GetSagyouYmd failed", ex);
+            Log.e(TAG, "GetUpdateYmdHms failed", ex);
+        }
+
+        SyukkaReceiveMode mode = decideSyukkaReceive(systemDao.findById(SYSTEM_RENBAN),
+                yoteiDao.findFirst() != null, sagyouYmd, serverUpd);
+
+        // 前回受信時から更新が無ければ受信しない（確認日時のみ更新）
+        if (mode == SyukkaReceiveMode.SKIP) {
+            Log.i(TAG, "SyukkaData unchanged; skip receive. lastUpd=" + formatDbDate(serverUpd));
+            db.runInTransaction(() -> {
+                // 受信を省略しても、送信済み・紐づき済みのデータは通常どおり削除する
+                syukkaMeisaiDao.deleteSentLinked();
+                syukkaContainerDao.deleteSent();
+
+                String now = formatDbDate(new Date());
+                systemDao.updateDataConf(SYSTEM_RENBAN, now, "DataSync#receiveSyukkaData", now);
+            });
+            discardStagedSyukkaData();
+            return serverUpd;
+        }
+
+        // 先行受信済みのデータがサーバと同じ更新日時であれば、通信せずに反映する
+        if (mode == SyukkaReceiveMode.APPLY_STAGED) {
+            Log.i(TAG, "SyukkaData staged; apply without receive. lastUpd=" + formatDbDate(serverUpd));
+            applyStagedSyukkaData(sagyouYmd, serverUpd);
+            return serverUpd;
         }
 
         // サービスから出荷データを取得
@@ -704,69 +1099,298 @@ public class DataSync {
             throw new IllegalStateException("出荷データの取得に失敗しました");
         }
 
+        final String recvLastUpd = formatDbDate(serverUpd);
+        final List<YoteiStageEntity> yotei = toYoteiStage(data.header);
+        final List<SyukkaMeisaiStageEntity> meisai = toMeisaiStage(data.meisai);
+
         // DB更新は一括トランザクションで整合性を保つ
+        long applyStart = SystemClock.elapsedRealtime();
         db.runInTransaction(() -> {
             // 古いデータをクリア（送信済み・紐づき済みのものを削除）
-            yoteiDao.deleteAll();
             syukkaMeisaiDao.deleteSentLinked();
             syukkaContainerDao.deleteSent();
 
-            // ヘッダ（予定）を反映
-            for (SyukkaHeader header : data.header) {
-                YoteiEntity entity = new YoteiEntity();
-                entity.bookingNo = header.bookingNo;
-                entity.sagyouYoteiYmd = formatDbDate(header.syukkaYmd);
-                entity.containerCount = header.containerCount;
-                entity.goukeiBundole = header.totalBundole;
-                entity.goukeiJyuryo = header.totalJyuryo;
-                entity.kanryoContainer = header.kanryoContainerCnt;
-                entity.kanryoBundole = header.kanryoBundleSum;
-                entity.kanryoJyuryo = header.knaryoJyuryoSum;
-                entity.lastUpdYmdhms = formatDbDate(header.lastUpdYmdHms);
-                yoteiDao.upsert(entity);
-            }
+            // 受信内容を先行受信テーブルへ入れ、先行受信データの反映と同じSQLで変更分のみ反映
+            stageSyukkaData(yotei, meisai);
+            applySyukkaStage();
 
-            // 明細（束）を反映（既存があれば更新、無ければ追加）
-            for (SyukkaMeisai bundle : data.meisai) {
-                SyukkaMeisaiEntity existing = syukkaMeisaiDao.findOne(bundle.heatNo, bundle.sokuban);
-                if (existing != null) {
-                    syukkaMeisaiDao.updateFromReceive(
-                            bundle.heatNo,
-                            bundle.sokuban,
-                            bundle.syukkaSashizuNo,
-                            bundle.bundleNo,
-                            bundle.jyuryo,
-                            bundle.bookingNo
-                    );
-                } else {
-                    SyukkaMeisaiEntity entity = new SyukkaMeisaiEntity();
-                    entity.heatNo = bundle.heatNo;
-                    entity.sokuban = bundle.sokuban;
-                    entity.syukkaSashizuNo = bundle.syukkaSashizuNo;
-                    entity.bundleNo = bundle.bundleNo;
-                    entity.jyuryo = bundle.jyuryo;
-                    entity.bookingNo = bundle.bookingNo;
-                    syukkaMeisaiDao.insert(entity);
-                }
-            }
+            // 受信日時・差分判定基準を更新（先行受信データは最新を受信したため不要）
+            markSyukkaReceived(sagyouYmd, recvLastUpd);
+            syukkaStageDao.deleteYoteiAll();
+            syukkaStageDao.deleteMeisaiAll();
+        });
+        phaseDbApplyMs.put(PHASE_SYUKKA_RECEIVE, SystemClock.elapsedRealtime() - applyStart);
+
+        // 明細を入れ替えたため、束選択用の明細キャッシュを破棄
+        SyukkaMeisaiCache.invalidate();
+        return serverUpd;
+    }
+
+    //============================================================
+    //　機　能　:　出荷データの受信日時と、次回の差分判定基準を更新する
+    //　　　　　　 （呼び出し元のトランザクション内で実行する）
+    //　引　数　:　sagyouYmd ..... 受信した作業予定日
+    //　　　　　:　recvLastUpd ..... 受信時点のサーバ更新日時（DB用文字列、不明はnull）
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void markSyukkaReceived(Date sagyouYmd, String recvLastUpd) {
+        // システムテーブルへ受信日時を反映
+        String now = formatDbDate(new Date());
+        if (systemDao.updateDataSync(SYSTEM_RENBAN, now, now, "DataSync#receiveSyukkaData", now) == 0) {
+            // 更新対象が無い場合は新規作成（upsert）
+            SystemEntity system = new SystemEntity();
+            system.renban = SYSTEM_RENBAN;
+            system.dataConfYmdhms = now;
+            system.dataRecvYmdhms = now;
+            system.updateProcName = "DataSync#receiveSyukkaData";
+            system.updateYmd = now;
+            systemDao.upsert(system);
+        }
+
+        // 次回の差分判定用に、受信した作業日とサーバ更新日時を保持（先行受信の記録は消す）
+        systemDao.updateRecvMark(SYSTEM_RENBAN, formatDbDate(sagyouYmd), recvLastUpd,
+                "DataSync#receiveSyukkaData", now);
+        systemDao.updateStageMark(SYSTEM_RENBAN, null, null, "DataSync#receiveSyukkaData", now);
+    }
+
+    //============================================================
+    //　機　能　:　出荷データを先行受信して先行受信テーブルへ格納する（待機中・充電中に実行）
+    //　　　　　　 業務テーブル（T_YOTEI／T_SYUKKA_MEISAI）は変更せず、次回の同期処理で
+    //　　　　　　 サーバ側の更新日時が変わっていなければ通信せずに反映する
+    //　引　数　:　なし
+    //　戻り値　:　[boolean] ..... 新たに先行受信した場合はtrue
+    //============================================================
+    public boolean prefetchSyukkaData() throws Exception {
+        // 同期処理と同じ作業予定日で受信する（反映時に作業日が一致しないと使えないため）
+        // ・受信済みの予定があれば、同期処理はその作業日で受信する（サーバの作業日が翌日に
+        // 　進んでいても、データクリアで予定を消すまで作業日は切り替わらない）
+        // ・この間にサーバの作業日（GetSagyouYmd）で先行受信しても、同期処理の作業日と一致せず
+        // 　反映されないうえ、当日分の受信で先行受信テーブル（S_YOTEI）ごと置き換えられる
+        // ・データクリア後は予定が無いため、sagyouYoteiがサーバへ作業日を問い合わせ、
+        // 　次の作業日を先行受信する（翌朝の同期処理は同じ作業日で先行受信分を反映する）
+        Date sagyouYmd = sagyouYotei();
+
+        // サーバ側更新日時が取れない場合は、反映時に鮮度を確認できないため先行受信しない
+        Date serverUpd = svcWrapper.getUpdateYmdHms(sagyouYmd);
+        if (serverUpd == null) {
+            return false;
+        }
+
+        // 受信済み・先行受信済みのデータから更新が無ければ何もしない
+        if (decideSyukkaReceive(systemDao.findById(SYSTEM_RENBAN), yoteiDao.findFirst() != null,
+                sagyouYmd, serverUpd) != SyukkaReceiveMode.RECEIVE) {
+            return false;
+        }
+
+        SyukkaData data = svcWrapper.getSyukkaData(sagyouYmd);
+        if (data == null) {
+            throw new IllegalStateException("出荷データの取得に失敗しました");
+        }
+
+        // 受信内容を変換（キーは業務テーブルと同じく前後空白を除去）
+        List<YoteiStageEntity> yotei = toYoteiStage(data.header);
+        List<SyukkaMeisaiStageEntity> meisai = toMeisaiStage(data.meisai);
+
+        // 先行受信テーブルの入れ替えと受信条件の記録は1トランザクションで行う
+        db.runInTransaction(() -> {
+            stageSyukkaData(yotei, meisai);
 
-            // システムテーブルへ受信日時を反映
             String now = formatDbDate(new Date());
-            if (systemDao.updateDataSync(SYSTEM_RENBAN, now, now, "DataSync#receiveSyukkaData", now) == 0) {
-                // 更新対象が無い場合は新規作成（upsert）
-                SystemEntity system = new SystemEntity();
-                system.renban = SYSTEM_RENBAN;
-                system.dataConfYmdhms = now;
-                system.dataRecvYmdhms = now;
-                system.updateProcName = "DataSync#receiveSyukkaData";
-                system.updateYmd = now;
-                systemDao.upsert(system);
-            }
+            systemDao.updateStageMark(SYSTEM_RENBAN, formatDbDate(sagyouYmd), formatDbDate(serverUpd),
+                    "DataSync#prefetchSyukkaData", now);
+        });
+        Log.i(TAG, "SyukkaData staged. yotei=" + yotei.size() + " meisai=" + meisai.size()
+                + " lastUpd=" + formatDbDate(serverUpd));
+        return true;
+    }
+
+    //============================================================
+    //　機　能　:　先行受信データを業務テーブルへ反映する（トランザクション）
+    //　　　　　　 受信時の差分反映と同じ結果を、SQLの一括操作で得る
+    //　引　数　:　sagyouYmd ..... 作業予定日
+    //　　　　　:　serverUpd ..... サーバ側更新日時
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void applyStagedSyukkaData(Date sagyouYmd, Date serverUpd) {
+        final String recvLastUpd = formatDbDate(serverUpd);
+
+        long applyStart = SystemClock.elapsedRealtime();
+        db.runInTransaction(() -> {
+            // 古いデータをクリア（送信済み・紐づき済みのものを削除）
+            syukkaMeisaiDao.deleteSentLinked();
+            syukkaContainerDao.deleteSent();
+
+            // ヘッダ（予定）・明細（束）は変更分のみ反映
+            applySyukkaStage();
+
+            // 受信日時・差分判定基準を更新し、反映済みの先行受信データを削除
+            markSyukkaReceived(sagyouYmd, recvLastUpd);
+            syukkaStageDao.deleteYoteiAll();
+            syukkaStageDao.deleteMeisaiAll();
         });
+        phaseDbApplyMs.put(PHASE_SYUKKA_RECEIVE, SystemClock.elapsedRealtime() - applyStart);
+
+        // 明細を入れ替えたため、束選択用の明細キャッシュを破棄
+        SyukkaMeisaiCache.invalidate();
+    }
+
+    //============================================================
+    //　機　能　:　先行受信データを破棄する（先行受信の記録がある場合のみ）
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void discardStagedSyukkaData() {
+        SystemEntity system = systemDao.findById(SYSTEM_RENBAN);
+        if (system == null || system.stageLastUpdYmdhms == null) {
+            return;
+        }
+
+        db.runInTransaction(() -> {
+            syukkaStageDao.deleteYoteiAll();
+            syukkaStageDao.deleteMeisaiAll();
+            String now = formatDbDate(new Date());
+            systemDao.updateStageMark(SYSTEM_RENBAN, null, null, "DataSync#discardStagedSyukkaData", now);
+        });
+    }
+
+    //============================================================
+    //　機　能　:　出荷データの受信方法を判定する
+    //　　　　　　 ・サーバ側更新日時が不明な場合は受信する
+    //　　　　　　 ・作業日・サーバ更新日時が前回受信時と同じで、予定が残っていれば受信しない
+    //　　　　　　 ・先行受信時と同じであれば、通信せずに先行受信データを反映する
+    //　引　数　:　system ..... システム情報（未登録はnull）
+    //　　　　　:　hasYotei ..... 予定（T_YOTEI）が1件以上あるか
+    //　　　　　:　sagyouYmd ..... 作業予定日
+    //　　　　　:　serverUpd ..... サーバ側更新日時
+    //　戻り値　:　[SyukkaReceiveMode] ..... 受信方法
+    //============================================================
+    static SyukkaReceiveMode decideSyukkaReceive(SystemEntity system, boolean hasYotei,
+                                                 Date sagyouYmd, Date serverUpd) {
+        if (serverUpd == null) {
+            return SyukkaReceiveMode.RECEIVE;
+        }
+
+        // 予定データが消えている（データクリア等）場合は、前回受信時と同じでも受信し直す
+        if (hasYotei && isSameRecvMark(system, sagyouYmd, serverUpd)) {
+            return SyukkaReceiveMode.SKIP;
+        }
+        if (isSameStageMark(system, sagyouYmd, serverUpd)) {
+            return SyukkaReceiveMode.APPLY_STAGED;
+        }
+        return SyukkaReceiveMode.RECEIVE;
+    }
+
+    //============================================================
+    //　機　能　:　前回受信時の作業日・サーバ更新日時と一致するか判定する
+    //　引　数　:　system ..... システム情報（未登録はnull）
+    //　　　　　:　sagyouYmd ..... 作業予定日
+    //　　　　　:　serverUpd ..... サーバ側更新日時
+    //　戻り値　:　[boolean] ..... 作業日・サーバ更新日時とも一致すればtrue
+    //============================================================
+    static boolean isSameRecvMark(SystemEntity system, Date sagyouYmd, Date serverUpd) {
+        if (serverUpd == null || system == null
+                || system.recvSagyouYmd == null || system.recvLastUpdYmdhms == null) {
+            return false;
+        }
+        return system.recvSagyouYmd.equals(formatDbDate(sagyouYmd))
+                && system.recvLastUpdYmdhms.equals(formatDbDate(serverUpd));
+    }
+
+    //============================================================
+    //　機　能　:　先行受信時の作業日・サーバ更新日時と一致するか判定する
+    //　引　数　:　system ..... システム情報（未登録はnull）
+    //　　　　　:　sagyouYmd ..... 作業予定日
+    //　　　　　:　serverUpd ..... サーバ側更新日時
+    //　戻り値　:　[boolean] ..... 一致する場合はtrue
+    //============================================================
+    static boolean isSameStageMark(SystemEntity system, Date sagyouYmd, Date serverUpd) {
+        if (serverUpd == null || system == null
+                || system.stageSagyouYmd == null || system.stageLastUpdYmdhms == null) {
+            return false;
+        }
+        return system.stageSagyouYmd.equals(formatDbDate(sagyouYmd))
+                && system.stageLastUpdYmdhms.equals(formatDbDate(serverUpd));
+    }
+
+    //============================================================
+    //　機　能　:　受信した出荷データで先行受信テーブル（S_YOTEI／S_SYUKKA_MEISAI）を置き換える
+    //　　　　　　 （呼び出し元のトランザクション内で実行する）
+    //　引　数　:　yotei ..... 受信した予定（先行受信テーブル形式）
+    //　　　　　:　meisai ..... 受信した明細（先行受信テーブル形式）
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void stageSyukkaData(List<YoteiStageEntity> yotei, List<SyukkaMeisaiStageEntity> meisai) {
+        syukkaStageDao.deleteYoteiAll();
+        syukkaStageDao.deleteMeisaiAll();
+        insertInBatches(yotei, syukkaStageDao::insertYoteiAll);
+        insertInBatches(meisai, syukkaStageDao::insertMeisaiAll);
+    }
+
+    //============================================================
+    //　機　能　:　先行受信テーブルの内容を業務テーブルへ差分反映する
+    //　　　　　　 （変更行・新規行のみ書き込み、無くなった予定は削除する）
+    //　　　　　　 受信時・先行受信データの反映時とも同じSQLで突き合わせる
+    //　　　　　　 （呼び出し元のトランザクション内で実行する）
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void applySyukkaStage() {
+        syukkaStageDao.deleteYoteiNotStaged();
+        syukkaStageDao.applyYotei();
+        syukkaStageDao.applyMeisaiUpdate();
+        syukkaStageDao.applyMeisaiInsert();
+    }
+
+    //============================================================
+    //　機　能　:　受信したヘッダを先行受信テーブル形式へ変換する
+    //　　　　　　 （キーは業務テーブルと同じく前後空白を除去）
+    //　引　数　:　headers ..... 受信したヘッダ一覧
+    //　戻り値　:　[List<YoteiStageEntity>] ..... 変換結果
+    //============================================================
+    private static List<YoteiStageEntity> toYoteiStage(List<SyukkaHeader> headers) {
+        List<YoteiStageEntity> yotei = new ArrayList<>(headers.size());
+        for (SyukkaHeader header : headers) {
+            YoteiStageEntity entity = new YoteiStageEntity();
+            entity.bookingNo = normalizeDbKey(header.bookingNo);
+            entity.sagyouYoteiYmd = formatDbDate(header.syukkaYmd);
+            entity.containerCount = header.containerCount;
+            entity.goukeiBundole = header.totalBundole;
+            entity.goukeiJyuryo = header.totalJyuryo;
+            entity.kanryoContainer = header.kanryoContainerCnt;
+            entity.kanryoBundole = header.kanryoBundleSum;
+            entity.kanryoJyuryo = header.knaryoJyuryoSum;
+            entity.lastUpdYmdhms = formatDbDate(header.lastUpdYmdHms);
+            yotei.add(entity);
+        }
+        return yotei;
+    }
+
+    //============================================================
+    //　機　能　:　受信した明細を先行受信テーブル形式へ変換する
+    //　　　　　　 （キーは業務テーブルと同じく前後空白を除去）
+    //　引　数　:　bundles ..... 受信した明細一覧
+    //　戻り値　:　[List<SyukkaMeisaiStageEntity>] ..... 変換結果
+    //============================================================
+    private static List<SyukkaMeisaiStageEntity> toMeisaiStage(List<SyukkaMeisai> bundles) {
+        List<SyukkaMeisaiStageEntity> meisai = new ArrayList<>(bundles.size());
+        for (SyukkaMeisai bundle : bundles) {
+            SyukkaMeisaiStageEntity entity = new SyukkaMeisaiStageEntity();
+            entity.heatNo = normalizeDbKey(bundle.heatNo);
+            entity.sokuban = normalizeDbKey(bundle.sokuban);
+            entity.syukkaSashizuNo = bundle.syukkaSashizuNo;
+            entity.bundleNo = bundle.bundleNo;
+            entity.jyuryo = bundle.jyuryo;
+            entity.bookingNo = normalizeDbKey(bundle.bookingNo);
+            meisai.add(entity);
+        }
+        return meisai;
     }
 
     //============================================================
-    //　機　能　:　照合データを受信してDBへ反映する（トランザクション）
+    //　機　能　:　照合データを受信してDBへ反映する
+    //　　　　　　 受信データは受信中テーブルへ分割して格納・件数検証し、業務テーブルは
+    //　　　　　　 1トランザクションの全件削除＋INSERT…SELECTで入れ替える
+    //　　　　　　 （照合画面の読み込みは入れ替え前後のどちらかの状態のみ参照する）
     //　引　数　:　なし
     //　戻り値　:　[void] ..... なし
     //============================================================
@@ -777,23 +1401,17 @@ public class DataSync {
             throw new IllegalStateException("照合データの取得に失敗しました");
         }
 
-        // DB更新は一括トランザクションで整合性を保つ
-        db.runInTransaction(() -> {
-            // 既存データを全削除して入れ替え
-            kakuninContainerDao.deleteAll();
-            kakuninMeisaiDao.deleteAll();
-
-            // データが空なら終了（ここまでの削除は仕様として受け入れる想定）
-            if (data.syougoHeader.isEmpty()) {
-                return;
-            }
-
-            String now = formatDbDate(new Date());
+        String now = formatDbDate(new Date());
 
-            // ヘッダ（コンテナ）を反映
+        // 受信内容を変換（キー単位で最後に受信した内容を採用）
+        // データが空なら明細も反映しない（業務テーブルは空になる。仕様として受け入れる想定）
+        Map<String, KakuninContainerStageEntity> containers = new LinkedHashMap<>();
+        Map<String, KakuninMeisaiStageEntity> details = new LinkedHashMap<>();
+        if (!data.syougoHeader.isEmpty()) {
+            // ヘッダ（コンテナ）
             for (SyougoHeader header : data.syougoHeader) {
-                KakuninContainerEntity entity = new KakuninContainerEntity();
-                entity.containerId = header.containerID;
+                KakuninContainerStageEntity entity = new KakuninContainerStageEntity();
+                entity.containerId = normalizeDbKey(header.containerID);
                 entity.containerNo = header.containerNo;
                 entity.bundleCnt = header.bundleCnt;
                 entity.sagyouYmd = formatDbDate(header.sagyouYMD);
@@ -801,215 +1419,107 @@ public class DataSync {
                 entity.dataSendYmdhms = null;
                 entity.insertProcName = "ReceiveSyougoData";
                 entity.insertYmd = now;
-                kakuninContainerDao.upsert(entity);
+                containers.put(entity.containerId, entity);
             }
 
-            // 明細（束）を反映
+            // 明細（束）
             for (SyougoDtl detail : data.syogoDtl) {
-                KakuninMeisaiEntity entity = new KakuninMeisaiEntity();
-                entity.heatNo = detail.syogoDtlheatNo;
-                entity.sokuban = detail.syogoDtlsokuban;
+                KakuninMeisaiStageEntity entity = new KakuninMeisaiStageEntity();
+                entity.heatNo = normalizeDbKey(detail.syogoDtlheatNo);
+                entity.sokuban = normalizeDbKey(detail.syogoDtlsokuban);
                 entity.syukkaSashizuNo = detail.syougoDtlsyukkaSashizuNo;
                 entity.bundleNo = detail.syougoDtlbundleNo;
                 entity.jyuryo = detail.syougoDtljyuryo;
-                entity.containerId = detail.syougoDtlcontainerID;
+                entity.containerId = normalizeDbKey(detail.syougoDtlcontainerID);
 
                 // 受信直後は未確認（UI操作等で更新される想定）
                 entity.containerSyougoKakunin = false;
 
                 entity.insertProcName = "ReceiveSyougoData";
                 entity.insertYmd = now;
-                kakuninMeisaiDao.upsert(entity);
+                details.put(meisaiKey(entity.heatNo, entity.sokuban), entity);
             }
-        });
-    }
-
-    //============================================================
-    //　機　能　:　送信用に画像データを取得する（存在しない場合はnull）
-    //　引　数　:　containerId ..... ID
-    //　　　　　:　imgType ..... 画像種別
-    //　戻り値　:　[byte[]] ..... JPEGバイト配列（取得できない場合はnull）
-    //============================================================
-    private byte[] getPicture(int containerId, ImageType imgType) {
-        // 画像ファイルを特定
-        File file = getImageFile(containerId, imgType);
-        if (file == null || !file.exists()) {
-            return null;
         }
 
-        // サイズ制限に収まるように縮小／回転補正／圧縮する
-        try {
-            return downscaleJpegIfNeeded(file, 700 * 1024, 1280, 80);
-
-        } catch (IOException ex) {
-            Log.e(TAG, "Image read failed: " + file.getAbsolutePath(), ex);
-            return null;
-        }
-    }
+        long applyStart = SystemClock.elapsedRealtime();
 
-    //============================================================
-    //　機　能　:　JPEG画像を容量・サイズ制限に合わせて縮小し、必要なら回転補正する
-    //　引　数　:　file ..... ファイル関連情報
-    //　　　　　:　maxBytes ..... 最大バイト数
-    //　　　　　:　maxEdge ..... 最大辺長
-    //　　　　　:　startQuality ..... 開始画質
-    //　戻り値　:　[byte[]] ..... 変換後JPEGバイト配列
-    //============================================================
-    private byte[] downscaleJpegIfNeeded(File file, int maxBytes, int maxEdge, int startQuality)
-            throws IOException {
-
-        // ファイルサイズとExif回転角度を取得
-        long length = file.length();
-        int rotationDegrees = readExifRotation(file);
-
-        // 容量が既に上限以下の場合
-        if (length <= maxBytes) {
-            // 回転不要ならファイルをそのまま読み込んで返す（変換コストを避ける）
-            if (rotationDegrees == 0) {
-                try (FileInputStream stream = new FileInputStream(file)) {
-                    byte[] buffer = new byte[(int) length];
-                    int read = stream.read(buffer);
-                    if (read < 0) {
-                        return null;
-                    }
-                    return buffer;
-                }
-            }
-
-            // 回転が必要な場合はBitmap化して回転→圧縮して返す
-            Bitmap bitmap = BitmapFactory.decodeFile(file.getAbsolutePath());
-            if (bitmap == null) {
-                return null;
-            }
-
-            Bitmap rotated = rotateBitmapIfNeeded(bitmap, rotationDegrees);
-            byte[] out = compressBitmap(rotated, maxBytes, startQuality);
-
-            // メモリ解放
-            rotated.recycle();
-            return out;
-        }
+        // 受信中テーブルへ分割して格納（業務テーブルには触れず、1回の書き込みを短く保つ）
+        db.runInTransaction(() -> {
+            kakuninStageDao.deleteContainerAll();
+            kakuninStageDao.deleteMeisaiAll();
+        });
+        insertInBatches(new ArrayList<>(containers.values()), kakuninStageDao::insertContainerAll);
+        insertInBatches(new ArrayList<>(details.values()), kakuninStageDao::insertMeisaiAll);
 
-        // 容量が大きい場合：まず画像サイズを見て適切なinSampleSizeを決める
-        BitmapFactory.Options bounds = new BitmapFactory.Options();
-        bounds.inJustDecodeBounds = true;
-        BitmapFactory.decodeFile(file.getAbsolutePath(), bounds);
-
-        // 最大辺がmaxEdge以下になるようにサンプルを2倍刻みで上げる
-        int sample = 1;
-        int width = Math.max(bounds.outWidth, 1);
-        int height = Math.max(bounds.outHeight, 1);
-        int longest = Math.max(width, height);
-        while (longest / sample > maxEdge) {
-            sample *= 2;
+        // 格納件数を検証（不一致の場合は業務テーブルを変更しない）
+        if (kakuninStageDao.countContainer() != containers.size()
+                || kakuninStageDao.countMeisai() != details.size()) {
+            throw new IllegalStateException("照合データの格納件数が一致しません");
         }
 
-        // 指定サンプルでデコード（縮小読み込み）
-        BitmapFactory.Options opts = new BitmapFactory.Options();
-        opts.inSampleSize = sample;
+        // 業務テーブルを一括で入れ替える（書き込みロックはこの間のみ）
+        long swapStart = SystemClock.elapsedRealtime();
+        db.runInTransaction(() -> {
+            kakuninContainerDao.deleteAll();
+            kakuninMeisaiDao.deleteAll();
+            kakuninStageDao.copyContainerToTable();
+            kakuninStageDao.copyMeisaiToTable();
+        });
+        long swapMs = SystemClock.elapsedRealtime() - swapStart;
+        phaseDbApplyMs.put(PHASE_SYOUGO_RECEIVE, SystemClock.elapsedRealtime() - applyStart);
+        Log.i(TAG, "SyougoData swapped. container=" + containers.size()
+                + " meisai=" + details.size() + " swapMs=" + swapMs);
 
-        Bitmap bitmap = BitmapFactory.decodeFile(file.getAbsolutePath(), opts);
-        if (bitmap == null) {
-            return null;
+        // 入れ替え済みの受信中データを削除（失敗しても次回受信時に削除する）
+        try {
+            db.runInTransaction(() -> {
+                kakuninStageDao.deleteContainerAll();
+                kakuninStageDao.deleteMeisaiAll();
+            });
+        } catch (Exception ex) {
+            Log.w(TAG, "stage cleanup failed", ex);
         }
-
-        // Exif回転を反映し、圧縮して最大バイト数に収める
-        Bitmap rotated = rotateBitmapIfNeeded(bitmap, rotationDegrees);
-        byte[] out = compressBitmap(rotated, maxBytes, startQuality);
-
-        // メモリ解放
-        rotated.recycle();
-        return out;
     }
 
     //============================================================
-    //　機　能　:　Exifから回転角度を取得する（回転不要なら0）
-    //　引　数　:　file ..... ファイル関連情報
-    //　戻り値　:　[int] ..... 回転角度（0/90/180/270）
+    //　機　能　:　行を一定件数ずつ分割して登録する（1回の登録が1トランザクション）
+    //　引　数　:　rows ..... 登録する行
+    //　　　　　:　insert ..... 一括登録処理（DAOの@Insert）
+    //　戻り値　:　[void] ..... なし
     //============================================================
-    private int readExifRotation(File file) {
-        try {
-            ExifInterface exif = new ExifInterface(file.getAbsolutePath());
-            int orientation = exif.getAttributeInt(
-                    ExifInterface.TAG_ORIENTATION,
-                    ExifInterface.ORIENTATION_NORMAL
-            );
-
-            // Orientation値を角度へ変換
-            if (orientation == ExifInterface.ORIENTATION_ROTATE_90) {
-                return 90;
-            }
-            if (orientation == ExifInterface.ORIENTATION_ROTATE_180) {
-                return 180;
-            }
-            if (orientation == ExifInterface.ORIENTATION_ROTATE_270) {
-                return 270;
-            }
-        } catch (IOException ex) {
-            // Exif読み込み失敗時は回転なし扱いで継続
-            Log.w(TAG, "Exif read failed: " + file.getAbsolutePath(), ex);
+    private static <T> void insertInBatches(List<T> rows, Consumer<List<T>> insert) {
+        for (int from = 0; from < rows.size(); from += STAGE_BATCH_SIZE) {
+            insert.accept(rows.subList(from, Math.min(from + STAGE_BATCH_SIZE, rows.size())));
         }
-        return 0;
     }
 
     //============================================================
-    //　機　能　:　必要に応じてBitmapを回転する（回転不要なら入力を返す）
-    //　引　数　:　bitmap ..... 画像データ
-    //　　　　　:　degrees ..... 回転角度
-    //　戻り値　:　[Bitmap] ..... 回転後Bitmap（回転不要なら入力のまま）
+    //　機　能　:　送信用の画像ファイルを取得する（存在しない場合はnull）
+    //　　　　　　 撮影時に送信用へ変換済みのため、通常は元ファイルをそのまま返す
+    //　　　　　　 未変換の画像（変換失敗・旧バージョンでの撮影分）のみここで変換する
+    //　引　数　:　containerId ..... ID
+    //　　　　　:　imgType ..... 画像種別
+    //　戻り値　:　[File] ..... 送信用JPEGファイル（取得できない場合はnull）
     //============================================================
-    private Bitmap rotateBitmapIfNeeded(Bitmap bitmap, int degrees) {
-        // 回転不要ならそのまま返す
-        if (degrees == 0) {
-            return bitmap;
+    private File getPicture(int containerId, ImageType imgType) {
+        // 画像ファイルを特定
+        File file = getImageFile(containerId, imgType);
+        if (file == null || !file.exists()) {
+            return null;
         }
 
-        // 回転行列を生成
-        Matrix matrix = new Matrix();
-        matrix.postRotate(degrees);
-
-        // 回転後Bitmapを生成
-        Bitmap rotated = Bitmap.createBitmap(
-                bitmap,
-                0,
-                0,
-                bitmap.getWidth(),
-                bitmap.getHeight(),
-                matrix,
-                true
-        );
-
-        // createBitmapで別インスタンスになった場合は元Bitmapを解放
-        if (rotated != bitmap) {
-            bitmap.recycle();
+        // 変換済み（容量が上限以下かつ回転不要）ならファイルをそのまま送る
+        if (SendImageProcessor.isUploadReady(file)) {
+            return file;
         }
-        return rotated;
-    }
 
-    //============================================================
-    //　機　能　:　BitmapをJPEG圧縮し、最大サイズまで品質を落として調整する
-    //　引　数　:　bitmap ..... 画像データ
-    //　　　　　:　maxBytes ..... 最大バイト数
-    //　　　　　:　startQuality ..... 開始画質
-    //　戻り値　:　[byte[]] ..... 圧縮後JPEGバイト配列
-    //============================================================
-    private byte[] compressBitmap(Bitmap bitmap, int maxBytes, int startQuality) {
-        int quality = startQuality;
-        byte[] out;
-
-        // サイズが収まるまで品質を落として繰り返し圧縮（下限40）
-        do {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            bitmap.compress(Bitmap.CompressFormat.JPEG, quality, baos);
-            out = baos.toByteArray();
-            quality -= 10;
-        } while (out.length > maxBytes && quality >= 40);
-
-        // 最終的に収まらない場合は警告ログ（送信側で弾かれる可能性）
-        if (out.length > maxBytes) {
-            Log.w(TAG, "Image still oversized after compression: " + out.length + " bytes");
+        // 未変換の場合のみ送信用ファイルへ変換する
+        File sendFile = getSendImageFile(containerId, imgType);
+        if (!SendImageProcessor.prepareUploadImage(file, sendFile)) {
+            Log.e(TAG, "Image convert failed: " + file.getAbsolutePath());
+            return null;
         }
-        return out;
+        return sendFile;
     }
 
     //============================================================
@@ -1028,6 +1538,19 @@ public class DataSync {
         }
     }
 
+    //============================================================
+    //　機　能　:　送信用画像ファイルを削除する（作成されていない場合は何もしない）
+    //　引　数　:　containerId ..... ID
+    //　　　　　:　imgType ..... 画像種別
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void deleteSendImage(int containerId, ImageType imgType) {
+        File file = getSendImageFile(containerId, imgType);
+        if (file.exists() && !file.delete()) {
+            Log.w(TAG, "Send image delete failed: " + file.getAbsolutePath());
+        }
+    }
+
     //============================================================
     //　機　能　:　画像ファイルを取得する（containerIdと種別からファイル名を生成）
     //　引　数　:　containerId ..... ID
@@ -1042,6 +1565,17 @@ public class DataSync {
         return new File(imageDir, name);
     }
 
+    //============================================================
+    //　機　能　:　送信用画像ファイルを取得する（縮小後の一時ファイル）
+    //　引　数　:　containerId ..... ID
+    //　　　　　:　imgType ..... 画像種別
+    //　戻り値　:　[File] ..... 送信用画像ファイル
+    //============================================================
+    private File getSendImageFile(int containerId, ImageType imgType) {
+        String name = "send_container_" + containerId + "_" + imgType.getSuffix() + ".jpg";
+        return new File(sendImageDir, name);
+    }
+
     //============================================================
     //　機　能　:　画像保存ディレクトリを解決する（外部領域優先、無ければ内部領域）
     //　引　数　:　context ..... コンテキスト情報
@@ -1063,7 +1597,7 @@ public class DataSync {
     //　引　数　:　date ..... 日時
     //　戻り値　:　[String] ..... DB用日時文字列（dateがnullならnull）
     //============================================================
-    private String formatDbDate(Date date) {
+    private static String formatDbDate(Date date) {
         if (date == null) {
             return null;
         }
@@ -1084,7 +1618,10 @@ public class DataSync {
             if (value.contains("T")) {
                 return XsdDateTime.parse(value);
             }
-            return dbDateFormat.parse(value);
+            // SimpleDateFormatはスレッドセーフでないため排他する（出荷系・照合系の並行実行）
+            synchronized (dbDateFormat) {
+                return dbDateFormat.parse(value);
+            }
         } catch (ParseException ex) {
             Log.w(TAG, "Failed to parse date: " + value, ex);
             return null;
@@ -1109,4 +1646,24 @@ public class DataSync {
     private int intOrZero(Integer value) {
         return value == null ? 0 : value;
     }
+
+    //============================================================
+    //　機　能　:　明細キー（鋼番＋束番）を生成する（前後空白は除去して比較）
+    //　引　数　:　heatNo ..... 鋼番
+    //　　　　　:　sokuban ..... 束番
+    //　戻り値　:　[String] ..... 明細キー
+    //============================================================
+    private static String meisaiKey(String heatNo, String sokuban) {
+        return (heatNo == null ? "" : heatNo.trim()) + "\t" + (sokuban == null ? "" : sokuban.trim());
+    }
+
+    //============================================================
+    //　機　能　:　DB登録用にキー項目を正規化する（前後空白を除去）
+    //　　　　　　 DAOは列側をTRIMせず索引で検索するため、登録時に揃えておく
+    //　引　数　:　value ..... キー値
+    //　戻り値　:　[String] ..... 正規化後のキー値（nullはnullのまま）
+    //============================================================
+    private static String normalizeDbKey(String value) {
+        return value == null ? null : value.trim();
+    }
 }
@@ -0,0 +1,220 @@
+package com.example.myapplication.connector;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.example.myapplication.db.AppDatabase;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+
+//==================================================================================
+//　処理概要　:　保守データ（DB・ログ）をアップロードするクラス
+//　　　　　　　 DBは整合の取れた複製を作ってgzip圧縮し、UploadBinaryFileで送信する
+//　　　　　　　 ファイルは送信名のまま1回で送る（既存のUploadBinaryFileは受信したファイルを
+//　　　　　　　 そのまま保存するため、サーバ側の変更なしで受け取れる）
+//　　　　　　　 本文は送信時にファイルから読みながらBase64化するため、サイズによらず
+//　　　　　　　 ファイル全体をメモリへ読み込まない
+//　　　　　　　 ※分割送信・途中再開は、サーバ側に分割ファイルの結合・検証が実装されるまで行わない
+//　関　　数　:　MaintenanceUploader ............ 初期化
+//　　　　　　:　uploadDatabase ................. DBの複製・圧縮・アップロード
+//　　　　　　:　uploadFile ..................... ファイルのアップロード（送信後削除）
+//　　　　　　:　deleteLeftovers ................ 前回中断時の作業ファイル削除
+//　　　　　　:　createSnapshot ................. DBの整合の取れた複製作成
+//　　　　　　:　copyWithWal .................... WAL込みの複製作成（VACUUM INTO非対応端末）
+//　　　　　　:　gzipFile ....................... ファイルのgzip圧縮
+//==================================================================================
+public final class MaintenanceUploader {
+    private static final String TAG = "MaintenanceUploader"; // ログタグ
+
+    private static final String WORK_DIR_NAME = "maintenance";  // 作業ディレクトリ名
+
+    private final Context appContext;     // アプリケーションコンテキスト
+    private final SvcHandyWrapper svc;    // 通信ラッパー
+    private final File workDir;           // 作業ディレクトリ
+
+    //============================================================
+    //　機　能　:　MaintenanceUploaderを初期化する
+    //　引　数　:　context ..... コンテキスト情報
+    //　　　　　:　svc ..... 通信ラッパー
+    //　戻り値　:　[MaintenanceUploader] ..... なし
+    //============================================================
+    public MaintenanceUploader(Context context, SvcHandyWrapper svc) {
+        this.appContext = context.getApplicationContext();
+        this.svc = svc;
+        this.workDir = new File(appContext.getFilesDir(), WORK_DIR_NAME);
+    }
+
+    //============================================================
+    //　機　能　:　DBの複製を作成・圧縮し、アップロードする
+    //　　　　　　 複製は送信の成否によらず削除する（再送時は最新の状態で複製し直す）
+    //　引　数　:　なし
+    //　戻り値　:　[boolean] ..... 送信できればtrue
+    //============================================================
+    public boolean uploadDatabase() throws Exception {
+        if (!workDir.exists() && !workDir.mkdirs()) {
+            throw new IOException("作業ディレクトリを作成できません");
+        }
+        deleteLeftovers();
+
+        String stamp = new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.JAPAN).format(new Date());
+        String baseName = AppDatabase.DB_NAME.replace(".sqlite", "") + "_" + stamp;
+        File raw = new File(workDir, baseName + ".sqlite");
+        File snapshot = new File(workDir, baseName + ".sqlite.gz");
+        try {
+            createSnapshot(raw);
+            gzipFile(raw, snapshot);
+            deleteDbFiles(raw); // 圧縮前の複製は送信前に削除（空き容量の確保）
+            return svc.uploadBinaryFile(snapshot.getName(), snapshot);
+        } finally {
+            deleteDbFiles(raw);
+            snapshot.delete();
+        }
+    }
+
+    //============================================================
+    //　機　能　:　ファイルをアップロードする（ログ等、圧縮済みファイル用）
+    //　　　　　　 送信完了後は対象ファイルを削除する（同じファイルを次回再送しない）
+    //　引　数　:　file ..... 対象ファイル
+    //　戻り値　:　[boolean] ..... 送信できればtrue
+    //============================================================
+    public boolean uploadFile(File file) throws Exception {
+        boolean sent = svc.uploadBinaryFile(file.getName(), file);
+        if (sent && !file.delete()) {
+            Log.w(TAG, "uploaded file delete failed: " + file.getName());
+        }
+        return sent;
+    }
+
+    //============================================================
+    //　機　能　:　前回中断時（送信中の強制終了等）に残った作業ファイルを削除する
+    //　　　　　　 （旧バージョンの分割送信の進捗ファイルを含む）
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void deleteLeftovers() {
+        File[] files = workDir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (!file.delete()) {
+                Log.w(TAG, "leftover delete failed: " + file.getName());
+            }
+        }
+    }
+
+    //============================================================
+    //　機　能　:　DBの整合の取れた複製を作成する
+    //　　　　　　 VACUUM INTO対応端末（SQLite 3.27以上）はVACUUM INTO、
+    //　　　　　　 非対応端末は書き込みを止めた状態で本体＋WALを複製して取り込む
+    //　引　数　:　dest ..... 複製先
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void createSnapshot(File dest) throws IOException {
+        deleteDbFiles(dest);
+        SupportSQLiteDatabase db = AppDatabase.getInstance(appContext)
+                .getOpenHelper().getWritableDatabase();
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            db.execSQL("VACUUM INTO ?", new Object[]{dest.getAbsolutePath()});
+            return;
+        }
+        copyWithWal(db, dest);
+    }
+
+    //============================================================
+    //　機　能　:　書き込みトランザクション中に本体・WALを複製し、複製側でWALを取り込む
+    //　引　数　:　db ..... 複製元DB
+    //　　　　　:　dest ..... 複製先
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void copyWithWal(SupportSQLiteDatabase db, File dest) throws IOException {
+        File dbFile = appContext.getDatabasePath(AppDatabase.DB_NAME);
+        File walFile = new File(dbFile.getPath() + "-wal");
+
+        // 書き込みを止めている間は自動チェックポイントも走らないため、本体とWALが一致する
+        db.beginTransaction();
+        try {
+            copyFile(dbFile, dest);
+            if (walFile.exists()) {
+                copyFile(walFile, new File(dest.getPath() + "-wal"));
+            }
+        } finally {
+            db.endTransaction();
+        }
+
+        // 複製側を開いてWALを本体へ取り込み、単一ファイルにする
+        SQLiteDatabase copy = SQLiteDatabase.openDatabase(dest.getPath(), null,
+                SQLiteDatabase.OPEN_READWRITE);
+        try (Cursor c = copy.rawQuery("PRAGMA journal_mode=DELETE", null)) {
+            c.moveToFirst();
+        } finally {
+            copy.close();
+        }
+    }
+
+    //============================================================
+    //　機　能　:　ファイルをgzip圧縮する（一時ファイル経由で確定）
+    //　引　数　:　src ..... 圧縮元
+    //　　　　　:　dest ..... 圧縮先
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void gzipFile(File src, File dest) throws IOException {
+        File tmp = new File(dest.getPath() + ".tmp");
+        try (InputStream in = new FileInputStream(src);
+             OutputStream out = new GZIPOutputStream(new FileOutputStream(tmp), 64 * 1024)) {
+            byte[] buf = new byte[64 * 1024];
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                out.write(buf, 0, n);
+            }
+        }
+        if (!tmp.renameTo(dest)) {
+            tmp.delete();
+            throw new IOException("rename failed: " + dest.getName());
+        }
+    }
+
+    //============================================================
+    //　機　能　:　ファイルを複製する
+    //　引　数　:　src ..... 複製元
+    //　　　　　:　dest ..... 複製先
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private static void copyFile(File src, File dest) throws IOException {
+        try (InputStream in = new FileInputStream(src);
+             OutputStream out = new FileOutputStream(dest)) {
+            byte[] buf = new byte[64 * 1024];
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                out.write(buf, 0, n);
+            }
+        }
+    }
+
+    //============================================================
+    //　機　能　:　DB複製ファイル（本体・WAL・SHM・ジャーナル）を削除する
+    //　引　数　:　file ..... DB複製ファイル
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private static void deleteDbFiles(File file) {
+        for (String suffix : new String[]{"", "-wal", "-shm", "-journal"}) {
+            new File(file.getPath() + suffix).delete();
+        }
+    }
+}
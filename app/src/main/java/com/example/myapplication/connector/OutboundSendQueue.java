@@ -0,0 +1,364 @@
+package com.example.myapplication.connector;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.myapplication.db.AppDatabase;
+import com.example.myapplication.db.dao.SendQueueDao;
+import com.example.myapplication.db.entity.KakuninContainerEntity;
+import com.example.myapplication.db.entity.SendQueueEntity;
+import com.example.myapplication.db.entity.SyukkaContainerEntity;
+import com.example.myapplication.time.DateTimeFormatUtil;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+//==================================================================================
+//　処理概要　:　送信待ち（T_SEND_QUEUE）をバックグラウンドで送信するクラス
+//　　　　　　　 登録処理は送信待ちへ積むだけで終了し、通信はこのクラスが後から行う
+//　関　　数　:　getInstance .................... インスタンス取得（Singleton）
+//　　　　　　:　start .......................... 通信状態の監視開始＋初回送信
+//　　　　　　:　enqueueSyukka .................. 出荷データの送信待ち登録
+//　　　　　　:　enqueueSyougo .................. 照合データの送信待ち登録
+//　　　　　　:　requestDrain ................... 送信処理の要求（重複要求はまとめる）
+//　　　　　　:　drain .......................... 送信時刻が到来した送信待ちの送信（未接続時は再試行予約）
+//　　　　　　:　resolveJobs .................... 送信結果の反映（完了削除／再試行予約）
+//　　　　　　:　isSent ......................... 送信済み判定
+//　　　　　　:　scheduleNext ................... 次回送信の予約
+//　　　　　　:　retryDelayMillis ............... 再試行間隔（指数バックオフ）の算出
+//　　　　　　:　isOnline ....................... インターネット接続可否の判定
+//==================================================================================
+public final class OutboundSendQueue {
+    private static final String TAG = "OutboundSendQueue"; // ログタグ
+
+    public static final String JOB_SYUKKA = "SYUKKA"; // 送信種別：出荷データ
+    public static final String JOB_SYOUGO = "SYOUGO"; // 送信種別：照合データ
+
+    private static final long RETRY_BASE_MILLIS = 30 * 1000L;     // 再試行間隔（初回）
+    private static final long RETRY_MAX_MILLIS = 30 * 60 * 1000L; // 再試行間隔（上限）
+    private static final long MIN_SCHEDULE_MILLIS = 1000L;        // 次回予約の最短間隔
+
+    private static OutboundSendQueue instance; // インスタンス（Singleton）
+
+    private final Context appContext;            // アプリケーションコンテキスト
+    private final AppDatabase db;                // DBインスタンス
+    private final SendQueueDao sendQueueDao;     // 送信待ちDAO
+
+    // 送信処理は1スレッドで順に実行する（送信待ちの同時送信を防ぐ）
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor();
+
+    // 送信処理の要求済みフラグ（実行前の重複要求をまとめる）
+    private final AtomicBoolean drainRequested = new AtomicBoolean(false);
+
+    // 日時解析用（workerスレッドでのみ使用）
+    private final SimpleDateFormat dbDateFormat =
+            new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.JAPAN);
+
+    private ScheduledFuture<?> scheduled; // 次回送信の予約
+    private int offlineRetryCount = 0;    // 未接続で送信を見送った連続回数（workerスレッドでのみ使用）
+    private boolean started = false;      // 監視開始済みフラグ
+
+    //============================================================
+    //　機　能　:　OutboundSendQueueを初期化する
+    //　引　数　:　context ..... コンテキスト情報
+    //　戻り値　:　[OutboundSendQueue] ..... なし
+    //============================================================
+    private OutboundSendQueue(Context context) {
+        this.appContext = context.getApplicationContext();
+        this.db = AppDatabase.getInstance(appContext);
+        this.sendQueueDao = db.sendQueueDao();
+    }
+
+    //============================================================
+    //　機　能　:　インスタンスを取得する（Singleton）
+    //　引　数　:　context ..... コンテキスト情報
+    //　戻り値　:　[OutboundSendQueue] ..... インスタンス
+    //============================================================
+    public static synchronized OutboundSendQueue getInstance(Context context) {
+        if (instance == null) {
+            instance = new OutboundSendQueue(context);
+        }
+        return instance;
+    }
+
+    //============================================================
+    //　機　能　:　通信状態の監視を開始し、残っている送信待ちを送信する
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+
+        // 通信が回復したら送信待ちを送信する
+        ConnectivityManager manager =
+                (ConnectivityManager) appContext.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (manager != null) {
+            manager.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+                @Override
+                public void onAvailable(@NonNull Network network) {
+                    requestDrain();
+                }
+            });
+        }
+
+        // 前回起動時の送信待ちを送信
+        requestDrain();
+    }
+
+    //============================================================
+    //　機　能　:　出荷データ（コンテナ単位）を送信待ちへ登録する
+    //　　　　　　 登録処理のトランザクション内で呼び、コミット後にrequestDrainで送信を要求する
+    //　　　　　　 ※DBアクセスを伴うためバックグラウンドスレッドから呼ぶこと
+    //　引　数　:　containerId ..... コンテナID
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    public void enqueueSyukka(int containerId) {
+        enqueue(JOB_SYUKKA, String.valueOf(containerId), "ContainerInput");
+    }
+
+    //============================================================
+    //　機　能　:　照合データ（コンテナ単位）を送信待ちへ登録する
+    //　　　　　　 確定処理のトランザクション内で呼び、コミット後にrequestDrainで送信を要求する
+    //　　　　　　 ※DBアクセスを伴うためバックグラウンドスレッドから呼ぶこと
+    //　引　数　:　containerId ..... コンテナID
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    public void enqueueSyougo(@NonNull String containerId) {
+        enqueue(JOB_SYOUGO, containerId, "VanningCollation");
+    }
+
+    //============================================================
+    //　機　能　:　送信待ちへ登録する
+    //　　　　　　 送信処理はここでは要求しない（コミット前の登録をworkerが読めないため）
+    //　引　数　:　jobType ..... 送信種別
+    //　　　　　:　targetId ..... 送信対象ID
+    //　　　　　:　procName ..... 登録処理名
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void enqueue(String jobType, String targetId, String procName) {
+        String now = DateTimeFormatUtil.nowDbYmdHms();
+
+        SendQueueEntity entity = new SendQueueEntity();
+        entity.jobType = jobType;
+        entity.targetId = targetId;
+        entity.retryCount = 0;
+        entity.nextRunYmdhms = now;
+        entity.insertProcName = procName;
+        entity.insertYmd = now;
+        sendQueueDao.enqueue(entity);
+    }
+
+    //============================================================
+    //　機　能　:　送信処理を要求する（実行待ちの要求がある場合はまとめる）
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    public void requestDrain() {
+        if (drainRequested.compareAndSet(false, true)) {
+            worker.execute(this::drain);
+        }
+    }
+
+    //============================================================
+    //　機　能　:　送信時刻が到来した送信待ちを送信する（workerスレッド）
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void drain() {
+        drainRequested.set(false);
+
+        // 未接続の場合は送信せず、再試行間隔（指数バックオフ）後に再確認する
+        // （送信待ちの送信日時は変えないため、接続回復の通知があればすぐに送信する）
+        if (!isOnline()) {
+            offlineRetryCount++;
+            long delay = retryDelayMillis(offlineRetryCount);
+            Log.i(TAG, "Offline; check again in " + delay + "ms.");
+            try {
+                scheduleNext(delay);
+            } catch (Exception ex) {
+                Log.e(TAG, "Schedule failed", ex);
+            }
+            return;
+        }
+        offlineRetryCount = 0;
+
+        try {
+            List<SendQueueEntity> due = sendQueueDao.findDue(DateTimeFormatUtil.nowDbYmdHms());
+            if (due.isEmpty()) {
+                return;
+            }
+
+            // 送信種別ごとに対象コンテナをまとめる
+            List<SendQueueEntity> syukkaJobs = new ArrayList<>();
+            List<SendQueueEntity> syougoJobs = new ArrayList<>();
+            List<Integer> syukkaIds = new ArrayList<>();
+            List<String> syougoIds = new ArrayList<>();
+            for (SendQueueEntity job : due) {
+                if (JOB_SYUKKA.equals(job.jobType)) {
+                    try {
+                        syukkaIds.add(Integer.parseInt(job.targetId));
+                        syukkaJobs.add(job);
+                    } catch (NumberFormatException ex) {
+                        // 不正な登録は送信できないため削除
+                        Log.w(TAG, "Invalid syukka target; drop. targetId=" + job.targetId);
+                        sendQueueDao.delete(job.jobType, job.targetId);
+                    }
+                } else if (JOB_SYOUGO.equals(job.jobType)) {
+                    syougoIds.add(job.targetId);
+                    syougoJobs.add(job);
+                }
+            }
+
+            DataSync sync = new DataSync(appContext);
+
+            // 出荷データ送信
+            if (!syukkaJobs.isEmpty()) {
+                String error = null;
+                try {
+                    if (!sync.sendSyukkaContainers(syukkaIds)) {
+                        error = sync.getLastErrorMessage();
+                    }
+                } catch (Exception ex) {
+                    Log.e(TAG, "Syukka send failed", ex);
+                    error = ex.getMessage();
+                }
+                resolveJobs(syukkaJobs, error);
+            }
+
+            // 照合データ送信
+            if (!syougoJobs.isEmpty()) {
+                String error = null;
+                if (!sync.sendSyougoContainers(syougoIds)) {
+                    error = sync.getLastErrorMessage();
+                }
+                resolveJobs(syougoJobs, error);
+            }
+        } catch (Exception ex) {
+            // 想定外例外はログのみ（次回予約で再試行）
+            Log.e(TAG, "Drain failed", ex);
+        } finally {
+            scheduleNext(MIN_SCHEDULE_MILLIS);
+        }
+    }
+
+    //============================================================
+    //　機　能　:　送信結果を送信待ちへ反映する
+    //　　　　　　 送信済みは削除し、未送信は再試行回数を加算して次回送信日時を遅らせる
+    //　引　数　:　jobs ..... 送信した送信待ち
+    //　　　　　:　error ..... 送信エラー（成功時はnull）
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void resolveJobs(List<SendQueueEntity> jobs, String error) {
+        long nowMillis = System.currentTimeMillis();
+        String now = DateTimeFormatUtil.formatDbYmdHms(new Date(nowMillis));
+
+        for (SendQueueEntity job : jobs) {
+            // 送信済み（同期処理など他経路で送信された場合を含む）は削除
+            if (isSent(job)) {
+                sendQueueDao.delete(job.jobType, job.targetId);
+                continue;
+            }
+
+            int retryCount = (job.retryCount == null ? 0 : job.retryCount) + 1;
+            String nextRun = DateTimeFormatUtil.formatDbYmdHms(
+                    new Date(nowMillis + retryDelayMillis(retryCount)));
+            sendQueueDao.updateRetry(job.jobType, job.targetId, retryCount, nextRun,
+                    error, "OutboundSendQueue#drain", now);
+
+            Log.w(TAG, "Send pending. type=" + job.jobType + " targetId=" + job.targetId
+                    + " retry=" + retryCount + " next=" + nextRun);
+        }
+    }
+
+    //============================================================
+    //　機　能　:　送信待ちの対象が送信済みか判定する
+    //　引　数　:　job ..... 送信待ち
+    //　戻り値　:　[boolean] ..... 送信済み（または対象が削除済み）ならtrue
+    //============================================================
+    private boolean isSent(SendQueueEntity job) {
+        if (JOB_SYUKKA.equals(job.jobType)) {
+            SyukkaContainerEntity container =
+                    db.syukkaContainerDao().findById(Integer.parseInt(job.targetId));
+            return container == null || container.dataSendYmdhms != null;
+        }
+        KakuninContainerEntity container = db.kakuninContainerDao().findByContainerId(job.targetId);
+        return container == null || container.dataSendYmdhms != null;
+    }
+
+    //============================================================
+    //　機　能　:　残っている送信待ちの次回送信日時に送信処理を予約する
+    //　引　数　:　minDelayMillis ..... 予約までの最短の待ち時間（ミリ秒）
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void scheduleNext(long minDelayMillis) {
+        if (scheduled != null) {
+            scheduled.cancel(false);
+            scheduled = null;
+        }
+
+        String nextRun = sendQueueDao.findNextRun();
+        if (nextRun == null) {
+            return;
+        }
+
+        long delay = minDelayMillis;
+        try {
+            Date next = dbDateFormat.parse(nextRun);
+            if (next != null) {
+                delay = Math.max(minDelayMillis, next.getTime() - System.currentTimeMillis());
+            }
+        } catch (ParseException ex) {
+            Log.w(TAG, "Invalid next run: " + nextRun, ex);
+        }
+        scheduled = worker.schedule(this::requestDrain, delay, TimeUnit.MILLISECONDS);
+    }
+
+    //============================================================
+    //　機　能　:　再試行間隔を算出する（指数バックオフ、上限あり）
+    //　引　数　:　retryCount ..... 再試行回数（1以上）
+    //　戻り値　:　[long] ..... 再試行までの待ち時間（ミリ秒）
+    //============================================================
+    private long retryDelayMillis(int retryCount) {
+        int shift = Math.min(Math.max(retryCount - 1, 0), 16);
+        return Math.min(RETRY_BASE_MILLIS << shift, RETRY_MAX_MILLIS);
+    }
+
+    //============================================================
+    //　機　能　:　インターネットに接続可能か判定する
+    //　引　数　:　なし
+    //　戻り値　:　[boolean] ..... 接続可能ならtrue
+    //============================================================
+    private boolean isOnline() {
+        ConnectivityManager manager =
+                (ConnectivityManager) appContext.getSystemService(Context.CONNECTIVITY_SERVICE);
+        if (manager == null) {
+            // 判定できない場合は送信を試みる
+            return true;
+        }
+        Network active = manager.getActiveNetwork();
+        if (active == null) {
+            return false;
+        }
+        NetworkCapabilities capabilities = manager.getNetworkCapabilities(active);
+        return capabilities != null
+                && capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET);
+    }
+}
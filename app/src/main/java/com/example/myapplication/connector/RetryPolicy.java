@@ -0,0 +1,206 @@
+package com.example.myapplication.connector;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+
+//========================================================================================
+//　処理概要　:　SOAP呼び出しのリトライ方針（再試行回数/待ち時間/期限/再試行可否）
+//　　　　　　　 通信障害のみ指数バックオフ（ゆらぎ付き）で再試行し、
+//　　　　　　　 SOAP Fault・HTTP 4xxなどの業務/要求エラーは再試行しない
+//　　　　　　　 各試行の通信は、呼び出し全体の期限までの残り時間で打ち切る
+//　関　　数　:　RetryPolicy .............................. 初期化（回数/待ち時間/期限）
+//　　　　　　:　execute .................................. リトライ付き呼び出し
+//　　　　　　:　remainingMillis .......................... 実行中の呼び出しの期限までの残り時間
+//　　　　　　:　isServerResponse ......................... 接続先が応答した例外かの判定
+//　　　　　　:　isRetryable .............................. 再試行可否の判定
+//　　　　　　:　backoffMillis ............................ 再試行までの待ち時間算出
+//========================================================================================
+public final class RetryPolicy {
+
+    //============================================================
+    //　機　能　:　リトライ対象の呼び出し処理
+    //============================================================
+    public interface Call<T> {
+        T call() throws Exception;
+    }
+
+    // 既定：3回まで、0.5秒から倍々（上限8秒）、1呼び出し全体で120秒まで
+    public static final RetryPolicy DEFAULT = new RetryPolicy(3, 500L, 8000L, 120 * 1000L);
+
+    private final int maxAttempts;       // 最大試行回数
+    private final long baseDelayMillis;  // 初回再試行までの待ち時間
+    private final long maxDelayMillis;   // 再試行待ち時間の上限
+    private final long deadlineMillis;   // 1呼び出し全体の期限
+
+    // 実行中の呼び出しの期限（System.currentTimeMillis基準。SoapAsmxClientが各試行の上限に使う）
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    //============================================================
+    //　機　能　:　RetryPolicyを初期化する
+    //　引　数　:　maxAttempts ..... 最大試行回数
+    //　　　　　:　baseDelayMillis ..... 初回再試行までの待ち時間（ミリ秒）
+    //　　　　　:　maxDelayMillis ..... 再試行待ち時間の上限（ミリ秒）
+    //　　　　　:　deadlineMillis ..... 1呼び出し全体の期限（ミリ秒）
+    //　戻り値　:　[RetryPolicy] ..... なし
+    //============================================================
+    public RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis, long deadlineMillis) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    //============================================================
+    //　機　能　:　リトライ方針に従って呼び出す
+    //　　　　　　 ブレーカー遮断中は即失敗し、通信障害はブレーカーへ記録する
+    //　　　　　　 期限は呼び出し中のスレッドへ設定し、各試行の通信は残り時間で打ち切る
+    //　引　数　:　breaker ..... 接続先のブレーカー（nullなら使用しない）
+    //　　　　　:　call ..... 呼び出し処理
+    //　戻り値　:　[T] ..... 呼び出し結果
+    //============================================================
+    public <T> T execute(CircuitBreaker breaker, Call<T> call) throws Exception {
+        long deadline = System.currentTimeMillis() + deadlineMillis;
+        Long outerDeadline = DEADLINE.get();
+        if (outerDeadline != null) {
+            // 入れ子の呼び出しは外側の期限を超えない
+            deadline = Math.min(deadline, outerDeadline);
+        }
+        DEADLINE.set(deadline);
+        try {
+            return executeUntil(deadline, breaker, call);
+        } finally {
+            if (outerDeadline != null) {
+                DEADLINE.set(outerDeadline);
+            } else {
+                DEADLINE.remove();
+            }
+        }
+    }
+
+    //============================================================
+    //　機　能　:　期限までリトライ方針に従って呼び出す
+    //　引　数　:　deadline ..... 期限（System.currentTimeMillis基準）
+    //　　　　　:　breaker ..... 接続先のブレーカー（nullなら使用しない）
+    //　　　　　:　call ..... 呼び出し処理
+    //　戻り値　:　[T] ..... 呼び出し結果
+    //============================================================
+    private <T> T executeUntil(long deadline, CircuitBreaker breaker, Call<T> call) throws Exception {
+        Exception lastException = null;
+        CallMetrics metrics = CallMetrics.current();
+
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            if (breaker != null) {
+                breaker.checkAllowed();
+            }
+            if (metrics != null) {
+                metrics.recordAttempt(attempt);
+            }
+
+            try {
+                T result = call.call();
+                if (breaker != null) {
+                    breaker.recordSuccess();
+                }
+                return result;
+
+            } catch (Exception ex) {
+                lastException = ex;
+
+                // 業務/要求エラーは再試行しない
+                // ・接続先が応答した場合（SOAP Fault・HTTPエラー）は成功扱い
+                // ・割り込み・端末側の例外は接続先の状態が分からないため記録しない
+                if (!isRetryable(ex)) {
+                    if (breaker != null) {
+                        if (isServerResponse(ex)) {
+                            breaker.recordSuccess();
+                        } else {
+                            breaker.recordAbort();
+                        }
+                    }
+                    throw ex;
+                }
+                if (breaker != null) {
+                    breaker.recordFailure();
+                }
+            }
+
+            // 最終試行、または待つと期限を超える場合は終了
+            if (attempt == maxAttempts) {
+                break;
+            }
+            long delay = backoffMillis(attempt);
+            if (System.currentTimeMillis() + delay >= deadline) {
+                break;
+            }
+
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("retry interrupted");
+            }
+        }
+        throw lastException;
+    }
+
+    //============================================================
+    //　機　能　:　実行中の呼び出しの期限までの残り時間を取得する
+    //　引　数　:　なし
+    //　戻り値　:　[long] ..... 残り時間（ミリ秒、最小1）。リトライ外の呼び出しは0（上限なし）
+    //============================================================
+    static long remainingMillis() {
+        Long deadline = DEADLINE.get();
+        if (deadline == null) {
+            return 0L;
+        }
+        return Math.max(1L, deadline - System.currentTimeMillis());
+    }
+
+    //============================================================
+    //　機　能　:　例外が接続先からの応答によるものか判定する
+    //　引　数　:　ex ..... 例外情報
+    //　戻り値　:　[boolean] ..... SOAP Fault・HTTPエラー応答ならtrue
+    //============================================================
+    static boolean isServerResponse(Exception ex) {
+        return ex instanceof SoapFaultException || ex instanceof SoapHttpException;
+    }
+
+    //============================================================
+    //　機　能　:　例外が再試行対象か判定する
+    //　　　　　　 対象：通信障害（IOException）、HTTP 5xx（SOAP Faultを除く）、408/429
+    //　引　数　:　ex ..... 例外情報
+    //　戻り値　:　[boolean] ..... 再試行対象ならtrue
+    //============================================================
+    public static boolean isRetryable(Exception ex) {
+        if (ex instanceof SoapFaultException || ex instanceof CircuitBreaker.OpenException) {
+            return false;
+        }
+        if (ex instanceof SoapHttpException) {
+            SoapHttpException http = (SoapHttpException) ex;
+            int code = http.getStatusCode();
+            if (http.isSoapFault()) {
+                return false;
+            }
+            return code >= 500 || code == 408 || code == 429;
+        }
+        // 割り込み（画面終了等）は再試行しない
+        if (ex instanceof InterruptedIOException && Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        return ex instanceof IOException;
+    }
+
+    //============================================================
+    //　機　能　:　再試行までの待ち時間を算出する（指数バックオフ＋ゆらぎ）
+    //　　　　　　 上限値の半分を固定、残り半分をランダムにして同時再試行の集中を避ける
+    //　引　数　:　attempt ..... 失敗した試行回数（1以上）
+    //　戻り値　:　[long] ..... 待ち時間（ミリ秒）
+    //============================================================
+    private long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 16));
+        long half = ceiling / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+}
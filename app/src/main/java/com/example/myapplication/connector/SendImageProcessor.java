@@ -0,0 +1,364 @@
+package com.example.myapplication.connector;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.media.ExifInterface;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+
+//==================================================================================
+//　処理概要　:　送信用画像（JPEG）の縮小・回転補正・圧縮を行うクラス
+//　　　　　　　 撮影直後に送信可能な画像へ変換しておき、送信時はファイルをそのまま送る
+//　関　　数　:　isUploadReady .................. 送信可能な画像か判定（容量・回転）
+//　　　　　　:　prepareUploadImage ............. 送信用画像の作成（縮小・回転補正・圧縮）
+//　　　　　　:　downscaleJpeg .................. 画像の縮小・回転補正・圧縮
+//　　　　　　:　decodeSampled .................. 縮小デコード（再利用Bitmapへ読み込み）
+//　　　　　　:　readExifRotation ............... Exifから回転角度取得
+//　　　　　　:　rotateBitmapIfNeeded ........... 必要に応じてBitmap回転（再利用Bitmapへ描画）
+//　　　　　　:　compressBitmap ................. JPEG圧縮（容量制限対応／画質予測）
+//　　　　　　:　nextQuality .................... 次に試す画質の予測
+//　　　　　　:　acquireBitmap .................. 再利用Bitmapの取得
+//　　　　　　:　releaseBitmap .................. 再利用Bitmapの返却
+//　　　　　　:　clearPool ...................... 再利用Bitmapの解放（送信後・メモリ逼迫時）
+//==================================================================================
+public final class SendImageProcessor {
+    private static final String TAG = "SendImageProcessor"; // ログタグ
+
+    public static final int PHOTO_MAX_BYTES = 700 * 1024; // 送信画像の最大バイト数
+    public static final int PHOTO_MAX_EDGE = 1280;        // 送信画像の最大辺長
+    public static final int PHOTO_START_QUALITY = 80;     // 送信画像の開始画質
+    private static final int PHOTO_MIN_QUALITY = 40;      // 送信画像の下限画質
+    private static final int QUALITY_STEP = 5;            // 画質予測時の最小変化幅
+    private static final int BITMAP_POOL_MAX = 2;         // 再利用Bitmapの保持数（低メモリ端末向けに少数）
+    private static final int BYTES_PER_PIXEL = 4;         // ARGB_8888の1画素あたりバイト数
+
+    // 再利用Bitmap（デコード先・回転先として使い回す。一括送信の間だけ保持し、終了時にclearPoolで解放）
+    private static final ArrayDeque<Bitmap> BITMAP_POOL = new ArrayDeque<>();
+
+    // 圧縮出力バッファ（スレッド毎に使い回す。reset後も確保済み容量を保持）
+    private static final ThreadLocal<ByteArrayOutputStream> OUTPUT_BUFFER =
+            ThreadLocal.withInitial(() -> new ByteArrayOutputStream(PHOTO_MAX_BYTES + 64 * 1024));
+
+    //============================================================
+    //　機　能　:　SendImageProcessorのインスタンス生成を禁止する
+    //　引　数　:　なし
+    //　戻り値　:　[SendImageProcessor] ..... なし
+    //============================================================
+    private SendImageProcessor() {
+        // static専用クラスのためインスタンス化させない
+    }
+
+    //============================================================
+    //　機　能　:　変換せずにそのまま送信できる画像か判定する
+    //　引　数　:　file ..... 画像ファイル
+    //　戻り値　:　[boolean] ..... 容量が上限以下かつ回転不要ならtrue
+    //============================================================
+    public static boolean isUploadReady(@NonNull File file) {
+        return file.length() <= PHOTO_MAX_BYTES && readExifRotation(file) == 0;
+    }
+
+    //============================================================
+    //　機　能　:　送信用画像を作成する（縮小・回転補正・圧縮）
+    //　　　　　　 一時ファイルへ書き出してから置き換えるため、src＝destも指定可
+    //　　　　　　 ※画像変換を伴うためバックグラウンドスレッドから呼ぶこと
+    //　引　数　:　src ..... 元画像ファイル
+    //　　　　　:　dest ..... 送信用画像ファイル
+    //　戻り値　:　[boolean] ..... 作成できた（または変換不要だった）場合true
+    //============================================================
+    public static boolean prepareUploadImage(@NonNull File src, @NonNull File dest) {
+        if (!src.exists()) {
+            return false;
+        }
+
+        int rotationDegrees = readExifRotation(src);
+
+        // 容量が上限以下かつ回転不要なら変換しない
+        if (src.length() <= PHOTO_MAX_BYTES && rotationDegrees == 0) {
+            return src.equals(dest);
+        }
+
+        ByteArrayOutputStream jpeg = downscaleJpeg(src, rotationDegrees);
+        if (jpeg == null) {
+            return false;
+        }
+
+        // 一時ファイルへ書き出し後に置き換える（書き込み途中のファイルを送信させない）
+        File tmp = new File(dest.getAbsolutePath() + ".tmp");
+        try (FileOutputStream stream = new FileOutputStream(tmp)) {
+            jpeg.writeTo(stream);
+        } catch (IOException ex) {
+            Log.e(TAG, "Upload image write failed: " + tmp.getAbsolutePath(), ex);
+            if (tmp.exists() && !tmp.delete()) {
+                Log.w(TAG, "Temp image delete failed: " + tmp.getAbsolutePath());
+            }
+            return false;
+        }
+
+        if (!tmp.renameTo(dest)) {
+            Log.e(TAG, "Upload image rename failed: " + dest.getAbsolutePath());
+            if (!tmp.delete()) {
+                Log.w(TAG, "Temp image delete failed: " + tmp.getAbsolutePath());
+            }
+            return false;
+        }
+        return true;
+    }
+
+    //============================================================
+    //　機　能　:　JPEG画像を容量・サイズ制限に合わせて縮小し、必要なら回転補正する
+    //　引　数　:　file ..... ファイル関連情報
+    //　　　　　:　rotationDegrees ..... Exif回転角度
+    //　戻り値　:　[ByteArrayOutputStream] ..... 変換後JPEG（スレッド毎の再利用バッファ。デコード失敗時はnull）
+    //============================================================
+    private static ByteArrayOutputStream downscaleJpeg(File file, int rotationDegrees) {
+
+        // 画像サイズのみ読み込む
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(file.getAbsolutePath(), bounds);
+        int width = Math.max(bounds.outWidth, 1);
+        int height = Math.max(bounds.outHeight, 1);
+
+        // 容量が上限以下（回転のみ必要）の場合は等倍、それ以外は最大辺がPHOTO_MAX_EDGE以下になるようにサンプルを2倍刻みで上げる
+        int sample = 1;
+        if (file.length() > PHOTO_MAX_BYTES) {
+            int longest = Math.max(width, height);
+            while (longest / sample > PHOTO_MAX_EDGE) {
+                sample *= 2;
+            }
+        }
+
+        // 縮小デコード（再利用Bitmapへ読み込む）
+        Bitmap bitmap = decodeSampled(file, sample, width, height);
+        if (bitmap == null) {
+            return null;
+        }
+
+        // Exif回転を反映し、圧縮して最大バイト数に収める
+        Bitmap rotated = rotateBitmapIfNeeded(bitmap, rotationDegrees);
+        ByteArrayOutputStream out = compressBitmap(rotated, PHOTO_MAX_BYTES);
+
+        // 次の画像で使い回すため返却
+        releaseBitmap(rotated);
+        return out;
+    }
+
+    //============================================================
+    //　機　能　:　指定サンプルでデコードする（再利用Bitmapがあればそこへ読み込む）
+    //　引　数　:　file ..... ファイル関連情報
+    //　　　　　:　sample ..... inSampleSize
+    //　　　　　:　width ..... 元画像の幅
+    //　　　　　:　height ..... 元画像の高さ
+    //　戻り値　:　[Bitmap] ..... デコード結果（失敗時はnull）
+    //============================================================
+    private static Bitmap decodeSampled(File file, int sample, int width, int height) {
+        BitmapFactory.Options opts = new BitmapFactory.Options();
+        opts.inSampleSize = sample;
+        opts.inMutable = true;
+
+        // デコード後サイズ（端数切り上げ）に足りる再利用Bitmapを指定
+        Bitmap reuse = acquireBitmap(
+                (width + sample - 1) / sample, (height + sample - 1) / sample);
+        opts.inBitmap = reuse;
+
+        try {
+            Bitmap decoded = BitmapFactory.decodeFile(file.getAbsolutePath(), opts);
+            if (decoded == null) {
+                // デコード失敗時は再利用Bitmapを戻す
+                releaseBitmap(reuse);
+            }
+            return decoded;
+        } catch (IllegalArgumentException ex) {
+            // 再利用できない場合は通常デコード
+            Log.w(TAG, "inBitmap decode failed; decode without reuse", ex);
+            releaseBitmap(reuse);
+            opts.inBitmap = null;
+            return BitmapFactory.decodeFile(file.getAbsolutePath(), opts);
+        }
+    }
+
+    //============================================================
+    //　機　能　:　Exifから回転角度を取得する（回転不要なら0）
+    //　引　数　:　file ..... ファイル関連情報
+    //　戻り値　:　[int] ..... 回転角度（0/90/180/270）
+    //============================================================
+    private static int readExifRotation(File file) {
+        try {
+            ExifInterface exif = new ExifInterface(file.getAbsolutePath());
+            int orientation = exif.getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION,
+                    ExifInterface.ORIENTATION_NORMAL
+            );
+
+            // Orientation値を角度へ変換
+            if (orientation == ExifInterface.ORIENTATION_ROTATE_90) {
+                return 90;
+            }
+            if (orientation == ExifInterface.ORIENTATION_ROTATE_180) {
+                return 180;
+            }
+            if (orientation == ExifInterface.ORIENTATION_ROTATE_270) {
+                return 270;
+            }
+        } catch (IOException ex) {
+            // Exif読み込み失敗時は回転なし扱いで継続
+            Log.w(TAG, "Exif read failed: " + file.getAbsolutePath(), ex);
+        }
+        return 0;
+    }
+
+    //============================================================
+    //　機　能　:　必要に応じてBitmapを回転する（回転不要なら入力を返す）
+    //　　　　　　 回転先は再利用Bitmapへ描画し、入力Bitmapは返却する
+    //　引　数　:　bitmap ..... 画像データ
+    //　　　　　:　degrees ..... 回転角度
+    //　戻り値　:　[Bitmap] ..... 回転後Bitmap（回転不要なら入力のまま）
+    //============================================================
+    private static Bitmap rotateBitmapIfNeeded(Bitmap bitmap, int degrees) {
+        // 回転不要ならそのまま返す
+        if (degrees == 0) {
+            return bitmap;
+        }
+
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        boolean swap = degrees == 90 || degrees == 270;
+        int outWidth = swap ? height : width;
+        int outHeight = swap ? width : height;
+
+        // 回転先Bitmapを取得（再利用できなければ新規）
+        Bitmap rotated = acquireBitmap(outWidth, outHeight);
+        if (rotated != null) {
+            rotated.reconfigure(outWidth, outHeight, Bitmap.Config.ARGB_8888);
+        } else {
+            rotated = Bitmap.createBitmap(outWidth, outHeight, Bitmap.Config.ARGB_8888);
+        }
+
+        // 回転後に左上原点へ収まるよう平行移動して描画
+        Matrix matrix = new Matrix();
+        matrix.postRotate(degrees);
+        if (degrees == 90) {
+            matrix.postTranslate(height, 0);
+        } else if (degrees == 180) {
+            matrix.postTranslate(width, height);
+        } else if (degrees == 270) {
+            matrix.postTranslate(0, width);
+        }
+        new Canvas(rotated).drawBitmap(bitmap, matrix, new Paint(Paint.FILTER_BITMAP_FLAG));
+
+        // 回転元は次の画像で使い回すため返却
+        releaseBitmap(bitmap);
+        return rotated;
+    }
+
+    //============================================================
+    //　機　能　:　BitmapをJPEG圧縮し、最大サイズに収まる画質で出力する
+    //　　　　　　 開始画質から試し、超過時は超過率から次の画質を予測する
+    //　引　数　:　bitmap ..... 画像データ
+    //　　　　　:　maxBytes ..... 最大バイト数
+    //　戻り値　:　[ByteArrayOutputStream] ..... 圧縮後JPEG（スレッド毎の再利用バッファ）
+    //============================================================
+    private static ByteArrayOutputStream compressBitmap(Bitmap bitmap, int maxBytes) {
+        ByteArrayOutputStream out = OUTPUT_BUFFER.get();
+        int quality = PHOTO_START_QUALITY;
+
+        // 収まるまで予測した画質で圧縮し直す（下限PHOTO_MIN_QUALITY）
+        while (true) {
+            out.reset();
+            bitmap.compress(Bitmap.CompressFormat.JPEG, quality, out);
+            if (out.size() <= maxBytes || quality <= PHOTO_MIN_QUALITY) {
+                break;
+            }
+            quality = nextQuality(quality, out.size(), maxBytes);
+        }
+
+        if (out.size() > maxBytes) {
+            // 最終的に収まらない場合は警告ログ（送信側で弾かれる可能性）
+            Log.w(TAG, "Image still oversized after compression: " + out.size() + " bytes");
+        }
+        return out;
+    }
+
+    //============================================================
+    //　機　能　:　超過率から次に試す画質を予測する
+    //　　　　　　 出力容量が画質にほぼ比例するとみなし、上限に収まる画質を見積もる
+    //　引　数　:　quality ..... 今回の画質
+    //　　　　　:　size ..... 今回の出力バイト数
+    //　　　　　:　maxBytes ..... 最大バイト数
+    //　戻り値　:　[int] ..... 次の画質（最低でもQUALITY_STEP下げ、下限PHOTO_MIN_QUALITY）
+    //============================================================
+    private static int nextQuality(int quality, int size, int maxBytes) {
+        // 見積もりより少し低め（95%）を狙い、再圧縮の回数を減らす
+        int predicted = (int) (quality * (maxBytes * 0.95 / size));
+        int next = Math.min(predicted, quality - QUALITY_STEP);
+        return Math.max(next, PHOTO_MIN_QUALITY);
+    }
+
+    //============================================================
+    //　機　能　:　指定サイズ以上の容量を持つ再利用Bitmapを取得する
+    //　引　数　:　width ..... 幅
+    //　　　　　:　height ..... 高さ
+    //　戻り値　:　[Bitmap] ..... 再利用Bitmap（該当が無ければnull）
+    //============================================================
+    private static Bitmap acquireBitmap(int width, int height) {
+        long required = (long) width * height * BYTES_PER_PIXEL;
+        synchronized (BITMAP_POOL) {
+            Iterator<Bitmap> it = BITMAP_POOL.iterator();
+            while (it.hasNext()) {
+                Bitmap candidate = it.next();
+                if (candidate.getAllocationByteCount() >= required) {
+                    it.remove();
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    //============================================================
+    //　機　能　:　Bitmapを再利用プールへ返却する（上限超過時は解放）
+    //　引　数　:　bitmap ..... 画像データ
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private static void releaseBitmap(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled()) {
+            return;
+        }
+        if (bitmap.isMutable()) {
+            synchronized (BITMAP_POOL) {
+                if (BITMAP_POOL.size() < BITMAP_POOL_MAX) {
+                    BITMAP_POOL.addLast(bitmap);
+                    return;
+                }
+            }
+        }
+        bitmap.recycle();
+    }
+
+    //============================================================
+    //　機　能　:　再利用プールのBitmapを全て解放する
+    //　　　　　　 一括送信・撮影画像の変換後、およびメモリ逼迫時に呼ぶ
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    public static void clearPool() {
+        synchronized (BITMAP_POOL) {
+            for (Bitmap bitmap : BITMAP_POOL) {
+                bitmap.recycle();
+            }
+            BITMAP_POOL.clear();
+        }
+    }
+}
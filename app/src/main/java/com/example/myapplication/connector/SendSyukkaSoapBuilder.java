@@ -1,20 +1,36 @@
 package com.example.myapplication.connector;
 
 import android.util.Base64;
+import android.util.Base64OutputStream;
 
 import com.example.myapplication.model.BunningData;
 import com.example.myapplication.model.SyukkaMeisai;
 import com.example.myapplication.time.XmlUtil;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
 
 //====================================================================
 //　処理概要　:　出荷データ送信用（SendSyukkaData）のSOAP本文を組み立てるクラス
-//　関　　数　:　buildSendSyukkaData ..... SendSyukkaData用SOAPボディ生成
+//　関　　数　:　buildSendSyukkaData ..... SendSyukkaData用RequestBody生成（ストリーミング）
+//　　　　　　:　writeSendSyukkaData ..... SOAPメッセージをSinkへ直接書き込み
+//　　　　　　:　writeBase64Tag ..... 画像ファイルをBase64でSinkへ書き込み
 //====================================================================
 public class SendSyukkaSoapBuilder {
 
     private static final String NS = "http://tempuri.org/";
 
+    // 画像ファイル読み込み単位（Base64は3バイト単位のため3の倍数にする）
+    private static final int PHOTO_CHUNK_SIZE = 3 * 1024 * 8;
+
     //==================================================================
     //　機　能　:　SendSyukkaSoapBuilderの生成を禁止する（ユーティリティクラス化）
     //　引　数　:　なし
@@ -25,84 +41,125 @@ public class SendSyukkaSoapBuilder {
     }
 
     //==================================================================
-    //　機　能　:　出荷データ送信用（SendSyukkaData）のSOAPメッセージを生成する
+    //　機　能　:　出荷データ送信用（SendSyukkaData）のRequestBodyを生成する
+    //　　　　　　 本文は送信時にSinkへ直接書き込むため、写真データをメモリに保持しない
     //　引　数　:　data ..... データ
-    //　戻り値　:　[String] ..... SOAPメッセージ（Envelope + Body）
+    //　戻り値　:　[RequestBody] ..... SOAPメッセージ（Envelope + Body）を書き込むRequestBody
+    //==================================================================
+    public static RequestBody buildSendSyukkaData(BunningData data) {
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return SoapAsmxClient.SOAP_XML;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                // リトライ時も毎回ファイルから読み直して書き込む
+                writeSendSyukkaData(sink, data);
+            }
+        };
+    }
+
+    //==================================================================
+    //　機　能　:　出荷データ送信用（SendSyukkaData）のSOAPメッセージをSinkへ書き込む
+    //　引　数　:　sink ..... 書き込み先
+    //　　　　　:　data ..... データ
+    //　戻り値　:　[void] ..... なし
     //==================================================================
-    public static String buildSendSyukkaData(BunningData data) {
+    static void writeSendSyukkaData(BufferedSink sink, BunningData data) throws IOException {
 
-        // Body内に埋め込むXML文字列を構築する
-        StringBuilder inner = new StringBuilder();
+        // SOAP Envelope開始
+        sink.writeUtf8(SoapEnvelope.ENVELOPE_HEAD);
+
+        // ヘッダ項目は小さいため文字列で組み立ててから書き込む
+        StringBuilder head = new StringBuilder();
 
         // ルート要素（メソッド名）＋名前空間
-        inner.append("<SendSyukkaData xmlns=\"").append(NS).append("\">");
+        head.append("<SendSyukkaData xmlns=\"").append(NS).append("\">");
 
         // 引数dataの開始タグ
-        inner.append("<data>");
+        head.append("<data>");
 
         // reference.cs のプロパティ名（大小文字含む）に合わせて出力
-        XmlUtil.tag(inner, "SyukkaYmd", XmlUtil.toXsdDateTime(data.syukkaYmd));
-        XmlUtil.tag(inner, "ContainerNo", data.containerNo);
-        XmlUtil.tag(inner, "ContainerJyuryo", String.valueOf(data.containerJyuryo));
-        XmlUtil.tag(inner, "DunnageJyuryo", String.valueOf(data.dunnageJyuryo));
-        XmlUtil.tag(inner, "SealNo", data.sealNo);
+        XmlUtil.tag(head, "SyukkaYmd", XmlUtil.toXsdDateTime(data.syukkaYmd));
+        XmlUtil.tag(head, "ContainerNo", data.containerNo);
+        XmlUtil.tag(head, "ContainerJyuryo", String.valueOf(data.containerJyuryo));
+        XmlUtil.tag(head, "DunnageJyuryo", String.valueOf(data.dunnageJyuryo));
+        XmlUtil.tag(head, "SealNo", data.sealNo);
 
         //============================================================
         // 明細配列：Bundles
         //============================================================
-        inner.append("<Bundles>");
+        head.append("<Bundles>");
+        sink.writeUtf8(head.toString());
 
-        // 束（SyukkaMeisai）を1件ずつXMLへ変換
+        // 束（SyukkaMeisai）を1件ずつXMLへ変換（バッファは使い回す）
+        StringBuilder row = new StringBuilder(256);
         for (SyukkaMeisai b : data.bundles) {
+            row.setLength(0);
 
             // 明細1件の開始
-            inner.append("<SyukkaMeisai>");
+            row.append("<SyukkaMeisai>");
 
             // 各項目をタグとして出力（プロパティ名に厳密一致させる）
-            XmlUtil.tag(inner, "HeatNo", b.heatNo);
-            XmlUtil.tag(inner, "Sokuban", b.sokuban);
-            XmlUtil.tag(inner, "SyukkaSashizuNo", b.syukkaSashizuNo);
+            XmlUtil.tag(row, "HeatNo", b.heatNo);
+            XmlUtil.tag(row, "Sokuban", b.sokuban);
+            XmlUtil.tag(row, "SyukkaSashizuNo", b.syukkaSashizuNo);
 
             // ★ bundleNo は先頭小文字（reference.cs仕様）
-            XmlUtil.tag(inner, "bundleNo", b.bundleNo);
+            XmlUtil.tag(row, "bundleNo", b.bundleNo);
 
-            XmlUtil.tag(inner, "Jyuryo", String.valueOf(b.jyuryo));
-            XmlUtil.tag(inner, "BookingNo", b.bookingNo);
+            XmlUtil.tag(row, "Jyuryo", String.valueOf(b.jyuryo));
+            XmlUtil.tag(row, "BookingNo", b.bookingNo);
 
             // 明細1件の終了
-            inner.append("</SyukkaMeisai>");
+            row.append("</SyukkaMeisai>");
+            sink.writeUtf8(row.toString());
         }
 
-        inner.append("</Bundles>");
+        sink.writeUtf8("</Bundles>");
 
         //============================================================
-        // 画像（base64Binary）
+        // 画像（base64Binary）：ファイルから直接Base64化して書き込む
         //============================================================
+        writeBase64Tag(sink, "ContainerPhoto", data.containerPhoto);
+        writeBase64Tag(sink, "SealPhoto", data.sealPhoto);
 
-        // コンテナ写真が存在する場合のみ出力
-        if (data.containerPhoto != null && data.containerPhoto.length > 0) {
+        // 引数data終了 + メソッドルート要素終了
+        sink.writeUtf8("</data>");
+        sink.writeUtf8("</SendSyukkaData>");
 
-            // 改行なしでBase64エンコード
-            String b64 = Base64.encodeToString(data.containerPhoto, Base64.NO_WRAP);
+        // SOAP Envelope終了
+        sink.writeUtf8(SoapEnvelope.ENVELOPE_TAIL);
+    }
 
-            // 画像はエスケープ不要のため tagRaw を使用
-            XmlUtil.tagRaw(inner, "ContainerPhoto", b64);
+    //==================================================================
+    //　機　能　:　画像ファイルをBase64化してタグごとSinkへ書き込む
+    //　　　　　　 （ファイルが存在しない／空の場合はタグ自体を出力しない）
+    //　引　数　:　sink ..... 書き込み先
+    //　　　　　:　name ..... タグ名
+    //　　　　　:　file ..... 画像ファイル
+    //　戻り値　:　[void] ..... なし
+    //==================================================================
+    private static void writeBase64Tag(BufferedSink sink, String name, File file) throws IOException {
+        if (file == null || !file.exists() || file.length() == 0) {
+            return;
         }
 
-        // シール写真が存在する場合のみ出力
-        if (data.sealPhoto != null && data.sealPhoto.length > 0) {
-
-            String b64 = Base64.encodeToString(data.sealPhoto, Base64.NO_WRAP);
-            XmlUtil.tagRaw(inner, "SealPhoto", b64);
+        sink.writeUtf8("<").writeUtf8(name).writeUtf8(">");
+
+        // 改行なしでBase64エンコード（NO_CLOSE：Base64側のcloseでSinkを閉じない）
+        byte[] buffer = new byte[PHOTO_CHUNK_SIZE];
+        try (InputStream in = new FileInputStream(file);
+             OutputStream b64 = new Base64OutputStream(
+                     sink.outputStream(), Base64.NO_WRAP | Base64.NO_CLOSE)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                b64.write(buffer, 0, read);
+            }
         }
 
-        // 引数data終了
-        inner.append("</data>");
-
-        // メソッドルート要素終了
-        inner.append("</SendSyukkaData>");
-
-        // SOAP Envelopeでラップして返却
-        return SoapEnvelope.wrapBody(inner.toString());
+        sink.writeUtf8("</").writeUtf8(name).writeUtf8(">");
     }
 }
@@ -1,42 +1,154 @@
 package com.example.myapplication.connector;
 
+import android.os.SystemClock;
+
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
+import okhttp3.Call;
+import okhttp3.ConnectionPool;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
 
 
 //========================================================================================
 //　処理概要　:　.asmx向けSOAPリクエスト送信とレスポンス受信を担当するHTTPクラス
-//　関　　数　:　SoapAsmxClient .......................... 初期化（OkHttp設定）
+//　　　　　　　 OkHttpClientはプロセス全体で共有し（接続プール/TLSセッションを再利用）、
+//　　　　　　　 エンドポイント毎のインスタンスはforEndpointで取得する
+//　関　　数　:　forEndpoint ............................. エンドポイント毎のインスタンス取得（共有）
+//　　　　　　:　SoapAsmxClient .......................... 初期化
 //　　　　　　:　call .................................... SOAP呼び出し（POST送信→レスポンス取得）
+//　　　　　　:　call（RequestBody） ...................... SOAP呼び出し（ストリーミング送信）
+//　　　　　　:　call（ResponseReader） ................... SOAP呼び出し（レスポンスをストリームから直接解析）
+//　　　　　　:　execute ................................. HTTP実行（タイムアウト区分選択／送信圧縮）
+//　　　　　　:　isGzipRejected .......................... 圧縮送信が受け付けられなかったかの判定
+//　　　　　　:　newCall ................................. HTTP呼び出し生成（リトライ期限で打ち切り）
+//　　　　　　:　newRequest .............................. POSTリクエスト生成
+//　　　　　　:　gzip .................................... 送信ボディのgzip圧縮
+//　　　　　　:　readErrorPayload ........................ 失敗レスポンス本文の取得
 //========================================================================================
 public class SoapAsmxClient {
 
-    // SOAP(ASMX)送信用 Content-Type
-    private static final MediaType SOAP_XML = MediaType.parse("text/xml; charset=utf-8");
+    //============================================================
+    //　機　能　:　レスポンス本文をストリームから読み取るインターフェース
+    //============================================================
+    public interface ResponseReader<T> {
+        T read(InputStream in) throws Exception;
+    }
+
+    //============================================================
+    //　機　能　:　SOAPアクション毎の通信タイムアウト区分
+    //　　　　　　 SHORT：日時取得など小さな要求／BULK：データ取得／UPLOAD：データ送信
+    //============================================================
+    enum TimeoutProfile {
+        SHORT(10, 20, 20),
+        BULK(15, 120, 30),
+        UPLOAD(15, 60, 180);
+
+        final int connectSeconds; // 接続タイムアウト（秒）
+        final int readSeconds;    // 受信タイムアウト（秒）
+        final int writeSeconds;   // 送信タイムアウト（秒）
+
+        TimeoutProfile(int connectSeconds, int readSeconds, int writeSeconds) {
+            this.connectSeconds = connectSeconds;
+            this.readSeconds = readSeconds;
+            this.writeSeconds = writeSeconds;
+        }
+
+        //============================================================
+        //　機　能　:　SOAPアクションからタイムアウト区分を決定する
+        //　引　数　:　soapAction ..... SOAPアクション名
+        //　戻り値　:　[TimeoutProfile] ..... タイムアウト区分
+        //============================================================
+        static TimeoutProfile of(String soapAction) {
+            if (SoapActions.GET_SYS_DATE.equals(soapAction)
+                    || SoapActions.GET_SAGYOU_YMD.equals(soapAction)
+                    || SoapActions.GET_UPDATE_YMD_HMS.equals(soapAction)
+                    || SoapActions.GET_DOWNLOAD_HANDY_EXECUTE_FILE_NAMES.equals(soapAction)) {
+                return SHORT;
+            }
+            if (SoapActions.SEND_SYUKKA_DATA.equals(soapAction)
+                    || SoapActions.SEND_SYOUGO_DATA.equals(soapAction)
+                    || SoapActions.UPLOAD_BINARY_FILE.equals(soapAction)) {
+                return UPLOAD;
+            }
+            return BULK;
+        }
+    }
+
+    // SOAP(ASMX)送信用 Content-Type（ストリーミング送信のRequestBodyからも参照）
+    static final MediaType SOAP_XML = MediaType.parse("text/xml; charset=utf-8");
+
+    // 送信圧縮の可否（エンドポイント毎に判定）
+    private static final int GZIP_UNKNOWN = 0;     // 未判定
+    private static final int GZIP_SUPPORTED = 1;   // 圧縮送信可
+    private static final int GZIP_UNSUPPORTED = 2; // 圧縮送信不可
+
+    // 圧縮送信の拒否判定（ASMXが圧縮本文をXMLとして解析した場合のエラー）
+    private static final String GZIP_REJECT_FAULT = "Data at the root level is invalid";
+    private static final long GZIP_REJECT_PEEK_BYTES = 4096;
+
+    // 共有HTTPクライアント（接続プール/Dispatcher/TLSセッションを全呼び出しで共有）
+    // ※レスポンスのgzipはOkHttpが自動で要求・展開する（Accept-Encodingは付与しない）
+    // ※計測値（CallMetrics）を付けたリクエストのみ区間時間・バイト数を計測する
+    private static final OkHttpClient SHARED_HTTP = new OkHttpClient.Builder()
+            .connectionPool(new ConnectionPool(5, 5, TimeUnit.MINUTES))
+            .eventListenerFactory(CallMetrics.LISTENER_FACTORY)
+            .build();
+
+    // タイムアウト区分毎のクライアント（共有クライアントから派生させ、接続プールは共通）
+    private static final Map<TimeoutProfile, OkHttpClient> HTTP_BY_PROFILE = buildProfileClients();
+
+    // エンドポイントURL → クライアント
+    private static final ConcurrentHashMap<String, SoapAsmxClient> CLIENTS = new ConcurrentHashMap<>();
 
-    private final OkHttpClient http; // HTTPクライアント
     private final String endpointUrl; // 接続先エンドポイントURL
+    private volatile int requestGzip = GZIP_UNKNOWN; // 送信圧縮の可否
+
+    //============================================================
+    //　機　能　:　エンドポイント毎のSoapAsmxClientを取得する（同一URLは同じインスタンス）
+    //　引　数　:　endpointUrl ..... 接続先URL
+    //　戻り値　:　[SoapAsmxClient] ..... クライアント
+    //============================================================
+    public static SoapAsmxClient forEndpoint(String endpointUrl) {
+        return CLIENTS.computeIfAbsent(endpointUrl, SoapAsmxClient::new);
+    }
 
     //============================================================
     //　機　能　:　SoapAsmxClientを初期化する
     //　引　数　:　endpointUrl ..... 接続先URL
     //　戻り値　:　[SoapAsmxClient] ..... なし
     //============================================================
-    public SoapAsmxClient(String endpointUrl) {
+    private SoapAsmxClient(String endpointUrl) {
         this.endpointUrl = endpointUrl;
+    }
 
-        // 通信タイムアウト設定
-        this.http = new OkHttpClient.Builder()
-                .connectTimeout(20, TimeUnit.SECONDS)
-                .readTimeout(120, TimeUnit.SECONDS)
-                .writeTimeout(120, TimeUnit.SECONDS)
-                .build();
+    //============================================================
+    //　機　能　:　タイムアウト区分毎のHTTPクライアントを生成する
+    //　引　数　:　なし
+    //　戻り値　:　[Map<TimeoutProfile, OkHttpClient>] ..... 区分毎のクライアント
+    //============================================================
+    private static Map<TimeoutProfile, OkHttpClient> buildProfileClients() {
+        Map<TimeoutProfile, OkHttpClient> map = new EnumMap<>(TimeoutProfile.class);
+        for (TimeoutProfile profile : TimeoutProfile.values()) {
+            map.put(profile, SHARED_HTTP.newBuilder()
+                    .connectTimeout(profile.connectSeconds, TimeUnit.SECONDS)
+                    .readTimeout(profile.readSeconds, TimeUnit.SECONDS)
+                    .writeTimeout(profile.writeSeconds, TimeUnit.SECONDS)
+                    .build());
+        }
+        return map;
     }
 
     //============================================================
@@ -48,29 +160,226 @@ public class SoapAsmxClient {
     public String call(String soapAction, String soapEnvelopeXml) throws IOException {
 
         // 送信XMLをRequestBodyへ設定
-        RequestBody body = RequestBody.create(soapEnvelopeXml, SOAP_XML);
+        return call(soapAction, RequestBody.create(soapEnvelopeXml, SOAP_XML));
+    }
 
-        // ASMXは SOAPAction をダブルクォート付きで送ると安定しやすい
-        Request req = new Request.Builder()
-                .url(endpointUrl)
-                .post(body)
-                .addHeader("Content-Type", "text/xml; charset=utf-8")
-                .addHeader("SOAPAction", "\"" + soapAction + "\"")
-                .build();
+    //============================================================
+    //　機　能　:　SOAP(ASMX)を呼び出してレスポンスXMLを取得する（RequestBody指定）
+    //　引　数　:　soapAction ..... SOAPアクション名
+    //　　　　　:　body ..... 送信ボディ（ストリーミング書き込み可）
+    //　戻り値　:　[String] ..... SOAPレスポンスXML
+    //============================================================
+    public String call(String soapAction, RequestBody body) throws IOException {
 
         // HTTP呼び出し（try-with-resourcesでResponseを必ずcloseする）
-        try (Response res = http.newCall(req).execute()) {
+        try (Response res = execute(soapAction, body)) {
 
             // ボディを文字列として取得（nullの場合は空文字）
             String payload = (res.body() != null) ? res.body().string() : "";
 
+            // 受信完了時刻を記録（呼び出し元の解析時間算出用）
+            CallMetrics metrics = CallMetrics.current();
+            if (metrics != null) {
+                metrics.markResponseRead();
+            }
+
             // HTTPステータスが失敗の場合は例外化（本文も付与して原因調査しやすくする）
             if (!res.isSuccessful()) {
-                throw new IOException("HTTP " + res.code() + " " + res.message() + "\n" + payload);
+                throw new SoapHttpException(res.code(), res.message(), payload);
             }
 
             // 成功時：SOAPレスポンスXMLを返却
             return payload;
         }
     }
+
+    //============================================================
+    //　機　能　:　SOAP(ASMX)を呼び出し、レスポンスをストリームのまま解析する
+    //　　　　　　 （大きなレスポンスを文字列化せずにXmlPullParserへ渡す）
+    //　引　数　:　soapAction ..... SOAPアクション名
+    //　　　　　:　soapEnvelopeXml ..... XML文字列
+    //　　　　　:　reader ..... レスポンス解析処理
+    //　戻り値　:　[T] ..... 解析結果
+    //============================================================
+    public <T> T call(String soapAction, String soapEnvelopeXml, ResponseReader<T> reader)
+            throws Exception {
+
+        // HTTP呼び出し（try-with-resourcesでResponseを必ずcloseする）
+        RequestBody body = RequestBody.create(soapEnvelopeXml, SOAP_XML);
+        try (Response res = execute(soapAction, body)) {
+
+            // HTTPステータスが失敗の場合は例外化（失敗時の本文は小さいため文字列で付与）
+            if (!res.isSuccessful()) {
+                throw new SoapHttpException(res.code(), res.message(), readErrorPayload(res));
+            }
+
+            ResponseBody responseBody = res.body();
+            if (responseBody == null) {
+                throw new IOException("HTTP " + res.code() + " empty response body");
+            }
+
+            // 成功時：ストリームから直接解析する（受信しながら解析するため読取時間全体を解析時間とする）
+            long parseStart = SystemClock.elapsedRealtime();
+            T result = reader.read(responseBody.byteStream());
+            CallMetrics metrics = CallMetrics.current();
+            if (metrics != null) {
+                metrics.addParseMillis(SystemClock.elapsedRealtime() - parseStart);
+            }
+
+            // 解析後に残った末尾（閉じタグ等）を読み捨て、接続を再利用できる状態にする
+            try {
+                responseBody.source().readAll(Okio.blackhole());
+            } catch (IOException ignored) {
+                // 解析は完了しているため読み捨て失敗は無視する
+            }
+            return result;
+        }
+    }
+
+    //============================================================
+    //　機　能　:　HTTPを実行する（タイムアウト区分のクライアントで送信）
+    //　　　　　　 送信圧縮はサーバが受け付けると判定できた場合のみ行う。
+    //　　　　　　 未判定の間は小さく再送しても安全な要求（SHORT区分）で圧縮送信を試し、
+    //　　　　　　 圧縮を受け付けない応答（400/415・本文の解析エラー）の場合のみ非圧縮で
+    //　　　　　　 再送して可否を判定する。通信エラーの場合は非圧縮で再送するが判定はしない
+    //　引　数　:　soapAction ..... SOAPアクション名
+    //　　　　　:　body ..... 送信ボディ
+    //　戻り値　:　[Response] ..... HTTPレスポンス（呼び出し元でclose）
+    //============================================================
+    private Response execute(String soapAction, RequestBody body) throws IOException {
+        TimeoutProfile profile = TimeoutProfile.of(soapAction);
+        OkHttpClient http = HTTP_BY_PROFILE.get(profile);
+
+        int gzipState = requestGzip;
+        if (gzipState == GZIP_SUPPORTED) {
+            return newCall(http, newRequest(soapAction, gzip(body), true)).execute();
+        }
+        if (gzipState == GZIP_UNSUPPORTED || profile != TimeoutProfile.SHORT) {
+            return newCall(http, newRequest(soapAction, body, false)).execute();
+        }
+
+        // 未判定：圧縮送信を試す（通信エラーは圧縮と無関係のため、非圧縮で再送し次回また試す）
+        Response compressed;
+        try {
+            compressed = newCall(http, newRequest(soapAction, gzip(body), true)).execute();
+        } catch (IOException ex) {
+            return newCall(http, newRequest(soapAction, body, false)).execute();
+        }
+        if (compressed.isSuccessful()) {
+            requestGzip = GZIP_SUPPORTED;
+            return compressed;
+        }
+
+        // 5xx・SOAP Fault等の圧縮と無関係な失敗は判定せず、そのまま呼び出し元へ返す
+        if (!isGzipRejected(compressed)) {
+            return compressed;
+        }
+        compressed.close();
+
+        // 非圧縮で再送し、成功すれば圧縮送信不可と判定する
+        Response plain = newCall(http, newRequest(soapAction, body, false)).execute();
+        if (plain.isSuccessful()) {
+            requestGzip = GZIP_UNSUPPORTED;
+        }
+        return plain;
+    }
+
+    //============================================================
+    //　機　能　:　圧縮送信がサーバに受け付けられなかった応答か判定する
+    //　　　　　　 ・400／415：Content-Encodingを解釈できない（IIS・中継装置）
+    //　　　　　　 ・500でXML解析エラー：ASMXが圧縮されたままの本文を解析した
+    //　引　数　:　res ..... 圧縮送信時のHTTPレスポンス（失敗）
+    //　戻り値　:　[boolean] ..... 圧縮を受け付けない応答の場合はtrue
+    //============================================================
+    private static boolean isGzipRejected(Response res) throws IOException {
+        if (res.code() == 400 || res.code() == 415) {
+            return true;
+        }
+        if (res.code() != 500) {
+            return false;
+        }
+
+        // 本文は呼び出し元でも読めるよう先頭のみ覗く
+        String payload = res.peekBody(GZIP_REJECT_PEEK_BYTES).string();
+        return payload.contains(GZIP_REJECT_FAULT);
+    }
+
+    //============================================================
+    //　機　能　:　HTTP呼び出しを生成する
+    //　　　　　　 リトライ方針の期限内で実行中であれば、接続から本文の読み取りまで全体を
+    //　　　　　　 期限までの残り時間で打ち切る（区分毎の接続・送受信タイムアウトは別途有効）
+    //　引　数　:　http ..... HTTPクライアント
+    //　　　　　:　request ..... HTTPリクエスト
+    //　戻り値　:　[Call] ..... HTTP呼び出し
+    //============================================================
+    private static Call newCall(OkHttpClient http, Request request) {
+        Call call = http.newCall(request);
+        long remaining = RetryPolicy.remainingMillis();
+        if (remaining > 0) {
+            call.timeout().timeout(remaining, TimeUnit.MILLISECONDS);
+        }
+        return call;
+    }
+
+    //============================================================
+    //　機　能　:　SOAP(ASMX)呼び出し用のPOSTリクエストを生成する
+    //　引　数　:　soapAction ..... SOAPアクション名
+    //　　　　　:　body ..... 送信ボディ
+    //　　　　　:　gzipped ..... 送信ボディがgzip圧縮済みか
+    //　戻り値　:　[Request] ..... HTTPリクエスト
+    //============================================================
+    private Request newRequest(String soapAction, RequestBody body, boolean gzipped) {
+
+        // ASMXは SOAPAction をダブルクォート付きで送ると安定しやすい
+        Request.Builder builder = new Request.Builder()
+                .url(endpointUrl)
+                .post(body)
+                .addHeader("Content-Type", "text/xml; charset=utf-8")
+                .addHeader("SOAPAction", "\"" + soapAction + "\"");
+
+        // 計測中の呼び出しはEventListenerで区間時間を計測する
+        CallMetrics metrics = CallMetrics.current();
+        if (metrics != null) {
+            builder.tag(CallMetrics.class, metrics);
+        }
+        if (gzipped) {
+            builder.addHeader("Content-Encoding", "gzip");
+        }
+        return builder.build();
+    }
+
+    //============================================================
+    //　機　能　:　送信ボディをgzip圧縮しながら書き込むRequestBodyを生成する
+    //　引　数　:　body ..... 元の送信ボディ
+    //　戻り値　:　[RequestBody] ..... 圧縮送信ボディ（長さ不明のためchunked送信）
+    //============================================================
+    private static RequestBody gzip(RequestBody body) {
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return body.contentType();
+            }
+
+            @Override
+            public long contentLength() {
+                return -1;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                try (BufferedSink gzipSink = Okio.buffer(new GzipSink(sink))) {
+                    body.writeTo(gzipSink);
+                }
+            }
+        };
+    }
+
+    //============================================================
+    //　機　能　:　失敗レスポンスの本文を文字列で取得する（nullの場合は空文字）
+    //　引　数　:　res ..... HTTPレスポンス
+    //　戻り値　:　[String] ..... レスポンス本文
+    //============================================================
+    private String readErrorPayload(Response res) throws IOException {
+        return (res.body() != null) ? res.body().string() : "";
+    }
 }
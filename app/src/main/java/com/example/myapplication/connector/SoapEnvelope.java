@@ -6,6 +6,17 @@ package com.example.myapplication.connector;
 //==========================================================================
 public class SoapEnvelope {
 
+    // XML宣言 + SOAP Envelope + SOAP Body開始（名前空間は ASMX（SOAP 1.1）用）
+    // ※ストリーミング送信時はBody前後をこの定数で直接書き込む
+    static final String ENVELOPE_HEAD = "<?xml version=\"1.0\" encoding=\"utf-8\"?>"
+            + "<soap:Envelope xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" "
+            + "xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\" "
+            + "xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\">"
+            + "<soap:Body>";
+
+    // SOAP Body終了 + SOAP Envelope終了
+    static final String ENVELOPE_TAIL = "</soap:Body></soap:Envelope>";
+
     //============================================================
     //　機　能　:　SOAP Body文字列をEnvelopeでラップする
     //　引　数　:　innerBodyXml ..... XML文字列
@@ -13,25 +24,7 @@ public class SoapEnvelope {
     //============================================================
     public static String wrapBody(String innerBodyXml) {
 
-        // XML宣言 + SOAP Envelope + SOAP Body で包む
-        // 名前空間は ASMX（SOAP 1.1）用
-        return "<?xml version=\"1.0\" encoding=\"utf-8\"?>"
-
-                // SOAP Envelope開始（必要な名前空間定義を含む）
-                + "<soap:Envelope xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" "
-                + "xmlns:xsd=\"http://www.w3.org/2001/XMLSchema\" "
-                + "xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\">"
-
-                // SOAP Body開始
-                + "<soap:Body>"
-
-                // 呼び出しメソッドXML（呼び出し側で組み立てた部分）
-                + innerBodyXml
-
-                // SOAP Body終了
-                + "</soap:Body>"
-
-                // SOAP Envelope終了
-                + "</soap:Envelope>";
+        // Envelope開始 + 呼び出しメソッドXML（呼び出し側で組み立てた部分） + Envelope終了
+        return ENVELOPE_HEAD + innerBodyXml + ENVELOPE_TAIL;
     }
 }
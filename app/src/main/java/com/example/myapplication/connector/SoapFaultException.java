@@ -7,7 +7,7 @@ package com.example.myapplication.connector;
 //============================================================================================
 public class SoapFaultException extends Exception {
 
-    // SOAP Fault時の生レスポンスXML（調査用）
+    // SOAP Fault時の生レスポンスXML（調査用、ストリーム解析時はnull）
     private final String rawXml; // Fault生XML
 
     //============================================================
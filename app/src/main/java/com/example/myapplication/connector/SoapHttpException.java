@@ -0,0 +1,50 @@
+package com.example.myapplication.connector;
+
+import java.io.IOException;
+
+//============================================================================================
+//　処理概要　:　SOAP呼び出しのHTTPステータス異常を表す例外クラス
+//　　　　　　　 リトライ可否の判定に使うため、ステータスコードとSOAP Fault有無を保持する
+//　関　　数　:　SoapHttpException ........................ 例外生成（ステータス＋本文）
+//　　　　　　:　getStatusCode ............................ HTTPステータスコード取得
+//　　　　　　:　isSoapFault .............................. 本文がSOAP Faultか判定
+//============================================================================================
+public class SoapHttpException extends IOException {
+
+    private final int statusCode;    // HTTPステータスコード
+    private final boolean soapFault; // 本文がSOAP Faultか
+
+    //============================================================
+    //　機　能　:　SoapHttpExceptionを生成する
+    //　引　数　:　statusCode ..... HTTPステータスコード
+    //　　　　　:　statusMessage ..... HTTPステータスメッセージ
+    //　　　　　:　payload ..... レスポンス本文
+    //　戻り値　:　[SoapHttpException] ..... なし
+    //============================================================
+    public SoapHttpException(int statusCode, String statusMessage, String payload) {
+        super("HTTP " + statusCode + " " + statusMessage + "\n" + payload);
+        this.statusCode = statusCode;
+
+        // ASMXは業務エラー（SOAP Fault）をHTTP 500＋Fault本文で返す
+        this.soapFault = payload != null
+                && (payload.contains(":Fault>") || payload.contains("<Fault>"));
+    }
+
+    //============================================================
+    //　機　能　:　HTTPステータスコードを取得する
+    //　引　数　:　なし
+    //　戻り値　:　[int] ..... HTTPステータスコード
+    //============================================================
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    //============================================================
+    //　機　能　:　レスポンス本文がSOAP Faultか判定する
+    //　引　数　:　なし
+    //　戻り値　:　[boolean] ..... SOAP Faultならtrue
+    //============================================================
+    public boolean isSoapFault() {
+        return soapFault;
+    }
+}
@@ -13,6 +13,7 @@ import com.example.myapplication.time.XsdDateTime;
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserFactory;
 
+import java.io.InputStream;
 import java.io.StringReader;
 import java.text.ParseException;
 import java.util.ArrayList;
@@ -30,7 +31,10 @@ import java.util.List;
 //　　　　　　:　parseBase64Result ....................... base64Binary結果の取得
 //　　　　　　:　parseSyukkaDataResult ................... 出荷データ結果の完全パース
 //　　　　　　:　parseSyougoDataResult ................... 照合データ結果の完全パース
+//　　　　　　:　parseSyukkaDataResult（InputStream） ...... 出荷データ結果のストリーム解析（Fault同時検出）
+//　　　　　　:　parseSyougoDataResult（InputStream） ...... 照合データ結果のストリーム解析（Fault同時検出）
 //　　　　　　:　newParser ............................... XmlPullParser生成
+//　　　　　　:　readSoapFault ........................... Fault要素から例外生成
 //　　　　　　:　readSyukkaHeaderArray ................... 出荷ヘッダ配列パース
 //　　　　　　:　readSyukkaHeader ........................ 出荷ヘッダ1件パース
 //　　　　　　:　readSyukkaMeisaiArray ................... 出荷明細配列パース
@@ -68,6 +72,21 @@ public class SoapParsers {
         return p;
     }
 
+    //============================================================
+    //　機　能　:　入力ストリームからXMLパーサーを生成する（namespace aware）
+    //　引　数　:　in ..... レスポンス入力ストリーム
+    //　戻り値　:　[XmlPullParser] ..... パーサ
+    //============================================================
+    private static XmlPullParser newParser(InputStream in) throws Exception {
+        XmlPullParserFactory f = XmlPullParserFactory.newInstance();
+        f.setNamespaceAware(true);
+
+        // 文字コードはXML宣言から判定させる
+        XmlPullParser p = f.newPullParser();
+        p.setInput(in, null);
+        return p;
+    }
+
     //============================================================
     //　機　能　:　SOAP Faultを検出した場合に例外を送出する
     //　引　数　:　responseXml ..... XML文字列
@@ -81,30 +100,42 @@ public class SoapParsers {
 
             // <Fault> を検出したら faultstring を取りに行く
             if (e == XmlPullParser.START_TAG && "Fault".equals(p.getName())) {
-                String faultString = null;
-                int depth = p.getDepth();
-
-                // Fault要素の範囲内を走査して faultstring を取得する
-                while (!(e == XmlPullParser.END_TAG
-                        && p.getDepth() == depth
-                        && "Fault".equals(p.getName()))) {
+                // Faultを例外として扱う（レスポンスXMLも保持）
+                throw readSoapFault(p, responseXml);
+            }
 
-                    e = p.next();
+            e = p.next();
+        }
+    }
 
-                    if (e == XmlPullParser.START_TAG && "faultstring".equals(p.getName())) {
-                        faultString = p.nextText();
-                    }
-                }
+    //============================================================
+    //　機　能　:　<Fault>要素を読み取り、例外を生成する
+    //　　　　　　 （呼び出し時点でパーサは<Fault>の開始タグ上にあること）
+    //　引　数　:　p ..... XML解析オブジェクト
+    //　　　　　:　rawXml ..... 生XML（ストリーム解析時はnull）
+    //　戻り値　:　[SoapFaultException] ..... SOAP Fault例外
+    //============================================================
+    private static SoapFaultException readSoapFault(XmlPullParser p, String rawXml) throws Exception {
+        String faultString = null;
+        int depth = p.getDepth();
+        int e = p.getEventType();
 
-                // Faultを例外として扱う（レスポンスXMLも保持）
-                throw new SoapFaultException(
-                        faultString != null ? faultString : "SOAP Fault",
-                        responseXml
-                );
-            }
+        // Fault要素の範囲内を走査して faultstring を取得する
+        while (!(e == XmlPullParser.END_TAG
+                && p.getDepth() == depth
+                && "Fault".equals(p.getName()))) {
 
             e = p.next();
+
+            if (e == XmlPullParser.START_TAG && "faultstring".equals(p.getName())) {
+                faultString = p.nextText();
+            }
         }
+
+        return new SoapFaultException(
+                faultString != null ? faultString : "SOAP Fault",
+                rawXml
+        );
     }
 
     //============================================================
@@ -228,7 +259,25 @@ public class SoapParsers {
     //　戻り値　:　[SyukkaData] ..... 出荷データ
     //============================================================
     public static SyukkaData parseSyukkaDataResult(String responseXml) throws Exception {
-        XmlPullParser p = newParser(responseXml);
+        return parseSyukkaDataResult(newParser(responseXml));
+    }
+
+    //============================================================
+    //　機　能　:　出荷データ取得結果をレスポンスストリームから直接解析する
+    //　　　　　　 （SOAP Faultも同じ走査で検出し、例外を送出する）
+    //　引　数　:　in ..... レスポンス入力ストリーム
+    //　戻り値　:　[SyukkaData] ..... 出荷データ
+    //============================================================
+    public static SyukkaData parseSyukkaDataResult(InputStream in) throws Exception {
+        return parseSyukkaDataResult(newParser(in));
+    }
+
+    //============================================================
+    //　機　能　:　出荷データ取得結果をパーサから読み取る（Fault検出を含む1パス）
+    //　引　数　:　p ..... XML解析オブジェクト
+    //　戻り値　:　[SyukkaData] ..... 出荷データ
+    //============================================================
+    private static SyukkaData parseSyukkaDataResult(XmlPullParser p) throws Exception {
 
         // <GetSyukkaDataResult> の中に <Header> と <Meisai> が来る想定で読む
         SyukkaData data = new SyukkaData();
@@ -241,7 +290,11 @@ public class SoapParsers {
             if (e == XmlPullParser.START_TAG) {
                 String name = p.getName();
 
-                if ("GetSyukkaDataResult".equals(name)) {
+                if ("Fault".equals(name)) {
+                    // SOAP Faultは結果解析と同じ走査で検出する
+                    throw readSoapFault(p, null);
+
+                } else if ("GetSyukkaDataResult".equals(name)) {
                     inResult = true;
 
                 } else if (inResult && "Header".equals(name)) {
@@ -385,7 +438,25 @@ public class SoapParsers {
     //　戻り値　:　[SyougoData] ..... 照合データ
     //============================================================
     public static SyougoData parseSyougoDataResult(String responseXml) throws Exception {
-        XmlPullParser p = newParser(responseXml);
+        return parseSyougoDataResult(newParser(responseXml));
+    }
+
+    //============================================================
+    //　機　能　:　照合データ取得結果をレスポンスストリームから直接解析する
+    //　　　　　　 （SOAP Faultも同じ走査で検出し、例外を送出する）
+    //　引　数　:　in ..... レスポンス入力ストリーム
+    //　戻り値　:　[SyougoData] ..... 照合データ
+    //============================================================
+    public static SyougoData parseSyougoDataResult(InputStream in) throws Exception {
+        return parseSyougoDataResult(newParser(in));
+    }
+
+    //============================================================
+    //　機　能　:　照合データ取得結果をパーサから読み取る（Fault検出を含む1パス）
+    //　引　数　:　p ..... XML解析オブジェクト
+    //　戻り値　:　[SyougoData] ..... 照合データ
+    //============================================================
+    private static SyougoData parseSyougoDataResult(XmlPullParser p) throws Exception {
         SyougoData data = new SyougoData();
 
         int e = p.getEventType();
@@ -396,7 +467,11 @@ public class SoapParsers {
             if (e == XmlPullParser.START_TAG) {
                 String name = p.getName();
 
-                if ("GetSyougoDataResult".equals(name)) {
+                if ("Fault".equals(name)) {
+                    // SOAP Faultは結果解析と同じ走査で検出する
+                    throw readSoapFault(p, null);
+
+                } else if ("GetSyougoDataResult".equals(name)) {
                     inResult = true;
 
                 } else if (inResult && "syougoHeader".equals(name)) {
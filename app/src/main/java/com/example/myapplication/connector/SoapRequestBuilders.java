@@ -1,9 +1,8 @@
 package com.example.myapplication.connector;
 
-import android.util.Base64;
-
 import com.example.myapplication.time.XmlUtil;
 
+import java.util.Base64;
 import java.util.Date;
 
 
@@ -120,7 +119,7 @@ public class SoapRequestBuilders {
         // nullの場合は空文字で送る（サーバ側で許容される前提）
         String encoded = (buffer == null || buffer.length == 0)
                 ? ""
-                : Base64.encodeToString(buffer, Base64.NO_WRAP);
+                : Base64.getEncoder().encodeToString(buffer);
 
         // Base64はエスケープ不要のため tagRaw を使用
         XmlUtil.tagRaw(inner, "buffer", encoded);
@@ -5,12 +5,16 @@ import com.example.myapplication.model.CollateData;
 import com.example.myapplication.model.SyougoData;
 import com.example.myapplication.model.SyukkaData;
 
+import java.io.File;
 import java.util.Date;
 
+import okhttp3.RequestBody;
+
 
 //======================================================================
 //　処理概要　:　SvcHandy SOAP API呼び出しを提供するリポジトリクラス
-//　関　　数　:　getSysDate .......................... システム日時取得
+//　関　　数　:　getEndpointUrl ...................... 接続先URL取得
+//　　　　　　:　getSysDate .......................... システム日時取得
 //　　　　　　:　getSagyouYmd ....................... 作業日取得
 //　　　　　　:　getUpdateYmdHms .................... 更新日時取得
 //　　　　　　:　getSyukkaData ...................... 出荷データ取得
@@ -18,6 +22,7 @@ import java.util.Date;
 //　　　　　　:　getSyougoData ...................... 照合データ取得
 //　　　　　　:　sendSyougoData ..................... 照合データ送信
 //　　　　　　:　uploadBinaryFile ................... バイナリファイル送信
+//　　　　　　:　uploadBinaryFile（File） ............ バイナリファイル送信（ファイルからストリーミング）
 //　　　　　　:　getDownloadHandyExecuteFileNames ... 実行ファイル名一覧取得
 //　　　　　　:　getDownloadHandyExecuteFile ........ 実行ファイル取得
 //======================================================================
@@ -30,6 +35,7 @@ public class SvcHandyRepository {
             "https://scshandytestvanningreport-ehe3c7dpbuatd0bg.japanwest-01.azurewebsites.net/WebSvc/svcHandy.asmx";
 
     private final SoapAsmxClient client; // SOAP通信クライアント
+    private final String endpointUrl;    // 接続先URL
 
     //============================================================
     //　機　能　:　SvcHandyRepositoryを初期化する（デフォルト）
@@ -46,7 +52,19 @@ public class SvcHandyRepository {
     //　戻り値　:　[SvcHandyRepository] ..... なし
     //============================================================
     public SvcHandyRepository(String endpointUrl) {
-        this.client = new SoapAsmxClient(endpointUrl);
+        this.endpointUrl = endpointUrl;
+
+        // 同一エンドポイントのクライアントは共有する（接続プール/TLSセッションの再利用）
+        this.client = SoapAsmxClient.forEndpoint(endpointUrl);
+    }
+
+    //============================================================
+    //　機　能　:　接続先URLを取得する
+    //　引　数　:　なし
+    //　戻り値　:　[String] ..... 接続先URL
+    //============================================================
+    public String getEndpointUrl() {
+        return endpointUrl;
     }
 
     //============================================================
@@ -92,9 +110,10 @@ public class SvcHandyRepository {
     //============================================================
     public SyukkaData getSyukkaData(Date sagyouYmd) throws Exception {
         String req = SoapRequestBuilders.buildGetSyukkaData(sagyouYmd);
-        String res = client.call(SoapActions.GET_SYUKKA_DATA, req);
-        SoapParsers.throwIfSoapFault(res);
-        return SoapParsers.parseSyukkaDataResult(res);
+
+        // レスポンスは文字列化せずストリームから解析する（Fault検出も同じ走査で行う）
+        return client.call(SoapActions.GET_SYUKKA_DATA, req,
+                in -> SoapParsers.parseSyukkaDataResult(in));
     }
 
     //============================================================
@@ -103,7 +122,8 @@ public class SvcHandyRepository {
     //　戻り値　:　[boolean] ..... 送信結果（成功:true / 失敗:false）
     //============================================================
     public boolean sendSyukkaData(BunningData data) throws Exception {
-        String req = SendSyukkaSoapBuilder.buildSendSyukkaData(data);
+        // 写真を含むため本文はストリーミングで送信する
+        RequestBody req = SendSyukkaSoapBuilder.buildSendSyukkaData(data);
         String res = client.call(SoapActions.SEND_SYUKKA_DATA, req);
         SoapParsers.throwIfSoapFault(res);
         return SoapParsers.parseBooleanResult(res, "SendSyukkaDataResult");
@@ -116,9 +136,10 @@ public class SvcHandyRepository {
     //============================================================
     public SyougoData getSyougoData() throws Exception {
         String req = SoapRequestBuilders.buildGetSyougoData();
-        String res = client.call(SoapActions.GET_SYOUGO_DATA, req);
-        SoapParsers.throwIfSoapFault(res);
-        return SoapParsers.parseSyougoDataResult(res);
+
+        // レスポンスは文字列化せずストリームから解析する（Fault検出も同じ走査で行う）
+        return client.call(SoapActions.GET_SYOUGO_DATA, req,
+                in -> SoapParsers.parseSyougoDataResult(in));
     }
 
     //============================================================
@@ -151,6 +172,25 @@ public class SvcHandyRepository {
         return true;
     }
 
+    //============================================================
+    //　機　能　:　ファイルをバイナリファイルとして送信する
+    //　　　　　　 （本文はファイルから読みながら書き込み、全体をメモリへ保持しない）
+    //　引　数　:　fileName ..... 送信名
+    //　　　　　:　file ..... 送信するファイル
+    //　戻り値　:　[boolean] ..... 成功:true
+    //============================================================
+    public boolean uploadBinaryFile(String fileName, File file) throws Exception {
+        RequestBody req = UploadBinaryFileSoapBuilder.buildUploadBinaryFile(fileName, file);
+        String res = client.call(SoapActions.UPLOAD_BINARY_FILE, req);
+        SoapParsers.throwIfSoapFault(res);
+
+        // WebMethodがvoidの場合はResultが返らない
+        if (res.contains("UploadBinaryFileResult")) {
+            return SoapParsers.parseBooleanResult(res, "UploadBinaryFileResult");
+        }
+        return true;
+    }
+
     //============================================================
     //　機　能　:　実行ファイル名一覧を取得する
     //　引　数　:　なし
@@ -1,5 +1,7 @@
 package com.example.myapplication.connector;
 
+import android.os.SystemClock;
+
 import com.example.myapplication.db.dao.CommHistoryDao;
 import com.example.myapplication.db.entity.CommHistoryEntity;
 import com.example.myapplication.model.BunningData;
@@ -9,9 +11,8 @@ import com.example.myapplication.model.SyukkaData;
 import com.example.myapplication.time.DateTimeFormatUtil;
 
 import java.io.Closeable;
-import java.text.SimpleDateFormat;
+import java.io.File;
 import java.util.Date;
-import java.util.Locale;
 
 
 //========================================================================================
@@ -23,31 +24,30 @@ import java.util.Locale;
 //　　　　　　:　getSyougoData ............................ 照合データ取得（リトライ＋履歴）
 //　　　　　　:　sendSyougoData ........................... 照合データ送信（リトライ＋履歴）
 //　　　　　　:　uploadBinaryFile ......................... バイナリ送信（リトライ＋履歴）
+//　　　　　　:　uploadBinaryFile（File） ................. ファイルのストリーミング送信（リトライ＋履歴）
 //　　　　　　:　getDownloadHandyExecuteFileNames ......... 実行ファイル名一覧取得（リトライ＋履歴）
 //　　　　　　:　getDownloadHandyExecuteFile .............. 実行ファイル取得（リトライ＋履歴）
+//　　　　　　:　recordPhase .............................. 同期工程の所要時間を履歴へ保存
+//　　　　　　:　invoke ................................... リトライ方針に従った呼び出し
 //　　　　　　:　close .................................... クローズ（将来拡張用）
 //　　　　　　:　getHistoryRow ............................ 履歴行（作業領域）生成
-//　　　　　　:　saveHistoryRow ........................... 履歴行をDBへ保存
+//　　　　　　:　saveHistoryRow ........................... 履歴行の保存予約（バックグラウンドで一括保存）
 //　　　　　　:　setErrorInfo ............................. エラー情報の設定
-//　　　　　　:　formatDbDate ............................. DB用日時文字列へ整形
+//　　　　　　:　formatDbDate ............................. DB用日時文字列へ整形（ミリ秒まで）
 //　　　　　　:　nullSafe ................................. null安全文字列化
 //　　　　　　:　trimToLength ............................. 文字列の最大長制限
-//　　　　　　:　createLogId .............................. ログID採番（yyyyMMdd + 連番）
 //========================================================================================
 public class SvcHandyWrapper implements Closeable {
 
-    private static final int RETRY_COUNT = 3;      // リトライ回数
     private static final int MAX_TEXT_LENGTH = 1000; // ログ文字列最大長
 
-    private final SvcHandyRepository repository; // サービスリポジトリ
-    private final CommHistoryDao commHistoryDao; // 通信履歴DAO
-
-    // ログID採番の排他用
-    private static final Object LOG_ID_LOCK = new Object();
+    // 同期工程の履歴の処理名接頭辞（通信呼び出しの履歴と区別する）
+    public static final String PHASE_PROC_PREFIX = "phase:";
 
-    // ログID用日付（yyyyMMdd）
-    private final SimpleDateFormat logIdDateFormat =
-            new SimpleDateFormat("yyyyMMdd", Locale.JAPAN);
+    private final SvcHandyRepository repository; // サービスリポジトリ
+    private final CommHistoryWriter historyWriter; // 通信履歴の書き込み（DAO未指定はnull）
+    private final RetryPolicy retryPolicy;       // リトライ方針
+    private final CircuitBreaker circuitBreaker; // 接続先の通信遮断管理
 
     //============================================================
     //　機　能　:　SvcHandyWrapperを初期化する（リポジトリ指定）
@@ -65,8 +65,22 @@ public class SvcHandyWrapper implements Closeable {
     //　戻り値　:　[SvcHandyWrapper] ..... なし
     //============================================================
     public SvcHandyWrapper(SvcHandyRepository repository, CommHistoryDao commHistoryDao) {
+        this(repository, commHistoryDao, RetryPolicy.DEFAULT);
+    }
+
+    //============================================================
+    //　機　能　:　SvcHandyWrapperを初期化する（リポジトリ＋履歴DAO＋リトライ方針指定）
+    //　引　数　:　repository ..... 通信リポジトリ
+    //　　　　　:　commHistoryDao ..... データアクセスオブジェクト
+    //　　　　　:　retryPolicy ..... リトライ方針
+    //　戻り値　:　[SvcHandyWrapper] ..... なし
+    //============================================================
+    public SvcHandyWrapper(SvcHandyRepository repository, CommHistoryDao commHistoryDao,
+                           RetryPolicy retryPolicy) {
         this.repository = repository;
-        this.commHistoryDao = commHistoryDao;
+        this.historyWriter = commHistoryDao == null ? null : CommHistoryWriter.forDao(commHistoryDao);
+        this.retryPolicy = retryPolicy;
+        this.circuitBreaker = CircuitBreaker.forEndpoint(repository.getEndpointUrl());
     }
 
     //============================================================
@@ -76,28 +90,20 @@ public class SvcHandyWrapper implements Closeable {
     //============================================================
     public Date getSagyouYmd() throws Exception {
         CommHistoryRow history = getHistoryRow("getSagyouYmd");
-        Exception lastException = null;
 
         try {
-            // 一時障害を想定してリトライする
-            for (int count = 0; count < RETRY_COUNT; count++) {
-                try {
-                    Date result = repository.getSagyouYmd();
-
-                    // 成功時：戻り値と終了時刻を履歴へ設定
-                    history.returnValue = String.valueOf(result);
-                    history.endYmdhms = new Date();
-                    return result;
-
-                } catch (Exception ex) {
-                    // 失敗時：最後の例外を保持して次のリトライへ
-                    lastException = ex;
-                }
-            }
+            // 通信障害のみリトライ方針に従って再試行する
+            Date result = invoke(repository::getSagyouYmd);
 
-            // リトライ全失敗：履歴へエラー情報を設定し、呼び出し側へ例外を投げる
-            setErrorInfo(history, lastException);
-            throw new Exception("作業日の取得に失敗しました", lastException);
+            // 成功時：戻り値と終了時刻を履歴へ設定
+            history.returnValue = String.valueOf(result);
+            history.endYmdhms = new Date();
+            return result;
+
+        } catch (Exception ex) {
+            // 失敗：履歴へエラー情報を設定し、呼び出し側へ例外を投げる
+            setErrorInfo(history, ex);
+            throw new Exception("作業日の取得に失敗しました", ex);
 
         } finally {
             // 成否に関係なく履歴保存（DAOが無い場合は何もしない）
@@ -113,23 +119,16 @@ public class SvcHandyWrapper implements Closeable {
     public Date getUpdateYmdHms(Date sagyouYmd) throws Exception {
         CommHistoryRow history = getHistoryRow("getUpdateYmdHms");
         history.argument = String.valueOf(sagyouYmd);
-        Exception lastException = null;
 
         try {
-            for (int count = 0; count < RETRY_COUNT; count++) {
-                try {
-                    Date result = repository.getUpdateYmdHms(sagyouYmd);
-                    history.returnValue = String.valueOf(result);
-                    history.endYmdhms = new Date();
-                    return result;
-
-                } catch (Exception ex) {
-                    lastException = ex;
-                }
-            }
+            Date result = invoke(() -> repository.getUpdateYmdHms(sagyouYmd));
+            history.returnValue = String.valueOf(result);
+            history.endYmdhms = new Date();
+            return result;
 
-            setErrorInfo(history, lastException);
-            throw new Exception("出荷データ更新日時の取得に失敗しました", lastException);
+        } catch (Exception ex) {
+            setErrorInfo(history, ex);
+            throw new Exception("出荷データ更新日時の取得に失敗しました", ex);
 
         } finally {
             saveHistoryRow(history);
@@ -144,23 +143,16 @@ public class SvcHandyWrapper implements Closeable {
     public SyukkaData getSyukkaData(Date sagyouYmd) throws Exception {
         CommHistoryRow history = getHistoryRow("getSyukkaData");
         history.argument = String.valueOf(sagyouYmd);
-        Exception lastException = null;
 
         try {
-            for (int count = 0; count < RETRY_COUNT; count++) {
-                try {
-                    SyukkaData result = repository.getSyukkaData(sagyouYmd);
-                    history.returnValue = String.valueOf(result);
-                    history.endYmdhms = new Date();
-                    return result;
-
-                } catch (Exception ex) {
-                    lastException = ex;
-                }
-            }
+            SyukkaData result = invoke(() -> repository.getSyukkaData(sagyouYmd));
+            history.returnValue = String.valueOf(result);
+            history.endYmdhms = new Date();
+            return result;
 
-            setErrorInfo(history, lastException);
-            throw new Exception("出荷データの取得に失敗しました", lastException);
+        } catch (Exception ex) {
+            setErrorInfo(history, ex);
+            throw new Exception("出荷データの取得に失敗しました", ex);
 
         } finally {
             saveHistoryRow(history);
@@ -174,23 +166,16 @@ public class SvcHandyWrapper implements Closeable {
     //============================================================
     public boolean sendSyukkaData(BunningData data) throws Exception {
         CommHistoryRow history = getHistoryRow("sendSyukkaData");
-        Exception lastException = null;
 
         try {
-            for (int count = 0; count < RETRY_COUNT; count++) {
-                try {
-                    boolean result = repository.sendSyukkaData(data);
-                    history.returnValue = String.valueOf(result);
-                    history.endYmdhms = new Date();
-                    return result;
-
-                } catch (Exception ex) {
-                    lastException = ex;
-                }
-            }
+            Boolean result = invoke(() -> repository.sendSyukkaData(data));
+            history.returnValue = String.valueOf(result);
+            history.endYmdhms = new Date();
+            return result;
 
-            setErrorInfo(history, lastException);
-            throw new Exception("出荷データの更新に失敗しました", lastException);
+        } catch (Exception ex) {
+            setErrorInfo(history, ex);
+            throw new Exception("出荷データの更新に失敗しました", ex);
 
         } finally {
             saveHistoryRow(history);
@@ -204,23 +189,16 @@ public class SvcHandyWrapper implements Closeable {
     //============================================================
     public SyougoData getSyougoData() throws Exception {
         CommHistoryRow history = getHistoryRow("getSyougoData");
-        Exception lastException = null;
 
         try {
-            for (int count = 0; count < RETRY_COUNT; count++) {
-                try {
-                    SyougoData result = repository.getSyougoData();
-                    history.returnValue = String.valueOf(result);
-                    history.endYmdhms = new Date();
-                    return result;
-
-                } catch (Exception ex) {
-                    lastException = ex;
-                }
-            }
+            SyougoData result = invoke(repository::getSyougoData);
+            history.returnValue = String.valueOf(result);
+            history.endYmdhms = new Date();
+            return result;
 
-            setErrorInfo(history, lastException);
-            throw new Exception("照合データの取得に失敗しました", lastException);
+        } catch (Exception ex) {
+            setErrorInfo(history, ex);
+            throw new Exception("照合データの取得に失敗しました", ex);
 
         } finally {
             saveHistoryRow(history);
@@ -234,23 +212,16 @@ public class SvcHandyWrapper implements Closeable {
     //============================================================
     public boolean sendSyougoData(CollateData data) throws Exception {
         CommHistoryRow history = getHistoryRow("sendSyougoData");
-        Exception lastException = null;
 
         try {
-            for (int count = 0; count < RETRY_COUNT; count++) {
-                try {
-                    boolean result = repository.sendSyougoData(data);
-                    history.returnValue = String.valueOf(result);
-                    history.endYmdhms = new Date();
-                    return result;
-
-                } catch (Exception ex) {
-                    lastException = ex;
-                }
-            }
+            Boolean result = invoke(() -> repository.sendSyougoData(data));
+            history.returnValue = String.valueOf(result);
+            history.endYmdhms = new Date();
+            return result;
 
-            setErrorInfo(history, lastException);
-            throw new Exception("照合データの更新に失敗しました", lastException);
+        } catch (Exception ex) {
+            setErrorInfo(history, ex);
+            throw new Exception("照合データの更新に失敗しました", ex);
 
         } finally {
             saveHistoryRow(history);
@@ -266,23 +237,41 @@ public class SvcHandyWrapper implements Closeable {
     public boolean uploadBinaryFile(String fileName, byte[] buffer) throws Exception {
         CommHistoryRow history = getHistoryRow("uploadBinaryFile");
         history.argument = fileName;
-        Exception lastException = null;
 
         try {
-            for (int count = 0; count < RETRY_COUNT; count++) {
-                try {
-                    boolean result = repository.uploadBinaryFile(fileName, buffer);
-                    history.returnValue = String.valueOf(result);
-                    history.endYmdhms = new Date();
-                    return result;
-
-                } catch (Exception ex) {
-                    lastException = ex;
-                }
-            }
+            Boolean result = invoke(() -> repository.uploadBinaryFile(fileName, buffer));
+            history.returnValue = String.valueOf(result);
+            history.endYmdhms = new Date();
+            return result;
+
+        } catch (Exception ex) {
+            setErrorInfo(history, ex);
+            throw new Exception("ファイルのアップロードに失敗しました", ex);
+
+        } finally {
+            saveHistoryRow(history);
+        }
+    }
+
+    //============================================================
+    //　機　能　:　ファイルをバイナリファイルとして送信する（リトライし、履歴を保存する）
+    //　引　数　:　fileName ..... 送信名
+    //　　　　　:　file ..... 送信するファイル
+    //　戻り値　:　[boolean] ..... 送信結果（成功:true / 失敗:false）
+    //============================================================
+    public boolean uploadBinaryFile(String fileName, File file) throws Exception {
+        CommHistoryRow history = getHistoryRow("uploadBinaryFile");
+        history.argument = fileName + " (" + file.length() + " bytes)";
 
-            setErrorInfo(history, lastException);
-            throw new Exception("ファイルのアップロードに失敗しました", lastException);
+        try {
+            Boolean result = invoke(() -> repository.uploadBinaryFile(fileName, file));
+            history.returnValue = String.valueOf(result);
+            history.endYmdhms = new Date();
+            return result;
+
+        } catch (Exception ex) {
+            setErrorInfo(history, ex);
+            throw new Exception("ファイルのアップロードに失敗しました", ex);
 
         } finally {
             saveHistoryRow(history);
@@ -296,26 +285,19 @@ public class SvcHandyWrapper implements Closeable {
     //============================================================
     public String[] getDownloadHandyExecuteFileNames() throws Exception {
         CommHistoryRow history = getHistoryRow("getDownloadHandyExecuteFileNames");
-        Exception lastException = null;
 
         try {
-            for (int count = 0; count < RETRY_COUNT; count++) {
-                try {
-                    String[] result = repository.getDownloadHandyExecuteFileNames();
+            String[] result = invoke(repository::getDownloadHandyExecuteFileNames);
 
-                    // String.valueOf(array) は参照値になってしまうため、件数だけ残す
-                    history.returnValue = (result == null) ? "null" : ("count=" + result.length);
+            // String.valueOf(array) は参照値になってしまうため、件数だけ残す
+            history.returnValue = (result == null) ? "null" : ("count=" + result.length);
 
-                    history.endYmdhms = new Date();
-                    return result;
-
-                } catch (Exception ex) {
-                    lastException = ex;
-                }
-            }
+            history.endYmdhms = new Date();
+            return result;
 
-            setErrorInfo(history, lastException);
-            throw new Exception("更新対象ファイルの取得に失敗しました", lastException);
+        } catch (Exception ex) {
+            setErrorInfo(history, ex);
+            throw new Exception("更新対象ファイルの取得に失敗しました", ex);
 
         } finally {
             saveHistoryRow(history);
@@ -330,32 +312,64 @@ public class SvcHandyWrapper implements Closeable {
     public byte[] getDownloadHandyExecuteFile(String fileName) throws Exception {
         CommHistoryRow history = getHistoryRow("getDownloadHandyExecuteFile");
         history.argument = fileName;
-        Exception lastException = null;
 
         try {
-            for (int count = 0; count < RETRY_COUNT; count++) {
-                try {
-                    byte[] result = repository.getDownloadHandyExecuteFile(fileName);
-
-                    // byte[] も String.valueOf は参照値になるため、サイズだけ残す
-                    history.returnValue = (result == null) ? "null" : ("bytes=" + result.length);
+            byte[] result = invoke(() -> repository.getDownloadHandyExecuteFile(fileName));
 
-                    history.endYmdhms = new Date();
-                    return result;
+            // byte[] も String.valueOf は参照値になるため、サイズだけ残す
+            history.returnValue = (result == null) ? "null" : ("bytes=" + result.length);
 
-                } catch (Exception ex) {
-                    lastException = ex;
-                }
-            }
+            history.endYmdhms = new Date();
+            return result;
 
-            setErrorInfo(history, lastException);
-            throw new Exception("ファイルのダウンロードに失敗しました", lastException);
+        } catch (Exception ex) {
+            setErrorInfo(history, ex);
+            throw new Exception("ファイルのダウンロードに失敗しました", ex);
 
         } finally {
             saveHistoryRow(history);
         }
     }
 
+    //============================================================
+    //　機　能　:　同期処理の工程1つ分の所要時間を履歴へ保存する
+    //　　　　　　 通信毎の履歴と同じテーブルに「phase:工程名」で保存し、集計画面で比較する
+    //　引　数　:　phaseName ..... 工程名
+    //　　　　　:　startDate ..... 工程開始日時
+    //　　　　　:　durationMs ..... 所要時間（ミリ秒）
+    //　　　　　:　dbApplyMs ..... DB反映時間（ミリ秒、DB反映なしはnull）
+    //　　　　　:　errorDescription ..... エラー内容（正常時はnull）
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    public void recordPhase(String phaseName, Date startDate, long durationMs, Long dbApplyMs,
+                            String errorDescription) {
+        CommHistoryRow history = new CommHistoryRow();
+        history.startYmdhms = startDate;
+        history.endYmdhms = new Date(startDate.getTime() + durationMs);
+        history.procName = PHASE_PROC_PREFIX + phaseName;
+        history.returnValue = errorDescription == null ? "OK" : "NG";
+        history.errorDescription = errorDescription;
+        history.durationMs = durationMs;
+        history.dbApplyMs = dbApplyMs;
+        saveHistoryRow(history);
+    }
+
+    //============================================================
+    //　機　能　:　リトライ方針・接続先ブレーカーに従ってリポジトリを呼び出す
+    //　引　数　:　call ..... 呼び出し処理
+    //　戻り値　:　[T] ..... 呼び出し結果
+    //============================================================
+    private <T> T invoke(RetryPolicy.Call<T> call) throws Exception {
+        T result = retryPolicy.execute(circuitBreaker, call);
+
+        // 文字列で受信した応答は、ここまでを解析時間とする
+        CallMetrics metrics = CallMetrics.current();
+        if (metrics != null) {
+            metrics.markParsed();
+        }
+        return result;
+    }
+
     //============================================================
     //　機　能　:　履歴行（作業領域）を生成する
     //　引　数　:　procName ..... 名称
@@ -364,18 +378,30 @@ public class SvcHandyWrapper implements Closeable {
     private CommHistoryRow getHistoryRow(String procName) {
         CommHistoryRow row = new CommHistoryRow();
         row.startYmdhms = new Date();
+        row.startedAt = SystemClock.elapsedRealtime();
         row.procName = procName;
+
+        // 通信計測を開始（リトライ・再送を含めて集計する）
+        row.metrics = CallMetrics.begin();
         return row;
     }
 
     //============================================================
-    //　機　能　:　履歴行をDBへ保存する
+    //　機　能　:　履歴行の保存を予約する（DB保存は書き込みスレッドでまとめて行う）
     //　引　数　:　history ..... 通信履歴情報
     //　戻り値　:　[void] ..... なし
     //============================================================
     private void saveHistoryRow(CommHistoryRow history) {
+        // 通信計測を終了（履歴保存の有無に関係なく解除する）
+        if (history != null && history.metrics != null) {
+            CallMetrics.end();
+            if (history.durationMs == null) {
+                history.durationMs = SystemClock.elapsedRealtime() - history.startedAt;
+            }
+        }
+
         // DAO未指定（履歴不要運用）の場合は何もしない
-        if (commHistoryDao == null || history == null) {
+        if (historyWriter == null || history == null) {
             return;
         }
 
@@ -386,7 +412,6 @@ public class SvcHandyWrapper implements Closeable {
 
         // DB格納用エンティティへ詰め替え
         CommHistoryEntity entity = new CommHistoryEntity();
-        entity.logId = createLogId(history.startYmdhms);
         entity.startYmdhms = nullSafe(formatDbDate(history.startYmdhms));
         entity.endYmdhms = nullSafe(formatDbDate(history.endYmdhms));
         entity.procName = trimToLength(nullSafe(history.procName), 100);
@@ -396,8 +421,26 @@ public class SvcHandyWrapper implements Closeable {
         // エラー情報（無い場合はnullのままでも良いが、長さ制限だけ適用）
         entity.errDescription = trimToLength(history.errorDescription, MAX_TEXT_LENGTH);
 
-        // 保存（Upsert）
-        commHistoryDao.upsert(entity);
+        // 計測値（ミリ秒／バイト）
+        entity.durationMs = history.durationMs;
+        entity.dbApplyMs = history.dbApplyMs;
+        CallMetrics metrics = history.metrics;
+        if (metrics != null) {
+            synchronized (metrics) {
+                entity.dnsMs = metrics.dnsMs;
+                entity.connectMs = metrics.connectMs;
+                entity.tlsMs = metrics.tlsMs;
+                entity.ttfbMs = metrics.ttfbMs;
+                entity.transferMs = metrics.transferMs;
+                entity.requestBytes = metrics.requestBytes;
+                entity.responseBytes = metrics.responseBytes;
+                entity.parseMs = metrics.parseMs;
+            }
+            entity.retryCount = metrics.getRetryCount();
+        }
+
+        // 保存予約（LOG_IDは書き込み時に採番）
+        historyWriter.enqueue(history.startYmdhms, entity);
     }
 
     //============================================================
@@ -414,7 +457,7 @@ public class SvcHandyWrapper implements Closeable {
     }
 
     //============================================================
-    //　機　能　:　DateをDB用日時文字列へ整形する
+    //　機　能　:　DateをDB用日時文字列（ミリ秒まで）へ整形する
     //　引　数　:　value ..... 設定値
     //　戻り値　:　[String] ..... DB用日時文字列
     //============================================================
@@ -422,7 +465,7 @@ public class SvcHandyWrapper implements Closeable {
         if (value == null) {
             return null;
         }
-        return DateTimeFormatUtil.formatDbYmdHms(value);
+        return DateTimeFormatUtil.formatDbYmdHmsMillis(value);
     }
 
     //============================================================
@@ -450,44 +493,17 @@ public class SvcHandyWrapper implements Closeable {
         return value;
     }
 
-    //============================================================
-    //　機　能　:　ログIDを採番する（yyyyMMdd + 3桁連番）
-    //　引　数　:　startDate ..... 日時
-    //　戻り値　:　[String] ..... ログID
-    //============================================================
-    private String createLogId(Date startDate) {
-        synchronized (LOG_ID_LOCK) {
-            // 基準日はstartDate優先（nullなら現在時刻）
-            Date baseDate = startDate == null ? new Date() : startDate;
-
-            // 日付プレフィックス（yyyyMMdd）
-            String ymdPrefix = logIdDateFormat.format(baseDate);
-
-            // その日の最大ログIDを取得し、連番部分を+1する
-            String maxLogId = commHistoryDao.findMaxLogIdByDatePrefix(ymdPrefix);
-
-            int nextSequence = 1;
-            if (maxLogId != null && maxLogId.length() >= 11) {
-                String sequencePart = maxLogId.substring(maxLogId.length() - 3);
-                try {
-                    nextSequence = Integer.parseInt(sequencePart) + 1;
-                } catch (NumberFormatException ignored) {
-                    nextSequence = 1;
-                }
-            }
-
-            // yyyyMMdd + 3桁ゼロ埋め
-            return ymdPrefix + String.format(Locale.JAPAN, "%03d", nextSequence);
-        }
-    }
-
     private static class CommHistoryRow {
         private Date startYmdhms;
         private Date endYmdhms;
+        private long startedAt;       // 開始時刻（経過時間計測用）
         private String procName;
         private String argument;
         private String returnValue;
         private String errorDescription;
+        private Long durationMs;      // 所要時間（ミリ秒）
+        private Long dbApplyMs;       // DB反映時間（ミリ秒、同期工程のみ）
+        private CallMetrics metrics;  // 通信計測値（通信呼び出しのみ）
     }
 
     //============================================================
@@ -0,0 +1,150 @@
+package com.example.myapplication.connector;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+
+//========================================================================================
+//　処理概要　:　同期処理の各工程を依存関係に従って実行するクラス
+//　　　　　　　 依存する工程が全て成功した工程から順に並行実行し、
+//　　　　　　　 依存工程が失敗（例外）した工程は実行しない
+//　関　　数　:　add ...................................... 工程の追加（依存工程指定）
+//　　　　　　:　run ...................................... 全工程の実行（完了まで待機）
+//　　　　　　:　getTimings ............................... 工程毎の所要時間取得
+//　　　　　　:　getStartTimes ............................ 工程毎の開始日時取得
+//========================================================================================
+final class SyncPhaseGraph {
+    private static final String TAG = "SyncPhaseGraph"; // ログタグ
+
+    //============================================================
+    //　機　能　:　工程の処理（例外を投げた場合は失敗扱い）
+    //============================================================
+    interface Phase {
+        void run() throws Exception;
+    }
+
+    //============================================================
+    //　機　能　:　工程失敗時の通知
+    //============================================================
+    interface FailureHandler {
+        void onFailure(String phaseName, Exception ex);
+    }
+
+    // 工程定義（追加順）
+    private static final class Node {
+        final String name;        // 工程名
+        final Phase phase;        // 処理
+        final String[] dependsOn; // 依存工程名
+
+        Node(String name, Phase phase, String[] dependsOn) {
+            this.name = name;
+            this.phase = phase;
+            this.dependsOn = dependsOn;
+        }
+    }
+
+    private final List<Node> nodes = new ArrayList<>(); // 工程一覧
+    private final Map<String, Long> timings =
+            Collections.synchronizedMap(new LinkedHashMap<>()); // 工程名 → 所要時間（ミリ秒）
+    private final Map<String, Long> startTimes =
+            Collections.synchronizedMap(new LinkedHashMap<>()); // 工程名 → 開始日時（エポックミリ秒）
+
+    //============================================================
+    //　機　能　:　工程を追加する（依存工程は先に追加しておくこと）
+    //　引　数　:　name ..... 工程名
+    //　　　　　:　phase ..... 処理
+    //　　　　　:　dependsOn ..... 依存工程名
+    //　戻り値　:　[SyncPhaseGraph] ..... 自インスタンス
+    //============================================================
+    SyncPhaseGraph add(String name, Phase phase, String... dependsOn) {
+        nodes.add(new Node(name, phase, dependsOn));
+        return this;
+    }
+
+    //============================================================
+    //　機　能　:　全工程を実行し、完了まで待機する
+    //　引　数　:　pool ..... 実行スレッド
+    //　　　　　:　failureHandler ..... 工程失敗時の通知先
+    //　戻り値　:　[boolean] ..... 全工程が成功すればtrue
+    //============================================================
+    boolean run(ExecutorService pool, FailureHandler failureHandler) {
+        Map<String, CompletableFuture<Boolean>> futures = new LinkedHashMap<>();
+
+        for (Node node : nodes) {
+            List<CompletableFuture<Boolean>> deps = new ArrayList<>();
+            for (String dep : node.dependsOn) {
+                CompletableFuture<Boolean> f = futures.get(dep);
+                if (f == null) {
+                    throw new IllegalArgumentException("unknown phase: " + dep);
+                }
+                deps.add(f);
+            }
+
+            CompletableFuture<Boolean> future = CompletableFuture
+                    .allOf(deps.toArray(new CompletableFuture<?>[0]))
+                    .thenApplyAsync(ignored -> {
+                        // 依存工程が失敗していれば実行しない
+                        for (CompletableFuture<Boolean> dep : deps) {
+                            if (!dep.join()) {
+                                Log.i(TAG, node.name + " skipped");
+                                return false;
+                            }
+                        }
+
+                        startTimes.put(node.name, System.currentTimeMillis());
+                        long start = SystemClock.elapsedRealtime();
+                        try {
+                            node.phase.run();
+                            return true;
+                        } catch (Exception ex) {
+                            failureHandler.onFailure(node.name, ex);
+                            return false;
+                        } finally {
+                            long elapsed = SystemClock.elapsedRealtime() - start;
+                            timings.put(node.name, elapsed);
+                            Log.i(TAG, node.name + " " + elapsed + "ms");
+                        }
+                    }, pool);
+            futures.put(node.name, future);
+        }
+
+        // 全工程の完了を待つ
+        boolean success = true;
+        for (CompletableFuture<Boolean> future : futures.values()) {
+            if (!future.join()) {
+                success = false;
+            }
+        }
+        return success;
+    }
+
+    //============================================================
+    //　機　能　:　工程毎の所要時間を取得する（実行した工程のみ）
+    //　引　数　:　なし
+    //　戻り値　:　[Map<String, Long>] ..... 工程名 → 所要時間（ミリ秒）
+    //============================================================
+    Map<String, Long> getTimings() {
+        synchronized (timings) {
+            return new LinkedHashMap<>(timings);
+        }
+    }
+
+    //============================================================
+    //　機　能　:　工程毎の開始日時を取得する（実行した工程のみ）
+    //　引　数　:　なし
+    //　戻り値　:　[Map<String, Long>] ..... 工程名 → 開始日時（エポックミリ秒）
+    //============================================================
+    Map<String, Long> getStartTimes() {
+        synchronized (startTimes) {
+            return new LinkedHashMap<>(startTimes);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.myapplication.connector;
+
+import android.app.job.JobInfo;
+import android.app.job.JobParameters;
+import android.app.job.JobScheduler;
+import android.app.job.JobService;
+import android.content.ComponentName;
+import android.content.Context;
+import android.util.Log;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+
+//==================================================================================
+//　処理概要　:　出荷データの先行受信を定期実行するジョブ（JobScheduler）
+//　　　　　　　 端末が充電中かつ未使用（クレードル設置中など）の間だけ実行し、
+//　　　　　　　 次回の同期処理で使う作業日の予定・明細を先行受信テーブルへ格納しておく
+//　　　　　　　 （反映は次回の同期処理で行う：DataSync#receiveSyukkaData）
+//　関　　数　:　schedule ....................... 定期実行の登録（登録済みなら何もしない）
+//　　　　　　:　onStartJob ..................... ジョブ開始（先行受信をバックグラウンドで実行）
+//　　　　　　:　onStopJob ...................... ジョブ中断（条件外れ：実行中の受信を取り消し）
+//　　　　　　:　onDestroy ...................... スレッド停止
+//==================================================================================
+public class SyncPrefetchJobService extends JobService {
+    private static final String TAG = "SyncPrefetchJob"; // ログタグ
+
+    private static final int JOB_ID = 1019;                         // ジョブID（アプリ内で一意）
+    private static final long INTERVAL_MILLIS = 30 * 60 * 1000L;    // 実行間隔（条件を満たす間）
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(); // 通信・DB用スレッド
+    private volatile Future<?> running;   // 実行中の先行受信（中断時に取り消す）
+
+    //============================================================
+    //　機　能　:　先行受信ジョブの定期実行を登録する（登録済みなら何もしない）
+    //　引　数　:　context ..... コンテキスト情報
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    public static void schedule(Context context) {
+        JobScheduler scheduler = context.getSystemService(JobScheduler.class);
+        if (scheduler == null || scheduler.getPendingJob(JOB_ID) != null) {
+            return;
+        }
+
+        JobInfo job = new JobInfo.Builder(JOB_ID,
+                new ComponentName(context, SyncPrefetchJobService.class))
+                // 作業中の端末では通信・DB書き込みを行わない
+                .setRequiresCharging(true)
+                .setRequiresDeviceIdle(true)
+                .setRequiredNetworkType(JobInfo.NETWORK_TYPE_ANY)
+                .setPeriodic(INTERVAL_MILLIS)
+                .build();
+        if (scheduler.schedule(job) != JobScheduler.RESULT_SUCCESS) {
+            Log.w(TAG, "schedule failed");
+        }
+    }
+
+    //============================================================
+    //　機　能　:　ジョブ開始時の処理（先行受信をバックグラウンドで実行）
+    //　引　数　:　params ..... ジョブパラメータ
+    //　戻り値　:　[boolean] ..... 処理継続中はtrue
+    //============================================================
+    @Override
+    public boolean onStartJob(JobParameters params) {
+        running = executor.submit(() -> {
+            try {
+                DataSync sync = new DataSync(getApplicationContext());
+                sync.prefetchSyukkaData();
+            } catch (Exception ex) {
+                // 先行受信できなくても、同期処理で通常どおり受信する
+                Log.w(TAG, "prefetch failed", ex);
+            } finally {
+                jobFinished(params, false);
+            }
+        });
+        return true;
+    }
+
+    //============================================================
+    //　機　能　:　ジョブ中断時の処理（充電・未使用の条件が外れた場合）
+    //　　　　　　 作業中の端末で通信を続けないよう、実行中の受信を割り込みで取り消す
+    //　　　　　　 （先行受信テーブルへの書き込みは最後の1トランザクションのため、途中で止めても残らない）
+    //　引　数　:　params ..... ジョブパラメータ
+    //　戻り値　:　[boolean] ..... 再実行の要否（条件が揃い次第やり直すためtrue）
+    //============================================================
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        Future<?> current = running;
+        if (current != null) {
+            current.cancel(true);
+        }
+        return true;
+    }
+
+    //============================================================
+    //　機　能　:　サービス終了時の処理
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    @Override
+    public void onDestroy() {
+        executor.shutdown();
+        super.onDestroy();
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.myapplication.connector;
+
+import com.example.myapplication.time.XmlUtil;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Base64;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+
+//====================================================================
+//　処理概要　:　バイナリファイル送信用（UploadBinaryFile）のSOAP本文を組み立てるクラス
+//　　　　　　　 ファイルは送信時に読み込みながらBase64化し、全体をメモリへ保持しない
+//　関　　数　:　buildUploadBinaryFile ..... UploadBinaryFile用RequestBody生成（ストリーミング）
+//　　　　　　:　writeUploadBinaryFile ..... SOAPメッセージをSinkへ直接書き込み
+//====================================================================
+public class UploadBinaryFileSoapBuilder {
+
+    private static final String NS = "http://tempuri.org/";
+
+    // ファイル読み込み単位（Base64は3バイト単位のため3の倍数にする）
+    private static final int FILE_CHUNK_SIZE = 3 * 1024 * 16;
+
+    //==================================================================
+    //　機　能　:　UploadBinaryFileSoapBuilderの生成を禁止する（ユーティリティクラス化）
+    //　引　数　:　なし
+    //　戻り値　:　[UploadBinaryFileSoapBuilder] ..... なし
+    //==================================================================
+    private UploadBinaryFileSoapBuilder() {
+        // static専用クラスのためインスタンス化させない
+    }
+
+    //==================================================================
+    //　機　能　:　バイナリファイル送信用（UploadBinaryFile）のRequestBodyを生成する
+    //　引　数　:　fileName ..... 送信名
+    //　　　　　:　file ..... 送信するファイル
+    //　戻り値　:　[RequestBody] ..... SOAPメッセージ（Envelope + Body）を書き込むRequestBody
+    //==================================================================
+    public static RequestBody buildUploadBinaryFile(String fileName, File file) {
+        return new RequestBody() {
+            @Override
+            public MediaType contentType() {
+                return SoapAsmxClient.SOAP_XML;
+            }
+
+            @Override
+            public void writeTo(BufferedSink sink) throws IOException {
+                // リトライ時も毎回ファイルから読み直して書き込む
+                writeUploadBinaryFile(sink, fileName, file);
+            }
+        };
+    }
+
+    //==================================================================
+    //　機　能　:　バイナリファイル送信用（UploadBinaryFile）のSOAPメッセージをSinkへ書き込む
+    //　引　数　:　sink ..... 書き込み先
+    //　　　　　:　fileName ..... 送信名
+    //　　　　　:　file ..... 送信するファイル
+    //　戻り値　:　[void] ..... なし
+    //==================================================================
+    static void writeUploadBinaryFile(BufferedSink sink, String fileName, File file) throws IOException {
+        StringBuilder head = new StringBuilder();
+        head.append(SoapEnvelope.ENVELOPE_HEAD);
+        head.append("<UploadBinaryFile xmlns=\"").append(NS).append("\">");
+        XmlUtil.tag(head, "fileName", fileName);
+        head.append("<buffer>");
+        sink.writeUtf8(head.toString());
+
+        // 改行なしでBase64エンコード（Base64側のcloseでSinkを閉じない）
+        OutputStream noClose = new FilterOutputStream(sink.outputStream()) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+        byte[] buffer = new byte[FILE_CHUNK_SIZE];
+        try (InputStream in = new FileInputStream(file);
+             OutputStream b64 = Base64.getEncoder().wrap(noClose)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                b64.write(buffer, 0, read);
+            }
+        }
+
+        sink.writeUtf8("</buffer>");
+        sink.writeUtf8("</UploadBinaryFile>");
+        sink.writeUtf8(SoapEnvelope.ENVELOPE_TAIL);
+    }
+}
@@ -2,28 +2,39 @@ package com.example.myapplication.db;
 
 import android.content.Context;
 
+import androidx.annotation.NonNull;
 import androidx.room.Database;
 import androidx.room.Room;
 import androidx.room.RoomDatabase;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
 
 import com.example.myapplication.db.dao.CommHistoryDao;
 import com.example.myapplication.db.dao.KakuninContainerDao;
 import com.example.myapplication.db.dao.KakuninMeisaiDao;
 import com.example.myapplication.db.dao.KakuninMeisaiWorkDao;
+import com.example.myapplication.db.dao.KakuninStageDao;
+import com.example.myapplication.db.dao.SendQueueDao;
 import com.example.myapplication.db.dao.SystemDao;
 import com.example.myapplication.db.dao.SyukkaContainerDao;
 import com.example.myapplication.db.dao.SyukkaMeisaiDao;
 import com.example.myapplication.db.dao.SyukkaMeisaiWorkDao;
+import com.example.myapplication.db.dao.SyukkaStageDao;
 import com.example.myapplication.db.dao.YoteiDao;
 import com.example.myapplication.db.entity.CommHistoryEntity;
 import com.example.myapplication.db.entity.KakuninContainerEntity;
+import com.example.myapplication.db.entity.KakuninContainerStageEntity;
 import com.example.myapplication.db.entity.KakuninMeisaiEntity;
+import com.example.myapplication.db.entity.KakuninMeisaiStageEntity;
 import com.example.myapplication.db.entity.KakuninMeisaiWorkEntity;
+import com.example.myapplication.db.entity.SendQueueEntity;
 import com.example.myapplication.db.entity.SystemEntity;
 import com.example.myapplication.db.entity.SyukkaContainerEntity;
 import com.example.myapplication.db.entity.SyukkaMeisaiEntity;
+import com.example.myapplication.db.entity.SyukkaMeisaiStageEntity;
 import com.example.myapplication.db.entity.SyukkaMeisaiWorkEntity;
 import com.example.myapplication.db.entity.YoteiEntity;
+import com.example.myapplication.db.entity.YoteiStageEntity;
 
 
 //======================================================================
@@ -39,7 +50,16 @@ import com.example.myapplication.db.entity.YoteiEntity;
 //　　　　　　:　kakuninMeisaiDao       ..... KakuninMeisaiDao取得
 //　　　　　　:　kakuninMeisaiWorkDao   ..... KakuninMeisaiWorkDao取得
 //　　　　　　:　commHistoryDao         ..... CommHistoryDao取得
+//　　　　　　:　sendQueueDao           ..... SendQueueDao取得
+//　　　　　　:　syukkaStageDao         ..... SyukkaStageDao取得
+//　　　　　　:　kakuninStageDao        ..... KakuninStageDao取得
 //　　　　　　:　getInstance            ..... DBインスタンス取得（Singleton）
+//　　　　　　:　MIGRATION_8_9          ..... v8→v9（M_SYSTEMに差分受信用項目追加）
+//　　　　　　:　MIGRATION_9_10         ..... v9→v10（キー項目の前後空白除去＋索引追加）
+//　　　　　　:　MIGRATION_10_11        ..... v10→v11（送信待ちテーブル追加）
+//　　　　　　:　MIGRATION_11_12        ..... v11→v12（通信履歴に計測項目追加）
+//　　　　　　:　MIGRATION_12_13        ..... v12→v13（出荷データ先行受信テーブル追加）
+//　　　　　　:　MIGRATION_13_14        ..... v13→v14（照合データ受信中テーブル追加）
 //======================================================================
 @Database(
         entities = {
@@ -51,10 +71,15 @@ import com.example.myapplication.db.entity.YoteiEntity;
                 KakuninContainerEntity.class,
                 KakuninMeisaiEntity.class,
                 KakuninMeisaiWorkEntity.class,
-                CommHistoryEntity.class
+                CommHistoryEntity.class,
+                SendQueueEntity.class,
+                YoteiStageEntity.class,
+                SyukkaMeisaiStageEntity.class,
+                KakuninContainerStageEntity.class,
+                KakuninMeisaiStageEntity.class
         },
-        version = 8,
-        exportSchema = false
+        version = 14,
+        exportSchema = true
 )
 public abstract class AppDatabase extends RoomDatabase {
 
@@ -147,6 +172,272 @@ public abstract class AppDatabase extends RoomDatabase {
     // ・通信履歴（C_COMM_HISTORY）へのアクセス
 
 
+    //============================================================
+    //　機　能　:　SendQueueDaoを取得する
+    //　引　数　:　なし
+    //　戻り値　:　[SendQueueDao] ..... SendQueueDao
+    //============================================================
+    public abstract SendQueueDao sendQueueDao();
+    // ・送信待ち（T_SEND_QUEUE）へのアクセス
+
+
+    //============================================================
+    //　機　能　:　SyukkaStageDaoを取得する
+    //　引　数　:　なし
+    //　戻り値　:　[SyukkaStageDao] ..... SyukkaStageDao
+    //============================================================
+    public abstract SyukkaStageDao syukkaStageDao();
+    // ・先行受信（S_YOTEI／S_SYUKKA_MEISAI）へのアクセス
+
+
+    //============================================================
+    //　機　能　:　KakuninStageDaoを取得する
+    //　引　数　:　なし
+    //　戻り値　:　[KakuninStageDao] ..... KakuninStageDao
+    //============================================================
+    public abstract KakuninStageDao kakuninStageDao();
+    // ・照合データ受信中（S_KAKUNIN_CONTAINER／S_KAKUNIN_MEISAI）へのアクセス
+
+
+    //============================================================
+    //　処理概要　:　v8→v9 マイグレーション
+    //　内　　容　:　M_SYSTEMへ差分受信の判定項目（受信済み作業日／サーバ更新日時）を追加
+    //============================================================
+    static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE M_SYSTEM ADD COLUMN RECV_SAGYOU_YMD TEXT");
+            database.execSQL("ALTER TABLE M_SYSTEM ADD COLUMN RECV_LAST_UPD_YMDHMS TEXT");
+        }
+    };
+
+
+    //============================================================
+    //　処理概要　:　v9→v10 マイグレーション
+    //　内　　容　:　既存行のキー項目（鋼番・束番・予約No.・コンテナID）の前後空白を除去し、
+    //　　　　　　　 T_SYUKKA_MEISAI / T_KAKUNIN_MEISAI に検索用の索引を追加
+    //　　　　　　　 （DAOは列側をTRIMせず比較するため、既存データを揃えておく）
+    //　　　　　　　 除去後に既存行と重複する行は、紐づき（コンテナID）・未送信状態を
+    //　　　　　　　 既存行へ引き継いでから削除する
+    //============================================================
+    static final Migration MIGRATION_9_10 = new Migration(9, 10) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            // 主キー列：除去後に重複する行は更新せず残し、既存行へ引き継いでから削除する
+            // （先に正規化済みの行を優先）
+            for (String table : new String[]{
+                    "T_SYUKKA_MEISAI", "W_SYUKKA_MEISAI", "T_KAKUNIN_MEISAI", "W_KAKUNIN_MEISAI"}) {
+                database.execSQL("UPDATE OR IGNORE " + table + " " +
+                        "SET HEAT_NO = TRIM(HEAT_NO), SOKUBAN = TRIM(SOKUBAN) " +
+                        "WHERE HEAT_NO <> TRIM(HEAT_NO) OR SOKUBAN <> TRIM(SOKUBAN)");
+            }
+
+            // 出荷明細：既存行が未紐づきなら、重複行のコンテナIDを引き継ぐ
+            database.execSQL("UPDATE T_SYUKKA_MEISAI " +
+                    "SET CONTAINER_ID = (" +
+                    "SELECT P.CONTAINER_ID " + paddedMeisaiTwin("T_SYUKKA_MEISAI") +
+                    " AND P.CONTAINER_ID IS NOT NULL LIMIT 1) " +
+                    "WHERE CONTAINER_ID IS NULL " +
+                    "AND " + hasPaddedMeisaiTwin("T_SYUKKA_MEISAI"));
+
+            // 照合明細：コンテナIDは未設定なら引き継ぎ、照合確認済みはどちらかが済みなら済みとする
+            for (String table : new String[]{"T_KAKUNIN_MEISAI", "W_KAKUNIN_MEISAI"}) {
+                database.execSQL("UPDATE " + table + " " +
+                        "SET CONTAINER_ID = COALESCE(CONTAINER_ID, (" +
+                        "SELECT P.CONTAINER_ID " + paddedMeisaiTwin(table) +
+                        " AND P.CONTAINER_ID IS NOT NULL LIMIT 1)), " +
+                        "CONTAINER_SYOUGO_KAKUNIN = CASE WHEN EXISTS(" +
+                        "SELECT 1 " + paddedMeisaiTwin(table) +
+                        " AND P.CONTAINER_SYOUGO_KAKUNIN = 1) " +
+                        "THEN 1 ELSE CONTAINER_SYOUGO_KAKUNIN END " +
+                        "WHERE " + hasPaddedMeisaiTwin(table));
+            }
+
+            for (String table : new String[]{
+                    "T_SYUKKA_MEISAI", "W_SYUKKA_MEISAI", "T_KAKUNIN_MEISAI", "W_KAKUNIN_MEISAI"}) {
+                database.execSQL("DELETE FROM " + table + " " +
+                        "WHERE HEAT_NO <> TRIM(HEAT_NO) OR SOKUBAN <> TRIM(SOKUBAN)");
+            }
+
+            // 予定：受信データのみで端末固有の状態を持たない（次回受信で置き換わる）ため、重複行は削除
+            database.execSQL("UPDATE OR IGNORE T_YOTEI SET BOOKING_NO = TRIM(BOOKING_NO) " +
+                    "WHERE BOOKING_NO <> TRIM(BOOKING_NO)");
+            database.execSQL("DELETE FROM T_YOTEI WHERE BOOKING_NO <> TRIM(BOOKING_NO)");
+
+            // 照合コンテナ：重複行が照合完了・未送信なら、既存行も照合完了・未送信とする
+            database.execSQL("UPDATE OR IGNORE T_KAKUNIN_CONTAINER SET CONTAINER_ID = TRIM(CONTAINER_ID) " +
+                    "WHERE CONTAINER_ID <> TRIM(CONTAINER_ID)");
+            database.execSQL("UPDATE T_KAKUNIN_CONTAINER " +
+                    "SET CONTAINER_SYOUGO_KANRYO = 1, DATA_SEND_YMDHMS = NULL " +
+                    "WHERE CONTAINER_ID IN (" +
+                    "SELECT TRIM(CONTAINER_ID) FROM T_KAKUNIN_CONTAINER " +
+                    "WHERE CONTAINER_ID <> TRIM(CONTAINER_ID)) " +
+                    "AND EXISTS(" +
+                    "SELECT 1 FROM T_KAKUNIN_CONTAINER P " +
+                    "WHERE TRIM(P.CONTAINER_ID) = T_KAKUNIN_CONTAINER.CONTAINER_ID " +
+                    "AND P.CONTAINER_ID <> TRIM(P.CONTAINER_ID) " +
+                    "AND P.CONTAINER_SYOUGO_KANRYO = 1 " +
+                    "AND P.DATA_SEND_YMDHMS IS NULL)");
+            database.execSQL("DELETE FROM T_KAKUNIN_CONTAINER WHERE CONTAINER_ID <> TRIM(CONTAINER_ID)");
+
+            // 主キー以外のキー列
+            database.execSQL("UPDATE T_SYUKKA_MEISAI SET BOOKING_NO = TRIM(BOOKING_NO) " +
+                    "WHERE BOOKING_NO <> TRIM(BOOKING_NO)");
+            database.execSQL("UPDATE T_KAKUNIN_MEISAI SET CONTAINER_ID = TRIM(CONTAINER_ID) " +
+                    "WHERE CONTAINER_ID <> TRIM(CONTAINER_ID)");
+            database.execSQL("UPDATE W_KAKUNIN_MEISAI SET CONTAINER_ID = TRIM(CONTAINER_ID) " +
+                    "WHERE CONTAINER_ID <> TRIM(CONTAINER_ID)");
+
+            // 索引追加（名前はRoomの既定命名に合わせる）
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_T_SYUKKA_MEISAI_BOOKING_NO` " +
+                    "ON `T_SYUKKA_MEISAI` (`BOOKING_NO`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_T_SYUKKA_MEISAI_CONTAINER_ID` " +
+                    "ON `T_SYUKKA_MEISAI` (`CONTAINER_ID`)");
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_T_KAKUNIN_MEISAI_CONTAINER_ID` " +
+                    "ON `T_KAKUNIN_MEISAI` (`CONTAINER_ID`)");
+        }
+    };
+
+
+    //============================================================
+    //　機　能　:　前後空白を除去すると同じキーになる未正規化の明細行を引くFROM～WHERE句を生成する
+    //　　　　　　 （UPDATE対象の行を「table」、重複行を「P」として参照する）
+    //　引　数　:　table ..... 明細テーブル名（鋼番＋束番が主キー）
+    //　戻り値　:　[String] ..... FROM～WHERE句（続けてAND条件を追加できる）
+    //============================================================
+    private static String paddedMeisaiTwin(String table) {
+        return "FROM " + table + " P " +
+                "WHERE TRIM(P.HEAT_NO) = " + table + ".HEAT_NO " +
+                "AND TRIM(P.SOKUBAN) = " + table + ".SOKUBAN " +
+                "AND (P.HEAT_NO <> TRIM(P.HEAT_NO) OR P.SOKUBAN <> TRIM(P.SOKUBAN))";
+    }
+
+
+    //============================================================
+    //　機　能　:　未正規化の重複行を持つ（正規化済みの）明細行に絞り込むWHERE条件を生成する
+    //　　　　　　 重複行のキーを先に一括で求め、主キー索引で照合する（全行を相関検索しない）
+    //　引　数　:　table ..... 明細テーブル名（鋼番＋束番が主キー）
+    //　戻り値　:　[String] ..... WHERE条件
+    //============================================================
+    private static String hasPaddedMeisaiTwin(String table) {
+        return "(HEAT_NO, SOKUBAN) IN (" +
+                "SELECT TRIM(HEAT_NO), TRIM(SOKUBAN) FROM " + table + " " +
+                "WHERE HEAT_NO <> TRIM(HEAT_NO) OR SOKUBAN <> TRIM(SOKUBAN))";
+    }
+
+
+    //============================================================
+    //　処理概要　:　v10→v11 マイグレーション
+    //　内　　容　:　登録後にバックグラウンドで送信するための送信待ちテーブルを追加
+    //============================================================
+    static final Migration MIGRATION_10_11 = new Migration(10, 11) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS T_SEND_QUEUE (" +
+                    "JOB_TYPE TEXT NOT NULL, " +
+                    "TARGET_ID TEXT NOT NULL, " +
+                    "RETRY_COUNT INTEGER, " +
+                    "NEXT_RUN_YMDHMS TEXT, " +
+                    "LAST_ERROR TEXT, " +
+                    "INSERT_PROC_NAME TEXT, " +
+                    "INSERT_YMD TEXT, " +
+                    "UPDATE_PROC_NAME TEXT, " +
+                    "UPDATE_YMD TEXT, " +
+                    "PRIMARY KEY (JOB_TYPE, TARGET_ID))");
+        }
+    };
+
+
+    //============================================================
+    //　処理概要　:　v11→v12 マイグレーション
+    //　内　　容　:　C_COMM_HISTORYへ通信・同期工程の計測項目（ミリ秒／バイト／再試行回数）を追加
+    //============================================================
+    static final Migration MIGRATION_11_12 = new Migration(11, 12) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            for (String column : new String[]{
+                    "DURATION_MS", "DNS_MS", "CONNECT_MS", "TLS_MS",
+                    "TTFB_MS", "TRANSFER_MS", "REQUEST_BYTES", "RESPONSE_BYTES",
+                    "PARSE_MS", "DB_APPLY_MS", "RETRY_COUNT"}) {
+                database.execSQL("ALTER TABLE C_COMM_HISTORY ADD COLUMN " + column + " INTEGER");
+            }
+        }
+    };
+
+
+    //============================================================
+    //　処理概要　:　v12→v13 マイグレーション
+    //　内　　容　:　待機中に受信した出荷データを同期時まで保持する先行受信テーブルと、
+    //　　　　　　　 M_SYSTEMへ先行受信の判定項目（作業日／サーバ更新日時）を追加
+    //============================================================
+    static final Migration MIGRATION_12_13 = new Migration(12, 13) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("ALTER TABLE M_SYSTEM ADD COLUMN STAGE_SAGYOU_YMD TEXT");
+            database.execSQL("ALTER TABLE M_SYSTEM ADD COLUMN STAGE_LAST_UPD_YMDHMS TEXT");
+            database.execSQL("CREATE TABLE IF NOT EXISTS S_YOTEI (" +
+                    "BOOKING_NO TEXT NOT NULL, " +
+                    "SAGYOU_YOTEI_YMD TEXT, " +
+                    "CONTAINER_COUNT INTEGER, " +
+                    "GOUKEI_BUNDLE INTEGER, " +
+                    "GOUKEI_JYURYO INTEGER, " +
+                    "KANRYO_CONTAINER INTEGER, " +
+                    "KANRYO_BUNDLE INTEGER, " +
+                    "KANRYO_JYURYO INTEGER, " +
+                    "LAST_UPD_YMDHMS TEXT, " +
+                    "INSERT_PROC_NAME TEXT, " +
+                    "INSERT_YMD TEXT, " +
+                    "UPDATE_PROC_NAME TEXT, " +
+                    "UPDATE_YMD TEXT, " +
+                    "PRIMARY KEY (BOOKING_NO))");
+            database.execSQL("CREATE TABLE IF NOT EXISTS S_SYUKKA_MEISAI (" +
+                    "HEAT_NO TEXT NOT NULL, " +
+                    "SOKUBAN TEXT NOT NULL, " +
+                    "SYUKKA_SASHIZU_NO TEXT, " +
+                    "BUNDLE_NO TEXT, " +
+                    "JYURYO INTEGER, " +
+                    "BOOKING_NO TEXT, " +
+                    "PRIMARY KEY (HEAT_NO, SOKUBAN))");
+        }
+    };
+
+
+    //============================================================
+    //　処理概要　:　v13→v14 マイグレーション
+    //　内　　容　:　照合データを一旦格納して検証してから入れ替えるための受信中テーブルを追加
+    //============================================================
+    static final Migration MIGRATION_13_14 = new Migration(13, 14) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS S_KAKUNIN_CONTAINER (" +
+                    "CONTAINER_ID TEXT NOT NULL, " +
+                    "CONTAINER_NO TEXT, " +
+                    "BUNDLE_CNT INTEGER, " +
+                    "SAGYOU_YMD TEXT, " +
+                    "CONTAINER_SYOUGO_KANRYO INTEGER, " +
+                    "DATA_SEND_YMDHMS TEXT, " +
+                    "INSERT_PROC_NAME TEXT, " +
+                    "INSERT_YMD TEXT, " +
+                    "UPDATE_PROC_NAME TEXT, " +
+                    "UPDATE_YMD TEXT, " +
+                    "PRIMARY KEY (CONTAINER_ID))");
+            database.execSQL("CREATE TABLE IF NOT EXISTS S_KAKUNIN_MEISAI (" +
+                    "HEAT_NO TEXT NOT NULL, " +
+                    "SOKUBAN TEXT NOT NULL, " +
+                    "SYUKKA_SASHIZU_NO TEXT, " +
+                    "BUNDLE_NO TEXT, " +
+                    "JYURYO INTEGER, " +
+                    "CONTAINER_ID TEXT, " +
+                    "CONTAINER_SYOUGO_KAKUNIN INTEGER, " +
+                    "INSERT_PROC_NAME TEXT, " +
+                    "INSERT_YMD TEXT, " +
+                    "UPDATE_PROC_NAME TEXT, " +
+                    "UPDATE_YMD TEXT, " +
+                    "PRIMARY KEY (HEAT_NO, SOKUBAN))");
+        }
+    };
+
+
     //============================================================
     //　処理概要　:　DBインスタンス（Singleton）
     //============================================================
@@ -179,6 +470,10 @@ public abstract class AppDatabase extends RoomDatabase {
                             // assets/databases/ 配下のDBを初期DBとして展開
                             .createFromAsset("databases/" + DB_NAME)
 
+                            // 既存端末の未送信データを保持するため、スキーマ変更はMigrationで反映
+                            .addMigrations(MIGRATION_8_9, MIGRATION_9_10, MIGRATION_10_11,
+                                    MIGRATION_11_12, MIGRATION_12_13, MIGRATION_13_14)
+
                             // 開発中は破壊的マイグレーションでOK
                             // ※運用段階ではMigrationを実装してデータ維持する
                             .fallbackToDestructiveMigration()
@@ -0,0 +1,182 @@
+package com.example.myapplication.db;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.myapplication.db.dao.SyukkaMeisaiDao;
+import com.example.myapplication.db.entity.SyukkaMeisaiEntity;
+
+import java.util.HashMap;
+import java.util.List;
+
+
+//============================================================
+//　処理概要　:　出荷明細（T_SYUKKA_MEISAI）の読み取りキャッシュ
+//　　　　　　　 束選択画面のスキャン毎のDB検索を避けるため、作業中の予約No.の明細を
+//　　　　　　　 鋼番＋束番で保持する（呼び出し元には複製を返し、保持内容は変更させない）
+//　関　　数　:　preload ................ 予約No.単位の明細の事前読み込み
+//　　　　　　:　find ................... 明細取得（キャッシュに無ければDBから取得）
+//　　　　　　:　updateBundleNoIfEmpty .. キャッシュ上のバンドルNo.更新（空の場合のみ）
+//　　　　　　:　invalidate ............. キャッシュ破棄（受信・コンテナ登録・データクリア時）
+//　　　　　　:　keyOf .................. 鋼番＋束番のキー生成（前後空白除去）
+//　　　　　　:　copyOf ................. 明細の複製
+//============================================================
+public final class SyukkaMeisaiCache {
+
+    private static final Object LOCK = new Object();
+
+    // 鋼番＋束番 → 明細
+    private static final HashMap<String, SyukkaMeisaiEntity> CACHE = new HashMap<>();
+
+    // 破棄の都度加算（破棄前に読んだ結果を破棄後に登録しないため）
+    private static int generation = 0;
+
+    // 明細を読み込み済みの予約No.（未読み込みはnull）
+    private static String loadedBookingNo = null;
+
+    //============================================================
+    //　機　能　:　SyukkaMeisaiCacheのインスタンス生成を禁止する
+    //　引　数　:　なし
+    //　戻り値　:　[SyukkaMeisaiCache] ..... なし
+    //============================================================
+    private SyukkaMeisaiCache() {
+        // static専用クラスのためインスタンス化させない
+    }
+
+    //============================================================
+    //　機　能　:　指定した予約No.の出荷明細を読み込んでキャッシュする
+    //　　　　　　 同じ予約No.を読み込み済みなら何もせず、別の予約No.なら入れ替える
+    //　　　　　　 ※DBアクセスを伴うためバックグラウンドスレッドから呼ぶこと
+    //　引　数　:　dao ..... 出荷明細DAO
+    //　　　　　:　bookingNo ..... 予約No.（未確定の場合はnull／空文字で何もしない）
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    public static void preload(@NonNull SyukkaMeisaiDao dao, @Nullable String bookingNo) {
+        String booking = bookingNo == null ? "" : bookingNo.trim();
+        if (booking.isEmpty()) {
+            return;
+        }
+
+        int gen;
+        synchronized (LOCK) {
+            if (booking.equals(loadedBookingNo)) {
+                return;
+            }
+            gen = generation;
+        }
+
+        // DB読み込みはロック外で行う（同期処理のトランザクションを待たせない）
+        List<SyukkaMeisaiEntity> rows = dao.findByBookingNo(booking);
+
+        synchronized (LOCK) {
+            // 読み込み中に破棄された場合は登録しない
+            if (gen != generation) {
+                return;
+            }
+            // 前の予約No.の明細は保持しない
+            CACHE.clear();
+            for (SyukkaMeisaiEntity e : rows) {
+                CACHE.put(keyOf(e.heatNo, e.sokuban), e);
+            }
+            loadedBookingNo = booking;
+        }
+    }
+
+    //============================================================
+    //　機　能　:　鋼番・束番を指定して明細を取得する
+    //　　　　　　 キャッシュに無い場合はDBから取得してキャッシュする
+    //　引　数　:　dao ..... 出荷明細DAO
+    //　　　　　:　heatNo ..... 鋼番
+    //　　　　　:　sokuban ..... 束番
+    //　戻り値　:　[SyukkaMeisaiEntity] ..... 該当データの複製（存在しない場合はnull）
+    //============================================================
+    @Nullable
+    public static SyukkaMeisaiEntity find(@NonNull SyukkaMeisaiDao dao,
+                                          @Nullable String heatNo,
+                                          @Nullable String sokuban) {
+        String key = keyOf(heatNo, sokuban);
+        int gen;
+        synchronized (LOCK) {
+            SyukkaMeisaiEntity cached = CACHE.get(key);
+            if (cached != null) {
+                return copyOf(cached);
+            }
+            gen = generation;
+        }
+
+        // 未登録はDBから取得（存在しない結果はキャッシュしない）
+        SyukkaMeisaiEntity e = dao.findOneForAdd(heatNo, sokuban);
+        if (e != null) {
+            synchronized (LOCK) {
+                if (gen == generation) {
+                    CACHE.put(key, copyOf(e));
+                }
+            }
+        }
+        return e;
+    }
+
+    //============================================================
+    //　機　能　:　キャッシュ上のバンドルNo.を更新する（未設定の場合のみ）
+    //　　　　　　 DB側のupdateBundleNoIfEmptyと同じ条件で反映する
+    //　引　数　:　heatNo ..... 鋼番
+    //　　　　　:　sokuban ..... 束番
+    //　　　　　:　bundleNo ..... バンドルNo.
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    public static void updateBundleNoIfEmpty(@Nullable String heatNo,
+                                             @Nullable String sokuban,
+                                             @Nullable String bundleNo) {
+        synchronized (LOCK) {
+            SyukkaMeisaiEntity cached = CACHE.get(keyOf(heatNo, sokuban));
+            if (cached != null && (cached.bundleNo == null || cached.bundleNo.isEmpty())) {
+                cached.bundleNo = bundleNo;
+            }
+        }
+    }
+
+    //============================================================
+    //　機　能　:　キャッシュを破棄する
+    //　　　　　　 出荷データ受信・コンテナ登録・データクリアなど明細を更新した後に呼ぶ
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    public static void invalidate() {
+        synchronized (LOCK) {
+            CACHE.clear();
+            loadedBookingNo = null;
+            generation++;
+        }
+    }
+
+    //============================================================
+    //　機　能　:　明細キー（鋼番＋束番）を生成する
+    //　引　数　:　heatNo ..... 鋼番
+    //　　　　　:　sokuban ..... 束番
+    //　戻り値　:　[String] ..... 明細キー（前後空白除去）
+    //============================================================
+    private static String keyOf(@Nullable String heatNo, @Nullable String sokuban) {
+        return (heatNo == null ? "" : heatNo.trim()) + "\t" + (sokuban == null ? "" : sokuban.trim());
+    }
+
+    //============================================================
+    //　機　能　:　明細を複製する（キャッシュ内の行を呼び出し元に変更させないため）
+    //　引　数　:　src ..... 複製元
+    //　戻り値　:　[SyukkaMeisaiEntity] ..... 複製
+    //============================================================
+    private static SyukkaMeisaiEntity copyOf(@NonNull SyukkaMeisaiEntity src) {
+        SyukkaMeisaiEntity dst = new SyukkaMeisaiEntity();
+        dst.heatNo = src.heatNo;
+        dst.sokuban = src.sokuban;
+        dst.syukkaSashizuNo = src.syukkaSashizuNo;
+        dst.bundleNo = src.bundleNo;
+        dst.jyuryo = src.jyuryo;
+        dst.bookingNo = src.bookingNo;
+        dst.containerId = src.containerId;
+        dst.insertProcName = src.insertProcName;
+        dst.insertYmd = src.insertYmd;
+        dst.updateProcName = src.updateProcName;
+        dst.updateYmd = src.updateYmd;
+        return dst;
+    }
+}
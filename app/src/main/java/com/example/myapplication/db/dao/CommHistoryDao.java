@@ -14,7 +14,9 @@ import java.util.List;
 //　処理概要　:　通信履歴テーブル（C_COMM_HISTORY）に対するDAO
 //　関　　数　:　findAllDesc                 ..... 全件取得（降順）
 //　　　　　　:　findMaxLogIdByDatePrefix   ..... 日付接頭辞による最大LOG_ID取得
+//　　　　　　:　summarizeSince            ..... 処理名毎の計測値集計（指定日時以降）
 //　　　　　　:　upsert                      ..... 追加／更新
+//　　　　　　:　upsertAll                   ..... 一括追加／更新
 //　　　　　　:　deleteBefore               ..... 指定日時以前削除
 //　　　　　　:　deleteAll                  ..... 全件削除
 //========================================================================
@@ -44,15 +46,59 @@ public interface CommHistoryDao {
     //　戻り値　:　[String] ..... 最大LOG_ID（該当なしの場合はnull）
     //============================================================
     @Query(
-            "SELECT MAX(LOG_ID) FROM " +
+            "SELECT LOG_ID FROM " +
                     "C_COMM_HISTORY " +
                     "WHERE " +
-                    "LOG_ID LIKE :ymdPrefix || '%'"
+                    "LOG_ID LIKE :ymdPrefix || '%' " +
+                    "ORDER BY " +
+                    "length(LOG_ID) DESC, LOG_ID DESC " +
+                    "LIMIT 1"
     )
     String findMaxLogIdByDatePrefix(String ymdPrefix);
     // ・LOG_IDが指定日付（接頭辞）で始まるデータを検索
     // ・その中で最大のLOG_IDを取得
-    // ・新規採番処理などで使用する想定
+    // ・連番の桁数が異なるID（旧3桁／新6桁）が混在しても、桁数の多い順に比較して最大値を取得
+    // ・新規採番処理（日付毎の連番初期値）で使用
+
+
+    //============================================================
+    //　機　能　:　指定日時以降の通信履歴を処理名毎に集計する
+    //　引　数　:　since ..... 集計開始日時（START_YMDHMS）
+    //　戻り値　:　[List<ProcSummary>] ..... 処理名毎の集計結果（平均所要時間の降順）
+    //============================================================
+    @Query(
+            "SELECT " +
+                    " PROC_NAME AS procName, " +
+                    " count(*) AS callCount, " +
+                    " sum(CASE WHEN ERR_DESCRIPTION IS NULL OR ERR_DESCRIPTION = '' THEN 0 ELSE 1 END) AS errorCount, " +
+                    " avg(DURATION_MS) AS avgDurationMs, " +
+                    " max(DURATION_MS) AS maxDurationMs, " +
+                    " avg(DNS_MS) AS avgDnsMs, " +
+                    " avg(CONNECT_MS) AS avgConnectMs, " +
+                    " avg(TLS_MS) AS avgTlsMs, " +
+                    " avg(TTFB_MS) AS avgTtfbMs, " +
+                    " avg(TRANSFER_MS) AS avgTransferMs, " +
+                    " avg(PARSE_MS) AS avgParseMs, " +
+                    " avg(DB_APPLY_MS) AS avgDbApplyMs, " +
+                    " avg(REQUEST_BYTES) AS avgRequestBytes, " +
+                    " avg(RESPONSE_BYTES) AS avgResponseBytes, " +
+                    " sum(RETRY_COUNT) AS retryCount " +
+                    "FROM " +
+                    "C_COMM_HISTORY " +
+                    "WHERE " +
+                    "START_YMDHMS >= :since " +
+                    "AND " +
+                    "DURATION_MS IS NOT NULL " +
+                    "GROUP BY " +
+                    "PROC_NAME " +
+                    "ORDER BY " +
+                    "avgDurationMs DESC"
+    )
+    List<ProcSummary> summarizeSince(String since);
+    // ・計測項目の無い旧形式の履歴（DURATION_MSがNULL）は対象外
+    // ・通信呼び出しは処理名（例：getSyukkaData）、同期工程は「phase:工程名」で集計される
+    // ・平均値は計測値のある行のみで算出（同期工程の通信項目はNULLのため対象外）
+    // ・遅い処理が先頭に来るよう平均所要時間の降順で並び替え
 
 
     //============================================================
@@ -67,6 +113,17 @@ public interface CommHistoryDao {
     // ・1件単位での登録／更新処理
 
 
+    //============================================================
+    //　機　能　:　通信履歴を一括で追加または更新する（Upsert処理）
+    //　引　数　:　entities ..... エンティティ一覧
+    //　戻り値　:　[void]
+    //============================================================
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<CommHistoryEntity> entities);
+    // ・一覧全体を1トランザクションで登録
+    // ・バックグラウンドでの履歴一括書き込みで使用
+
+
     //============================================================
     //　機　能　:　指定日時より前の通信履歴を削除する
     //　引　数　:　threshold ..... 削除基準日時（START_YMDHMS）
@@ -96,4 +153,26 @@ public interface CommHistoryDao {
     // ・テーブル内の全レコードを削除
     // ・初期化処理などで使用
 
+
+    //============================================================
+    //　処理概要　:　処理名毎の計測値集計結果（集計画面表示用）
+    //============================================================
+    class ProcSummary {
+        public String procName;        // 処理名
+        public int callCount;          // 件数
+        public int errorCount;         // エラー件数
+        public Double avgDurationMs;   // 平均所要時間（ミリ秒）
+        public Long maxDurationMs;     // 最大所要時間（ミリ秒）
+        public Double avgDnsMs;        // 平均名前解決時間（ミリ秒）
+        public Double avgConnectMs;    // 平均接続時間（ミリ秒）
+        public Double avgTlsMs;        // 平均TLS時間（ミリ秒）
+        public Double avgTtfbMs;       // 平均応答待ち時間（ミリ秒）
+        public Double avgTransferMs;   // 平均受信時間（ミリ秒）
+        public Double avgParseMs;      // 平均解析時間（ミリ秒）
+        public Double avgDbApplyMs;    // 平均DB反映時間（ミリ秒）
+        public Double avgRequestBytes; // 平均送信バイト数
+        public Double avgResponseBytes; // 平均受信バイト数
+        public Integer retryCount;     // 再試行回数合計
+    }
+
 }
@@ -15,6 +15,7 @@ import java.util.List;
 //　関　　数　:　findByContainerId      ..... コンテナID検索
 //　　　　　　:　upsert                 ..... 追加／更新
 //　　　　　　:　findUnsentCompleted    ..... 未送信かつ照合完了データ取得
+//　　　　　　:　existsUnsentCompleted  ..... 未送信かつ照合完了データ有無
 //　　　　　　:　markSent               ..... 送信済更新
 //　　　　　　:　deleteAll              ..... 全件削除
 //　　　　　　:　findUncollated         ..... 未照合データ取得
@@ -31,7 +32,7 @@ public interface KakuninContainerDao {
             "SELECT * FROM " +
                     "T_KAKUNIN_CONTAINER " +
                     "WHERE " +
-                    "TRIM(CONTAINER_ID) = TRIM(:containerId)"
+                    "CONTAINER_ID = TRIM(:containerId)"
     )
     KakuninContainerEntity findByContainerId(String containerId);
     // ・前後の空白を除去して比較
@@ -85,7 +86,7 @@ public interface KakuninContainerDao {
                     "SET " +
                     "DATA_SEND_YMDHMS = :dataSendYmdhms " +
                     "WHERE " +
-                    "TRIM(CONTAINER_ID) = TRIM(:containerId)"
+                    "CONTAINER_ID = TRIM(:containerId)"
     )
     int markSent(String containerId, String dataSendYmdhms);
     // ・指定コンテナの送信日時を更新
@@ -125,4 +126,21 @@ public interface KakuninContainerDao {
     // ・コンテナID昇順で取得
     // ・未処理データ確認用
 
+
+    //============================================================
+    //　機　能　:　照合完了かつ未送信データの有無を確認する
+    //　引　数　:　なし
+    //　戻り値　:　[boolean] ..... 対象データがあればtrue
+    //============================================================
+    @Query(
+            "SELECT EXISTS(" +
+                    "SELECT 1 FROM " +
+                    "T_KAKUNIN_CONTAINER " +
+                    "WHERE " +
+                    "CONTAINER_SYOUGO_KANRYO = 1 " +
+                    "AND " +
+                    "DATA_SEND_YMDHMS IS NULL)"
+    )
+    boolean existsUnsentCompleted();
+    // ・findUnsentCompletedと同じ条件で、1件見つかった時点で終了（一覧を読み込まない）
 }
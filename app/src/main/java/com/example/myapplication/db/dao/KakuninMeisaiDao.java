@@ -30,9 +30,9 @@ public interface KakuninMeisaiDao {
             "SELECT * FROM " +
                     "T_KAKUNIN_MEISAI " +
                     "WHERE " +
-                    "TRIM(HEAT_NO) = TRIM(:heatNo) " +
+                    "HEAT_NO = TRIM(:heatNo) " +
                     "AND " +
-                    "TRIM(SOKUBAN) = TRIM(:sokuban)"
+                    "SOKUBAN = TRIM(:sokuban)"
     )
     KakuninMeisaiEntity findOne(String heatNo, String sokuban);
     // ・HEAT_NOとSOKUBANの複合条件で検索
@@ -49,7 +49,7 @@ public interface KakuninMeisaiDao {
             "SELECT * FROM " +
                     "T_KAKUNIN_MEISAI " +
                     "WHERE " +
-                    "TRIM(CONTAINER_ID) = TRIM(:containerId)"
+                    "CONTAINER_ID = TRIM(:containerId)"
     )
     List<KakuninMeisaiEntity> findByContainerId(String containerId);
     // ・指定コンテナに紐づく明細を全件取得
@@ -4,6 +4,7 @@ import androidx.room.Dao;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 
 import com.example.myapplication.db.entity.KakuninMeisaiWorkEntity;
 
@@ -16,8 +17,12 @@ import java.util.List;
 //　　　　　　:　findAllOrdered    ..... 並び順指定全件取得
 //　　　　　　:　findOne           ..... 明細単一取得
 //　　　　　　:　upsert            ..... 追加／更新
+//　　　　　　:　updateSyougoKakunin ..... 照合済フラグ単一更新
+//　　　　　　:　updateSyougoKakuninAll ..... 照合済フラグ一括更新（1トランザクション）
 //　　　　　　:　deleteOne         ..... 単一削除
 //　　　　　　:　deleteAll         ..... 全件削除
+//　　　　　　:　insertFromMeisai  ..... 確認明細（T）からのコンテナ単位一括複写
+//　　　　　　:　replaceWithContainer ..... 全件削除＋コンテナ単位一括複写（1トランザクション）
 //============================================================
 @Dao
 public interface KakuninMeisaiWorkDao {
@@ -64,13 +69,13 @@ public interface KakuninMeisaiWorkDao {
             "SELECT * FROM " +
                     "W_KAKUNIN_MEISAI " +
                     "WHERE " +
-                    "TRIM(HEAT_NO) = TRIM(:heatNo) " +
+                    "HEAT_NO = TRIM(:heatNo) " +
                     "AND " +
-                    "TRIM(SOKUBAN) = TRIM(:sokuban)"
+                    "SOKUBAN = TRIM(:sokuban)"
     )
     KakuninMeisaiWorkEntity findOne(String heatNo, String sokuban);
     // ・HEAT_NOとSOKUBANの複合条件検索
-    // ・前後空白を除去して一致判定
+    // ・キーは登録時に前後空白を除去済みのため列側はTRIMせず索引で検索（引数側のみTRIM）
     // ・該当なしの場合はnullを返却
 
 
@@ -86,6 +91,45 @@ public interface KakuninMeisaiWorkDao {
     // ・1件単位で登録／更新
 
 
+    //============================================================
+    //　機　能　:　指定したHEAT_NOとSOKUBANの明細を照合済に更新する
+    //　引　数　:　heatNo  ..... 鋼番
+    //　　　　　:　sokuban ..... 束番
+    //　　　　　:　procName ..... 更新処理名
+    //　　　　　:　ymd ..... 更新日時
+    //　戻り値　:　[int] ..... 更新件数
+    //============================================================
+    @Query(
+            "UPDATE " +
+                    "W_KAKUNIN_MEISAI " +
+                    "SET " +
+                    "CONTAINER_SYOUGO_KAKUNIN = 1, " +
+                    "UPDATE_PROC_NAME = :procName, " +
+                    "UPDATE_YMD = :ymd " +
+                    "WHERE " +
+                    "HEAT_NO = TRIM(:heatNo) " +
+                    "AND " +
+                    "SOKUBAN = TRIM(:sokuban)"
+    )
+    int updateSyougoKakunin(String heatNo, String sokuban, String procName, String ymd);
+    // ・照合済フラグと更新情報のみ更新（行の読込・置換を行わない）
+    // ・更新件数を返却（0の場合は該当なし）
+
+
+    //============================================================
+    //　機　能　:　複数明細をまとめて照合済に更新する
+    //　引　数　:　entities ..... 照合済にする明細（キー・更新情報を設定済み）
+    //　戻り値　:　[void]
+    //============================================================
+    @Transaction
+    default void updateSyougoKakuninAll(List<KakuninMeisaiWorkEntity> entities) {
+        for (KakuninMeisaiWorkEntity entity : entities) {
+            updateSyougoKakunin(entity.heatNo, entity.sokuban, entity.updateProcName, entity.updateYmd);
+        }
+    }
+    // ・照合の書き込みを1トランザクションにまとめる（コミットは1回）
+
+
     //============================================================
     //　機　能　:　指定したHEAT_NOとSOKUBANのデータを削除する
     //　引　数　:　heatNo  ..... 鋼番
@@ -96,9 +140,9 @@ public interface KakuninMeisaiWorkDao {
             "DELETE FROM " +
                     "W_KAKUNIN_MEISAI " +
                     "WHERE " +
-                    "TRIM(HEAT_NO) = TRIM(:heatNo) " +
+                    "HEAT_NO = TRIM(:heatNo) " +
                     "AND " +
-                    "TRIM(SOKUBAN) = TRIM(:sokuban)"
+                    "SOKUBAN = TRIM(:sokuban)"
     )
     int deleteOne(String heatNo, String sokuban);
     // ・複合キー一致データを削除
@@ -118,4 +162,41 @@ public interface KakuninMeisaiWorkDao {
     // ・テーブル内の全レコードを削除
     // ・初期化や再取込前のクリア処理などで使用
 
+
+    //============================================================
+    //　機　能　:　確認明細（T_KAKUNIN_MEISAI）からコンテナ単位で一括複写する
+    //　引　数　:　containerId ..... コンテナID
+    //　戻り値　:　[void]
+    //============================================================
+    @Query(
+            "INSERT OR REPLACE INTO " +
+                    "W_KAKUNIN_MEISAI (" +
+                    "HEAT_NO, SOKUBAN, SYUKKA_SASHIZU_NO, BUNDLE_NO, JYURYO, CONTAINER_ID, " +
+                    "CONTAINER_SYOUGO_KAKUNIN, INSERT_PROC_NAME, INSERT_YMD, UPDATE_PROC_NAME, UPDATE_YMD) " +
+                    "SELECT " +
+                    "TRIM(HEAT_NO), TRIM(SOKUBAN), SYUKKA_SASHIZU_NO, BUNDLE_NO, JYURYO, CONTAINER_ID, " +
+                    "CONTAINER_SYOUGO_KAKUNIN, INSERT_PROC_NAME, INSERT_YMD, UPDATE_PROC_NAME, UPDATE_YMD " +
+                    "FROM " +
+                    "T_KAKUNIN_MEISAI " +
+                    "WHERE " +
+                    "CONTAINER_ID = TRIM(:containerId)"
+    )
+    void insertFromMeisai(String containerId);
+    // ・SQLite内で複写（明細をJavaへ読み込まない）
+    // ・キー項目は前後空白を除去して格納（findOne／updateSyougoKakuninの索引検索と一致させる）
+    // ・除去後のキーが重複した場合は後の行で置換（従来の1件ずつのupsertと同じ）
+
+
+    //============================================================
+    //　機　能　:　ワーク明細を指定コンテナの確認明細で作り直す
+    //　引　数　:　containerId ..... コンテナID
+    //　戻り値　:　[void]
+    //============================================================
+    @Transaction
+    default void replaceWithContainer(String containerId) {
+        // コンテナ切替時のゴミを残さないよう全削除してから複写
+        deleteAll();
+        insertFromMeisai(containerId);
+    }
+    // ・削除と複写を1トランザクションで実行（コミットは1回）
 }
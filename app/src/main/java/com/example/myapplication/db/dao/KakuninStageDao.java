@@ -0,0 +1,143 @@
+package com.example.myapplication.db.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.example.myapplication.db.entity.KakuninContainerStageEntity;
+import com.example.myapplication.db.entity.KakuninMeisaiStageEntity;
+
+import java.util.List;
+
+
+//================================================================================
+//　処理概要　:　受信中照合データ（S_KAKUNIN_CONTAINER／S_KAKUNIN_MEISAI）に対するDAO
+//　　　　　　　 受信データを一旦格納して検証し、T_KAKUNIN_CONTAINER／T_KAKUNIN_MEISAIへ
+//　　　　　　　 INSERT…SELECTで一括して入れ替える（業務テーブルの書き込み時間を短くする）
+//　関　　数　:　insertContainerAll     ..... 受信中コンテナの一括登録
+//　　　　　　:　insertMeisaiAll        ..... 受信中明細の一括登録
+//　　　　　　:　countContainer         ..... 受信中コンテナ件数取得
+//　　　　　　:　countMeisai            ..... 受信中明細件数取得
+//　　　　　　:　deleteContainerAll     ..... 受信中コンテナの全件削除
+//　　　　　　:　deleteMeisaiAll        ..... 受信中明細の全件削除
+//　　　　　　:　copyContainerToTable   ..... 受信中コンテナの業務テーブルへの一括複写
+//　　　　　　:　copyMeisaiToTable      ..... 受信中明細の業務テーブルへの一括複写
+//================================================================================
+@Dao
+public interface KakuninStageDao {
+
+    //============================================================
+    //　機　能　:　受信中コンテナを一括登録する
+    //　引　数　:　entities ..... エンティティ一覧
+    //　戻り値　:　[void]
+    //============================================================
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertContainerAll(List<KakuninContainerStageEntity> entities);
+    // ・1つのプリペアドステートメントを使い回して登録
+    // ・コンテナID重複時は後から受信した内容を採用（従来の1件ずつの置換と同じ）
+
+
+    //============================================================
+    //　機　能　:　受信中明細を一括登録する
+    //　引　数　:　entities ..... エンティティ一覧
+    //　戻り値　:　[void]
+    //============================================================
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertMeisaiAll(List<KakuninMeisaiStageEntity> entities);
+    // ・1つのプリペアドステートメントを使い回して登録
+    // ・鋼番＋束番重複時は後から受信した内容を採用（従来の1件ずつの置換と同じ）
+
+
+    //============================================================
+    //　機　能　:　受信中コンテナの件数を取得する
+    //　引　数　:　なし
+    //　戻り値　:　[int] ..... 件数
+    //============================================================
+    @Query(
+            "SELECT COUNT(*) FROM " +
+                    "S_KAKUNIN_CONTAINER"
+    )
+    int countContainer();
+    // ・入れ替え前の件数検証用
+
+
+    //============================================================
+    //　機　能　:　受信中明細の件数を取得する
+    //　引　数　:　なし
+    //　戻り値　:　[int] ..... 件数
+    //============================================================
+    @Query(
+            "SELECT COUNT(*) FROM " +
+                    "S_KAKUNIN_MEISAI"
+    )
+    int countMeisai();
+    // ・入れ替え前の件数検証用
+
+
+    //============================================================
+    //　機　能　:　受信中コンテナを全件削除する
+    //　引　数　:　なし
+    //　戻り値　:　[void]
+    //============================================================
+    @Query(
+            "DELETE FROM " +
+                    "S_KAKUNIN_CONTAINER"
+    )
+    void deleteContainerAll();
+    // ・受信開始時／入れ替え後に使用
+
+
+    //============================================================
+    //　機　能　:　受信中明細を全件削除する
+    //　引　数　:　なし
+    //　戻り値　:　[void]
+    //============================================================
+    @Query(
+            "DELETE FROM " +
+                    "S_KAKUNIN_MEISAI"
+    )
+    void deleteMeisaiAll();
+    // ・受信開始時／入れ替え後に使用
+
+
+    //============================================================
+    //　機　能　:　受信中コンテナを業務テーブル（T_KAKUNIN_CONTAINER）へ一括複写する
+    //　引　数　:　なし
+    //　戻り値　:　[void]
+    //============================================================
+    @Query(
+            "INSERT INTO " +
+                    "T_KAKUNIN_CONTAINER (" +
+                    "CONTAINER_ID, CONTAINER_NO, BUNDLE_CNT, SAGYOU_YMD, CONTAINER_SYOUGO_KANRYO, " +
+                    "DATA_SEND_YMDHMS, INSERT_PROC_NAME, INSERT_YMD, UPDATE_PROC_NAME, UPDATE_YMD) " +
+                    "SELECT " +
+                    "CONTAINER_ID, CONTAINER_NO, BUNDLE_CNT, SAGYOU_YMD, CONTAINER_SYOUGO_KANRYO, " +
+                    "DATA_SEND_YMDHMS, INSERT_PROC_NAME, INSERT_YMD, UPDATE_PROC_NAME, UPDATE_YMD " +
+                    "FROM " +
+                    "S_KAKUNIN_CONTAINER"
+    )
+    void copyContainerToTable();
+    // ・業務テーブルは呼び出し側で事前に全件削除しておくこと（同一トランザクション内）
+
+
+    //============================================================
+    //　機　能　:　受信中明細を業務テーブル（T_KAKUNIN_MEISAI）へ一括複写する
+    //　引　数　:　なし
+    //　戻り値　:　[void]
+    //============================================================
+    @Query(
+            "INSERT INTO " +
+                    "T_KAKUNIN_MEISAI (" +
+                    "HEAT_NO, SOKUBAN, SYUKKA_SASHIZU_NO, BUNDLE_NO, JYURYO, CONTAINER_ID, " +
+                    "CONTAINER_SYOUGO_KAKUNIN, INSERT_PROC_NAME, INSERT_YMD, UPDATE_PROC_NAME, UPDATE_YMD) " +
+                    "SELECT " +
+                    "HEAT_NO, SOKUBAN, SYUKKA_SASHIZU_NO, BUNDLE_NO, JYURYO, CONTAINER_ID, " +
+                    "CONTAINER_SYOUGO_KAKUNIN, INSERT_PROC_NAME, INSERT_YMD, UPDATE_PROC_NAME, UPDATE_YMD " +
+                    "FROM " +
+                    "S_KAKUNIN_MEISAI"
+    )
+    void copyMeisaiToTable();
+    // ・業務テーブルは呼び出し側で事前に全件削除しておくこと（同一トランザクション内）
+
+}
@@ -0,0 +1,128 @@
+package com.example.myapplication.db.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.example.myapplication.db.entity.SendQueueEntity;
+
+import java.util.List;
+
+
+//========================================================================
+//　処理概要　:　送信待ちテーブル（T_SEND_QUEUE）に対するDAO
+//　関　　数　:　findDue            ..... 送信時刻到来分の取得
+//　　　　　　:　findNextRun        ..... 次回送信日時（最小）の取得
+//　　　　　　:　enqueue            ..... 送信待ち登録（登録済みなら何もしない）
+//　　　　　　:　updateRetry        ..... 再試行情報の更新
+//　　　　　　:　delete             ..... 1件削除
+//　　　　　　:　deleteAll          ..... 全件削除
+//========================================================================
+@Dao
+public interface SendQueueDao {
+
+    //============================================================
+    //　機　能　:　送信時刻が到来した送信待ちを取得する
+    //　引　数　:　now ..... 現在日時（yyyy-MM-dd HH:mm:ss）
+    //　戻り値　:　[List<SendQueueEntity>] ..... 送信待ち一覧
+    //============================================================
+    @Query(
+            "SELECT * FROM " +
+                    "T_SEND_QUEUE " +
+                    "WHERE " +
+                    "NEXT_RUN_YMDHMS IS NULL OR NEXT_RUN_YMDHMS <= :now " +
+                    "ORDER BY " +
+                    "INSERT_YMD, TARGET_ID"
+    )
+    List<SendQueueEntity> findDue(String now);
+    // ・登録順に送信する
+
+
+    //============================================================
+    //　機　能　:　次回送信日時の最小値を取得する
+    //　引　数　:　なし
+    //　戻り値　:　[String] ..... 次回送信日時（送信待ちが無い場合はnull）
+    //============================================================
+    @Query(
+            "SELECT MIN(NEXT_RUN_YMDHMS) FROM " +
+                    "T_SEND_QUEUE"
+    )
+    String findNextRun();
+    // ・次回の送信処理の予約に使用
+
+
+    //============================================================
+    //　機　能　:　送信待ちを登録する
+    //　引　数　:　entity ..... エンティティ情報
+    //　戻り値　:　[void]
+    //============================================================
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void enqueue(SendQueueEntity entity);
+    // ・同じコンテナが登録済みの場合は何もしない（再試行情報を保持）
+
+
+    //============================================================
+    //　機　能　:　再試行情報を更新する
+    //　引　数　:　jobType ..... 送信種別
+    //　　　　　:　targetId ..... 送信対象ID
+    //　　　　　:　retryCount ..... 再試行回数
+    //　　　　　:　nextRunYmdhms ..... 次回送信日時
+    //　　　　　:　lastError ..... 最終エラー
+    //　　　　　:　updateProcName ..... 更新処理名
+    //　　　　　:　updateYmd ..... 更新日時
+    //　戻り値　:　[int] ..... 更新件数
+    //============================================================
+    @Query(
+            "UPDATE " +
+                    "T_SEND_QUEUE " +
+                    "SET " +
+                    "RETRY_COUNT = :retryCount, " +
+                    "NEXT_RUN_YMDHMS = :nextRunYmdhms, " +
+                    "LAST_ERROR = :lastError, " +
+                    "UPDATE_PROC_NAME = :updateProcName, " +
+                    "UPDATE_YMD = :updateYmd " +
+                    "WHERE " +
+                    "JOB_TYPE = :jobType " +
+                    "AND " +
+                    "TARGET_ID = :targetId"
+    )
+    int updateRetry(String jobType,
+                    String targetId,
+                    int retryCount,
+                    String nextRunYmdhms,
+                    String lastError,
+                    String updateProcName,
+                    String updateYmd);
+
+
+    //============================================================
+    //　機　能　:　送信待ちを1件削除する
+    //　引　数　:　jobType ..... 送信種別
+    //　　　　　:　targetId ..... 送信対象ID
+    //　戻り値　:　[void]
+    //============================================================
+    @Query(
+            "DELETE FROM " +
+                    "T_SEND_QUEUE " +
+                    "WHERE " +
+                    "JOB_TYPE = :jobType " +
+                    "AND " +
+                    "TARGET_ID = :targetId"
+    )
+    void delete(String jobType, String targetId);
+    // ・送信済み（または送信対象が無くなった）場合に削除
+
+
+    //============================================================
+    //　機　能　:　送信待ちを全件削除する
+    //　引　数　:　なし
+    //　戻り値　:　[void]
+    //============================================================
+    @Query(
+            "DELETE FROM " +
+                    "T_SEND_QUEUE"
+    )
+    void deleteAll();
+    // ・データクリア時に使用
+}
@@ -16,6 +16,8 @@ import com.example.myapplication.db.entity.SystemEntity;
 //　　　　　　:　upsert           ..... 追加／更新
 //　　　　　　:　updateDataConf   ..... データ確認日時更新
 //　　　　　　:　updateDataSync   ..... データ同期日時更新
+//　　　　　　:　updateRecvMark   ..... 受信済み作業日／サーバ更新日時更新
+//　　　　　　:　updateStageMark  ..... 先行受信済み作業日／サーバ更新日時更新
 //　　　　　　:　deleteAll        ..... 全件削除
 //============================================================
 @Dao
@@ -125,6 +127,56 @@ public interface SystemDao {
     // ・データ同期完了時に使用
 
 
+    //============================================================
+    //　機　能　:　受信済み作業日／サーバ更新日時を更新する
+    //　引　数　:　renban             ..... 連番
+    //　　　　　:　recvSagyouYmd      ..... 受信済み作業日
+    //　　　　　:　recvLastUpdYmdhms  ..... 受信済みサーバ更新日時
+    //　　　　　:　updateProcName     ..... 更新処理名
+    //　　　　　:　updateYmd          ..... 更新日
+    //　戻り値　:　[int] ..... 更新件数
+    //============================================================
+    @Query(
+            "UPDATE " +
+                    "M_SYSTEM " +
+                    "SET " +
+                    "RECV_SAGYOU_YMD = :recvSagyouYmd, " +
+                    "RECV_LAST_UPD_YMDHMS = :recvLastUpdYmdhms, " +
+                    "UPDATE_PROC_NAME = :updateProcName, " +
+                    "UPDATE_YMD = :updateYmd " +
+                    "WHERE " +
+                    "RENBAN = :renban"
+    )
+    int updateRecvMark(int renban, String recvSagyouYmd, String recvLastUpdYmdhms, String updateProcName, String updateYmd);
+    // ・差分受信の判定基準（作業日＋サーバ更新日時）を更新
+    // ・NULLを設定すると次回は必ず受信する
+
+
+    //============================================================
+    //　機　能　:　先行受信済み作業日／サーバ更新日時を更新する
+    //　引　数　:　renban              ..... 連番
+    //　　　　　:　stageSagyouYmd      ..... 先行受信済み作業日
+    //　　　　　:　stageLastUpdYmdhms  ..... 先行受信済みサーバ更新日時
+    //　　　　　:　updateProcName      ..... 更新処理名
+    //　　　　　:　updateYmd           ..... 更新日
+    //　戻り値　:　[int] ..... 更新件数
+    //============================================================
+    @Query(
+            "UPDATE " +
+                    "M_SYSTEM " +
+                    "SET " +
+                    "STAGE_SAGYOU_YMD = :stageSagyouYmd, " +
+                    "STAGE_LAST_UPD_YMDHMS = :stageLastUpdYmdhms, " +
+                    "UPDATE_PROC_NAME = :updateProcName, " +
+                    "UPDATE_YMD = :updateYmd " +
+                    "WHERE " +
+                    "RENBAN = :renban"
+    )
+    int updateStageMark(int renban, String stageSagyouYmd, String stageLastUpdYmdhms, String updateProcName, String updateYmd);
+    // ・先行受信データ（S_YOTEI／S_SYUKKA_MEISAI）の受信条件を更新
+    // ・NULLを設定すると先行受信データは反映されない
+
+
     //============================================================
     //　機　能　:　システム管理データを全件削除する
     //　引　数　:　なし
@@ -16,6 +16,7 @@ import java.util.List;
 //　　　　　　:　findByBookingNo     ..... 予約No.検索
 //　　　　　　:　upsert              ..... 追加／更新
 //　　　　　　:　findUnsent          ..... 未送信データ取得
+//　　　　　　:　existsUnsent        ..... 未送信データ有無
 //　　　　　　:　getMaxContainerId   ..... 最大コンテナID取得
 //　　　　　　:　markSent            ..... 送信済更新
 //　　　　　　:　deleteSent          ..... 送信済削除
@@ -49,12 +50,12 @@ public interface SyukkaContainerDao {
             "SELECT C.* FROM T_SYUKKA_CONTAINER C " +
                     "INNER JOIN T_SYUKKA_MEISAI M " +
                     " ON C.CONTAINER_ID = M.CONTAINER_ID " +
-                    "WHERE TRIM(M.BOOKING_NO) = TRIM(:bookingNo)"
+                    "WHERE M.BOOKING_NO = TRIM(:bookingNo)"
     )
     List<SyukkaContainerEntity> findByBookingNo(String bookingNo);
     // ・明細テーブルと内部結合
     // ・BOOKING_NO一致データを抽出
-    // ・前後空白を除去して比較
+    // ・キーは登録時に前後空白を除去済みのため列側はTRIMせず索引で検索（引数側のみTRIM）
     // ・該当するコンテナを複数件取得
 
 
@@ -150,4 +151,19 @@ public interface SyukkaContainerDao {
     // ・テーブル内全データ削除
     // ・初期化処理などで使用
 
+
+    //============================================================
+    //　機　能　:　未送信データの有無を確認する
+    //　引　数　:　なし
+    //　戻り値　:　[boolean] ..... 未送信データがあればtrue
+    //============================================================
+    @Query(
+            "SELECT EXISTS(" +
+                    "SELECT 1 FROM " +
+                    "T_SYUKKA_CONTAINER " +
+                    "WHERE " +
+                    "DATA_SEND_YMDHMS IS NULL)"
+    )
+    boolean existsUnsent();
+    // ・findUnsentと同じ条件で、1件見つかった時点で終了（一覧を読み込まない）
 }
@@ -39,14 +39,14 @@ public interface SyukkaMeisaiDao {
             "SELECT * FROM " +
                     "T_SYUKKA_MEISAI " +
                     "WHERE " +
-                    "TRIM(HEAT_NO) = TRIM(:heatNo) " +
+                    "HEAT_NO = TRIM(:heatNo) " +
                     "AND " +
-                    "TRIM(SOKUBAN) = TRIM(:sokuban) " +
+                    "SOKUBAN = TRIM(:sokuban) " +
                     "LIMIT 1"
     )
     SyukkaMeisaiEntity findOne(String heatNo, String sokuban);
     // ・複合条件（HEAT_NO/SOKUBAN）で検索
-    // ・前後空白を除去して比較
+    // ・キーは登録時に前後空白を除去済みのため列側はTRIMせず索引で検索（引数側のみTRIM）
     // ・LIMIT 1 により先頭1件のみ取得
 
 
@@ -59,11 +59,11 @@ public interface SyukkaMeisaiDao {
             "SELECT * FROM " +
                     "T_SYUKKA_MEISAI " +
                     "WHERE " +
-                    "TRIM(BOOKING_NO) = TRIM(:bookingNo)"
+                    "BOOKING_NO = TRIM(:bookingNo)"
     )
     List<SyukkaMeisaiEntity> findByBookingNo(String bookingNo);
     // ・BOOKING_NO一致で抽出
-    // ・前後空白を除去して比較
+    // ・キーは登録時に前後空白を除去済みのため列側はTRIMせず索引で検索（引数側のみTRIM）
 
 
     //============================================================
@@ -79,9 +79,9 @@ public interface SyukkaMeisaiDao {
                     "SET " +
                     "BUNDLE_NO = :bundleNo " +
                     "WHERE " +
-                    "TRIM(HEAT_NO) = TRIM(:heatNo) " +
+                    "HEAT_NO = TRIM(:heatNo) " +
                     "AND " +
-                    "TRIM(SOKUBAN) = TRIM(:sokuban)"
+                    "SOKUBAN = TRIM(:sokuban)"
     )
     int updateBundleNo(String heatNo, String sokuban, String bundleNo);
     // ・対象明細のBUNDLE_NOを更新
@@ -107,9 +107,9 @@ public interface SyukkaMeisaiDao {
                     "JYURYO = :jyuryo, " +
                     "BOOKING_NO = :bookingNo " +
                     "WHERE " +
-                    "TRIM(HEAT_NO) = TRIM(:heatNo) " +
+                    "HEAT_NO = TRIM(:heatNo) " +
                     "AND " +
-                    "TRIM(SOKUBAN) = TRIM(:sokuban)"
+                    "SOKUBAN = TRIM(:sokuban)"
     )
     int updateFromReceive(String heatNo,
                           String sokuban,
@@ -185,9 +185,9 @@ public interface SyukkaMeisaiDao {
                     "SELECT 1 FROM " +
                     "W_SYUKKA_MEISAI W " +
                     "WHERE " +
-                    "TRIM(W.HEAT_NO) = TRIM(T_SYUKKA_MEISAI.HEAT_NO) " +
+                    "W.HEAT_NO = T_SYUKKA_MEISAI.HEAT_NO " +
                     "AND " +
-                    "TRIM(W.SOKUBAN) = TRIM(T_SYUKKA_MEISAI.SOKUBAN))"
+                    "W.SOKUBAN = T_SYUKKA_MEISAI.SOKUBAN)"
     )
     int updateContainerIdForWork(int containerId);
     // ・ワーク側に存在する（HEAT_NO/SOKUBAN一致）明細を対象に更新
@@ -220,9 +220,9 @@ public interface SyukkaMeisaiDao {
                     "FROM " +
                     "T_SYUKKA_MEISAI " +
                     "WHERE " +
-                    "TRIM(HEAT_NO) = TRIM(:heatNo) " +
+                    "HEAT_NO = TRIM(:heatNo) " +
                     "AND " +
-                    "TRIM(SOKUBAN) = TRIM(:sokuban) " +
+                    "SOKUBAN = TRIM(:sokuban) " +
                     "LIMIT 1"
     )
     @SuppressWarnings(RoomWarnings.CURSOR_MISMATCH)
@@ -242,14 +242,14 @@ public interface SyukkaMeisaiDao {
             "SELECT * FROM " +
                     "T_SYUKKA_MEISAI " +
                     "WHERE " +
-                    "TRIM(HEAT_NO) = TRIM(:heatNo) " +
+                    "HEAT_NO = TRIM(:heatNo) " +
                     "AND " +
-                    "TRIM(SOKUBAN) = TRIM(:sokuban)"
+                    "SOKUBAN = TRIM(:sokuban)"
     )
     SyukkaMeisaiEntity findOneForAdd(String heatNo, String sokuban);
     // ・AddBundle処理で対象明細を取得
     // ・（コメント上の意図としてCONTAINER_ID IS NULL条件等が必要ならSQL側に追加する想定）
-    // ・前後空白を除去して比較
+    // ・キーは登録時に前後空白を除去済みのため列側はTRIMせず索引で検索（引数側のみTRIM）
 
 
     //============================================================
@@ -265,9 +265,9 @@ public interface SyukkaMeisaiDao {
                     "SET " +
                     "BUNDLE_NO = :bundleNo " +
                     "WHERE " +
-                    "TRIM(HEAT_NO) = TRIM(:heatNo) " +
+                    "HEAT_NO = TRIM(:heatNo) " +
                     "AND " +
-                    "TRIM(SOKUBAN) = TRIM(:sokuban) " +
+                    "SOKUBAN = TRIM(:sokuban) " +
                     "AND " +
                     "(BUNDLE_NO IS NULL OR BUNDLE_NO = '')"
     )
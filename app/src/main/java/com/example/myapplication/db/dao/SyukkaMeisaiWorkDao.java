@@ -13,6 +13,7 @@ import java.util.List;
 //============================================================
 //　処理概要　:　出荷明細ワークテーブル（W_SYUKKA_MEISAI）に対するDAO
 //　関　　数　:　findAll           ..... 全件取得
+//　　　　　　:　existsAny         ..... データ有無
 //　　　　　　:　findOne           ..... 明細単一取得
 //　　　　　　:　upsert            ..... 追加／更新
 //　　　　　　:　deleteOne         ..... 単一削除
@@ -37,6 +38,20 @@ public interface SyukkaMeisaiWorkDao {
     // ・並び順の指定なし
 
 
+    //============================================================
+    //　機　能　:　ワーク明細データの有無を確認する
+    //　引　数　:　なし
+    //　戻り値　:　[boolean] ..... データがあればtrue
+    //============================================================
+    @Query(
+            "SELECT EXISTS(" +
+                    "SELECT 1 FROM " +
+                    "W_SYUKKA_MEISAI)"
+    )
+    boolean existsAny();
+    // ・1件見つかった時点で終了（作業中データ有無の判定用）
+
+
     //========================================================================
     //　機　能　:　HEAT_NOとSOKUBANを指定してワーク明細を1件取得する
     //　引　数　:　heatNo  ..... 鋼番
@@ -47,14 +62,14 @@ public interface SyukkaMeisaiWorkDao {
             "SELECT * FROM " +
                     "W_SYUKKA_MEISAI " +
                     "WHERE " +
-                    "TRIM(HEAT_NO) = TRIM(:heatNo) " +
+                    "HEAT_NO = TRIM(:heatNo) " +
                     "AND " +
-                    "TRIM(SOKUBAN) = TRIM(:sokuban) " +
+                    "SOKUBAN = TRIM(:sokuban) " +
                     "LIMIT 1"
     )
     SyukkaMeisaiWorkEntity findOne(String heatNo, String sokuban);
     // ・複合条件（HEAT_NO/SOKUBAN）で検索
-    // ・前後空白を除去して比較
+    // ・キーは登録時に前後空白を除去済みのため列側はTRIMせず索引で検索（引数側のみTRIM）
     // ・LIMIT 1 により先頭1件のみ取得
 
 
@@ -80,9 +95,9 @@ public interface SyukkaMeisaiWorkDao {
             "DELETE FROM " +
                     "W_SYUKKA_MEISAI " +
                     "WHERE " +
-                    "TRIM(HEAT_NO) = TRIM(:heatNo) " +
+                    "HEAT_NO = TRIM(:heatNo) " +
                     "AND " +
-                    "TRIM(SOKUBAN) = TRIM(:sokuban)"
+                    "SOKUBAN = TRIM(:sokuban)"
     )
     int deleteOne(String heatNo, String sokuban);
     // ・複合キー一致データを削除
@@ -115,9 +130,9 @@ public interface SyukkaMeisaiWorkDao {
                     "INNER JOIN " +
                     "T_SYUKKA_MEISAI T " +
                     " ON " +
-                    "TRIM(W.HEAT_NO) = TRIM(T.HEAT_NO) " +
+                    "W.HEAT_NO = T.HEAT_NO " +
                     "AND " +
-                    "TRIM(W.SOKUBAN) = TRIM(T.SOKUBAN)"
+                    "W.SOKUBAN = T.SOKUBAN"
     )
     WorkSummary getWorkSummary();
     // ・ワーク（W）に登録されている明細を対象に集計
@@ -145,9 +160,9 @@ public interface SyukkaMeisaiWorkDao {
                     "INNER JOIN " +
                     "T_SYUKKA_MEISAI T " +
                     " ON " +
-                    "TRIM(W.HEAT_NO) = TRIM(T.HEAT_NO) " +
+                    "W.HEAT_NO = T.HEAT_NO " +
                     "AND " +
-                    "TRIM(W.SOKUBAN) = TRIM(T.SOKUBAN) " +
+                    "W.SOKUBAN = T.SOKUBAN " +
                     "ORDER BY " +
                     "W.INSERT_YMD"
     )
@@ -0,0 +1,194 @@
+package com.example.myapplication.db.dao;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.example.myapplication.db.entity.SyukkaMeisaiStageEntity;
+import com.example.myapplication.db.entity.YoteiStageEntity;
+
+import java.util.List;
+
+
+//================================================================================
+//　処理概要　:　先行受信テーブル（S_YOTEI／S_SYUKKA_MEISAI）に対するDAO
+//　　　　　　　 待機中に受信した出荷データを格納し、同期時にT_YOTEI／T_SYUKKA_MEISAIへ
+//　　　　　　　 SQLの一括操作で反映する（1件ずつの読み込み・書き込みを行わない）
+//　関　　数　:　insertYoteiAll         ..... 先行受信予定の一括登録
+//　　　　　　:　insertMeisaiAll        ..... 先行受信明細の一括登録
+//　　　　　　:　deleteYoteiAll         ..... 先行受信予定の全件削除
+//　　　　　　:　deleteMeisaiAll        ..... 先行受信明細の全件削除
+//　　　　　　:　deleteYoteiNotStaged   ..... 先行受信に無い予定の削除（T_YOTEI）
+//　　　　　　:　applyYotei             ..... 変更のあった予定の反映（T_YOTEI）
+//　　　　　　:　applyMeisaiUpdate      ..... 変更のあった既存明細の更新（T_SYUKKA_MEISAI）
+//　　　　　　:　applyMeisaiInsert      ..... 新規明細の追加（T_SYUKKA_MEISAI）
+//================================================================================
+@Dao
+public interface SyukkaStageDao {
+
+    //============================================================
+    //　機　能　:　先行受信予定を一括登録する
+    //　引　数　:　entities ..... エンティティ一覧
+    //　戻り値　:　[void]
+    //============================================================
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertYoteiAll(List<YoteiStageEntity> entities);
+    // ・予約No.重複時は後から受信した内容を採用（受信時の差分反映と同じ）
+
+
+    //============================================================
+    //　機　能　:　先行受信明細を一括登録する
+    //　引　数　:　entities ..... エンティティ一覧
+    //　戻り値　:　[void]
+    //============================================================
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertMeisaiAll(List<SyukkaMeisaiStageEntity> entities);
+    // ・鋼番＋束番重複時は後から受信した内容を採用（受信時の差分反映と同じ）
+
+
+    //============================================================
+    //　機　能　:　先行受信予定を全件削除する
+    //　引　数　:　なし
+    //　戻り値　:　[void]
+    //============================================================
+    @Query(
+            "DELETE FROM " +
+                    "S_YOTEI"
+    )
+    void deleteYoteiAll();
+    // ・反映後／破棄時に使用
+
+
+    //============================================================
+    //　機　能　:　先行受信明細を全件削除する
+    //　引　数　:　なし
+    //　戻り値　:　[void]
+    //============================================================
+    @Query(
+            "DELETE FROM " +
+                    "S_SYUKKA_MEISAI"
+    )
+    void deleteMeisaiAll();
+    // ・反映後／破棄時に使用
+
+
+    //============================================================
+    //　機　能　:　先行受信予定に無い予定を削除する（T_YOTEI）
+    //　引　数　:　なし
+    //　戻り値　:　[int] ..... 削除件数
+    //============================================================
+    @Query(
+            "DELETE FROM " +
+                    "T_YOTEI " +
+                    "WHERE " +
+                    "BOOKING_NO NOT IN (" +
+                    "SELECT BOOKING_NO FROM " +
+                    "S_YOTEI)"
+    )
+    int deleteYoteiNotStaged();
+    // ・受信データに含まれなくなった予定を削除（先行受信が0件の場合は全件削除）
+
+
+    //============================================================
+    //　機　能　:　変更のあった予定を反映する（T_YOTEI）
+    //　引　数　:　なし
+    //　戻り値　:　[void]
+    //============================================================
+    @Query(
+            "INSERT OR REPLACE INTO " +
+                    "T_YOTEI (" +
+                    "BOOKING_NO, SAGYOU_YOTEI_YMD, CONTAINER_COUNT, GOUKEI_BUNDLE, GOUKEI_JYURYO, " +
+                    "KANRYO_CONTAINER, KANRYO_BUNDLE, KANRYO_JYURYO, LAST_UPD_YMDHMS, " +
+                    "INSERT_PROC_NAME, INSERT_YMD, UPDATE_PROC_NAME, UPDATE_YMD) " +
+                    "SELECT " +
+                    "S.BOOKING_NO, S.SAGYOU_YOTEI_YMD, S.CONTAINER_COUNT, S.GOUKEI_BUNDLE, S.GOUKEI_JYURYO, " +
+                    "S.KANRYO_CONTAINER, S.KANRYO_BUNDLE, S.KANRYO_JYURYO, S.LAST_UPD_YMDHMS, " +
+                    "S.INSERT_PROC_NAME, S.INSERT_YMD, S.UPDATE_PROC_NAME, S.UPDATE_YMD " +
+                    "FROM " +
+                    "S_YOTEI S " +
+                    "WHERE " +
+                    "NOT EXISTS(" +
+                    "SELECT 1 FROM " +
+                    "T_YOTEI T " +
+                    "WHERE " +
+                    "T.BOOKING_NO = S.BOOKING_NO " +
+                    "AND T.SAGYOU_YOTEI_YMD IS S.SAGYOU_YOTEI_YMD " +
+                    "AND T.CONTAINER_COUNT IS S.CONTAINER_COUNT " +
+                    "AND T.GOUKEI_BUNDLE IS S.GOUKEI_BUNDLE " +
+                    "AND T.GOUKEI_JYURYO IS S.GOUKEI_JYURYO " +
+                    "AND T.KANRYO_CONTAINER IS S.KANRYO_CONTAINER " +
+                    "AND T.KANRYO_BUNDLE IS S.KANRYO_BUNDLE " +
+                    "AND T.KANRYO_JYURYO IS S.KANRYO_JYURYO " +
+                    "AND T.LAST_UPD_YMDHMS IS S.LAST_UPD_YMDHMS)"
+    )
+    void applyYotei();
+    // ・受信項目が全て同じ予定は書き込まない（IS比較でNULL同士も一致扱い）
+    // ・変更・新規の予定は行ごと置換（受信時の差分反映と同じ）
+
+
+    //============================================================
+    //　機　能　:　変更のあった既存明細の受信項目を更新する（T_SYUKKA_MEISAI）
+    //　引　数　:　なし
+    //　戻り値　:　[int] ..... 更新件数
+    //============================================================
+    @Query(
+            "UPDATE " +
+                    "T_SYUKKA_MEISAI " +
+                    "SET " +
+                    "SYUKKA_SASHIZU_NO = (" +
+                    "SELECT S.SYUKKA_SASHIZU_NO FROM S_SYUKKA_MEISAI S " +
+                    "WHERE S.HEAT_NO = T_SYUKKA_MEISAI.HEAT_NO AND S.SOKUBAN = T_SYUKKA_MEISAI.SOKUBAN), " +
+                    "BUNDLE_NO = (" +
+                    "SELECT S.BUNDLE_NO FROM S_SYUKKA_MEISAI S " +
+                    "WHERE S.HEAT_NO = T_SYUKKA_MEISAI.HEAT_NO AND S.SOKUBAN = T_SYUKKA_MEISAI.SOKUBAN), " +
+                    "JYURYO = (" +
+                    "SELECT S.JYURYO FROM S_SYUKKA_MEISAI S " +
+                    "WHERE S.HEAT_NO = T_SYUKKA_MEISAI.HEAT_NO AND S.SOKUBAN = T_SYUKKA_MEISAI.SOKUBAN), " +
+                    "BOOKING_NO = (" +
+                    "SELECT S.BOOKING_NO FROM S_SYUKKA_MEISAI S " +
+                    "WHERE S.HEAT_NO = T_SYUKKA_MEISAI.HEAT_NO AND S.SOKUBAN = T_SYUKKA_MEISAI.SOKUBAN) " +
+                    "WHERE " +
+                    "EXISTS(" +
+                    "SELECT 1 FROM " +
+                    "S_SYUKKA_MEISAI S " +
+                    "WHERE " +
+                    "S.HEAT_NO = T_SYUKKA_MEISAI.HEAT_NO " +
+                    "AND S.SOKUBAN = T_SYUKKA_MEISAI.SOKUBAN " +
+                    "AND (S.SYUKKA_SASHIZU_NO IS NOT T_SYUKKA_MEISAI.SYUKKA_SASHIZU_NO " +
+                    "OR S.BUNDLE_NO IS NOT T_SYUKKA_MEISAI.BUNDLE_NO " +
+                    "OR S.JYURYO IS NOT T_SYUKKA_MEISAI.JYURYO " +
+                    "OR S.BOOKING_NO IS NOT T_SYUKKA_MEISAI.BOOKING_NO))"
+    )
+    int applyMeisaiUpdate();
+    // ・受信項目に変更がある行のみ更新（主キー索引で照合）
+    // ・コンテナID・登録／更新情報など受信対象外の項目は既存値のまま
+    // ・端末のSQLite（Android 10は3.22）はUPSERT構文非対応のため、更新と追加を分けて実行
+
+
+    //============================================================
+    //　機　能　:　T_SYUKKA_MEISAIに無い明細を追加する
+    //　引　数　:　なし
+    //　戻り値　:　[void]
+    //============================================================
+    @Query(
+            "INSERT INTO " +
+                    "T_SYUKKA_MEISAI (" +
+                    "HEAT_NO, SOKUBAN, SYUKKA_SASHIZU_NO, BUNDLE_NO, JYURYO, BOOKING_NO) " +
+                    "SELECT " +
+                    "S.HEAT_NO, S.SOKUBAN, S.SYUKKA_SASHIZU_NO, S.BUNDLE_NO, S.JYURYO, S.BOOKING_NO " +
+                    "FROM " +
+                    "S_SYUKKA_MEISAI S " +
+                    "WHERE " +
+                    "NOT EXISTS(" +
+                    "SELECT 1 FROM " +
+                    "T_SYUKKA_MEISAI T " +
+                    "WHERE " +
+                    "T.HEAT_NO = S.HEAT_NO " +
+                    "AND T.SOKUBAN = S.SOKUBAN)"
+    )
+    void applyMeisaiInsert();
+    // ・新規の明細のみ追加（コンテナIDはNULL＝未割当）
+    // ・受信データに無い既存明細は削除しない（受信時の差分反映と同じ）
+
+}
@@ -14,6 +14,7 @@ import java.util.List;
 //　処理概要　:　作業予定テーブル（T_YOTEI）に対するDAO
 //　関　　数　:　findAll               ..... 全件取得
 //　　　　　　:　findFirst             ..... 先頭1件取得
+//　　　　　　:　getSummary            ..... 計画／完了の合計取得（メニュー表示用）
 //　　　　　　:　findWithNullLastUpd   ..... 最終更新日時がNULLのデータ取得
 //　　　　　　:　findByBookingNo       ..... 予約No.検索
 //　　　　　　:　incrementKanryo       ..... 完了数（コンテナ／束／重量）加算
@@ -77,11 +78,11 @@ public interface YoteiDao {
             "SELECT * FROM " +
                     "T_YOTEI " +
                     "WHERE " +
-                    "TRIM(BOOKING_NO) = TRIM(:bookingNo)"
+                    "BOOKING_NO = TRIM(:bookingNo)"
     )
     YoteiEntity findByBookingNo(String bookingNo);
     // ・BOOKING_NO一致で検索
-    // ・前後空白を除去して比較
+    // ・キーは登録時に前後空白を除去済みのため列側はTRIMせず索引で検索（引数側のみTRIM）
 
 
     //============================================================
@@ -99,7 +100,7 @@ public interface YoteiDao {
                     "KANRYO_BUNDLE = KANRYO_BUNDLE + :bundleCount, " +
                     "KANRYO_JYURYO = KANRYO_JYURYO + :jyuryo " +
                     "WHERE " +
-                    "TRIM(BOOKING_NO) = TRIM(:bookingNo)"
+                    "BOOKING_NO = TRIM(:bookingNo)"
     )
     int incrementKanryo(String bookingNo, int bundleCount, int jyuryo);
     // ・完了コンテナ数は常に +1
@@ -132,4 +133,37 @@ public interface YoteiDao {
     // ・テーブル内全レコード削除
     // ・初期化処理などで使用
 
+
+    //============================================================
+    //　機　能　:　計画／完了（コンテナ・束・重量）の合計を取得する
+    //　引　数　:　なし
+    //　戻り値　:　[YoteiSummary] ..... 合計値（予定が無い場合は全て0）
+    //============================================================
+    @Query(
+            "SELECT " +
+                    "IFNULL(SUM(CONTAINER_COUNT), 0) AS containerCount, " +
+                    "IFNULL(SUM(GOUKEI_BUNDLE), 0) AS goukeiBundle, " +
+                    "IFNULL(SUM(GOUKEI_JYURYO), 0) AS goukeiJyuryo, " +
+                    "IFNULL(SUM(KANRYO_CONTAINER), 0) AS kanryoContainer, " +
+                    "IFNULL(SUM(KANRYO_BUNDLE), 0) AS kanryoBundle, " +
+                    "IFNULL(SUM(KANRYO_JYURYO), 0) AS kanryoJyuryo " +
+                    "FROM " +
+                    "T_YOTEI"
+    )
+    YoteiSummary getSummary();
+    // ・集計はSQLite内で行い、予定データをJavaへ読み込まない（結果は常に1行）
+    // ・NULLの項目は集計対象外（0扱いと同じ）
+
+
+    //============================================================
+    //　処理概要　:　予定集計結果（計画／完了の合計）
+    //============================================================
+    class YoteiSummary {
+        public long containerCount;   // 計画コンテナ数
+        public long goukeiBundle;     // 計画束数
+        public long goukeiJyuryo;     // 計画重量（kg）
+        public long kanryoContainer;  // 完了コンテナ数
+        public long kanryoBundle;     // 完了束数
+        public long kanryoJyuryo;     // 完了重量（kg）
+    }
 }
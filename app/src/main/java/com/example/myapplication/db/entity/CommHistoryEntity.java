@@ -81,4 +81,99 @@ public class CommHistoryEntity {
     public String errDescription;
     // ・例外メッセージやエラー説明を格納
 
+
+    //============================================================
+    //　項目概要　:　所要時間
+    //　内　　容　:　呼び出し開始から履歴保存までの経過時間（ミリ秒）
+    //============================================================
+    @ColumnInfo(name = "DURATION_MS")
+    public Long durationMs;
+    // ・リトライ待ちを含む呼び出し全体の時間
+
+
+    //============================================================
+    //　項目概要　:　名前解決時間
+    //　内　　容　:　DNS解決に要した時間（ミリ秒）
+    //============================================================
+    @ColumnInfo(name = "DNS_MS")
+    public Long dnsMs;
+    // ・リトライ・再送分は合算（以下の計測項目も同様）
+    // ・同期工程の履歴ではnull（以下の通信計測項目も同様）
+
+
+    //============================================================
+    //　項目概要　:　接続時間
+    //　内　　容　:　TCP接続に要した時間（ミリ秒、TLSを除く）
+    //============================================================
+    @ColumnInfo(name = "CONNECT_MS")
+    public Long connectMs;
+    // ・接続を再利用した場合は0
+
+
+    //============================================================
+    //　項目概要　:　TLS時間
+    //　内　　容　:　TLSハンドシェイクに要した時間（ミリ秒）
+    //============================================================
+    @ColumnInfo(name = "TLS_MS")
+    public Long tlsMs;
+
+
+    //============================================================
+    //　項目概要　:　応答待ち時間
+    //　内　　容　:　送信完了から応答ヘッダ受信開始までの時間（ミリ秒）
+    //============================================================
+    @ColumnInfo(name = "TTFB_MS")
+    public Long ttfbMs;
+    // ・サーバ処理時間＋往復遅延の目安
+
+
+    //============================================================
+    //　項目概要　:　受信時間
+    //　内　　容　:　応答ヘッダ受信完了から本文受信完了までの時間（ミリ秒）
+    //============================================================
+    @ColumnInfo(name = "TRANSFER_MS")
+    public Long transferMs;
+    // ・ストリーム解析の呼び出しは解析時間と重なる
+
+
+    //============================================================
+    //　項目概要　:　送信バイト数
+    //　内　　容　:　送信本文のバイト数（圧縮後）
+    //============================================================
+    @ColumnInfo(name = "REQUEST_BYTES")
+    public Long requestBytes;
+
+
+    //============================================================
+    //　項目概要　:　受信バイト数
+    //　内　　容　:　受信本文のバイト数（展開前）
+    //============================================================
+    @ColumnInfo(name = "RESPONSE_BYTES")
+    public Long responseBytes;
+
+
+    //============================================================
+    //　項目概要　:　解析時間
+    //　内　　容　:　レスポンス解析に要した時間（ミリ秒）
+    //============================================================
+    @ColumnInfo(name = "PARSE_MS")
+    public Long parseMs;
+
+
+    //============================================================
+    //　項目概要　:　DB反映時間
+    //　内　　容　:　受信データのDB反映に要した時間（ミリ秒）
+    //============================================================
+    @ColumnInfo(name = "DB_APPLY_MS")
+    public Long dbApplyMs;
+    // ・同期工程（phase:～）の履歴のみ設定
+
+
+    //============================================================
+    //　項目概要　:　再試行回数
+    //　内　　容　:　通信障害による再試行の回数
+    //============================================================
+    @ColumnInfo(name = "RETRY_COUNT")
+    public Integer retryCount;
+
 }
\ No newline at end of file
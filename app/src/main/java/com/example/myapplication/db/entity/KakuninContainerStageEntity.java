@@ -0,0 +1,111 @@
+package com.example.myapplication.db.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+
+//============================================================
+//　処理概要　:　受信中確認コンテナテーブル（S_KAKUNIN_CONTAINER）エンティティ
+//　対　　象　:　照合データ受信時に一旦格納し、検証後にT_KAKUNIN_CONTAINERへ入れ替える
+//　　　　　　　 項目構成はT_KAKUNIN_CONTAINERと同じ（入れ替えはINSERT…SELECTで一括）
+//　主キー　　:　CONTAINER_ID
+//============================================================
+@Entity(
+        tableName = "S_KAKUNIN_CONTAINER",
+        primaryKeys = {"CONTAINER_ID"}
+)
+public class KakuninContainerStageEntity {
+
+    //============================================================
+    //　項目概要　:　コンテナID（主キー）
+    //　内　　容　:　確認コンテナを一意に識別するID
+    //============================================================
+    @NonNull
+    @ColumnInfo(name = "CONTAINER_ID")
+    public String containerId;
+    // ・照合対象コンテナの識別子
+
+
+    //============================================================
+    //　項目概要　:　コンテナNo.
+    //　内　　容　:　表示用コンテナNo.
+    //============================================================
+    @ColumnInfo(name = "CONTAINER_NO")
+    public String containerNo;
+    // ・ラベル表示や帳票出力用番号
+
+
+    //============================================================
+    //　項目概要　:　束数
+    //　内　　容　:　コンテナ内の束数
+    //============================================================
+    @ColumnInfo(name = "BUNDLE_CNT")
+    public Integer bundleCnt;
+    // ・格納されている束の数量
+
+
+    //============================================================
+    //　項目概要　:　作業日
+    //　内　　容　:　作業実施日（DATE → TEXT）
+    //============================================================
+    @ColumnInfo(name = "SAGYOU_YMD")
+    public String sagyouYmd;
+    // ・yyyy-MM-dd'T'HH:mm:ss
+
+
+    //============================================================
+    //　項目概要　:　コンテナ照合完了
+    //　内　　容　:　照合完了フラグ （BIT → INTEGER）
+    //============================================================
+    @ColumnInfo(name = "CONTAINER_SYOUGO_KANRYO")
+    public Boolean containerSyougoKanryo;
+    // ・true  : 照合完了
+    // ・false : 未照合
+
+
+    //============================================================
+    //　項目概要　:　データ送信日時
+    //　内　　容　:　送信完了日時（DATE → TEXT）
+    //============================================================
+    @ColumnInfo(name = "DATA_SEND_YMDHMS")
+    public String dataSendYmdhms;
+    // ・未送信の場合はNULL
+
+
+    //============================================================
+    //　項目概要　:　登録処理名
+    //　内　　容　:　登録時の処理名称
+    //============================================================
+    @ColumnInfo(name = "INSERT_PROC_NAME")
+    public String insertProcName;
+    // ・登録元機能名などを保持
+
+
+    //============================================================
+    //　項目概要　:　登録年月日
+    //　内　　容　:　登録年月日（DATE → TEXT）
+    //============================================================
+    @ColumnInfo(name = "INSERT_YMD")
+    public String insertYmd;
+    // ・yyyy-MM-dd'T'HH:mm:ss
+
+
+    //============================================================
+    //　項目概要　:　更新処理名
+    //　内　　容　:　最終更新時の処理名称
+    //============================================================
+    @ColumnInfo(name = "UPDATE_PROC_NAME")
+    public String updateProcName;
+    // ・更新元機能名などを保持
+
+
+    //============================================================
+    //　項目概要　:　更新年月日
+    //　内　　容　:　最終更新日（DATE → TEXT）
+    //============================================================
+    @ColumnInfo(name = "UPDATE_YMD")
+    public String updateYmd;
+    // ・yyyy-MM-dd'T'HH:mm:ss
+
+}
\ No newline at end of file
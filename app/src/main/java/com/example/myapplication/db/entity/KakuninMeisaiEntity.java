@@ -3,6 +3,7 @@ package com.example.myapplication.db.entity;
 import androidx.annotation.NonNull;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 import androidx.room.Ignore;
 
 
@@ -10,10 +11,14 @@ import androidx.room.Ignore;
 //　処理概要　:　確認明細テーブル（T_KAKUNIN_MEISAI）エンティティ
 //　対　　象　:　照合対象となる出荷明細情報を保持する
 //　主キー　　:　HEAT_NO + SOKUBAN（複合キー）
+//　索　　引　:　CONTAINER_ID
 //============================================================
 @Entity(
         tableName = "T_KAKUNIN_MEISAI",
-        primaryKeys = {"HEAT_NO", "SOKUBAN"}
+        primaryKeys = {"HEAT_NO", "SOKUBAN"},
+        indices = {
+                @Index(value = {"CONTAINER_ID"})
+        }
 )
 public class KakuninMeisaiEntity {
 
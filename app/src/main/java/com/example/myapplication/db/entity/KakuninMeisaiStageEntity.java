@@ -0,0 +1,121 @@
+package com.example.myapplication.db.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+
+//============================================================
+//　処理概要　:　受信中確認明細テーブル（S_KAKUNIN_MEISAI）エンティティ
+//　対　　象　:　照合データ受信時に一旦格納し、検証後にT_KAKUNIN_MEISAIへ入れ替える
+//　　　　　　　 項目構成はT_KAKUNIN_MEISAIのDB保持項目と同じ（入れ替えはINSERT…SELECTで一括）
+//　主キー　　:　HEAT_NO + SOKUBAN（複合キー）
+//============================================================
+@Entity(
+        tableName = "S_KAKUNIN_MEISAI",
+        primaryKeys = {"HEAT_NO", "SOKUBAN"}
+)
+public class KakuninMeisaiStageEntity {
+
+    //============================================================
+    //　項目概要　:　鋼番（主キー）
+    //　内　　容　:　製品ロットを識別する番号
+    //============================================================
+    @NonNull
+    @ColumnInfo(name = "HEAT_NO")
+    public String heatNo;
+    // ・複合主キーその1
+
+
+    //============================================================
+    //　項目概要　:　束番（主キー）
+    //　内　　容　:　同一鋼番内の識別番号
+    //============================================================
+    @NonNull
+    @ColumnInfo(name = "SOKUBAN")
+    public String sokuban;
+    // ・複合主キーその2
+
+
+    //============================================================
+    //　項目概要　:　出荷指図No.
+    //　内　　容　:　出荷指示に紐づく番号
+    //============================================================
+    @ColumnInfo(name = "SYUKKA_SASHIZU_NO")
+    public String syukkaSashizuNo;
+    // ・帳票／ラベル表示用
+
+
+    //============================================================
+    //　項目概要　:　バンドルNo.
+    //　内　　容　:　束識別番号
+    //============================================================
+    @ColumnInfo(name = "BUNDLE_NO")
+    public String bundleNo;
+    // ・コンテナ内での束識別用
+
+
+    //============================================================
+    //　項目概要　:　重量
+    //　内　　容　:　明細単位の重量
+    //============================================================
+    @ColumnInfo(name = "JYURYO")
+    public Integer jyuryo;
+    // ・単位は業務仕様に依存（kg想定など）
+
+
+    //============================================================
+    //　項目概要　:　コンテナID
+    //　内　　容　:　紐づく確認コンテナID
+    //============================================================
+    @ColumnInfo(name = "CONTAINER_ID")
+    public String containerId;
+    // ・未紐付の場合はNULLの可能性あり
+
+
+    //============================================================
+    //　項目概要　:　コンテナ照合確認フラグ
+    //　内　　容　:　コンテナ単位での確認済フラグ（BIT → INTEGER）
+    //============================================================
+    @ColumnInfo(name = "CONTAINER_SYOUGO_KAKUNIN")
+    public Boolean containerSyougoKakunin;
+    // ・true  : 確認済
+    // ・false : 未確認
+
+
+    //============================================================
+    //　項目概要　:　登録処理名
+    //　内　　容　:　登録時の処理名称
+    //============================================================
+    @ColumnInfo(name = "INSERT_PROC_NAME")
+    public String insertProcName;
+    // ・登録元機能名などを保持
+
+
+    //============================================================
+    //　項目概要　:　登録年月日
+    //　内　　容　:　登録年月日（TEXT保存）
+    //============================================================
+    @ColumnInfo(name = "INSERT_YMD")
+    public String insertYmd;
+    // ・yyyy-MM-dd'T'HH:mm:ss
+
+
+    //============================================================
+    //　項目概要　:　更新処理名
+    //　内　　容　:　最終更新時の処理名称
+    //============================================================
+    @ColumnInfo(name = "UPDATE_PROC_NAME")
+    public String updateProcName;
+    // ・更新元機能名などを保持
+
+
+    //============================================================
+    //　項目概要　:　更新日
+    //　内　　容　:　最終更新日（TEXT保存）
+    //============================================================
+    @ColumnInfo(name = "UPDATE_YMD")
+    public String updateYmd;
+    // ・yyyy-MM-dd'T'HH:mm:ss
+
+}
@@ -0,0 +1,97 @@
+package com.example.myapplication.db.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+
+//============================================================
+//　処理概要　:　送信待ちテーブル（T_SEND_QUEUE）エンティティ
+//　対　　象　:　登録後にバックグラウンドで送信するデータ（コンテナ単位）を保持する
+//　主キー　　:　JOB_TYPE + TARGET_ID（複合キー）
+//============================================================
+@Entity(
+        tableName = "T_SEND_QUEUE",
+        primaryKeys = {"JOB_TYPE", "TARGET_ID"}
+)
+public class SendQueueEntity {
+
+    //============================================================
+    //　項目概要　:　送信種別（主キー）
+    //　内　　容　:　SYUKKA（出荷データ）／SYOUGO（照合データ）
+    //============================================================
+    @NonNull
+    @ColumnInfo(name = "JOB_TYPE")
+    public String jobType;
+    // ・複合主キーその1
+
+
+    //============================================================
+    //　項目概要　:　送信対象ID（主キー）
+    //　内　　容　:　出荷はT_SYUKKA_CONTAINER、照合はT_KAKUNIN_CONTAINERのコンテナID
+    //============================================================
+    @NonNull
+    @ColumnInfo(name = "TARGET_ID")
+    public String targetId;
+    // ・複合主キーその2
+    // ・同じコンテナを重複して登録しない
+
+
+    //============================================================
+    //　項目概要　:　再試行回数
+    //　内　　容　:　送信に失敗した回数
+    //============================================================
+    @ColumnInfo(name = "RETRY_COUNT")
+    public Integer retryCount;
+    // ・再試行間隔（指数バックオフ）の算出に使用
+
+
+    //============================================================
+    //　項目概要　:　次回送信日時
+    //　内　　容　:　この日時以降に送信する（yyyy-MM-dd HH:mm:ss）
+    //============================================================
+    @ColumnInfo(name = "NEXT_RUN_YMDHMS")
+    public String nextRunYmdhms;
+    // ・登録直後は登録日時（即時送信対象）
+
+
+    //============================================================
+    //　項目概要　:　最終エラー
+    //　内　　容　:　直近の送信失敗理由
+    //============================================================
+    @ColumnInfo(name = "LAST_ERROR")
+    public String lastError;
+    // ・調査用
+
+
+    //============================================================
+    //　項目概要　:　登録処理名
+    //　内　　容　:　データを登録した処理名
+    //============================================================
+    @ColumnInfo(name = "INSERT_PROC_NAME")
+    public String insertProcName;
+
+
+    //============================================================
+    //　項目概要　:　登録日時
+    //　内　　容　:　データ登録日時
+    //============================================================
+    @ColumnInfo(name = "INSERT_YMD")
+    public String insertYmd;
+
+
+    //============================================================
+    //　項目概要　:　更新処理名
+    //　内　　容　:　データを更新した処理名
+    //============================================================
+    @ColumnInfo(name = "UPDATE_PROC_NAME")
+    public String updateProcName;
+
+
+    //============================================================
+    //　項目概要　:　更新日時
+    //　内　　容　:　データ更新日時
+    //============================================================
+    @ColumnInfo(name = "UPDATE_YMD")
+    public String updateYmd;
+}
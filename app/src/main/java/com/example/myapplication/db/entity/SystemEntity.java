@@ -83,6 +83,46 @@ public class SystemEntity {
     // ・同期完了時に更新
 
 
+    //============================================================
+    //　項目概要　:　受信済み作業日
+    //　内　　容　:　出荷データを最後に受信した作業予定日（TEXT）
+    //============================================================
+    @ColumnInfo(name = "RECV_SAGYOU_YMD")
+    public String recvSagyouYmd;
+    // ・yyyy-MM-dd HH:mm:ss
+    // ・作業日が変わった場合は差分判定せず受信する
+
+
+    //============================================================
+    //　項目概要　:　受信済みサーバ更新日時
+    //　内　　容　:　受信時点のサーバ側更新日時（GetUpdateYmdHms、TEXT）
+    //============================================================
+    @ColumnInfo(name = "RECV_LAST_UPD_YMDHMS")
+    public String recvLastUpdYmdhms;
+    // ・yyyy-MM-dd HH:mm:ss
+    // ・サーバ側更新日時が同じ場合は出荷データの受信を省略する
+
+
+    //============================================================
+    //　項目概要　:　先行受信済み作業日
+    //　内　　容　:　待機中に先行受信（S_YOTEI／S_SYUKKA_MEISAIへ格納）した作業予定日（TEXT）
+    //============================================================
+    @ColumnInfo(name = "STAGE_SAGYOU_YMD")
+    public String stageSagyouYmd;
+    // ・yyyy-MM-dd HH:mm:ss
+    // ・先行受信データが無い場合はNULL
+
+
+    //============================================================
+    //　項目概要　:　先行受信済みサーバ更新日時
+    //　内　　容　:　先行受信時点のサーバ側更新日時（GetUpdateYmdHms、TEXT）
+    //============================================================
+    @ColumnInfo(name = "STAGE_LAST_UPD_YMDHMS")
+    public String stageLastUpdYmdhms;
+    // ・yyyy-MM-dd HH:mm:ss
+    // ・同期時のサーバ側更新日時と同じ場合は、通信せず先行受信データを反映する
+
+
     //============================================================
     //　項目概要　:　更新処理名
     //　内　　容　:　最終更新時の処理名称
@@ -3,16 +3,22 @@ package com.example.myapplication.db.entity;
 import androidx.annotation.NonNull;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.Index;
 
 
 //============================================================
 //　処理概要　:　出荷束明細テーブル（T_SYUKKA_MEISAI）エンティティ
 //　対　　象　:　出荷対象となる製品明細情報を保持する
 //　主キー　　:　HEAT_NO + SOKUBAN（複合キー）
+//　索　　引　:　BOOKING_NO / CONTAINER_ID
 //============================================================
 @Entity(
         tableName = "T_SYUKKA_MEISAI",
-        primaryKeys = {"HEAT_NO", "SOKUBAN"}
+        primaryKeys = {"HEAT_NO", "SOKUBAN"},
+        indices = {
+                @Index(value = {"BOOKING_NO"}),
+                @Index(value = {"CONTAINER_ID"})
+        }
 )
 public class SyukkaMeisaiEntity {
 
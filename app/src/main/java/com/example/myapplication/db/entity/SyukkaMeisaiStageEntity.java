@@ -0,0 +1,72 @@
+package com.example.myapplication.db.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+
+//============================================================
+//　処理概要　:　先行受信束明細テーブル（S_SYUKKA_MEISAI）エンティティ
+//　対　　象　:　待機中に先行受信した出荷明細（束）を、同期時の反映まで保持する
+//　　　　　　　 受信項目のみ保持（コンテナID等はT_SYUKKA_MEISAIの既存値を引き継ぐ）
+//　主キー　　:　HEAT_NO + SOKUBAN（複合キー）
+//============================================================
+@Entity(
+        tableName = "S_SYUKKA_MEISAI",
+        primaryKeys = {"HEAT_NO", "SOKUBAN"}
+)
+public class SyukkaMeisaiStageEntity {
+
+    //============================================================
+    //　項目概要　:　鋼番（主キー）
+    //　内　　容　:　製品ロットを識別する番号
+    //============================================================
+    @NonNull
+    @ColumnInfo(name = "HEAT_NO")
+    public String heatNo;
+    // ・前後空白を除去して保持（T_SYUKKA_MEISAIと同じ）
+
+
+    //============================================================
+    //　項目概要　:　束番（主キー）
+    //　内　　容　:　同一鋼番内の識別番号
+    //============================================================
+    @NonNull
+    @ColumnInfo(name = "SOKUBAN")
+    public String sokuban;
+    // ・前後空白を除去して保持（T_SYUKKA_MEISAIと同じ）
+
+
+    //============================================================
+    //　項目概要　:　出荷指図No.
+    //　内　　容　:　出荷指示に紐づく番号
+    //============================================================
+    @ColumnInfo(name = "SYUKKA_SASHIZU_NO")
+    public String syukkaSashizuNo;
+
+
+    //============================================================
+    //　項目概要　:　バンドルNo.
+    //　内　　容　:　束識別番号
+    //============================================================
+    @ColumnInfo(name = "BUNDLE_NO")
+    public String bundleNo;
+
+
+    //============================================================
+    //　項目概要　:　重量
+    //　内　　容　:　明細単位の重量
+    //============================================================
+    @ColumnInfo(name = "JYURYO")
+    public Integer jyuryo;
+
+
+    //============================================================
+    //　項目概要　:　予約No.
+    //　内　　容　:　出荷予約No.
+    //============================================================
+    @ColumnInfo(name = "BOOKING_NO")
+    public String bookingNo;
+    // ・前後空白を除去して保持
+
+}
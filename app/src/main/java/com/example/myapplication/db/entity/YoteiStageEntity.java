@@ -0,0 +1,138 @@
+package com.example.myapplication.db.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+
+//============================================================
+//　処理概要　:　先行受信予定テーブル（S_YOTEI）エンティティ
+//　対　　象　:　待機中に先行受信した出荷予定（ヘッダ）を、同期時の反映まで保持する
+//　　　　　　　 項目構成はT_YOTEIと同じ（反映はINSERT…SELECTで一括）
+//　主キー　　:　BOOKING_NO
+//============================================================
+@Entity(
+        tableName = "S_YOTEI",
+        primaryKeys = {"BOOKING_NO"}
+)
+public class YoteiStageEntity {
+
+    //============================================================
+    //　項目概要　:　予約No.（主キー）
+    //　内　　容　:　出荷予約を識別する番号
+    //============================================================
+    @NonNull
+    @ColumnInfo(name = "BOOKING_NO")
+    public String bookingNo;
+    // ・T_SYUKKA_MEISAIと紐付くキー
+
+
+    //============================================================
+    //　項目概要　:　作業予定日
+    //　内　　容　:　出荷作業予定日（DATE → TEXT）
+    //============================================================
+    @ColumnInfo(name = "SAGYOU_YOTEI_YMD")
+    public String sagyouYoteiYmd;
+    // ・yyyy-MM-dd'T'HH:mm:ss
+
+
+    //============================================================
+    //　項目概要　:　コンテナ数
+    //　内　　容　:　出荷予定コンテナ総数
+    //============================================================
+    @ColumnInfo(name = "CONTAINER_COUNT")
+    public Integer containerCount;
+    // ・予定上のコンテナ数量
+
+
+    //============================================================
+    //　項目概要　:　合計束数
+    //　内　　容　:　出荷予定の総束数
+    //============================================================
+    @ColumnInfo(name = "GOUKEI_BUNDLE")
+    public Integer goukeiBundole;
+    // ・全明細の束数合計
+
+
+    //============================================================
+    //　項目概要　:　合計重量
+    //　内　　容　:　出荷予定の総重量
+    //============================================================
+    @ColumnInfo(name = "GOUKEI_JYURYO")
+    public Integer goukeiJyuryo;
+    // ・単位は業務仕様に依存（kg等）
+
+
+    //============================================================
+    //　項目概要　:　完了コンテナ数
+    //　内　　容　:　実績コンテナ数
+    //============================================================
+    @ColumnInfo(name = "KANRYO_CONTAINER")
+    public Integer kanryoContainer;
+    // ・受信時点の値
+
+
+    //============================================================
+    //　項目概要　:　完了束数
+    //　内　　容　:　実績束数
+    //============================================================
+    @ColumnInfo(name = "KANRYO_BUNDLE")
+    public Integer kanryoBundole;
+    // ・実績進捗管理用
+
+
+    //============================================================
+    //　項目概要　:　完了重量
+    //　内　　容　:　実績重量
+    //============================================================
+    @ColumnInfo(name = "KANRYO_JYURYO")
+    public Integer kanryoJyuryo;
+    // ・実績進捗管理用
+
+
+    //============================================================
+    //　項目概要　:　最終更新日時
+    //　内　　容　:　最終更新日時（DATE → TEXT）
+    //============================================================
+    @ColumnInfo(name = "LAST_UPD_YMDHMS")
+    public String lastUpdYmdhms;
+    // ・yyyy-MM-dd'T'HH:mm:ss
+    // ・未更新の場合はNULL
+
+
+    //============================================================
+    //　項目概要　:　登録処理名
+    //　内　　容　:　登録時の処理名称
+    //============================================================
+    @ColumnInfo(name = "INSERT_PROC_NAME")
+    public String insertProcName;
+    // ・登録元機能名などを保持
+
+
+    //============================================================
+    //　項目概要　:　登録年月日
+    //　内　　容　:　登録年月日（DATE → TEXT）
+    //============================================================
+    @ColumnInfo(name = "INSERT_YMD")
+    public String insertYmd;
+    // ・yyyy-MM-dd'T'HH:mm:ss
+
+
+    //============================================================
+    //　項目概要　:　更新処理名
+    //　内　　容　:　最終更新時の処理名称
+    //============================================================
+    @ColumnInfo(name = "UPDATE_PROC_NAME")
+    public String updateProcName;
+    // ・更新元機能名などを保持
+
+
+    //============================================================
+    //　項目概要　:　更新年月日
+    //　内　　容　:　最終更新日（DATE → TEXT）
+    //============================================================
+    @ColumnInfo(name = "UPDATE_YMD")
+    public String updateYmd;
+    // ・yyyy-MM-dd'T'HH:mm:ss
+
+}
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.example.myapplication.grid;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.example.myapplication.db.SyukkaMeisaiCache;
 import com.example.myapplication.db.dao.SyukkaMeisaiDao;
 import com.example.myapplication.db.dao.SyukkaMeisaiWorkDao;
 import com.example.myapplication.db.entity.SyukkaMeisaiEntity;
@@ -15,17 +16,18 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 
 //======================================================================================
 //　処理概要　:　束選択画面の行データ生成と選択状態管理を行うコントローラクラス
 //　関　　数　:　BundleSelectController ..... Bundle選択制御（保持/チェック/追加/削除/表示更新）
 //　　　　　　:　getBundles ..... 保持データの取得
-//　　　　　　:　getJyuryoSum ..... 重量合計の取得
+//　　　　　　:　getJyuryoSum ..... 重量合計の取得（保持中に加減算した値）
 //　　　　　　:　getDisplayRows ..... 表示行データの取得
 //　　　　　　:　checkBundle ..... Bundle読取チェック（存在/重量超過/出荷済/20行/予約No相違）
 //　　　　　　:　addBundleNo ..... BundleNo更新（空のもののみ）
-//　　　　　　:　addBundle ..... Bundle追加（DB→保持→Work→表示）
+//　　　　　　:　addBundle ..... Bundle追加（キャッシュ/DB→保持→Work→表示）
 //　　　　　　:　removeBundle ..... Bundle削除（Work→保持→表示）
 //　　　　　　:　deleteBundles ..... Bundle全削除
 //　　　　　　:　refreshDisplayRows ..... 表示行の再生成
@@ -53,6 +55,9 @@ public class BundleSelectController {
     // 一覧表示用（RecyclerViewに渡す）
     private final List<BundleSelectRow> displayRows = new ArrayList<>();
 
+    // 保持中Bundleの重量合計（追加/削除時に加減算し、都度の再集計を避ける）
+    private int jyuryoSum = 0;
+
     private static final int MAX_ROWS = 20; // 一覧最大行数
 
     //============================================================
@@ -74,6 +79,12 @@ public class BundleSelectController {
             readWorkTblToList();
         }
 
+        // スキャン毎のDB検索を避けるため、復元した予約No.の出荷明細を先読み
+        // （未読取の場合は1束目の追加時に読み込む）
+        if (!dataList.isEmpty()) {
+            SyukkaMeisaiCache.preload(syukkaMeisaiDao, dataList.values().iterator().next().bookingNo);
+        }
+
         // 初期表示用の行データを作成
         refreshDisplayRows();
     }
@@ -98,14 +109,7 @@ public class BundleSelectController {
     //　戻り値　:　[int] ..... 重量合計
     //============================================================
     public int getJyuryoSum() {
-        int sum = 0;
-
-        // 保持中のBundleを走査し、重量を加算
-        for (BundleInfo b : dataList.values()) {
-            sum += b.jyuryo;
-        }
-
-        return sum;
+        return jyuryoSum;
     }
 
     //================================================================
@@ -143,8 +147,8 @@ public class BundleSelectController {
             return "既に読み込み済みです";
         }
 
-        // 出荷束明細の存在チェック（読取対象がDBに存在するか）
-        SyukkaMeisaiEntity e = syukkaMeisaiDao.findOneForCheck(heatNo, sokuban);
+        // 出荷束明細の存在チェック（読取対象がDBに存在するか。キャッシュ優先）
+        SyukkaMeisaiEntity e = SyukkaMeisaiCache.find(syukkaMeisaiDao, heatNo, sokuban);
         if (e == null) {
             return "出荷束明細に存在していません";
         }
@@ -197,7 +201,10 @@ public class BundleSelectController {
         String padded = padLeft4AsSpaces(bundleNoOrg);
 
         // bundleNoが空のものだけ更新（DB側の条件更新に委譲）
-        syukkaMeisaiDao.updateBundleNoIfEmpty(heatNo, sokuban, padded);
+        if (syukkaMeisaiDao.updateBundleNoIfEmpty(heatNo, sokuban, padded) > 0) {
+            // キャッシュ側も同じ条件で反映
+            SyukkaMeisaiCache.updateBundleNoIfEmpty(heatNo, sokuban, padded);
+        }
     }
 
     //============================================================
@@ -208,8 +215,8 @@ public class BundleSelectController {
     //============================================================
     public void addBundle(@NonNull String heatNo, @NonNull String sokuban) {
 
-        // DBから追加対象の出荷束明細を取得
-        SyukkaMeisaiEntity e = syukkaMeisaiDao.findOneForAdd(heatNo, sokuban);
+        // 追加対象の出荷束明細を取得（checkBundleで読んだキャッシュを再利用）
+        SyukkaMeisaiEntity e = SyukkaMeisaiCache.find(syukkaMeisaiDao, heatNo, sokuban);
         if (e == null) {
             // checkBundle で弾いている想定だが、呼び出し順の違い等に備えて例外
             throw new IllegalStateException("出荷束明細に存在していません");
@@ -228,7 +235,13 @@ public class BundleSelectController {
         item.torikeshi = "削除";
 
         // 保持データへ追加（順序維持）
-        dataList.put(keyOf(heatNo, sokuban), item);
+        BundleInfo old = dataList.put(keyOf(heatNo, sokuban), item);
+        jyuryoSum += item.jyuryo - (old != null ? old.jyuryo : 0);
+
+        // 1束目で予約No.が確定するため、同じ予約No.の出荷明細を先読み（以降のスキャン用）
+        if (dataList.size() == 1) {
+            SyukkaMeisaiCache.preload(syukkaMeisaiDao, item.bookingNo);
+        }
 
         // Normalモードの場合、Workテーブルへ反映（復元用）
         if (mode == Mode.Normal) {
@@ -267,6 +280,7 @@ public class BundleSelectController {
 
         // 保持データから削除
         dataList.remove(key);
+        jyuryoSum -= item.jyuryo;
 
         // 表示用行を再生成
         refreshDisplayRows();
@@ -294,7 +308,8 @@ public class BundleSelectController {
         displayRows.clear();
 
         // 保持データ順に表示行を生成
-        for (BundleInfo item : dataList.values()) {
+        for (Map.Entry<String, BundleInfo> entry : dataList.entrySet()) {
+            BundleInfo item = entry.getValue();
 
             // 表示する値を安全に取り出し
             String pNo = safeStr(item.packingNo);
@@ -308,7 +323,7 @@ public class BundleSelectController {
             }
 
             // 表示行を追加（取消列は固定で "削除"）
-            displayRows.add(new BundleSelectRow(pNo, bNo, idx, j, "削除"));
+            displayRows.add(new BundleSelectRow(entry.getKey(), pNo, bNo, idx, j, "削除"));
         }
     }
 
@@ -347,6 +362,7 @@ public class BundleSelectController {
                 item.torikeshi = "削除";
 
                 dataList.put(k, item);
+                jyuryoSum += item.jyuryo;
             }
         }
     }
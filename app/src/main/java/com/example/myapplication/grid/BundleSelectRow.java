@@ -1,11 +1,20 @@
 package com.example.myapplication.grid;
 
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import java.util.Objects;
+
 //==================================================================================
 //　処理概要　:　束選択一覧の1行分表示データを表すモデルクラス
 //　関　　数　:　BundleSelectRow ..... Bundle選択一覧の表示行データ（PNo/BNo/Index/重量/削除）
+//　　　　　　:　isSameContent ..... 表示内容の一致判定
+//　　　　　　:　DIFF_CALLBACK ..... 一覧差分計算用の比較定義（キー＝同一行、表示内容＝再描画要否）
 //==================================================================================
 public class BundleSelectRow {
 
+    public final String key; // 行キー（鋼番＋束番：一覧内で一意・不変）
+
     public String pNo; // PNo
     public String bNo; // BNo
 
@@ -16,20 +25,49 @@ public class BundleSelectRow {
 
     //============================================================
     //　機　能　:　BundleSelectRowの初期化処理
-    //　引　数　:　pNo ..... PNo
+    //　引　数　:　key ..... 行キー
+    //　　　　　:　pNo ..... PNo
     //　　　　　:　bNo ..... BNo
     //　　　　　:　index ..... 位置番号
     //　　　　　:　jyuryo ..... 重量
     //　　　　　:　cancelText ..... テキスト
     //　戻り値　:　[BundleSelectRow] ..... なし
     //============================================================
-    public BundleSelectRow(String pNo, String bNo, String index, String jyuryo, String cancelText) {
+    public BundleSelectRow(String key, String pNo, String bNo, String index, String jyuryo, String cancelText) {
 
         // 引数をそのままメンバへ格納（表示用モデルなので変換は呼び出し側で実施）
+        this.key = key;
         this.pNo = pNo;
         this.bNo = bNo;
         this.index = index;
         this.jyuryo = jyuryo;
         this.cancelText = cancelText;
     }
+
+    //============================================================
+    //　機　能　:　表示内容が同じか判定する
+    //　引　数　:　other ..... 比較対象行
+    //　戻り値　:　[boolean] ..... 同じならtrue
+    //============================================================
+    public boolean isSameContent(@NonNull BundleSelectRow other) {
+        return Objects.equals(pNo, other.pNo)
+                && Objects.equals(bNo, other.bNo)
+                && Objects.equals(index, other.index)
+                && Objects.equals(jyuryo, other.jyuryo)
+                && Objects.equals(cancelText, other.cancelText);
+    }
+
+    // 一覧差分計算用の比較定義（ListAdapterで使用）
+    public static final DiffUtil.ItemCallback<BundleSelectRow> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<BundleSelectRow>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull BundleSelectRow oldRow, @NonNull BundleSelectRow newRow) {
+                    return Objects.equals(oldRow.key, newRow.key);
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull BundleSelectRow oldRow, @NonNull BundleSelectRow newRow) {
+                    return oldRow.isSameContent(newRow);
+                }
+            };
 }
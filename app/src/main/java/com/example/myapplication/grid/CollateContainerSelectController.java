@@ -193,6 +193,7 @@ public class CollateContainerSelectController {
 
             // 表示行を追加
             displayRows.add(new CollateContainerSelectRow(
+                    safeStr(entity.containerId),
                     no,
                     containerNo,
                     bundleCnt,
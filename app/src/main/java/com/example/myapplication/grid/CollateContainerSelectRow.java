@@ -1,11 +1,20 @@
 package com.example.myapplication.grid;
 
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import java.util.Objects;
+
 //==========================================================================
 //　処理概要　:　照合コンテナ一覧の1行分表示データを表すモデルクラス
 //　関　　数　:　CollateContainerSelectRow ..... 照合対象コンテナ一覧の表示行データ
+//　　　　　　:　isSameContent ..... 表示内容の一致判定
+//　　　　　　:　DIFF_CALLBACK ..... 一覧差分計算用の比較定義
 //==========================================================================
 public class CollateContainerSelectRow {
 
+    public final String key; // 行キー（コンテナID：一覧内で一意・不変）
+
     public final String index; // 行番号
 
     public final String containerNo; // コンテナNo
@@ -14,22 +23,51 @@ public class CollateContainerSelectRow {
 
     //============================================================
     //　機　能　:　CollateContainerSelectRowの初期化処理
-    //　引　数　:　index ..... 位置番号
+    //　引　数　:　key ..... 行キー
+    //　　　　　:　index ..... 位置番号
     //　　　　　:　containerNo ..... コンテナ番号
     //　　　　　:　bundleCnt ..... バンドル本数
     //　　　　　:　sagyouYmd ..... 日時
     //　戻り値　:　[CollateContainerSelectRow] ..... なし
     //============================================================
-    public CollateContainerSelectRow(String index,
+    public CollateContainerSelectRow(String key,
+                                     String index,
                                      String containerNo,
                                      String bundleCnt,
                                      String sagyouYmd) {
 
         // 引数値をそのままメンバへ設定
         // ※ 表示用モデルのため、変換・加工はController側で実施する前提
+        this.key = key;
         this.index = index;
         this.containerNo = containerNo;
         this.bundleCnt = bundleCnt;
         this.sagyouYmd = sagyouYmd;
     }
+
+    //============================================================
+    //　機　能　:　表示内容が同じか判定する
+    //　引　数　:　other ..... 比較対象行
+    //　戻り値　:　[boolean] ..... 同じならtrue
+    //============================================================
+    public boolean isSameContent(@NonNull CollateContainerSelectRow other) {
+        return Objects.equals(index, other.index)
+                && Objects.equals(containerNo, other.containerNo)
+                && Objects.equals(bundleCnt, other.bundleCnt)
+                && Objects.equals(sagyouYmd, other.sagyouYmd);
+    }
+
+    // 一覧差分計算用の比較定義（ListAdapterで使用）
+    public static final DiffUtil.ItemCallback<CollateContainerSelectRow> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<CollateContainerSelectRow>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull CollateContainerSelectRow oldRow, @NonNull CollateContainerSelectRow newRow) {
+                    return Objects.equals(oldRow.key, newRow.key);
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull CollateContainerSelectRow oldRow, @NonNull CollateContainerSelectRow newRow) {
+                    return oldRow.isSameContent(newRow);
+                }
+            };
 }
@@ -1,20 +1,31 @@
 package com.example.myapplication.grid;
 
+import android.util.Log;
+
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.example.myapplication.db.dao.KakuninContainerDao;
-import com.example.myapplication.db.dao.KakuninMeisaiDao;
 import com.example.myapplication.db.dao.KakuninMeisaiWorkDao;
 import com.example.myapplication.db.entity.KakuninContainerEntity;
-import com.example.myapplication.db.entity.KakuninMeisaiEntity;
 import com.example.myapplication.db.entity.KakuninMeisaiWorkEntity;
 import com.example.myapplication.time.DateTimeFormatUtil;
 
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 
 //================================================================================================
@@ -24,23 +35,46 @@ import java.util.Locale;
 //　　　　　　:　getDetails ..... Work明細の取得
 //　　　　　　:　getDisplayRows ..... 表示用行データの取得
 //　　　　　　:　checkSokuDtl ..... 束番明細の照合可否チェック（存在/確認済）
-//　　　　　　:　updateSyougo ..... 照合済フラグ更新（Work更新→再読込→表示更新）
+//　　　　　　:　updateSyougo ..... 照合済フラグ更新（保持明細・ジャーナル更新→該当行のみ表示更新）
+//　　　　　　:　flushPending ..... 未反映の照合をWorkへ一括反映（1トランザクション）
+//　　　　　　:　syncJournal ..... 照合ジャーナルの記憶装置への同期書き込み（Work反映時にまとめて実行）
+//　　　　　　:　discardJournal ..... 照合ジャーナルの破棄（確定後／内容破棄の終了時）
+//　　　　　　:　closeJournal ..... 照合ジャーナルを閉じる
 //　　　　　　:　getSyougouSumiCount ..... 照合済件数の取得
 //　　　　　　:　getUncollatedCount ..... 未照合件数の取得
 //　　　　　　:　markContainerCollated ..... コンテナ照合完了フラグ更新
-//　　　　　　:　refreshDisplayRows ..... 表示行の再生成
-//　　　　　　:　setT_KAKUNIN_MEISAItoW_KAKUNIN_MEISAI ..... T→Wへ明細コピー（作業用テーブル作成）
+//　　　　　　:　applySyougo ..... 保持明細・件数・表示行の照合済更新
+//　　　　　　:　replayJournal ..... 異常終了前の照合をジャーナルから復元
+//　　　　　　:　appendJournal ..... 照合ジャーナルへの追記
+//　　　　　　:　refreshDisplayRows ..... 表示行・索引・件数の再生成
+//　　　　　　:　toDisplayRow ..... 明細1件の表示行生成
+//　　　　　　:　findPosition ..... 鋼番＋束番から明細位置の取得
+//　　　　　　:　keyOf ..... 索引キーの生成
+//　　　　　　:　setT_KAKUNIN_MEISAItoW_KAKUNIN_MEISAI ..... T→Wへ明細一括コピー（作業用テーブル作成）
 //　　　　　　:　readW_KAKUNIN_MEISAItoList ..... Work明細の読込
-//　　　　　　:　toWorkEntity ..... 明細Entity→WorkEntity変換
 //　　　　　　:　safeStr ..... null安全な文字列化
 //　　　　　　:　isBlank ..... 空/空白判定
 //　　　　　　:　repeat ..... 文字列繰り返し生成
 //================================================================================================
 
 public class VanningCollationController {
+    private static final String TAG = "VanningCollation"; // ログタグ
+
+    // 照合ジャーナルファイル名（アプリ専用領域に作成）
+    public static final String JOURNAL_FILE_NAME = "vanning_collation.journal";
+
+    private static final String JOURNAL_HEADER = "CONTAINER\t";          // ジャーナル1行目（対象コンテナID）
+    private static final String PROC_NAME = "VanningCollationController"; // 更新処理名
 
-    private final KakuninMeisaiDao kakuninMeisaiDao;         // 確認明細DAO
     private final KakuninMeisaiWorkDao kakuninMeisaiWorkDao; // 確認明細WorkDAO
+    private final File journalFile;                          // 照合ジャーナル（nullなら照合ごとに即時反映）
+
+    private String containerId;  // 読込中のコンテナID
+    private Writer journalWriter; // ジャーナル追記用（画面表示中は開いたまま）
+    private FileOutputStream journalStream; // ジャーナル本体（syncJournalでまとめて同期書き込み）
+
+    // Workテーブル未反映の照合（flushPendingで一括反映）
+    private final List<KakuninMeisaiWorkEntity> pendingSyougo = new ArrayList<>();
 
     // Work明細（照合状態を保持する作業用リスト）
     private final List<KakuninMeisaiWorkEntity> details = new ArrayList<>();
@@ -48,16 +82,22 @@ public class VanningCollationController {
     // 一覧表示用（RecyclerViewに渡す）
     private final List<VanningCollationRow> displayRows = new ArrayList<>();
 
+    // 鋼番＋束番 → 明細位置（details／displayRowsの添字）
+    private final Map<String, Integer> positionIndex = new HashMap<>();
+
+    // 照合済件数（照合のたびに全件を数え直さない）
+    private int syougouSumiCount = 0;
+
     //============================================================
     //　機　能　:　VanningCollationControllerの初期化処理
-    //　引　数　:　kakuninMeisaiDao ..... データアクセスオブジェクト
-    //　　　　　:　kakuninMeisaiWorkDao ..... データアクセスオブジェクト
+    //　引　数　:　kakuninMeisaiWorkDao ..... データアクセスオブジェクト
+    //　　　　　:　journalFile ..... 照合ジャーナル（nullなら照合ごとにWorkへ即時反映）
     //　戻り値　:　[VanningCollationController] ..... なし
     //============================================================
-    public VanningCollationController(@NonNull KakuninMeisaiDao kakuninMeisaiDao,
-                                      @NonNull KakuninMeisaiWorkDao kakuninMeisaiWorkDao) {
-        this.kakuninMeisaiDao = kakuninMeisaiDao;
+    public VanningCollationController(@NonNull KakuninMeisaiWorkDao kakuninMeisaiWorkDao,
+                                      @Nullable File journalFile) {
         this.kakuninMeisaiWorkDao = kakuninMeisaiWorkDao;
+        this.journalFile = journalFile;
     }
 
     //============================================================
@@ -67,8 +107,11 @@ public class VanningCollationController {
     //============================================================
     public void load(@Nullable String containerId) {
 
-        // 保持中の明細をクリア
+        // 保持中の明細・未反映の照合をクリア
         details.clear();
+        pendingSyougo.clear();
+        closeJournal();
+        this.containerId = containerId;
 
         // コンテナIDが指定されている場合のみWork作成＆読込を行う
         if (containerId != null) {
@@ -82,6 +125,11 @@ public class VanningCollationController {
 
         // 表示行を再生成
         refreshDisplayRows();
+
+        // 同じコンテナの照合途中で異常終了していた場合は照合を復元
+        if (containerId != null) {
+            replayJournal(containerId);
+        }
     }
 
     //======================================================================
@@ -123,13 +171,14 @@ public class VanningCollationController {
             return "照合対象に存在していません";
         }
 
-        // Workテーブルから該当1件を取得
-        KakuninMeisaiWorkEntity entity = kakuninMeisaiWorkDao.findOne(heatNo, sokuban);
+        // 読込済みのWork明細から該当1件を取得（Workテーブルと同じ内容を保持している）
+        int position = findPosition(heatNo, sokuban);
 
         // 存在しない場合
-        if (entity == null) {
+        if (position < 0) {
             return "照合対象に存在していません";
         }
+        KakuninMeisaiWorkEntity entity = details.get(position);
 
         // 既に照合済みの場合
         if (Boolean.TRUE.equals(entity.containerSyougoKakunin)) {
@@ -141,37 +190,91 @@ public class VanningCollationController {
 
     //============================================================
     //　機　能　:　syougoを更新する
+    //　　　　　　 保持明細と照合ジャーナルのみ更新し、Workテーブルへの反映は
+    //　　　　　　 flushPendingでまとめて行う（照合ごとのコミットを行わない）
     //　引　数　:　heatNo ..... ヒートNo
     //　　　　　:　sokuban ..... 束番
-    //　戻り値　:　[void] ..... なし
+    //　戻り値　:　[int] ..... 更新した行位置（更新なしは-1）
     //============================================================
-    public void updateSyougo(String heatNo, String sokuban) {
+    public int updateSyougo(String heatNo, String sokuban) {
 
-        // Workテーブルから該当1件を取得
-        KakuninMeisaiWorkEntity entity = kakuninMeisaiWorkDao.findOne(heatNo, sokuban);
-        if (entity == null) {
-            // 対象が存在しない場合は何もしない
-            return;
+        // 読込済みのWork明細を照合済に更新（対象なし・照合済みは何もしない）
+        int position = findPosition(heatNo, sokuban);
+        String ymd = DateTimeFormatUtil.nowDbYmdHms();
+        if (!applySyougo(position, ymd)) {
+            return -1;
         }
 
-        // 既に照合済みなら更新不要
-        if (Boolean.TRUE.equals(entity.containerSyougoKakunin)) {
+        // ジャーナルへ追記（書けない場合はWorkへ即時反映して照合を失わない）
+        KakuninMeisaiWorkEntity entity = details.get(position);
+        if (!appendJournal(entity.heatNo + "\t" + entity.sokuban + "\t" + ymd)) {
+            flushPending();
+        }
+
+        return position;
+    }
+
+    //============================================================
+    //　機　能　:　未反映の照合をWorkテーブルへ一括反映する
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    public void flushPending() {
+        if (pendingSyougo.isEmpty()) {
             return;
         }
 
-        // 照合済みに更新
-        entity.containerSyougoKakunin = true;
+        // 1トランザクションでまとめて更新（失敗時は未反映のまま残し、次回再実行）
+        kakuninMeisaiWorkDao.updateSyougoKakuninAll(new ArrayList<>(pendingSyougo));
+        pendingSyougo.clear();
+    }
 
-        // 更新情報を設定
-        entity.updateProcName = "VanningCollationController";
-        entity.updateYmd = DateTimeFormatUtil.nowDbYmdHms();
+    //============================================================
+    //　機　能　:　照合ジャーナルを記憶装置へ同期書き込み（fsync）する
+    //　　　　　　 追記ごとのflushでOSへは渡しているため、アプリ異常終了では失われない
+    //　　　　　　 電源断で失われうるのは前回の同期以降の照合のみ（Work反映の待ち時間分）
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    public synchronized void syncJournal() {
+        if (journalStream == null) {
+            return;
+        }
+        try {
+            journalStream.getFD().sync();
+        } catch (IOException ex) {
+            Log.w(TAG, "journal sync failed", ex);
+        }
+    }
 
-        // Workテーブルへ反映（upsert）
-        kakuninMeisaiWorkDao.upsert(entity);
+    //============================================================
+    //　機　能　:　照合ジャーナルを破棄する（確定後／内容破棄の終了時）
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    public synchronized void discardJournal() {
+        closeJournal();
+        if (journalFile != null && journalFile.exists() && !journalFile.delete()) {
+            Log.w(TAG, "journal delete failed");
+        }
+    }
 
-        // 最新状態を再読込して表示更新
-        readW_KAKUNIN_MEISAItoList();
-        refreshDisplayRows();
+    //============================================================
+    //　機　能　:　照合ジャーナルを閉じる（ファイルは残す）
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    public synchronized void closeJournal() {
+        if (journalWriter == null) {
+            return;
+        }
+        try {
+            journalWriter.close();
+        } catch (IOException ex) {
+            Log.w(TAG, "journal close failed", ex);
+        }
+        journalWriter = null;
+        journalStream = null;
     }
 
     //============================================================
@@ -180,17 +283,8 @@ public class VanningCollationController {
     //　戻り値　:　[int] ..... 照合済件数
     //============================================================
     public int getSyougouSumiCount() {
-
-        int count = 0;
-
-        // details を走査して照合済みをカウント
-        for (KakuninMeisaiWorkEntity entity : details) {
-            if (Boolean.TRUE.equals(entity.containerSyougoKakunin)) {
-                count++;
-            }
-        }
-
-        return count;
+        // 読込時に数え、照合のたびに加算した値を返す
+        return syougouSumiCount;
     }
 
     //============================================================
@@ -199,17 +293,8 @@ public class VanningCollationController {
     //　戻り値　:　[int] ..... 未照合件数
     //============================================================
     public int getUncollatedCount() {
-
-        int count = 0;
-
-        // details を走査して未照合をカウント
-        for (KakuninMeisaiWorkEntity entity : details) {
-            if (!Boolean.TRUE.equals(entity.containerSyougoKakunin)) {
-                count++;
-            }
-        }
-
-        return count;
+        // 全件数 − 照合済件数
+        return details.size() - syougouSumiCount;
     }
 
     //============================================================
@@ -251,7 +336,105 @@ public class VanningCollationController {
     }
 
     //============================================================
-    //　機　能　:　表示用行データを更新する
+    //　機　能　:　保持明細・件数・表示行を照合済に更新し、未反映に加える
+    //　引　数　:　position ..... 明細位置
+    //　　　　　:　ymd ..... 照合日時
+    //　戻り値　:　[boolean] ..... 更新した場合はtrue（対象なし・照合済みはfalse）
+    //============================================================
+    private boolean applySyougo(int position, String ymd) {
+        if (position < 0) {
+            return false;
+        }
+        KakuninMeisaiWorkEntity entity = details.get(position);
+
+        // 既に照合済みなら更新不要
+        if (Boolean.TRUE.equals(entity.containerSyougoKakunin)) {
+            return false;
+        }
+
+        entity.containerSyougoKakunin = true;
+        entity.updateProcName = PROC_NAME;
+        entity.updateYmd = ymd;
+        syougouSumiCount++;
+        displayRows.set(position, toDisplayRow(entity));
+        pendingSyougo.add(entity);
+        return true;
+    }
+
+    //============================================================
+    //　機　能　:　異常終了前の照合をジャーナルから復元する
+    //　　　　　　 別コンテナのジャーナルは破棄する
+    //　引　数　:　containerId ..... 読込中のコンテナID
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private void replayJournal(@NonNull String containerId) {
+        if (journalFile == null || !journalFile.exists()) {
+            return;
+        }
+
+        List<String[]> scans = new ArrayList<>();
+        boolean sameContainer = false;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(journalFile), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            sameContainer = (JOURNAL_HEADER + containerId).equals(line);
+            while (sameContainer && (line = reader.readLine()) != null) {
+                // 「鋼番<TAB>束番<TAB>照合日時」（書き込み途中の行は無視）
+                String[] cols = line.split("\t", -1);
+                if (cols.length == 3) {
+                    scans.add(cols);
+                }
+            }
+        } catch (IOException ex) {
+            Log.w(TAG, "journal read failed", ex);
+            sameContainer = false;
+        }
+
+        if (!sameContainer) {
+            discardJournal();
+            return;
+        }
+
+        // 保持明細へ反映し、Workテーブルへもまとめて反映
+        for (String[] cols : scans) {
+            applySyougo(findPosition(cols[0], cols[1]), cols[2]);
+        }
+        flushPending();
+        Log.i(TAG, "journal replayed; scans=" + scans.size());
+    }
+
+    //============================================================
+    //　機　能　:　照合ジャーナルへ1行追記する
+    //　　　　　　 OSへの書き出し（flush）まで行い、アプリ異常終了でも残るようにする
+    //　　　　　　 記憶装置への同期書き込みは照合ごとに行わず、syncJournalでまとめて行う
+    //　引　数　:　line ..... 追記内容
+    //　戻り値　:　[boolean] ..... 追記できた場合はtrue
+    //============================================================
+    private synchronized boolean appendJournal(String line) {
+        if (journalFile == null || containerId == null) {
+            return false;
+        }
+        try {
+            if (journalWriter == null) {
+                boolean isNew = !journalFile.exists() || journalFile.length() == 0;
+                journalStream = new FileOutputStream(journalFile, true);
+                journalWriter = new OutputStreamWriter(journalStream, StandardCharsets.UTF_8);
+                if (isNew) {
+                    journalWriter.write(JOURNAL_HEADER + containerId + "\n");
+                }
+            }
+            journalWriter.write(line + "\n");
+            journalWriter.flush();
+            return true;
+        } catch (IOException ex) {
+            Log.w(TAG, "journal append failed", ex);
+            closeJournal();
+            return false;
+        }
+    }
+
+    //============================================================
+    //　機　能　:　表示用行データ・索引・照合済件数を再生成する
     //　引　数　:　なし
     //　戻り値　:　[void] ..... なし
     //============================================================
@@ -259,27 +442,66 @@ public class VanningCollationController {
 
         // 一旦クリアして作り直す
         displayRows.clear();
+        positionIndex.clear();
+        syougouSumiCount = 0;
 
-        // Work明細順に表示行を生成
-        for (KakuninMeisaiWorkEntity entity : details) {
+        // Work明細順に表示行・索引を生成
+        for (int i = 0; i < details.size(); i++) {
+            KakuninMeisaiWorkEntity entity = details.get(i);
 
-            // 表示値を安全に取得
-            String pNo = safeStr(entity.syukkaSashizuNo);
-            String bNo = safeStr(entity.bundleNo);
-            String idx = safeStr(entity.sokuban);
-
-            // 重量：3桁区切り + 左6桁幅スペース埋め
-            String j = String.format(Locale.JAPAN, "%,d", entity.jyuryo != null ? entity.jyuryo : 0);
-            if (j.length() < 6) {
-                j = repeat(" ", 6 - j.length()) + j;
+            displayRows.add(toDisplayRow(entity));
+            positionIndex.put(keyOf(entity.heatNo, entity.sokuban), i);
+            if (Boolean.TRUE.equals(entity.containerSyougoKakunin)) {
+                syougouSumiCount++;
             }
+        }
+    }
+
+    //============================================================
+    //　機　能　:　明細1件分の表示行を生成する
+    //　引　数　:　entity ..... Work明細
+    //　戻り値　:　[VanningCollationRow] ..... 表示行
+    //============================================================
+    private VanningCollationRow toDisplayRow(KakuninMeisaiWorkEntity entity) {
 
-            // 照合済み表示（済/空白）
-            String confirmed = Boolean.TRUE.equals(entity.containerSyougoKakunin) ? "済" : "　";
+        // 表示値を安全に取得
+        String pNo = safeStr(entity.syukkaSashizuNo);
+        String bNo = safeStr(entity.bundleNo);
+        String idx = safeStr(entity.sokuban);
 
-            // 表示行を追加
-            displayRows.add(new VanningCollationRow(pNo, bNo, idx, j, confirmed));
+        // 重量：3桁区切り + 左6桁幅スペース埋め
+        String j = String.format(Locale.JAPAN, "%,d", entity.jyuryo != null ? entity.jyuryo : 0);
+        if (j.length() < 6) {
+            j = repeat(" ", 6 - j.length()) + j;
         }
+
+        // 照合済み表示（済/空白）
+        String confirmed = Boolean.TRUE.equals(entity.containerSyougoKakunin) ? "済" : "　";
+
+        return new VanningCollationRow(keyOf(entity.heatNo, entity.sokuban), pNo, bNo, idx, j, confirmed);
+    }
+
+    //============================================================
+    //　機　能　:　鋼番＋束番から明細の位置を取得する
+    //　引　数　:　heatNo ..... ヒートNo
+    //　　　　　:　sokuban ..... 束番
+    //　戻り値　:　[int] ..... 明細位置（存在しない場合は-1）
+    //============================================================
+    private int findPosition(String heatNo, String sokuban) {
+        Integer position = positionIndex.get(keyOf(heatNo, sokuban));
+        return position != null ? position : -1;
+    }
+
+    //============================================================
+    //　機　能　:　索引キーを生成する（Workテーブルと同じく前後空白を除去）
+    //　引　数　:　heatNo ..... ヒートNo
+    //　　　　　:　sokuban ..... 束番
+    //　戻り値　:　[String] ..... 索引キー
+    //============================================================
+    private static String keyOf(String heatNo, String sokuban) {
+        String h = heatNo != null ? heatNo.trim() : "";
+        String s = sokuban != null ? sokuban.trim() : "";
+        return h + "\t" + s;
     }
 
     //============================================================
@@ -289,16 +511,9 @@ public class VanningCollationController {
     //============================================================
     private void setT_KAKUNIN_MEISAItoW_KAKUNIN_MEISAI(@NonNull String containerId) {
 
-        // Workテーブルを一旦全削除（コンテナ切替時のゴミを残さない）
-        kakuninMeisaiWorkDao.deleteAll();
-
-        // コンテナIDに紐づく明細をTから取得
-        List<KakuninMeisaiEntity> source = kakuninMeisaiDao.findByContainerId(containerId);
-
-        // 取得した明細をWorkEntityに変換してWorkへ登録
-        for (KakuninMeisaiEntity entity : source) {
-            kakuninMeisaiWorkDao.upsert(toWorkEntity(entity));
-        }
+        // Workテーブルを全削除し、コンテナIDに紐づく明細をTからSQLで一括複写
+        // （削除・複写は1トランザクション、キー項目のトリムもSQL側で実施）
+        kakuninMeisaiWorkDao.replaceWithContainer(containerId);
     }
 
     //============================================================
@@ -313,41 +528,6 @@ public class VanningCollationController {
         details.addAll(kakuninMeisaiWorkDao.findAllOrdered());
     }
 
-    //============================================================
-    //　機　能　:　ワークエンティティへ変換する
-    //　引　数　:　entity ..... エンティティ情報
-    //　戻り値　:　[KakuninMeisaiWorkEntity] ..... WorkEntity
-    //============================================================
-    private KakuninMeisaiWorkEntity toWorkEntity(KakuninMeisaiEntity entity) {
-
-        // TのEntityをWorkにコピー（照合状態の更新はWork側で行う）
-        KakuninMeisaiWorkEntity work = new KakuninMeisaiWorkEntity();
-
-        // キー項目はトリムして格納（nullはnullのまま）
-        work.heatNo = entity.heatNo != null ? entity.heatNo.trim() : null;
-        work.sokuban = entity.sokuban != null ? entity.sokuban.trim() : null;
-
-        // 表示・判定に必要な項目をコピー
-        work.syukkaSashizuNo = entity.syukkaSashizuNo;
-        work.bundleNo = entity.bundleNo;
-        work.jyuryo = entity.jyuryo;
-        work.containerId = entity.containerId;
-
-        // 照合状態をコピー（Tの状態を初期値としてWorkへ）
-        work.containerSyougoKakunin = entity.containerSyougoKakunin;
-
-        // 監査/状態系カラムをコピー
-        work.kakuninContainerId = entity.kakuninContainerId;
-        work.kakuninStatus = entity.kakuninStatus;
-        work.insertProcName = entity.insertProcName;
-        work.insertYmd = entity.insertYmd;
-        work.updateProcName = entity.updateProcName;
-        work.updateYmd = entity.updateYmd;
-        work.deleteFlg = entity.deleteFlg;
-
-        return work;
-    }
-
     //============================================================
     //　機　能　:　null安全な文字列へ変換する
     //　引　数　:　value ..... 設定値
@@ -1,10 +1,18 @@
 package com.example.myapplication.grid;
 
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+
+import java.util.Objects;
+
 //==============================================================
 //　処理概要　:　積載束照合一覧の1行分表示データを表すモデルクラス
 //　関　　数　:　VanningCollationRow ..... 積載束照合一覧の表示行データ
+//　　　　　　:　isSameContent ..... 表示内容の一致判定
+//　　　　　　:　DIFF_CALLBACK ..... 一覧差分計算用の比較定義
 //==============================================================
 public class VanningCollationRow {
+    public final String key; // 行キー（鋼番＋束番：一覧内で一意・不変）
     public final String pNo; // PNo
     public final String bNo; // BNo
     // 束番（Index）
@@ -18,14 +26,16 @@ public class VanningCollationRow {
 
     //============================================================
     //　機　能　:　VanningCollationRowの初期化処理
-    //　引　数　:　pNo ..... PNo
+    //　引　数　:　key ..... 行キー
+    //　　　　　:　pNo ..... PNo
     //　　　　　:　bNo ..... BNo
     //　　　　　:　index ..... 位置番号
     //　　　　　:　jyuryo ..... 重量
     //　　　　　:　confirmed ..... 照合状態
     //　戻り値　:　[VanningCollationRow] ..... なし
     //============================================================
-    public VanningCollationRow(String pNo,
+    public VanningCollationRow(String key,
+                               String pNo,
                                String bNo,
                                String index,
                                String jyuryo,
@@ -33,10 +43,38 @@ public class VanningCollationRow {
 
         // 引数値をそのままメンバへ設定
         // ※ 表示専用モデルのため、値の整形はController側で実施する前提
+        this.key = key;
         this.pNo = pNo;
         this.bNo = bNo;
         this.index = index;
         this.jyuryo = jyuryo;
         this.confirmed = confirmed;
     }
+
+    //============================================================
+    //　機　能　:　表示内容が同じか判定する
+    //　引　数　:　other ..... 比較対象行
+    //　戻り値　:　[boolean] ..... 同じならtrue
+    //============================================================
+    public boolean isSameContent(@NonNull VanningCollationRow other) {
+        return Objects.equals(pNo, other.pNo)
+                && Objects.equals(bNo, other.bNo)
+                && Objects.equals(index, other.index)
+                && Objects.equals(jyuryo, other.jyuryo)
+                && Objects.equals(confirmed, other.confirmed);
+    }
+
+    // 一覧差分計算用の比較定義（ListAdapterで使用）
+    public static final DiffUtil.ItemCallback<VanningCollationRow> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<VanningCollationRow>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull VanningCollationRow oldRow, @NonNull VanningCollationRow newRow) {
+                    return Objects.equals(oldRow.key, newRow.key);
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull VanningCollationRow oldRow, @NonNull VanningCollationRow newRow) {
+                    return oldRow.isSameContent(newRow);
+                }
+            };
 }
@@ -4,25 +4,89 @@ import android.content.Context;
 
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
 
 
 //============================================================
 //　処理概要　:　ログを作成
+//　　　　　　　 呼び出し側はキューへ積むだけで終了し（ファイルI/Oなし）、
+//　　　　　　　 常駐の書き込みスレッドが開いたままのファイルへ順に追記する
+//　　　　　　　 サイズ超過・日付変更でファイルを切り替え、切り替えた分はgzip圧縮して世代管理する
 //　関　　数　:　info ..... 情報ログ出力
 //　　　　　　:　error ..... エラーログ出力（例外含む）
-//　　　　　　:　write ..... ログファイル書込処理（内部共通）
+//　　　　　　:　flush ..... 書き込み待ちの出力完了を待機
+//　　　　　　:　rotateForUpload ..... 現在のログを切り替え、送信用の圧縮済みログ一覧を取得
+//　　　　　　:　enqueue ..... 書き込みキューへ追加（内部共通）
+//　　　　　　:　runWriter ..... 書き込みスレッド本体
+//　　　　　　:　format ..... ログ1件の文字列化
+//　　　　　　:　rotate ..... ログファイルの切り替え（gzip圧縮）
+//　　　　　　:　purgeSegments ..... 保持期間・世代数を超えた圧縮ログの削除
 //============================================================
 
 public final class FileLogger {
     private static final String LOG_FILE_NAME = "ErrorLog.txt";  // ログ出力ファイル名
+    private static final String SEGMENT_PREFIX = "ErrorLog_";   // 切り替え済みログの接頭辞
+    private static final String SEGMENT_SUFFIX = ".txt.gz";     // 切り替え済みログの拡張子
 
-    private static final Object LOCK = new Object();    // 排他制御用ロック（マルチスレッド対策）
+    private static final long MAX_FILE_BYTES = 1024 * 1024L;    // 1ファイルの上限サイズ
+    private static final int MAX_SEGMENTS = 10;                 // 圧縮ログの保持世代数
+    private static final int RETENTION_DAYS = 14;               // 圧縮ログの保持日数
+
+    // 書き込み待ち（ロックなしキュー：呼び出し側をブロックしない）
+    private static final ConcurrentLinkedQueue<Entry> QUEUE = new ConcurrentLinkedQueue<>();
+
+    private static volatile File logDir;      // ログ出力ディレクトリ
+    private static volatile Thread writer;    // 書き込みスレッド
+
+    // 以下は書き込みスレッドでのみ使用
+    private static final SimpleDateFormat TS_FORMAT =
+            new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS0", Locale.JAPAN);
+    private static final SimpleDateFormat SEGMENT_FORMAT =
+            new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.JAPAN);
+    private static Writer out;                // 現在のログファイル（開いたまま使う）
+    private static long outBytes;             // 現在のログファイルのサイズ
+    private static int outDay;                // 現在のログファイルの日付（yyyyMMdd）
+
+    // 書き込みキューの要素（ログ1件、または出力完了待ち／切り替えの要求）
+    private static final class Entry {
+        final long time;            // 発生時刻
+        final String level;         // ログレベル
+        final String source;        // 出力元
+        final String message;       // メッセージ
+        final Throwable t;          // 例外
+        final boolean rotate;       // 切り替え要求
+        final CountDownLatch done;  // 処理完了通知（ログ1件の場合はnull）
+
+        Entry(long time, String level, String source, String message, Throwable t,
+              boolean rotate, CountDownLatch done) {
+            this.time = time;
+            this.level = level;
+            this.source = source;
+            this.message = message;
+            this.t = t;
+            this.rotate = rotate;
+            this.done = done;
+        }
+    }
 
     // インスタンス化禁止（ユーティリティクラス）
     private FileLogger() {
@@ -37,8 +101,9 @@ public final class FileLogger {
     //============================================================
     public static void info(Context context, String source, String message) {
 
-        // 共通write処理へ委譲（例外なし）
-        write(context, "INFO", source, message, null);
+        // 共通処理へ委譲（例外なし）
+        enqueue(context, new Entry(System.currentTimeMillis(), "INFO", source, message, null,
+                false, null));
     }
 
     //============================================================
@@ -51,53 +116,153 @@ public final class FileLogger {
     //============================================================
     public static void error(Context context, String source, String message, Throwable t) {
 
-        // 共通write処理へ委譲（例外情報付き）
-        write(context, "ERROR", source, message, t);
+        // 共通処理へ委譲（例外情報付き）
+        enqueue(context, new Entry(System.currentTimeMillis(), "ERROR", source, message, t,
+                false, null));
     }
 
     //============================================================
-    //　機　能　:　ログファイルへ書き込む
+    //　機　能　:　書き込み待ちのログがファイルへ出力されるまで待機する
+    //　　　　　　 （プロセス終了直前など、確実に残したい場合に使用）
     //　引　数　:　context ..... コンテキスト情報
-    //　　　　　:　level ..... ログレベル
-    //　　　　　:　source ..... 呼び出し元
-    //　　　　　:　message ..... メッセージ
-    //　　　　　:　t ..... Throwable（例外）
+    //　　　　　:　timeoutMillis ..... 最大待機時間（ミリ秒）
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    public static void flush(Context context, long timeoutMillis) {
+        CountDownLatch done = new CountDownLatch(1);
+        enqueue(context, new Entry(0L, null, null, null, null, false, done));
+        await(done, timeoutMillis);
+    }
+
+    //============================================================
+    //　機　能　:　現在のログを切り替え（gzip圧縮）、送信用の圧縮済みログ一覧を取得する
+    //　　　　　　 ※切り替え完了まで待機するためバックグラウンドスレッドから呼ぶこと
+    //　引　数　:　context ..... コンテキスト情報
+    //　　　　　:　timeoutMillis ..... 最大待機時間（ミリ秒）
+    //　戻り値　:　[List<File>] ..... 圧縮済みログ（古い順）
+    //============================================================
+    public static List<File> rotateForUpload(Context context, long timeoutMillis) {
+        CountDownLatch done = new CountDownLatch(1);
+        enqueue(context, new Entry(0L, null, null, null, null, true, done));
+        await(done, timeoutMillis);
+        return listSegments();
+    }
+
+    //============================================================
+    //　機　能　:　書き込みキューへ追加し、書き込みスレッドを起こす
+    //　引　数　:　context ..... コンテキスト情報
+    //　　　　　:　entry ..... 書き込み要素
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private static void enqueue(Context context, Entry entry) {
+        Thread current = writer;
+        if (current == null) {
+            current = startWriter(context);
+        }
+        QUEUE.offer(entry);
+        LockSupport.unpark(current);
+    }
+
+    //============================================================
+    //　機　能　:　書き込みスレッドを起動する（初回のみ）
+    //　引　数　:　context ..... コンテキスト情報
+    //　戻り値　:　[Thread] ..... 書き込みスレッド
+    //============================================================
+    private static synchronized Thread startWriter(Context context) {
+        if (writer == null) {
+            logDir = context.getApplicationContext().getFilesDir();
+            Thread thread = new Thread(FileLogger::runWriter, "FileLogger");
+            thread.setDaemon(true);
+            thread.start();
+            writer = thread;
+        }
+        return writer;
+    }
+
+    //============================================================
+    //　機　能　:　書き込みスレッド本体（キューが空になるまで書き込み、空なら待機）
+    //　引　数　:　なし
     //　戻り値　:　[void] ..... なし
     //============================================================
-    private static void write(Context context,
-                              String level,
-                              String source,
-                              String message,
-                              Throwable t) {
+    private static void runWriter() {
+        while (true) {
+            Entry entry = QUEUE.poll();
+            if (entry == null) {
+                // 書き込み待ちが無くなった時点でまとめてフラッシュし、次の追加まで待機
+                // （enqueueが追加後にunparkするため時限待ちは不要。先にunparkされていれば即戻る）
+                flushQuietly();
+                LockSupport.park();
+                continue;
+            }
 
-        // タイムスタンプ生成（ミリ秒付き）
-        String ts = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS0", Locale.JAPAN)
-                .format(new Date());
+            try {
+                if (entry.done != null) {
+                    if (entry.rotate) {
+                        rotate();
+                    } else {
+                        flushQuietly();
+                    }
+                } else {
+                    write(entry);
+                }
+            } catch (Exception ignored) {
+                // ログ出力失敗時の再帰呼び出し防止のため何もしない（次回ファイルを開き直す）
+                closeQuietly();
+            } finally {
+                if (entry.done != null) {
+                    entry.done.countDown();
+                }
+            }
+        }
+    }
 
-        // アプリ内部ストレージ上のログファイル
-        File logFile = new File(context.getFilesDir(), LOG_FILE_NAME);
+    //============================================================
+    //　機　能　:　ログ1件を現在のログファイルへ追記する（必要に応じて切り替え）
+    //　引　数　:　entry ..... ログ1件
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private static void write(Entry entry) throws IOException {
+        String text = format(entry);
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+
+        // 日付変更・サイズ超過なら切り替えてから書く
+        int day = dayOf(entry.time);
+        ensureOpen(day);
+        if (outBytes > 0 && (day != outDay || outBytes + bytes.length > MAX_FILE_BYTES)) {
+            rotate();
+            ensureOpen(day);
+        }
+
+        out.write(text);
+        outBytes += bytes.length;
+    }
 
-        // 出力内容を構築
+    //============================================================
+    //　機　能　:　ログ1件を出力形式の文字列にする
+    //　引　数　:　entry ..... ログ1件
+    //　戻り値　:　[String] ..... 出力文字列
+    //============================================================
+    private static String format(Entry entry) {
         StringBuilder sb = new StringBuilder();
 
         // 1行目：日時|レベル|固定文字|出力元
-        sb.append(ts)
+        sb.append(TS_FORMAT.format(new Date(entry.time)))
                 .append("|")
-                .append(level)
+                .append(entry.level)
                 .append("|file|")
-                .append(source)
+                .append(entry.source)
                 .append("\n");
 
         // メッセージがあれば出力
-        if (message != null && !message.isEmpty()) {
-            sb.append(message).append("\n");
+        if (entry.message != null && !entry.message.isEmpty()) {
+            sb.append(entry.message).append("\n");
         }
 
         // 例外があればスタックトレース出力
-        if (t != null) {
-            sb.append(t.toString()).append("\n");
+        if (entry.t != null) {
+            sb.append(entry.t.toString()).append("\n");
 
-            for (StackTraceElement e : t.getStackTrace()) {
+            for (StackTraceElement e : entry.t.getStackTrace()) {
                 sb.append("   at ")
                         .append(e.toString())
                         .append("\n");
@@ -106,20 +271,162 @@ public final class FileLogger {
 
         // 区切りの空行
         sb.append("\n");
+        return sb.toString();
+    }
+
+    //============================================================
+    //　機　能　:　現在のログファイルを開く（開いていない場合のみ）
+    //　　　　　　 既存ファイルの日付は最終更新日時から判定する
+    //　引　数　:　day ..... 書き込むログの日付（yyyyMMdd、ファイル新規時に使用）
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private static void ensureOpen(int day) throws IOException {
+        if (out != null) {
+            return;
+        }
+        File logFile = new File(logDir, LOG_FILE_NAME);
+        outBytes = logFile.exists() ? logFile.length() : 0L;
+        outDay = outBytes > 0 ? dayOf(logFile.lastModified()) : day;
+        out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(logFile, true), StandardCharsets.UTF_8));
+    }
 
-        // マルチスレッド対策のため排他制御
-        synchronized (LOCK) {
-            try (FileOutputStream fos = new FileOutputStream(logFile, true);
-                 OutputStreamWriter osw = new OutputStreamWriter(fos, StandardCharsets.UTF_8);
-                 BufferedWriter bw = new BufferedWriter(osw)) {
+    //============================================================
+    //　機　能　:　現在のログファイルを切り替える
+    //　　　　　　 閉じたファイルをgzip圧縮して「ErrorLog_日時.txt.gz」とし、古い世代を削除する
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private static void rotate() throws IOException {
+        closeQuietly();
 
-                // 追記モードで書き込み
-                bw.write(sb.toString());
-                bw.flush();
+        File logFile = new File(logDir, LOG_FILE_NAME);
+        if (logFile.exists() && logFile.length() > 0) {
+            String stamp = SEGMENT_FORMAT.format(new Date());
+            File segment = new File(logDir, SEGMENT_PREFIX + stamp + SEGMENT_SUFFIX);
+            for (int i = 1; segment.exists(); i++) {
+                segment = new File(logDir, SEGMENT_PREFIX + stamp + "_" + i + SEGMENT_SUFFIX);
+            }
 
-            } catch (Exception ignored) {
-                // ログ出力失敗時の再帰呼び出し防止のため何もしない
+            // 一時ファイルへ圧縮してから確定（途中で落ちても壊れた圧縮ログを残さない）
+            File tmp = new File(logDir, segment.getName() + ".tmp");
+            try (InputStream in = new FileInputStream(logFile);
+                 OutputStream gz = new GZIPOutputStream(new FileOutputStream(tmp))) {
+                byte[] buf = new byte[8192];
+                int n;
+                while ((n = in.read(buf)) != -1) {
+                    gz.write(buf, 0, n);
+                }
+            }
+            if (!tmp.renameTo(segment)) {
+                tmp.delete();
+                throw new IOException("rename failed: " + segment.getName());
             }
+            logFile.delete();
+        }
+        outBytes = 0L;
+
+        purgeSegments();
+    }
+
+    //============================================================
+    //　機　能　:　保持日数・保持世代数を超えた圧縮ログを削除する
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private static void purgeSegments() {
+        List<File> segments = listSegments();
+
+        Calendar cal = Calendar.getInstance();
+        cal.add(Calendar.DAY_OF_MONTH, -RETENTION_DAYS);
+        long threshold = cal.getTimeInMillis();
+
+        int remain = segments.size();
+        for (File segment : segments) {
+            if (remain > MAX_SEGMENTS || segment.lastModified() < threshold) {
+                segment.delete();
+                remain--;
+            }
+        }
+    }
+
+    //============================================================
+    //　機　能　:　圧縮ログの一覧を取得する（名前順＝古い順）
+    //　引　数　:　なし
+    //　戻り値　:　[List<File>] ..... 圧縮ログ一覧
+    //============================================================
+    private static List<File> listSegments() {
+        List<File> list = new ArrayList<>();
+        File dir = logDir;
+        if (dir == null) {
+            return list;
+        }
+        File[] files = dir.listFiles((d, name) ->
+                name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        if (files != null) {
+            Arrays.sort(files, (a, b) -> a.getName().compareTo(b.getName()));
+            list.addAll(Arrays.asList(files));
+        }
+        return list;
+    }
+
+    //============================================================
+    //　機　能　:　時刻の日付（yyyyMMdd）を数値で取得する
+    //　引　数　:　time ..... 時刻（エポックミリ秒）
+    //　戻り値　:　[int] ..... 日付
+    //============================================================
+    private static int dayOf(long time) {
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(time);
+        return cal.get(Calendar.YEAR) * 10000
+                + (cal.get(Calendar.MONTH) + 1) * 100
+                + cal.get(Calendar.DAY_OF_MONTH);
+    }
+
+    //============================================================
+    //　機　能　:　書き込み済みの内容をファイルへ反映する（失敗は無視）
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private static void flushQuietly() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.flush();
+        } catch (IOException ignored) {
+            closeQuietly();
+        }
+    }
+
+    //============================================================
+    //　機　能　:　現在のログファイルを閉じる（失敗は無視）
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private static void closeQuietly() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException ignored) {
+            // 閉じられなくても次回開き直す
+        }
+        out = null;
+    }
+
+    //============================================================
+    //　機　能　:　書き込みスレッドの処理完了を待機する
+    //　引　数　:　done ..... 完了通知
+    //　　　　　:　timeoutMillis ..... 最大待機時間（ミリ秒）
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    private static void await(CountDownLatch done, long timeoutMillis) {
+        try {
+            done.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
         }
     }
 }
@@ -1,5 +1,6 @@
 package com.example.myapplication.model;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -43,16 +44,16 @@ public class BunningData {
     //============================================================
     //　項　目　:　containerPhoto
     //　内　容　:　コンテナ写真データ（任意）
-    //　備　考　:　バイト配列で保持
+    //　備　考　:　送信用JPEGファイルで保持（送信時にBase64化して書き込む）
     //============================================================
-    public byte[] containerPhoto; // optional
+    public File containerPhoto; // optional
 
     //============================================================
     //　項　目　:　sealPhoto
     //　内　容　:　シール写真データ（任意）
-    //　備　考　:　バイト配列で保持
+    //　備　考　:　送信用JPEGファイルで保持（送信時にBase64化して書き込む）
     //============================================================
-    public byte[] sealPhoto;      // optional
+    public File sealPhoto;        // optional
 
     //============================================================
     //　項　目　:　bundles
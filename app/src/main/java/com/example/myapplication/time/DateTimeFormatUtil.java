@@ -12,6 +12,7 @@ import java.util.Locale;
 
 public final class DateTimeFormatUtil {
     private static final String DB_YMD_HMS_PATTERN = "yyyy-MM-dd HH:mm:ss";   // DB保存/更新日時
+    private static final String DB_YMD_HMS_MILLIS_PATTERN = "yyyy-MM-dd HH:mm:ss.SSS"; // 通信履歴（ミリ秒）
     private static final String COMPACT_YMD_HMS_PATTERN = "yyyyMMddHHmmss";    // 並び順/採番用
 
     //============================================================
@@ -41,6 +42,16 @@ public final class DateTimeFormatUtil {
         return new SimpleDateFormat(DB_YMD_HMS_PATTERN, Locale.JAPAN).format(value);
     }
 
+    //============================================================
+    //　機　能　:　DateをDB保存用文字列（ミリ秒まで）へ整形する
+    //　　　　　　 秒までの文字列と前方一致するため、秒単位の日時とも大小比較できる
+    //　引　数　:　value ..... 設定値
+    //　戻り値　:　[String] ..... yyyy-MM-dd HH:mm:ss.SSS
+    //============================================================
+    public static String formatDbYmdHmsMillis(Date value) {
+        return new SimpleDateFormat(DB_YMD_HMS_MILLIS_PATTERN, Locale.JAPAN).format(value);
+    }
+
     //============================================================
     //　機　能　:　現在日時を並び順キー文字列で返す
     //　引　数　:　なし
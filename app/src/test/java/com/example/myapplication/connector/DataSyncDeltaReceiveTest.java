@@ -0,0 +1,112 @@
+package com.example.myapplication.connector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.myapplication.db.entity.SystemEntity;
+import com.example.myapplication.time.DateTimeFormatUtil;
+import com.example.myapplication.time.XsdDateTime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+
+//================================================================================
+//　処理概要　:　出荷データ差分受信（DataSync）の受信要否判定を代替サーバの応答で検証する
+//　　　　　　　 差分反映のSQLは実DBで検証する（androidTest: SyukkaStageDaoTest）
+//================================================================================
+class DataSyncDeltaReceiveTest {
+
+    private StubAsmxServer server;
+    private SvcHandyRepository repository;
+    private Date sagyouYmd;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = StubAsmxServer.start();
+        repository = new SvcHandyRepository(server.getEndpointUrl());
+        sagyouYmd = XsdDateTime.parse("2026-10-19T00:00:00");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.close();
+    }
+
+    @Test
+    void sameServerUpdateSkipsReceive() throws Exception {
+        server.respond("GetUpdateYmdHms", "2026-10-19T06:00:00");
+        Date serverUpd = repository.getUpdateYmdHms(sagyouYmd);
+
+        // 前回受信時の記録と一致すれば受信しない
+        SystemEntity system = recvMark(sagyouYmd, serverUpd);
+        assertTrue(DataSync.isSameRecvMark(system, sagyouYmd, repository.getUpdateYmdHms(sagyouYmd)));
+
+        // サーバ側で更新されれば受信する
+        server.respond("GetUpdateYmdHms", "2026-10-19T06:05:00");
+        assertFalse(DataSync.isSameRecvMark(system, sagyouYmd, repository.getUpdateYmdHms(sagyouYmd)));
+
+        // 作業日が変われば受信する
+        assertFalse(DataSync.isSameRecvMark(system, XsdDateTime.parse("2026-10-20T00:00:00"), serverUpd));
+    }
+
+    @Test
+    void missingMarkOrServerUpdateReceives() throws Exception {
+        server.respond("GetUpdateYmdHms", "2026-10-19T06:00:00");
+        Date serverUpd = repository.getUpdateYmdHms(sagyouYmd);
+
+        assertFalse(DataSync.isSameRecvMark(null, sagyouYmd, serverUpd));
+        assertFalse(DataSync.isSameRecvMark(new SystemEntity(), sagyouYmd, serverUpd));
+        assertFalse(DataSync.isSameRecvMark(recvMark(sagyouYmd, serverUpd), sagyouYmd, null));
+    }
+
+    @Test
+    void receiveModeFollowsServerUpdate() throws Exception {
+        server.respond("GetUpdateYmdHms", "2026-10-19T06:00:00");
+        Date serverUpd = repository.getUpdateYmdHms(sagyouYmd);
+        SystemEntity received = recvMark(sagyouYmd, serverUpd);
+
+        // 前回受信時から更新なし：予定が残っていれば受信しない（データクリア後は受信し直す）
+        assertEquals(DataSync.SyukkaReceiveMode.SKIP, DataSync.decideSyukkaReceive(
+                received, true, sagyouYmd, repository.getUpdateYmdHms(sagyouYmd)));
+        assertEquals(DataSync.SyukkaReceiveMode.RECEIVE, DataSync.decideSyukkaReceive(
+                received, false, sagyouYmd, repository.getUpdateYmdHms(sagyouYmd)));
+
+        // サーバ側で更新され、同じ更新日時で先行受信済みであれば通信せずに反映する
+        server.respond("GetUpdateYmdHms", "2026-10-19T06:05:00");
+        Date updated = repository.getUpdateYmdHms(sagyouYmd);
+        assertEquals(DataSync.SyukkaReceiveMode.RECEIVE,
+                DataSync.decideSyukkaReceive(received, true, sagyouYmd, updated));
+        SystemEntity staged = recvMark(sagyouYmd, serverUpd);
+        staged.stageSagyouYmd = DateTimeFormatUtil.formatDbYmdHms(sagyouYmd);
+        staged.stageLastUpdYmdhms = DateTimeFormatUtil.formatDbYmdHms(updated);
+        assertEquals(DataSync.SyukkaReceiveMode.APPLY_STAGED,
+                DataSync.decideSyukkaReceive(staged, true, sagyouYmd, updated));
+
+        // 先行受信後にさらに更新されていれば受信する
+        server.respond("GetUpdateYmdHms", "2026-10-19T06:10:00");
+        assertEquals(DataSync.SyukkaReceiveMode.RECEIVE, DataSync.decideSyukkaReceive(
+                staged, true, sagyouYmd, repository.getUpdateYmdHms(sagyouYmd)));
+
+        // 更新日時が取得できない場合は受信する
+        assertEquals(DataSync.SyukkaReceiveMode.RECEIVE,
+                DataSync.decideSyukkaReceive(staged, true, sagyouYmd, null));
+    }
+
+    //============================================================
+    //　機　能　:　前回受信時の記録を持つシステム情報を生成する
+    //　引　数　:　recvSagyouYmd ..... 受信した作業日
+    //　　　　　:　recvLastUpd ..... 受信時のサーバ更新日時
+    //　戻り値　:　[SystemEntity] ..... システム情報
+    //============================================================
+    private static SystemEntity recvMark(Date recvSagyouYmd, Date recvLastUpd) {
+        SystemEntity system = new SystemEntity();
+        system.recvSagyouYmd = DateTimeFormatUtil.formatDbYmdHms(recvSagyouYmd);
+        system.recvLastUpdYmdhms = DateTimeFormatUtil.formatDbYmdHms(recvLastUpd);
+        return system;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.myapplication.connector;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import android.content.Context;
+import android.content.ContextWrapper;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+//================================================================================
+//　処理概要　:　保守データのアップロード（MaintenanceUploader）を代替サーバで検証する
+//================================================================================
+class MaintenanceUploaderTest {
+
+    private static final Pattern FILE_NAME = Pattern.compile("<fileName>(.*?)</fileName>");
+    private static final Pattern BUFFER = Pattern.compile("<buffer>(.*?)</buffer>");
+
+    @TempDir
+    File tempDir;
+
+    private StubAsmxServer server;
+    private SvcHandyWrapper svc;
+    private MaintenanceUploader uploader;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = StubAsmxServer.start();
+        svc = new SvcHandyWrapper(new SvcHandyRepository(server.getEndpointUrl()));
+        uploader = new MaintenanceUploader(new TestContext(new File(tempDir, "files")), svc);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        svc.close();
+        server.close();
+    }
+
+    @Test
+    void smallFileIsSentAsSingleFileAndDeleted() throws Exception {
+        server.respond("UploadBinaryFile", null);
+        byte[] data = randomBytes(1000);
+        File log = writeFile("ErrorLog_20261018_120000.txt.gz", data);
+
+        assertTrue(uploader.uploadFile(log));
+
+        // 送信名のまま1回で送る
+        List<String> requests = server.requests("UploadBinaryFile");
+        assertEquals(1, requests.size());
+        assertEquals("ErrorLog_20261018_120000.txt.gz", find(FILE_NAME, requests.get(0)));
+        assertArrayEquals(data, decodeBuffer(requests.get(0)));
+
+        // 送信済みのログは削除する
+        assertFalse(log.exists());
+    }
+
+    @Test
+    void largeFileIsSentInOneCall() throws Exception {
+        server.respond("UploadBinaryFile", "true");
+        byte[] data = randomBytes(2 * 1024 * 1024 + 100);
+        File log = writeFile("ErrorLog_20261018_130000.txt.gz", data);
+
+        assertTrue(uploader.uploadFile(log));
+
+        // サーバ側で結合できないため、大きなファイルも分割せず送信名のまま1回で送る
+        List<String> requests = server.requests("UploadBinaryFile");
+        assertEquals(1, requests.size());
+        assertEquals("ErrorLog_20261018_130000.txt.gz", find(FILE_NAME, requests.get(0)));
+        assertArrayEquals(data, decodeBuffer(requests.get(0)));
+        assertFalse(log.exists());
+    }
+
+    @Test
+    void rejectedUploadKeepsFile() throws Exception {
+        server.respond("UploadBinaryFile", "false");
+        File log = writeFile("ErrorLog_20261018_140000.txt.gz", randomBytes(1000));
+
+        // サーバが受け付けなかった場合は次回再送できるよう残す
+        assertFalse(uploader.uploadFile(log));
+        assertTrue(log.exists());
+    }
+
+    //============================================================
+    //　機　能　:　テスト用のファイルを作成する
+    //　引　数　:　name ..... ファイル名
+    //　　　　　:　data ..... 内容
+    //　戻り値　:　[File] ..... 作成したファイル
+    //============================================================
+    private File writeFile(String name, byte[] data) throws IOException {
+        File file = new File(tempDir, name);
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(data);
+        }
+        return file;
+    }
+
+    //============================================================
+    //　機　能　:　乱数の内容を生成する（圧縮済みファイルの代わり）
+    //============================================================
+    private static byte[] randomBytes(int size) {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return data;
+    }
+
+    //============================================================
+    //　機　能　:　要求本文のbufferタグをデコードする
+    //============================================================
+    private static byte[] decodeBuffer(String request) {
+        return Base64.getDecoder().decode(find(BUFFER, request));
+    }
+
+    //============================================================
+    //　機　能　:　要求本文から最初に一致したタグの内容を取得する
+    //============================================================
+    private static String find(Pattern pattern, String request) {
+        Matcher m = pattern.matcher(request);
+        assertTrue(m.find(), pattern.pattern());
+        return m.group(1);
+    }
+
+    //============================================================
+    //　処理概要　:　ファイル保存先のみを差し替えたテスト用コンテキスト
+    //============================================================
+    private static final class TestContext extends ContextWrapper {
+        private final File filesDir;
+
+        TestContext(File filesDir) {
+            super(null);
+            this.filesDir = filesDir;
+        }
+
+        @Override
+        public Context getApplicationContext() {
+            return this;
+        }
+
+        @Override
+        public File getFilesDir() {
+            return filesDir;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.myapplication.connector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+
+//================================================================================
+//　処理概要　:　リトライ方針（RetryPolicy）の期限・ブレーカー記録を検証する
+//================================================================================
+class RetryPolicyTest {
+
+    private MockWebServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    void attemptIsCutAtRemainingDeadline() {
+        // 区分のタイムアウト（BULKは受信120秒）より先に、呼び出し全体の期限で打ち切る
+        server.enqueue(new MockResponse().setBody("late").setHeadersDelay(2, TimeUnit.SECONDS));
+        SoapAsmxClient client = SoapAsmxClient.forEndpoint(server.url("/WebSvc/svcHandy.asmx").toString());
+        RetryPolicy policy = new RetryPolicy(3, 500L, 500L, 600L);
+
+        long start = System.currentTimeMillis();
+        assertThrows(InterruptedIOException.class,
+                () -> policy.execute(null, () -> client.call(SoapActions.GET_SYUKKA_DATA, "<soap:Envelope/>")));
+        assertTrue(System.currentTimeMillis() - start < 1500L);
+
+        // 期限外の呼び出しには上限を設けない
+        assertEquals(0L, RetryPolicy.remainingMillis());
+    }
+
+    @Test
+    void localFailureDoesNotResetBreaker() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker();
+        RetryPolicy policy = new RetryPolicy(1, 0L, 0L, 1000L);
+        breaker.recordFailure();
+        breaker.recordFailure();
+
+        // 端末側の例外は応答とみなさない（連続失敗回数を消さない）
+        assertThrows(IllegalStateException.class, () -> policy.execute(breaker, () -> {
+            throw new IllegalStateException("parse");
+        }));
+        assertThrows(IOException.class, () -> policy.execute(breaker, () -> {
+            throw new IOException("reset");
+        }));
+        assertThrows(CircuitBreaker.OpenException.class, breaker::checkAllowed);
+    }
+
+    @Test
+    void serverErrorResponseCountsAsAnswered() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker();
+        RetryPolicy policy = new RetryPolicy(1, 0L, 0L, 1000L);
+        breaker.recordFailure();
+        breaker.recordFailure();
+
+        // HTTPエラー応答（4xx）は接続先が応答しているため連続失敗回数を消す
+        assertThrows(SoapHttpException.class, () -> policy.execute(breaker, () -> {
+            throw new SoapHttpException(404, "Not Found", "");
+        }));
+        assertThrows(IOException.class, () -> policy.execute(breaker, () -> {
+            throw new IOException("reset");
+        }));
+        breaker.checkAllowed();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.myapplication.connector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+
+//================================================================================
+//　処理概要　:　送信圧縮の可否判定（SoapAsmxClient）をサーバ応答ごとに検証する
+//================================================================================
+class SoapAsmxClientGzipProbeTest {
+
+    private static final String ENVELOPE = "<soap:Envelope/>";
+
+    private MockWebServer server;
+    private SoapAsmxClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new MockWebServer();
+        server.start();
+        client = SoapAsmxClient.forEndpoint(server.url("/WebSvc/svcHandy.asmx").toString());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    void rejectedGzipFallsBackToPlainAndIsRemembered() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(415));
+        server.enqueue(new MockResponse().setBody("ok1"));
+        server.enqueue(new MockResponse().setBody("ok2"));
+
+        // 圧縮を受け付けない応答のみ非圧縮で再送する
+        assertEquals("ok1", client.call(SoapActions.GET_SYS_DATE, ENVELOPE));
+        assertEquals("gzip", server.takeRequest().getHeader("Content-Encoding"));
+        assertNull(server.takeRequest().getHeader("Content-Encoding"));
+
+        // 以降は非圧縮で送る
+        assertEquals("ok2", client.call(SoapActions.GET_SYS_DATE, ENVELOPE));
+        assertNull(server.takeRequest().getHeader("Content-Encoding"));
+    }
+
+    @Test
+    void decodeFaultFallsBackToPlain() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(500)
+                .setBody("<faultstring>Data at the root level is invalid. Line 1, position 1.</faultstring>"));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        assertEquals("ok", client.call(SoapActions.GET_SYS_DATE, ENVELOPE));
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    void serverErrorDoesNotSettleGzip() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        // 圧縮と無関係の失敗は再送せず、そのまま呼び出し元へ返す
+        SoapHttpException ex = assertThrows(SoapHttpException.class,
+                () -> client.call(SoapActions.GET_SYS_DATE, ENVELOPE));
+        assertEquals(503, ex.getStatusCode());
+        assertEquals(1, server.getRequestCount());
+
+        // 可否は未判定のまま（次の呼び出しも圧縮送信を試す）
+        assertEquals("ok", client.call(SoapActions.GET_SYS_DATE, ENVELOPE));
+        server.takeRequest();
+        assertEquals("gzip", server.takeRequest().getHeader("Content-Encoding"));
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.myapplication.connector;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.GzipSource;
+import okio.Okio;
+
+
+//================================================================================
+//　処理概要　:　単体テスト用のSvcHandy（ASMX）代替サーバ
+//　　　　　　　 SOAPActionごとに登録した結果を返し、受信した要求本文を記録する
+//　関　　数　:　start          ..... 起動
+//　　　　　　:　getEndpointUrl ..... 接続先URL取得
+//　　　　　　:　respond        ..... 結果（Resultタグ内）の登録
+//　　　　　　:　requests       ..... 受信した要求本文の取得
+//　　　　　　:　close          ..... 停止
+//================================================================================
+final class StubAsmxServer implements Closeable {
+
+    private static final String SOAP_NS = "http://tempuri.org/";
+
+    private final MockWebServer server = new MockWebServer();
+    private final Map<String, String> results = new ConcurrentHashMap<>();   // メソッド名 → Resultタグ内XML
+    private final Map<String, List<String>> received = new ConcurrentHashMap<>(); // メソッド名 → 要求本文
+
+    //============================================================
+    //　機　能　:　代替サーバを起動する
+    //　引　数　:　なし
+    //　戻り値　:　[StubAsmxServer] ..... 起動済みのサーバ
+    //============================================================
+    static StubAsmxServer start() throws IOException {
+        StubAsmxServer stub = new StubAsmxServer();
+        stub.server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return stub.dispatch(request);
+            }
+        });
+        stub.server.start();
+        return stub;
+    }
+
+    //============================================================
+    //　機　能　:　接続先URLを取得する
+    //　引　数　:　なし
+    //　戻り値　:　[String] ..... 接続先URL
+    //============================================================
+    String getEndpointUrl() {
+        return server.url("/WebSvc/svcHandy.asmx").toString();
+    }
+
+    //============================================================
+    //　機　能　:　メソッドの結果を登録する（以降の呼び出しはこの結果を返す）
+    //　引　数　:　method ..... メソッド名（例：GetSyukkaData）
+    //　　　　　:　resultXml ..... Resultタグ内のXML（nullはResultタグ無し＝void）
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    void respond(String method, String resultXml) {
+        results.put(method, resultXml == null ? "" : "<" + method + "Result>" + resultXml + "</" + method + "Result>");
+    }
+
+    //============================================================
+    //　機　能　:　受信した要求本文を取得する（gzip送信は展開済み）
+    //　引　数　:　method ..... メソッド名
+    //　戻り値　:　[List<String>] ..... 受信順の要求本文
+    //============================================================
+    List<String> requests(String method) {
+        List<String> list = received.get(method);
+        return list == null ? new ArrayList<>() : new ArrayList<>(list);
+    }
+
+    //============================================================
+    //　機　能　:　要求を記録し、登録済みの結果をSOAPエンベロープで返す
+    //　引　数　:　request ..... 受信した要求
+    //　戻り値　:　[MockResponse] ..... 応答（未登録のメソッドは500）
+    //============================================================
+    private MockResponse dispatch(RecordedRequest request) {
+        String action = request.getHeader("SOAPAction");
+        String method = action == null ? "" : action.replace("\"", "").replace(SOAP_NS, "");
+        received.computeIfAbsent(method, k -> new CopyOnWriteArrayList<>()).add(readBody(request));
+
+        String result = results.get(method);
+        if (result == null) {
+            return new MockResponse().setResponseCode(500);
+        }
+        String envelope = "<?xml version=\"1.0\" encoding=\"utf-8\"?>"
+                + "<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\">"
+                + "<soap:Body>"
+                + "<" + method + "Response xmlns=\"" + SOAP_NS + "\">" + result + "</" + method + "Response>"
+                + "</soap:Body>"
+                + "</soap:Envelope>";
+        return new MockResponse()
+                .setHeader("Content-Type", "text/xml; charset=utf-8")
+                .setBody(envelope);
+    }
+
+    //============================================================
+    //　機　能　:　要求本文を文字列で読み取る（Content-Encoding: gzipは展開）
+    //　引　数　:　request ..... 受信した要求
+    //　戻り値　:　[String] ..... 要求本文
+    //============================================================
+    private static String readBody(RecordedRequest request) {
+        Buffer body = request.getBody();
+        if (!"gzip".equalsIgnoreCase(request.getHeader("Content-Encoding"))) {
+            return body.readUtf8();
+        }
+        try {
+            return Okio.buffer(new GzipSource(body)).readUtf8();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    //============================================================
+    //　機　能　:　代替サーバを停止する
+    //　引　数　:　なし
+    //　戻り値　:　[void] ..... なし
+    //============================================================
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+}